@@ -0,0 +1,587 @@
+package com.payment.archive;
+
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.StatusTotals;
+import com.payment.util.Amounts;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One immutable, compressed, columnar file of archived payments.
+ *
+ * Layout: a small uncompressed header (row count, id and createdAt min/max,
+ * per-status row counts, currency dictionary, column offsets) followed by one
+ * deflate-compressed block per column. Ids and timestamps are delta/varint
+ * encoded, amounts are zigzag varints of minor units, status and currency are
+ * dictionary encoded, as is the payment method. Version 1 segments predate
+ * currencies and read as INR; versions 1 and 2 predate the method column and
+ * read with no method. Opening a segment reads only the header; columns are
+ * decoded on first use and kept behind a soft reference.
+ */
+public final class ArchiveSegment {
+
+    static final String FILE_SUFFIX = ".pseg";
+
+    private static final int MAGIC = 0x50534547; // "PSEG"
+    private static final int FORMAT_VERSION = 3;
+    private static final int COL_ID = 0, COL_CREATED = 1, COL_UPDATED = 2, COL_AMOUNT = 3,
+            COL_STATUS = 4, COL_NAME = 5, COL_EMAIL = 6, COL_CONTACT = 7, COL_CURRENCY = 8, COL_METHOD = 9;
+    /** Dictionary entry for payments stored without a method */
+    private static final String NO_METHOD = "";
+
+    private final Path file;
+    private final int rowCount;
+    private final long minId;
+    private final long maxId;
+    private final long minCreatedMicros;
+    private final long maxCreatedMicros;
+    private final Map<String, Integer> statusCounts;
+    private final String[] currencies;
+    private final String[] methods;
+    private final long dataStart;
+    private final long[] columnOffsets;
+    private final int[] columnLengths;
+
+    private volatile SoftReference<Columns> decoded = new SoftReference<>(null);
+
+    /** Computed on first use; the segment never changes */
+    private volatile List<StatusTotals> statusTotals;
+
+    private ArchiveSegment(Path file, int rowCount, long minId, long maxId, long minCreatedMicros, long maxCreatedMicros,
+                           Map<String, Integer> statusCounts, String[] currencies, String[] methods,
+                           long dataStart, long[] columnOffsets, int[] columnLengths) {
+        this.file = file;
+        this.rowCount = rowCount;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.minCreatedMicros = minCreatedMicros;
+        this.maxCreatedMicros = maxCreatedMicros;
+        this.statusCounts = statusCounts;
+        this.currencies = currencies;
+        this.methods = methods;
+        this.dataStart = dataStart;
+        this.columnOffsets = columnOffsets;
+        this.columnLengths = columnLengths;
+    }
+
+    // ---------------------------------------------------------------- writing
+
+    /**
+     * Write payments (sorted by id) to a new segment file in the directory.
+     * The file is written under a temporary name, forced to disk and then
+     * atomically renamed, so a crash never leaves a partial segment behind.
+     */
+    public static ArchiveSegment write(Path directory, List<Payment> payments) throws IOException {
+        if (payments.isEmpty()) {
+            throw new IllegalArgumentException("Cannot write an empty segment");
+        }
+        int rows = payments.size();
+        long minId = payments.get(0).getId();
+        long maxId = payments.get(rows - 1).getId();
+
+        Map<String, Integer> statusCounts = new LinkedHashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        List<String> currencyDictionary = new ArrayList<>();
+        List<String> methodDictionary = new ArrayList<>();
+        long minCreated = Long.MAX_VALUE;
+        long maxCreated = Long.MIN_VALUE;
+
+        ColumnWriter ids = new ColumnWriter(), created = new ColumnWriter(), updated = new ColumnWriter(),
+                amounts = new ColumnWriter(), statuses = new ColumnWriter(), names = new ColumnWriter(),
+                emails = new ColumnWriter(), contacts = new ColumnWriter(), currencyCodes = new ColumnWriter(),
+                methodCodes = new ColumnWriter();
+
+        long previousId = 0, previousCreated = 0, previousUpdated = 0;
+        for (Payment payment : payments) {
+            long id = payment.getId();
+            if (id < previousId) {
+                throw new IllegalArgumentException("Payments must be sorted by id");
+            }
+            long createdMicros = toMicros(payment.getCreatedAt());
+            long updatedMicros = payment.getUpdatedAt() == null ? createdMicros : toMicros(payment.getUpdatedAt());
+            minCreated = Math.min(minCreated, createdMicros);
+            maxCreated = Math.max(maxCreated, createdMicros);
+
+            ids.writeVarLong(id - previousId);
+            created.writeVarLong(zigZag(createdMicros - previousCreated));
+            updated.writeVarLong(zigZag(updatedMicros - previousUpdated));
+            amounts.writeVarLong(zigZag(payment.getAmountMinor()));
+
+            String status = payment.getStatus().label();
+            int code = dictionary.indexOf(status);
+            if (code < 0) {
+                code = dictionary.size();
+                dictionary.add(status);
+            }
+            statuses.out.writeByte(code);
+            statusCounts.merge(status, 1, Integer::sum);
+
+            int currency = currencyDictionary.indexOf(payment.getCurrency());
+            if (currency < 0) {
+                currency = currencyDictionary.size();
+                currencyDictionary.add(payment.getCurrency());
+            }
+            currencyCodes.out.writeByte(currency);
+
+            String methodName = payment.getPaymentMethod() == null ? NO_METHOD : payment.getPaymentMethod();
+            int method = methodDictionary.indexOf(methodName);
+            if (method < 0) {
+                method = methodDictionary.size();
+                methodDictionary.add(methodName);
+            }
+            methodCodes.out.writeByte(method);
+
+            names.out.writeUTF(payment.getName());
+            emails.out.writeUTF(payment.getEmail());
+            contacts.out.writeUTF(payment.getContact());
+
+            previousId = id;
+            previousCreated = createdMicros;
+            previousUpdated = updatedMicros;
+        }
+
+        byte[][] columns = {ids.finish(), created.finish(), updated.finish(), amounts.finish(),
+                statuses.finish(), names.finish(), emails.finish(), contacts.finish(), currencyCodes.finish(),
+                methodCodes.finish()};
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(FORMAT_VERSION);
+        header.writeInt(rows);
+        header.writeLong(minId);
+        header.writeLong(maxId);
+        header.writeLong(minCreated);
+        header.writeLong(maxCreated);
+        header.writeInt(dictionary.size());
+        for (String status : dictionary) {
+            header.writeUTF(status);
+            header.writeInt(statusCounts.get(status));
+        }
+        header.writeInt(currencyDictionary.size());
+        for (String currency : currencyDictionary) {
+            header.writeUTF(currency);
+        }
+        header.writeInt(methodDictionary.size());
+        for (String method : methodDictionary) {
+            header.writeUTF(method);
+        }
+        long offset = 0;
+        for (byte[] column : columns) {
+            header.writeLong(offset);
+            header.writeInt(column.length);
+            offset += column.length;
+        }
+        header.flush();
+
+        Files.createDirectories(directory);
+        String name = String.format("segment-%019d-%019d", minId, maxId);
+        Path temp = directory.resolve(name + ".tmp");
+        Path target = directory.resolve(name + FILE_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer prefix = ByteBuffer.allocate(8).putInt(MAGIC).putInt(headerBytes.size()).flip();
+            writeFully(channel, prefix);
+            writeFully(channel, ByteBuffer.wrap(headerBytes.toByteArray()));
+            for (byte[] column : columns) {
+                writeFully(channel, ByteBuffer.wrap(column));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return open(target);
+    }
+
+    // ---------------------------------------------------------------- reading
+
+    /**
+     * Open a segment, reading only its header
+     */
+    public static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer prefix = readFully(channel, 0, 8);
+            if (prefix.getInt() != MAGIC) {
+                throw new IOException("Not a payment archive segment: " + file);
+            }
+            int headerLength = prefix.getInt();
+            DataInputStream header = new DataInputStream(
+                    new ByteArrayInputStream(readFully(channel, 8, headerLength).array()));
+
+            int version = header.readInt();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported segment version " + version + ": " + file);
+            }
+            int rows = header.readInt();
+            long minId = header.readLong();
+            long maxId = header.readLong();
+            long minCreated = header.readLong();
+            long maxCreated = header.readLong();
+            int statuses = header.readInt();
+            Map<String, Integer> statusCounts = new LinkedHashMap<>();
+            for (int i = 0; i < statuses; i++) {
+                statusCounts.put(header.readUTF(), header.readInt());
+            }
+            String[] currencies = {Amounts.DEFAULT_CURRENCY};
+            if (version >= 2) {
+                currencies = new String[header.readInt()];
+                for (int i = 0; i < currencies.length; i++) {
+                    currencies[i] = header.readUTF();
+                }
+            }
+            String[] methods = {NO_METHOD};
+            if (version >= 3) {
+                methods = new String[header.readInt()];
+                for (int i = 0; i < methods.length; i++) {
+                    methods[i] = header.readUTF();
+                }
+            }
+            int columnCount = version == 1 ? COL_CURRENCY : version == 2 ? COL_METHOD : COL_METHOD + 1;
+            long[] offsets = new long[columnCount];
+            int[] lengths = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                offsets[i] = header.readLong();
+                lengths[i] = header.readInt();
+            }
+            return new ArchiveSegment(file, rows, minId, maxId, minCreated, maxCreated,
+                    statusCounts, currencies, methods, 8L + headerLength, offsets, lengths);
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public long minId() {
+        return minId;
+    }
+
+    public long maxId() {
+        return maxId;
+    }
+
+    public LocalDateTime minCreatedAt() {
+        return fromMicros(minCreatedMicros);
+    }
+
+    public LocalDateTime maxCreatedAt() {
+        return fromMicros(maxCreatedMicros);
+    }
+
+    /**
+     * Number and amount of rows per status
+     */
+    public List<StatusTotals> statusTotals() throws IOException {
+        List<StatusTotals> totals = statusTotals;
+        if (totals == null) {
+            Columns columns = columns();
+            Map<String, long[]> byLabel = new LinkedHashMap<>();
+            for (int row = 0; row < rowCount; row++) {
+                long[] sums = byLabel.computeIfAbsent(columns.statuses[row], label -> new long[2]);
+                sums[0]++;
+                sums[1] += columns.amounts[row];
+            }
+            List<StatusTotals> computed = new ArrayList<>();
+            byLabel.forEach((label, sums) ->
+                    computed.add(new StatusTotals(PaymentStatus.fromLabel(label), sums[0], sums[1])));
+            statusTotals = totals = List.copyOf(computed);
+        }
+        return totals;
+    }
+
+    public long sizeOnDisk() {
+        return dataStart + Arrays.stream(columnLengths).asLongStream().sum();
+    }
+
+    /**
+     * Status index: true if any row in this segment has the status
+     */
+    public boolean mayContainStatus(PaymentStatus status) {
+        return statusCounts.getOrDefault(status.label(), 0) > 0;
+    }
+
+    /**
+     * Date index: true if the segment's createdAt range overlaps [from, to]
+     */
+    public boolean overlapsCreated(LocalDateTime from, LocalDateTime to) {
+        return toMicros(from) <= maxCreatedMicros && toMicros(to) >= minCreatedMicros;
+    }
+
+    public Optional<Payment> findById(long id) throws IOException {
+        if (id < minId || id > maxId) {
+            return Optional.empty();
+        }
+        Columns columns = columns();
+        int row = Arrays.binarySearch(columns.ids, id);
+        return row < 0 ? Optional.empty() : Optional.of(columns.toPayment(row));
+    }
+
+    public List<Payment> findByStatus(PaymentStatus status) throws IOException {
+        if (!mayContainStatus(status)) {
+            return List.of();
+        }
+        Columns columns = columns();
+        return columns.filter(row -> status.label().equals(columns.statuses[row]));
+    }
+
+    public List<Payment> findByCreatedAtBetween(LocalDateTime from, LocalDateTime to) throws IOException {
+        if (!overlapsCreated(from, to)) {
+            return List.of();
+        }
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        Columns columns = columns();
+        return columns.filter(row -> columns.created[row] >= fromMicros && columns.created[row] <= toMicros);
+    }
+
+    /**
+     * Visit the rows created in [from, to] with ids in (afterId, upToId], in
+     * id order, until the action returns false
+     *
+     * @return false if the action stopped the visit
+     */
+    public boolean forEachCreatedBetween(LocalDateTime from, LocalDateTime to, long afterId, long upToId,
+                                         Predicate<Payment> action) throws IOException {
+        if (!overlapsCreated(from, to) || afterId >= maxId || upToId < minId) {
+            return true;
+        }
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        Columns columns = columns();
+        int row = Arrays.binarySearch(columns.ids, afterId + 1);
+        for (row = row < 0 ? -row - 1 : row; row < rowCount && columns.ids[row] <= upToId; row++) {
+            if (columns.created[row] >= fromMicros && columns.created[row] <= toMicros
+                    && !action.test(columns.toPayment(row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visit every row in id order
+     */
+    public void forEach(Consumer<Payment> action) throws IOException {
+        Columns columns = columns();
+        for (int row = 0; row < rowCount; row++) {
+            action.accept(columns.toPayment(row));
+        }
+    }
+
+    private Columns columns() throws IOException {
+        Columns columns = decoded.get();
+        if (columns == null) {
+            columns = decode();
+            decoded = new SoftReference<>(columns);
+        }
+        return columns;
+    }
+
+    private Columns decode() throws IOException {
+        Columns columns = new Columns(rowCount);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream in = column(channel, COL_ID);
+            long id = 0;
+            for (int i = 0; i < rowCount; i++) {
+                id += readVarLong(in);
+                columns.ids[i] = id;
+            }
+            columns.created = readDeltaColumn(column(channel, COL_CREATED));
+            columns.updated = readDeltaColumn(column(channel, COL_UPDATED));
+
+            in = column(channel, COL_AMOUNT);
+            for (int i = 0; i < rowCount; i++) {
+                columns.amounts[i] = unZigZag(readVarLong(in));
+            }
+
+            String[] dictionary = statusCounts.keySet().toArray(new String[0]);
+            in = column(channel, COL_STATUS);
+            for (int i = 0; i < rowCount; i++) {
+                columns.statuses[i] = dictionary[in.readUnsignedByte()];
+            }
+
+            columns.names = readStringColumn(column(channel, COL_NAME));
+            columns.emails = readStringColumn(column(channel, COL_EMAIL));
+            columns.contacts = readStringColumn(column(channel, COL_CONTACT));
+
+            if (columnOffsets.length > COL_CURRENCY) {
+                in = column(channel, COL_CURRENCY);
+                for (int i = 0; i < rowCount; i++) {
+                    columns.currencies[i] = currencies[in.readUnsignedByte()];
+                }
+            } else {
+                Arrays.fill(columns.currencies, currencies[0]);
+            }
+
+            if (columnOffsets.length > COL_METHOD) {
+                in = column(channel, COL_METHOD);
+                for (int i = 0; i < rowCount; i++) {
+                    columns.methods[i] = methods[in.readUnsignedByte()];
+                }
+            } else {
+                Arrays.fill(columns.methods, methods[0]);
+            }
+        }
+        return columns;
+    }
+
+    private DataInputStream column(FileChannel channel, int index) throws IOException {
+        ByteBuffer compressed = readFully(channel, dataStart + columnOffsets[index], columnLengths[index]);
+        return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed.array())));
+    }
+
+    private long[] readDeltaColumn(DataInputStream in) throws IOException {
+        long[] values = new long[rowCount];
+        long value = 0;
+        for (int i = 0; i < rowCount; i++) {
+            value += unZigZag(readVarLong(in));
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private String[] readStringColumn(DataInputStream in) throws IOException {
+        String[] values = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+    /**
+     * Decoded column arrays of one segment
+     */
+    private static final class Columns {
+        final long[] ids;
+        long[] created;
+        long[] updated;
+        final long[] amounts;
+        final String[] statuses;
+        final String[] currencies;
+        final String[] methods;
+        String[] names;
+        String[] emails;
+        String[] contacts;
+
+        Columns(int rows) {
+            ids = new long[rows];
+            amounts = new long[rows];
+            statuses = new String[rows];
+            currencies = new String[rows];
+            methods = new String[rows];
+        }
+
+        List<Payment> filter(IntPredicate predicate) {
+            List<Payment> matches = new ArrayList<>();
+            for (int row = 0; row < ids.length; row++) {
+                if (predicate.test(row)) {
+                    matches.add(toPayment(row));
+                }
+            }
+            return matches;
+        }
+
+        Payment toPayment(int row) {
+            Payment payment = new Payment(ids[row], names[row], emails[row], contacts[row],
+                    amounts[row], currencies[row], PaymentStatus.fromLabel(statuses[row]),
+                    fromMicros(created[row]), fromMicros(updated[row]));
+            payment.setPaymentMethod(NO_METHOD.equals(methods[row]) ? null : methods[row]);
+            return payment;
+        }
+    }
+
+    // ---------------------------------------------------------------- encoding helpers
+
+    private static final class ColumnWriter {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_COMPRESSION)));
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        byte[] finish() throws IOException {
+            out.close();
+            return bytes.toByteArray();
+        }
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated segment file");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,354 @@
+package com.payment.archive;
+
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.PaymentQuery;
+import com.payment.repository.PaymentSort;
+import com.payment.repository.StatusTotals;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier: the set of archive segments under payment.archive.directory.
+ *
+ * Segments cover disjoint, ascending id ranges, so id lookups binary-search
+ * the segment list; status and date lookups skip every segment whose header
+ * index rules it out. The segment list is an immutable array swapped on add,
+ * so readers never lock.
+ *
+ * With more than one node the directory must be shared storage: one node
+ * archives at a time (PaymentTieringService holds a lease), and every node
+ * picks up segments written elsewhere by rescanning the directory when it
+ * changes, on a lookup miss, and every refresh-interval.
+ */
+@Component
+public class PaymentArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentArchive.class);
+
+    /** A temporary file this old belongs to a writer that died, not one still writing */
+    private static final Duration ABANDONED_TEMP_AGE = Duration.ofHours(1);
+
+    private final Path directory;
+
+    private volatile ArchiveSegment[] segments = new ArchiveSegment[0];
+
+    /** Directory modification time at the last scan */
+    private volatile FileTime scanned;
+
+    public PaymentArchive(@Value("${payment.archive.directory:data/archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Load segment headers found on disk; abandoned temporary files from an interrupted write are removed
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        scan(true);
+        log.info("Loaded {} archive segments ({} payments) from {}", segments.length, archivedCount(), directory);
+    }
+
+    /**
+     * Pick up segments other nodes have written to the shared directory
+     */
+    @Scheduled(fixedDelayString = "${payment.archive.refresh-interval:PT1M}",
+            initialDelayString = "${payment.archive.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            scan(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan " + directory, e);
+        }
+    }
+
+    /**
+     * Rescan only if the directory changed since the last scan; one stat call otherwise
+     */
+    private void refreshIfChanged() {
+        try {
+            if (Files.isDirectory(directory) && !Files.getLastModifiedTime(directory).equals(scanned)) {
+                scan(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan " + directory, e);
+        }
+    }
+
+    private synchronized void scan(boolean removeAbandoned) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        FileTime modified = Files.getLastModifiedTime(directory);
+        Set<Path> known = new HashSet<>();
+        for (ArchiveSegment segment : segments) {
+            known.add(segment.file().getFileName());
+        }
+        List<ArchiveSegment> added = new ArrayList<>();
+        Instant abandonedBefore = Instant.now().minus(ABANDONED_TEMP_AGE);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    if (removeAbandoned && Files.getLastModifiedTime(file).toInstant().isBefore(abandonedBefore)) {
+                        Files.deleteIfExists(file);
+                    }
+                } else if (name.endsWith(ArchiveSegment.FILE_SUFFIX) && !known.contains(file.getFileName())) {
+                    added.add(ArchiveSegment.open(file));
+                }
+            }
+        }
+        if (!added.isEmpty()) {
+            added.addAll(Arrays.asList(segments));
+            added.sort(Comparator.comparingLong(ArchiveSegment::minId));
+            segments = added.toArray(new ArchiveSegment[0]);
+        }
+        scanned = modified;
+    }
+
+    /**
+     * Write payments (sorted by id, all above {@link #maxArchivedId()}) as a new segment
+     */
+    public synchronized ArchiveSegment append(List<Payment> payments) throws IOException {
+        scan(false);
+        if (payments.get(0).getId() <= maxArchivedId()) {
+            throw new IllegalArgumentException("Segments must be appended in id order");
+        }
+        ArchiveSegment segment = ArchiveSegment.write(directory, payments);
+        ArchiveSegment[] updated = Arrays.copyOf(segments, segments.length + 1);
+        updated[updated.length - 1] = segment;
+        segments = updated;
+        return segment;
+    }
+
+    public long maxArchivedId() {
+        ArchiveSegment[] current = segments;
+        return current.length == 0 ? 0 : current[current.length - 1].maxId();
+    }
+
+    /**
+     * Creation time of the newest archived payment, or null if nothing is archived.
+     * Archiving moves everything created before its cutoff, so every payment
+     * created at or before this time is in the archive.
+     */
+    public LocalDateTime maxArchivedCreatedAt() {
+        LocalDateTime max = null;
+        for (ArchiveSegment segment : segments) {
+            LocalDateTime created = segment.maxCreatedAt();
+            if (max == null || created.isAfter(max)) {
+                max = created;
+            }
+        }
+        return max;
+    }
+
+    public long archivedCount() {
+        long count = 0;
+        for (ArchiveSegment segment : segments) {
+            count += segment.rowCount();
+        }
+        return count;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    public Optional<Payment> findById(long id) {
+        Optional<Payment> found = find(id);
+        if (found.isEmpty()) {
+            // Another node may just have moved it here
+            refreshIfChanged();
+            found = find(id);
+        }
+        return found;
+    }
+
+    private Optional<Payment> find(long id) {
+        ArchiveSegment[] current = segments;
+        int low = 0, high = current.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            ArchiveSegment segment = current[mid];
+            if (id < segment.minId()) {
+                high = mid - 1;
+            } else if (id > segment.maxId()) {
+                low = mid + 1;
+            } else {
+                try {
+                    return segment.findById(id);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read " + segment.file(), e);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Visit every archived payment in id order
+     */
+    public void forEach(Consumer<Payment> action) {
+        for (ArchiveSegment segment : segments) {
+            try {
+                segment.forEach(action);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + segment.file(), e);
+            }
+        }
+    }
+
+    /**
+     * Archived rows matching a listing query, in its order, at most its limit.
+     * Segments the status, date, id and keyset bounds rule out are skipped;
+     * when before is given (the last row of a full hot page) rows sorting
+     * after it cannot make the page, and segments holding only those are
+     * skipped as well.
+     */
+    public List<Payment> findPage(PaymentQuery query, Payment before) {
+        Comparator<Payment> order = query.order();
+        // Worst row on top, so the heap keeps the first limit rows
+        PriorityQueue<Payment> best = new PriorityQueue<>(query.limit() + 1, order.reversed());
+        for (ArchiveSegment segment : segments) {
+            if (!mayMatch(segment, query, before)) {
+                continue;
+            }
+            try {
+                segment.forEach(payment -> {
+                    if (query.matches(payment) && (before == null || order.compare(payment, before) <= 0)) {
+                        best.add(payment);
+                        if (best.size() > query.limit()) {
+                            best.poll();
+                        }
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + segment.file(), e);
+            }
+        }
+        List<Payment> page = new ArrayList<>(best);
+        page.sort(order);
+        return page;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean mayMatch(ArchiveSegment segment, PaymentQuery query, Payment before) {
+        if (query.status() != null && !segment.mayContainStatus(query.status())) {
+            return false;
+        }
+        if (query.from() != null && segment.maxCreatedAt().isBefore(query.from())
+                || query.to() != null && segment.minCreatedAt().isAfter(query.to())) {
+            return false;
+        }
+        if (query.idAbove() != null && segment.maxId() <= query.idAbove()) {
+            return false;
+        }
+        if (query.ids() != null && query.ids().stream().noneMatch(id -> id >= segment.minId() && id <= segment.maxId())) {
+            return false;
+        }
+        Comparable low, high;
+        if (query.sort() == PaymentSort.ID) {
+            low = segment.minId();
+            high = segment.maxId();
+        } else if (query.sort() == PaymentSort.CREATED_AT) {
+            low = segment.minCreatedAt();
+            high = segment.maxCreatedAt();
+        } else {
+            return true;
+        }
+        // Keep ties: the id tie-break is checked row by row
+        Comparable after = query.afterId() == null ? null
+                : query.sort() == PaymentSort.ID ? query.afterId() : query.afterValue();
+        Comparable last = before == null ? null : query.sort().valueOf(before);
+        if (query.descending()) {
+            return (after == null || low.compareTo(after) <= 0) && (last == null || high.compareTo(last) >= 0);
+        }
+        return (after == null || high.compareTo(after) >= 0) && (last == null || low.compareTo(last) <= 0);
+    }
+
+    /**
+     * Per-status totals over every archived payment (cached per segment)
+     */
+    public List<StatusTotals> statusTotals() {
+        List<StatusTotals> totals = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            try {
+                totals.addAll(segment.statusTotals());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + segment.file(), e);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Visit archived payments created in [from, to] with ids in (afterId,
+     * upToId], in id order, until the action returns false. Nothing is
+     * collected, so a caller can page through a day by keyset in bounded memory.
+     */
+    public void forEachCreatedBetween(LocalDateTime from, LocalDateTime to, long afterId, long upToId,
+                                      Predicate<Payment> action) {
+        for (ArchiveSegment segment : segments) {
+            try {
+                if (!segment.forEachCreatedBetween(from, to, afterId, upToId, action)) {
+                    return;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + segment.file(), e);
+            }
+        }
+    }
+
+    public List<Payment> findByStatus(PaymentStatus status) {
+        List<Payment> matches = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            if (segment.mayContainStatus(status)) {
+                try {
+                    matches.addAll(segment.findByStatus(status));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read " + segment.file(), e);
+                }
+            }
+        }
+        return matches;
+    }
+
+    public List<Payment> findByCreatedAtBetween(LocalDateTime from, LocalDateTime to) {
+        List<Payment> matches = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            if (segment.overlapsCreated(from, to)) {
+                try {
+                    matches.addAll(segment.findByCreatedAtBetween(from, to));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read " + segment.file(), e);
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,62 @@
+package com.payment.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes the typed response records in com.payment.dto with one pre-built
+ * {@link ObjectWriter} per record type. The writer's root serializer is resolved
+ * once, and output goes straight to the response stream, so large listings are
+ * never buffered into an intermediate String or byte[].
+ */
+public class CachedWriterHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final String RESPONSE_PACKAGE = "com.payment.dto";
+
+    private final ClassValue<ObjectWriter> writers;
+
+    public CachedWriterHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return objectMapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            }
+        };
+    }
+
+    /**
+     * Writer for a response type, created on first use and cached for the life of the class
+     */
+    public ObjectWriter writerFor(Class<?> type) {
+        return writers.get(type);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz.isRecord() && RESPONSE_PACKAGE.equals(clazz.getPackageName());
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Response records are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        writers.get(value.getClass()).writeValue(outputMessage.getBody(), value);
+    }
+}
@@ -0,0 +1,83 @@
+package com.payment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Primary + read replica datasources, enabled once a replica is configured
+ * (payment.datasource.replicas[0].url). Without one the application keeps
+ * Boot's single datasource.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "payment.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties primaryProperties,
+                                                                 ReplicaProperties replicaProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryProperties.getUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryProperties.getPassword());
+            pool.setMaximumPoolSize(replica.getMaxPoolSize());
+            pool.setReadOnly(true);
+            // Don't fail startup on a replica that is down; the health check handles it
+            pool.setInitializationFailTimeout(-1);
+            replicas.put(pool.getPoolName(), pool);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, replicaProperties.getHealthQuery());
+    }
+
+    /**
+     * The datasource JPA uses: connections are fetched lazily so routing sees
+     * the transaction's read-only flag
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(ReadWriteRoutingDataSource routingDataSource) {
+        return new ReplicaHealthMonitor(routingDataSource);
+    }
+
+    /**
+     * Periodic replica probe; a replica that fails is skipped until it passes again
+     */
+    public static class ReplicaHealthMonitor {
+
+        private final ReadWriteRoutingDataSource routingDataSource;
+
+        ReplicaHealthMonitor(ReadWriteRoutingDataSource routingDataSource) {
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${payment.datasource.health-check-interval:PT5S}")
+        public void check() {
+            routingDataSource.checkReplicas();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Confirmation email digests (payment.email.digest.*). Disabled by default:
+ * every payment gets its own confirmation immediately.
+ */
+@ConfigurationProperties(prefix = "payment.email.digest")
+public class EmailDigestProperties {
+
+    private boolean enabled = false;
+
+    /** How long a recipient's confirmations are collected before one summary is sent */
+    private Duration window = Duration.ofMinutes(15);
+
+    /** Per-domain windows (payer organisations), overriding window; zero sends immediately */
+    private Map<String, Duration> domains = new LinkedHashMap<>();
+
+    /** A digest is sent early once it holds this many payments */
+    private int maxPayments = 50;
+
+    /** Upper bound on recipients with an open digest; beyond it confirmations go out immediately */
+    private int maxRecipients = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Map<String, Duration> getDomains() {
+        return domains;
+    }
+
+    public void setDomains(Map<String, Duration> domains) {
+        this.domains = domains;
+    }
+
+    public int getMaxPayments() {
+        return maxPayments;
+    }
+
+    public void setMaxPayments(int maxPayments) {
+        this.maxPayments = maxPayments;
+    }
+
+    public int getMaxRecipients() {
+        return maxRecipients;
+    }
+
+    public void setMaxRecipients(int maxRecipients) {
+        this.maxRecipients = maxRecipients;
+    }
+}
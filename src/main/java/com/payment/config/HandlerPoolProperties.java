@@ -0,0 +1,86 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Executors the asynchronous controller handlers run on
+ * (payment.handlers.checkout.*, payment.handlers.qr-code.*, payment.handlers.listing.*)
+ */
+@ConfigurationProperties(prefix = "payment.handlers")
+public class HandlerPoolProperties {
+
+    private Pool checkout = new Pool(16, 200, Duration.ofSeconds(10));
+    private Pool qrCode = new Pool(4, 100, Duration.ofSeconds(5));
+    private Pool listing = new Pool(8, 200, Duration.ofSeconds(10));
+
+    public Pool getCheckout() {
+        return checkout;
+    }
+
+    public void setCheckout(Pool checkout) {
+        this.checkout = checkout;
+    }
+
+    public Pool getQrCode() {
+        return qrCode;
+    }
+
+    public void setQrCode(Pool qrCode) {
+        this.qrCode = qrCode;
+    }
+
+    public Pool getListing() {
+        return listing;
+    }
+
+    public void setListing(Pool listing) {
+        this.listing = listing;
+    }
+
+    public static class Pool {
+
+        /** Requests handled at once */
+        private int threads;
+
+        /** Requests waiting for a thread; beyond this they are refused with 503 */
+        private int queueCapacity;
+
+        /** From submission to response, queueing included; later requests get 503 */
+        private Duration timeout;
+
+        public Pool() {
+        }
+
+        Pool(int threads, int queueCapacity, Duration timeout) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.timeout = timeout;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.payment.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JSON serialisation setup shared by the servlet and reactive stacks
+ */
+@Configuration
+public class JsonConfig {
+
+    /**
+     * Replaces reflective getter calls with generated lambdas; picked up by
+     * Boot's ObjectMapper auto-configuration like any other Module bean
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * HttpMessageConverter beans are placed ahead of Boot's defaults, so the
+     * response records bypass the generic Jackson converter
+     */
+    @Bean
+    public CachedWriterHttpMessageConverter cachedWriterHttpMessageConverter(ObjectMapper objectMapper) {
+        return new CachedWriterHttpMessageConverter(objectMapper);
+    }
+}
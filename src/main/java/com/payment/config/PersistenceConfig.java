@@ -0,0 +1,18 @@
+package com.payment.config;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+/**
+ * JPA repositories share a package with the reactive ones, so keep JPA
+ * from trying to implement the R2DBC interfaces
+ */
+@Configuration
+@EnableJpaRepositories(
+        basePackages = "com.payment.repository",
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
+public class PersistenceConfig {
+}
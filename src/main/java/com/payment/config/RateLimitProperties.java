@@ -0,0 +1,110 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route token-bucket policies (payment.rate-limit.*)
+ */
+@ConfigurationProperties(prefix = "payment.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Client slots per route; least recently refilled clients are evicted beyond this */
+    private int maxClients = 65536;
+
+    /** Take the client IP from X-Forwarded-For (only behind trusted proxies that append to it) */
+    private boolean trustForwardedFor = false;
+
+    /** Proxies in front of the service; the client IP is this many X-Forwarded-For entries from the right */
+    private int trustedProxies = 1;
+
+    private Map<String, Policy> routes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public boolean isTrustForwardedFor() {
+        return trustForwardedFor;
+    }
+
+    public void setTrustForwardedFor(boolean trustForwardedFor) {
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    public int getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(int trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public Map<String, Policy> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Policy> routes) {
+        this.routes = routes;
+    }
+
+    public static class Policy {
+
+        private String method = "POST";
+        private String path;
+
+        /** Burst size in requests */
+        private int capacity = 10;
+
+        /** Sustained requests per second */
+        private double refillPerSecond = 1.0;
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
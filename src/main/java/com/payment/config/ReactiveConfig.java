@@ -0,0 +1,143 @@
+package com.payment.config;
+
+import com.payment.entity.PaymentStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.TransactionManagementConfigurer;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Infrastructure for the reactive (WebFlux + R2DBC) deployment mode
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(
+        basePackages = "com.payment.repository",
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JpaRepository.class))
+public class ReactiveConfig implements TransactionManagementConfigurer {
+
+    private final ObjectProvider<PlatformTransactionManager> jpaTransactionManager;
+
+    public ReactiveConfig(ObjectProvider<PlatformTransactionManager> jpaTransactionManager) {
+        this.jpaTransactionManager = jpaTransactionManager;
+    }
+
+    /**
+     * JPA and R2DBC each register a transaction manager. Unqualified
+     * {@code @Transactional} methods belong to the JPA services shared with the
+     * servlet stack (listings, totals, delta sync), so they get JPA's.
+     */
+    @Override
+    public TransactionManager annotationDrivenTransactionManager() {
+        return jpaTransactionManager.getObject();
+    }
+
+    /**
+     * Boot backs off the JDBC datasource once an R2DBC ConnectionFactory exists.
+     * JPA still owns schema creation and the non-request-path services, so
+     * register the datasource explicitly.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Store PaymentStatus as its one-byte code, matching the JPA converter
+     */
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+                List.of(new PaymentStatusWriter(), new PaymentStatusReader()));
+    }
+
+    @WritingConverter
+    static class PaymentStatusWriter implements Converter<PaymentStatus, Byte> {
+        @Override
+        public Byte convert(PaymentStatus status) {
+            return status.code();
+        }
+    }
+
+    @ReadingConverter
+    static class PaymentStatusReader implements Converter<Byte, PaymentStatus> {
+        @Override
+        public PaymentStatus convert(Byte code) {
+            return PaymentStatus.fromCode(code);
+        }
+    }
+
+    /**
+     * Run on Reactor Netty's event loop rather than the Tomcat reactive adapter,
+     * which would otherwise win because spring-boot-starter-web is on the classpath
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Bounded scheduler for checkouts, which run the blocking PaymentService
+     * core (JPA, SMTP), so they can neither block the event loop nor grow an
+     * unbounded thread pool
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler checkoutScheduler(@Value("${payment.reactive.checkout.max-threads:16}") int maxThreads,
+                                       @Value("${payment.reactive.checkout.max-queued:1000}") int maxQueued) {
+        return Schedulers.newBoundedElastic(maxThreads, maxQueued, "checkout");
+    }
+
+    /**
+     * Fixed-size scheduler for CPU-bound QR rendering (0 = one thread per core)
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler qrScheduler(@Value("${payment.reactive.qr.threads:0}") int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newParallel("qr", size);
+    }
+
+    /**
+     * CORS for the reactive stack, driven by the spring.webflux.cors.* keys
+     */
+    @Bean
+    public CorsWebFilter corsWebFilter(@Value("${spring.webflux.cors.allowed-origins}") List<String> allowedOrigins,
+                                       @Value("${spring.webflux.cors.allowed-methods}") List<String> allowedMethods,
+                                       @Value("${spring.webflux.cors.allowed-headers}") List<String> allowedHeaders) {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(allowedOrigins);
+        config.setAllowedMethods(allowedMethods);
+        config.setAllowedHeaders(allowedHeaders);
+        config.setAllowCredentials(true);
+        config.setMaxAge(3600L);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", config);
+        return new CorsWebFilter(source);
+    }
+}
@@ -0,0 +1,115 @@
+package com.payment.config;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Per-request routing state: whether this request's reads are pinned to the
+ * primary (read-your-writes), and what to do the first time it writes.
+ * Opened and closed by the request filter; absent outside requests.
+ *
+ * The first-write callback only runs on the thread that opened the context.
+ * A write from an asynchronous handler's thread is just recorded, and the
+ * filter acts on it when the request comes back to a container thread
+ * ({@link #wroteOffThread}); the response may be complete by then otherwise.
+ *
+ * Separately, {@link #readPrimary} marks a read that must see the primary
+ * (it feeds a conditional update, a watermark or a delete) without counting
+ * as a write, so it neither pins the request nor sets the session cookie.
+ */
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<ReadRoutingContext> CURRENT = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    private volatile boolean pinnedToPrimary;
+    private volatile boolean wrote;
+    private volatile boolean wroteOffThread;
+    private final Runnable onFirstWrite;
+    private final Thread owner = Thread.currentThread();
+
+    private ReadRoutingContext(boolean pinnedToPrimary, Runnable onFirstWrite) {
+        this.pinnedToPrimary = pinnedToPrimary;
+        this.onFirstWrite = onFirstWrite;
+    }
+
+    public static ReadRoutingContext open(boolean pinnedToPrimary, Runnable onFirstWrite) {
+        ReadRoutingContext context = new ReadRoutingContext(pinnedToPrimary, onFirstWrite);
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Carries the calling request's routing state into a task that runs on
+     * another thread (asynchronous handlers)
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        ReadRoutingContext context = CURRENT.get();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(context);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Whether the first write happened on another thread, so the first-write
+     * callback has not run yet
+     */
+    public boolean wroteOffThread() {
+        return wroteOffThread;
+    }
+
+    /**
+     * Run a read-only query against the primary. The query's transaction must
+     * start inside the call, so the route is decided while the mark is set.
+     */
+    public static <T> T readPrimary(Supplier<T> read) {
+        if (PRIMARY_READ.get() != null) {
+            return read.get();
+        }
+        PRIMARY_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_READ.remove();
+        }
+    }
+
+    static boolean isPrimaryRead() {
+        return PRIMARY_READ.get() != null;
+    }
+
+    static boolean isPinnedToPrimary() {
+        ReadRoutingContext context = CURRENT.get();
+        return context != null && context.pinnedToPrimary;
+    }
+
+    /**
+     * A write transaction touched the primary: later reads in this request,
+     * and (via onFirstWrite) in this client's session window, go there too
+     */
+    static void recordWrite() {
+        ReadRoutingContext context = CURRENT.get();
+        if (context != null && !context.wrote) {
+            context.wrote = true;
+            context.pinnedToPrimary = true;
+            if (Thread.currentThread() == context.owner) {
+                context.onFirstWrite.run();
+            } else {
+                context.wroteOffThread = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.payment.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and
+ * everything else to the primary. Reads go to the primary instead when they
+ * are marked with {@link ReadRoutingContext#readPrimary}, when the request is
+ * pinned by read-your-writes, when no replica is healthy, or when the chosen
+ * replica refuses a connection (which also marks it down). Only read-write
+ * transactions count as writes for read-your-writes.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy so the route is decided at
+ * the first statement, after the transaction's read-only flag is set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<String> replicaKeys;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final String healthQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String healthQuery) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.healthQuery = healthQuery;
+        replicas.keySet().forEach(key -> healthy.put(key, true));
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadRoutingContext.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReadRoutingContext.isPrimaryRead() || ReadRoutingContext.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        String replica = pickHealthyReplica();
+        if (replica == null) {
+            fallbacks.increment();
+            return PRIMARY;
+        }
+        return replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            primaryRoutes.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replicas.get(key).getConnection();
+            replicaRoutes.increment();
+            return connection;
+        } catch (SQLException e) {
+            markDown((String) key, e);
+            fallbacks.increment();
+            primaryRoutes.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private String pickHealthyReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (healthy.get(key)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Probe every replica with the health query and update its state
+     */
+    public void checkReplicas() {
+        for (String key : replicaKeys) {
+            try (Connection connection = replicas.get(key).getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                statement.execute(healthQuery);
+                if (!healthy.put(key, true)) {
+                    log.info("Replica {} is healthy again, resuming reads", key);
+                }
+            } catch (SQLException e) {
+                markDown(key, e);
+            }
+        }
+    }
+
+    private void markDown(String key, SQLException cause) {
+        if (healthy.put(key, false)) {
+            log.warn("Replica {} marked down, reads fall back to primary: {}", key, cause.getMessage());
+        }
+    }
+
+    /**
+     * Close the primary and replica pools
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : replicas.values()) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    public boolean isHealthy(String replica) {
+        return healthy.getOrDefault(replica, false);
+    }
+
+    public long primaryRoutes() {
+        return primaryRoutes.sum();
+    }
+
+    public long replicaRoutes() {
+        return replicaRoutes.sum();
+    }
+
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+}
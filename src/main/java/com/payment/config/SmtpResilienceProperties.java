@@ -0,0 +1,136 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bulkhead and circuit breaker around the mail relay (payment.email.bulkhead.*,
+ * payment.email.breaker.*)
+ */
+@ConfigurationProperties(prefix = "payment.email")
+public class SmtpResilienceProperties {
+
+    private Bulkhead bulkhead = new Bulkhead();
+    private Breaker breaker = new Breaker();
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    public Breaker getBreaker() {
+        return breaker;
+    }
+
+    public void setBreaker(Breaker breaker) {
+        this.breaker = breaker;
+    }
+
+    public static class Bulkhead {
+
+        /** SMTP calls in progress at once (threads of the mail pool) */
+        private int maxConcurrent = 4;
+
+        /** Emails waiting for a mail thread; beyond this new emails are dropped */
+        private int queueCapacity = 200;
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Breaker {
+
+        /** Number of recent calls the failure and slow-call rates are computed over */
+        private int windowSize = 20;
+
+        private int minimumCalls = 5;
+
+        /** Percent of failed calls that opens the breaker */
+        private double failureRateThreshold = 50;
+
+        /** Calls slower than this count as slow */
+        private Duration slowCallDuration = Duration.ofSeconds(3);
+
+        /** Percent of slow calls that opens the breaker */
+        private double slowCallRateThreshold = 80;
+
+        /** How long the breaker stays open before probing */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /** Probe calls allowed while half-open */
+        private int halfOpenCalls = 2;
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public double getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.payment.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Startup-time tuning
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Defer creation of the beans listed in payment.startup.lazy-beans (QR
+     * rendering, mail) until first use, so they stay off the path to the first
+     * successful health check. Their injection points are @Lazy proxies.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        List<String> lazyBeans = Binder.get(environment)
+                .bind("payment.startup.lazy-beans", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            for (String name : lazyBeans) {
+                if (beanFactory.containsBeanDefinition(name)) {
+                    beanFactory.getBeanDefinition(name).setLazyInit(true);
+                }
+            }
+        };
+    }
+}
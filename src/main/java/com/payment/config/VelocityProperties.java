@@ -0,0 +1,123 @@
+package com.payment.config;
+
+import com.payment.velocity.VelocityRule;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Velocity rules evaluated before a payment is stored (payment.velocity.*).
+ * Rules can also live in rules-file (same keys, properties format), which is
+ * re-read when it changes and then replaces the rules configured here.
+ */
+@ConfigurationProperties(prefix = "payment.velocity")
+public class VelocityProperties {
+
+    private boolean enabled = true;
+
+    /** Identifier slots per rule; least recently active identifiers are evicted beyond this */
+    private int maxKeys = 65536;
+
+    /** Optional external rules file, polled every reload-interval */
+    private String rulesFile;
+
+    private Duration reloadInterval = Duration.ofSeconds(10);
+
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public String getRulesFile() {
+        return rulesFile;
+    }
+
+    public void setRulesFile(String rulesFile) {
+        this.rulesFile = rulesFile;
+    }
+
+    public Duration getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(Duration reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static class Rule {
+
+        private VelocityRule.Dimension dimension;
+
+        private VelocityRule.Metric metric = VelocityRule.Metric.COUNT;
+
+        /** Payments for count rules, rupees (decimal) for amount rules */
+        private String limit;
+
+        private Duration window = Duration.ofMinutes(1);
+
+        private VelocityRule.Action action = VelocityRule.Action.BLOCK;
+
+        public VelocityRule.Dimension getDimension() {
+            return dimension;
+        }
+
+        public void setDimension(VelocityRule.Dimension dimension) {
+            this.dimension = dimension;
+        }
+
+        public VelocityRule.Metric getMetric() {
+            return metric;
+        }
+
+        public void setMetric(VelocityRule.Metric metric) {
+            this.metric = metric;
+        }
+
+        public String getLimit() {
+            return limit;
+        }
+
+        public void setLimit(String limit) {
+            this.limit = limit;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public VelocityRule.Action getAction() {
+            return action;
+        }
+
+        public void setAction(VelocityRule.Action action) {
+            this.action = action;
+        }
+    }
+}
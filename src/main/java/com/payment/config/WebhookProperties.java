@@ -0,0 +1,148 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merchant webhook endpoints and delivery policy (payment.webhooks.*)
+ */
+@ConfigurationProperties(prefix = "payment.webhooks")
+public class WebhookProperties {
+
+    /** Connect timeout for new connections to an endpoint */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /** Time allowed for one batch POST; slower responses count as failed attempts */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /** Attempts per event before it moves to the dead-letter queue */
+    private int maxAttempts = 10;
+
+    /** Delay before the first retry; doubles per attempt up to max-backoff, with jitter */
+    private Duration initialBackoff = Duration.ofSeconds(5);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    /** Threads that send requests and record their outcome */
+    private int senderThreads = 4;
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public static class Endpoint {
+
+        private String url;
+
+        /** HMAC-SHA256 key for the X-Webhook-Signature header */
+        private String secret;
+
+        /** Event types to deliver (e.g. payment.created, payment.refunded); empty means all */
+        private List<String> events = new ArrayList<>();
+
+        /** Batches in flight to this endpoint at once */
+        private int maxConcurrent = 4;
+
+        /** Events per POST */
+        private int batchSize = 100;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public List<String> getEvents() {
+            return events;
+        }
+
+        public void setEvents(List<String> events) {
+            this.events = events;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+}
@@ -1,23 +1,77 @@
 package com.payment.controller;
 
+import com.payment.config.ReadRoutingContext;
 import com.payment.dto.ApiResponse;
+import com.payment.dto.BulkQRCodeRequest;
+import com.payment.dto.ErrorMetricsResponse;
+import com.payment.dto.HandlerPoolMetricsResponse;
+import com.payment.dto.LiveMetricsResponse;
+import com.payment.dto.LoginResponse;
+import com.payment.dto.MessageResponse;
+import com.payment.dto.PaymentChangesResponse;
+import com.payment.dto.PaymentListResponse;
+import com.payment.dto.PaymentPageResponse;
+import com.payment.dto.PaymentQueryRequest;
 import com.payment.dto.PaymentRequest;
 import com.payment.dto.PaymentResponse;
+import com.payment.dto.PaymentSearchResponse;
+import com.payment.dto.QRCodeResponse;
+import com.payment.dto.ReconciliationResponse;
+import com.payment.dto.SmtpMetricsResponse;
+import com.payment.dto.TokenVerificationResponse;
+import com.payment.dto.TransitionMetricsResponse;
+import com.payment.dto.VelocityMetricsResponse;
+import com.payment.dto.WebhookMetricsResponse;
+import com.payment.entity.PaymentStatus;
+import com.payment.exception.DuplicatePaymentException;
+import com.payment.exception.PaymentNotFoundException;
+import com.payment.exception.PaymentValidationException;
+import com.payment.exception.VelocityLimitExceededException;
+import com.payment.logging.LogSampling;
+import com.payment.recent.RecentPayments;
+import com.payment.reconciliation.ReconciliationSummary;
+import com.payment.reconciliation.SettlementReconciliationService;
+import com.payment.search.PaymentSearchIndex;
+import com.payment.search.TrigramIndex;
+import com.payment.service.BulkQRCodeService;
+import com.payment.service.ErrorMetrics;
+import com.payment.service.HandlerPools;
+import com.payment.service.PaymentLifecycleService;
+import com.payment.service.PaymentRollupService;
+import com.payment.service.PaymentTransitionMetrics;
+import com.payment.service.PaymentDataVersion;
 import com.payment.service.PaymentService;
+import com.payment.service.RequestTimeSeries;
 import com.payment.service.AuthenticationService;
+import com.payment.service.SmtpBulkhead;
+import com.payment.velocity.VelocityEngine;
+import com.payment.webhook.WebhookDispatcher;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api")
+@Profile("!reactive")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"}, allowedHeaders = "*")
 public class PaymentController {
 
@@ -29,14 +83,62 @@ public class PaymentController {
     @Autowired
     private AuthenticationService authenticationService;
 
+    @Autowired
+    private PaymentDataVersion dataVersion;
+
+    @Autowired
+    private PaymentLifecycleService lifecycleService;
+
+    @Autowired
+    private PaymentTransitionMetrics transitionMetrics;
+
+    @Autowired
+    private ErrorMetrics errorMetrics;
+
+    @Autowired
+    private PaymentSearchIndex searchIndex;
+
+    @Autowired
+    private RequestTimeSeries requestTimeSeries;
+
+    @Autowired
+    private HandlerPools handlerPools;
+
+    @Autowired
+    private BulkQRCodeService bulkQRCodeService;
+
+    @Autowired
+    private SmtpBulkhead smtpBulkhead;
+
+    @Autowired
+    private VelocityEngine velocityEngine;
+
+    @Autowired
+    private SettlementReconciliationService reconciliationService;
+
+    @Autowired
+    private PaymentRollupService rollupService;
+
+    @Autowired
+    private WebhookDispatcher webhookDispatcher;
+
+    @Autowired
+    private RecentPayments recentPayments;
+
+    @Value("${payment.search.max-results:100}")
+    private int maxSearchResults;
+
     /**
      * Process a payment request
      * POST /api/payment
      */
     @PostMapping("/payment")
-    public ResponseEntity<ApiResponse> processPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
-        log.info("Processing payment for email: {}", paymentRequest.getEmail());
-        
+    public CompletableFuture<ResponseEntity<ApiResponse>> processPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
+        log.info(LogSampling.ROUTINE, "Processing payment");
+        return handlerPools.checkout().submit(() -> checkout(paymentRequest));
+    }
+
+    private ResponseEntity<ApiResponse> checkout(PaymentRequest paymentRequest) {
         try {
             PaymentResponse paymentResponse = paymentService.processPayment(paymentRequest);
             
@@ -47,8 +149,21 @@ public class PaymentController {
                     .data(paymentResponse)
                     .build();
             
-            log.info("Payment processed successfully with ID: {}", paymentResponse.getId());
+            log.info(LogSampling.ROUTINE, "Payment processed successfully with ID: {}", paymentResponse.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (DuplicatePaymentException e) {
+            errorMetrics.record(e);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .paymentId(String.valueOf(e.getExistingPaymentId()))
+                    .build());
+        } catch (VelocityLimitExceededException e) {
+            errorMetrics.record(e);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
         } catch (Exception e) {
             log.error("Error processing payment: {}", e.getMessage(), e);
             
@@ -66,29 +181,116 @@ public class PaymentController {
      * GET /api/payments
      */
     @GetMapping("/payments")
-    public ResponseEntity<?> getAllPayments() {
-        log.info("Fetching all payments");
+    public CompletableFuture<ResponseEntity<?>> getAllPayments(WebRequest webRequest) {
+        String etag = dataVersion.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(notModified(etag));
+        }
+
+        log.info(LogSampling.ROUTINE, "Fetching all payments");
         
+        return handlerPools.listing().submit(() -> {
+            try {
+                // The ETag describes the primary, so the body must not come from a lagging replica
+                List<PaymentResponse> payments = ReadRoutingContext.readPrimary(paymentService::getAllPayments);
+
+                log.info(LogSampling.ROUTINE, "Retrieved {} payments", payments.size());
+                return revalidated(etag).body(PaymentListResponse.of(payments));
+            } catch (Exception e) {
+                log.error("Error fetching payments: {}", e.getMessage(), e);
+
+                ApiResponse response = ApiResponse.builder()
+                        .success(false)
+                        .message("Failed to retrieve payments: " + e.getMessage())
+                        .build();
+
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            }
+        });
+    }
+
+    /**
+     * The newest payments, newest first, written straight from the in-memory ring
+     * GET /api/payments/recent?limit=100
+     */
+    @GetMapping("/payments/recent")
+    public ResponseEntity<StreamingResponseBody> getRecentPayments(@RequestParam(defaultValue = "100") int limit, WebRequest webRequest) {
+        String etag = dataVersion.localEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        int rows = Math.max(1, Math.min(limit, recentPayments.capacity()));
+        StreamingResponseBody body = out -> recentPayments.writeList(rows, out);
+        return revalidated(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Get payments changed since a watermark (delta sync for the dashboard)
+     * GET /api/payments/changes?since=:watermark&limit=:n
+     */
+    @GetMapping("/payments/changes")
+    public ResponseEntity<?> getPaymentChanges(@RequestParam(required = false) String since,
+                                               @RequestParam(defaultValue = "500") int limit) {
         try {
-            List<PaymentResponse> payments = paymentService.getAllPayments();
-            
-            java.util.Map<String, Object> response = new java.util.LinkedHashMap<>();
-            response.put("success", true);
-            response.put("message", "Payments retrieved successfully");
-            response.put("data", payments);
-            
-            log.info("Retrieved {} payments", payments.size());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error fetching payments: {}", e.getMessage(), e);
-            
-            ApiResponse response = ApiResponse.builder()
-                    .success(false)
-                    .message("Failed to retrieve payments: " + e.getMessage())
-                    .build();
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            PaymentChangesResponse changes = paymentService.getChangesSince(since, limit);
+            log.info(LogSampling.ROUTINE, "Delta sync since {}: {} changes, resync={}", since, changes.data().size(), changes.resyncRequired());
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * One page of payments for the dashboard: sort, filters and a keyset cursor
+     * GET /api/payments/query?sort=amount&dir=desc&status=success&minAmount=100&size=25&after=:next
+     */
+    @GetMapping("/payments/query")
+    public CompletableFuture<ResponseEntity<?>> queryPayments(PaymentQueryRequest request, WebRequest webRequest) {
+        // Text queries depend on the search index, not only on the table, so skip the ETag for them
+        boolean cacheable = request.getQ() == null || request.getQ().isBlank();
+        String etag = cacheable ? dataVersion.etag() : null;
+        if (cacheable && webRequest.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(notModified(etag));
+        }
+        return handlerPools.listing().submit(() -> {
+            try {
+                PaymentPageResponse page = cacheable
+                        ? ReadRoutingContext.readPrimary(() -> paymentService.queryPayments(request))
+                        : paymentService.queryPayments(request);
+                return (cacheable ? revalidated(etag) : ResponseEntity.ok()).body(page);
+            } catch (IllegalArgumentException | PaymentValidationException e) {
+                errorMetrics.record(e);
+                return ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Dashboard totals (count, amount, count per status)
+     * GET /api/payments/stats
+     */
+    @GetMapping("/payments/stats")
+    public ResponseEntity<?> getPaymentStats(WebRequest webRequest) {
+        String etag = dataVersion.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return revalidated(etag).body(ReadRoutingContext.readPrimary(paymentService::getPaymentStats));
+    }
+
+    /**
+     * Search payments by partial payer name, email or phone number
+     * GET /api/payments/search?q=:text&limit=:n
+     */
+    @GetMapping("/payments/search")
+    public ResponseEntity<?> searchPayments(@RequestParam(required = false) String q,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        if (q == null || q.strip().length() < 2) {
+            return ResponseEntity.badRequest().body(MessageResponse.error("Search query must be at least 2 characters"));
         }
+        String query = q.strip();
+        List<TrigramIndex.Hit> hits = searchIndex.search(query, Math.max(1, Math.min(limit, maxSearchResults)));
+        return ResponseEntity.ok(PaymentSearchResponse.of(query, searchIndex.isComplete(), hits));
     }
 
     /**
@@ -97,29 +299,30 @@ public class PaymentController {
      */
     @GetMapping("/payments/{id}")
     public ResponseEntity<ApiResponse> getPaymentById(@PathVariable Long id) {
-        log.info("Fetching payment with ID: {}", id);
+        log.info(LogSampling.ROUTINE, "Fetching payment with ID: {}", id);
         
         try {
-            PaymentResponse payment = paymentService.getPaymentById(id);
-            
-            ApiResponse response = ApiResponse.builder()
-                    .success(true)
-                    .message("Payment retrieved successfully")
-                    .data(payment)
-                    .build();
-            
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            log.error("Payment not found: {}", e.getMessage());
-            
-            ApiResponse response = ApiResponse.builder()
-                    .success(false)
-                    .message(e.getMessage())
-                    .build();
-            
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            // A miss is an ordinary answer here, not an exception
+            return paymentService.findPaymentById(id)
+                    .map(payment -> ResponseEntity.ok(ApiResponse.builder()
+                            .success(true)
+                            .message("Payment retrieved successfully")
+                            .data(payment)
+                            .build()))
+                    .orElseGet(() -> {
+                        if (errorMetrics.record(PaymentNotFoundException.class) != ErrorMetrics.SUPPRESSED) {
+                            log.debug("Payment not found: {}", id);
+                        }
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.builder()
+                                .success(false)
+                                .message("Payment not found with ID: " + id)
+                                .build());
+                    });
         } catch (Exception e) {
-            log.error("Error fetching payment: {}", e.getMessage(), e);
+            long suppressed = errorMetrics.record(e);
+            if (suppressed != ErrorMetrics.SUPPRESSED) {
+                log.error("Error fetching payment: {}", e.getMessage(), e);
+            }
             
             ApiResponse response = ApiResponse.builder()
                     .success(false)
@@ -135,29 +338,268 @@ public class PaymentController {
      * GET /api/payments/status/:status
      */
     @GetMapping("/payments/status/{status}")
-    public ResponseEntity<?> getPaymentsByStatus(@PathVariable String status) {
-        log.info("Fetching payments with status: {}", status);
+    public CompletableFuture<ResponseEntity<?>> getPaymentsByStatus(@PathVariable String status, WebRequest webRequest) {
+        String etag = dataVersion.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(notModified(etag));
+        }
+
+        log.info(LogSampling.ROUTINE, "Fetching payments with status: {}", status);
         
-        try {
-            List<PaymentResponse> payments = paymentService.getPaymentsByStatus(status);
-            
-            java.util.Map<String, Object> response = new java.util.LinkedHashMap<>();
-            response.put("success", true);
-            response.put("message", "Payments retrieved successfully");
-            response.put("data", payments);
-            
-            log.info("Retrieved {} payments with status: {}", payments.size(), status);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error fetching payments by status: {}", e.getMessage(), e);
-            
-            ApiResponse response = ApiResponse.builder()
+        return handlerPools.listing().submit(() -> {
+            try {
+                List<PaymentResponse> payments = ReadRoutingContext.readPrimary(() -> paymentService.getPaymentsByStatus(status));
+
+                log.info(LogSampling.ROUTINE, "Retrieved {} payments with status: {}", payments.size(), status);
+                return revalidated(etag).body(PaymentListResponse.of(payments));
+            } catch (Exception e) {
+                log.error("Error fetching payments by status: {}", e.getMessage(), e);
+
+                ApiResponse response = ApiResponse.builder()
+                        .success(false)
+                        .message("Failed to retrieve payments: " + e.getMessage())
+                        .build();
+
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            }
+        });
+    }
+
+    /**
+     * Get payments created within a date range (includes archived payments)
+     * GET /api/payments/range?from=:iso&to=:iso
+     */
+    @GetMapping("/payments/range")
+    public CompletableFuture<ResponseEntity<?>> getPaymentsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info(LogSampling.ROUTINE, "Fetching payments created between {} and {}", from, to);
+
+        if (from.isAfter(to)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(MessageResponse.error("'from' must not be after 'to'")));
+        }
+        return handlerPools.listing().submit(() -> {
+            try {
+                List<PaymentResponse> payments = paymentService.getPaymentsByDateRange(from, to);
+                return ResponseEntity.ok(PaymentListResponse.of(payments));
+            } catch (Exception e) {
+                log.error("Error fetching payments by date range: {}", e.getMessage(), e);
+
+                ApiResponse response = ApiResponse.builder()
+                        .success(false)
+                        .message("Failed to retrieve payments: " + e.getMessage())
+                        .build();
+
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            }
+        });
+    }
+
+    /**
+     * Move a payment through its lifecycle (gateway callbacks)
+     * POST /api/payments/:id/authorize | capture | fail | refund
+     */
+    @PostMapping("/payments/{id}/{action:authorize|capture|fail|refund}")
+    public ResponseEntity<ApiResponse> transitionPayment(@PathVariable Long id, @PathVariable String action) {
+        PaymentStatus target = switch (action) {
+            case "authorize" -> PaymentStatus.AUTHORIZED;
+            case "capture" -> PaymentStatus.CAPTURED;
+            case "fail" -> PaymentStatus.FAILED;
+            default -> PaymentStatus.REFUNDED;
+        };
+        log.info(LogSampling.ROUTINE, "Transition payment {} to {}", id, target.label());
+
+        PaymentLifecycleService.TransitionResult result = lifecycleService.transition(id, target);
+        return switch (result.outcome()) {
+            case APPLIED, ALREADY_IN_STATE -> ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message(result.outcome() == PaymentLifecycleService.Outcome.APPLIED
+                            ? "Payment is now " + target.label()
+                            : "Payment was already " + target.label())
+                    .paymentId(String.valueOf(id))
+                    .data(result.payment().orElse(null))
+                    .build());
+            case INVALID_TRANSITION -> ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
                     .success(false)
-                    .message("Failed to retrieve payments: " + e.getMessage())
-                    .build();
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+                    .message("Cannot " + action + " a payment that is " + result.current().label())
+                    .paymentId(String.valueOf(id))
+                    .data(result.payment().orElse(null))
+                    .build());
+            case CONFLICT -> ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Payment is being updated concurrently, retry the request")
+                    .paymentId(String.valueOf(id))
+                    .build());
+            case ARCHIVED -> ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Payment is archived and can no longer change state (it is "
+                            + result.current().label() + ")")
+                    .paymentId(String.valueOf(id))
+                    .data(result.payment().orElse(null))
+                    .build());
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Payment not found with ID: " + id)
+                    .build());
+        };
+    }
+
+    /**
+     * Lifecycle transition counters (applied, conflicts, retries, ...)
+     * GET /api/payments/lifecycle/metrics
+     */
+    @GetMapping("/payments/lifecycle/metrics")
+    public ResponseEntity<TransitionMetricsResponse> getTransitionMetrics() {
+        return ResponseEntity.ok(transitionMetrics.snapshot());
+    }
+
+    /**
+     * Errors counted by type, and log lines held back by the log rate limit
+     * GET /api/errors/metrics
+     */
+    @GetMapping("/errors/metrics")
+    public ResponseEntity<ErrorMetricsResponse> getErrorMetrics() {
+        return ResponseEntity.ok(errorMetrics.snapshot());
+    }
+
+    /**
+     * Mail relay circuit breaker and bulkhead state
+     * GET /api/email/metrics
+     */
+    @GetMapping("/email/metrics")
+    public ResponseEntity<SmtpMetricsResponse> getEmailMetrics() {
+        return ResponseEntity.ok(smtpBulkhead.snapshot());
+    }
+
+    /**
+     * Revenue and counts per hour or day, by status and payment method, from the rollup tables
+     * GET /api/reports/payments?granularity=day&from=2026-01-01&to=2026-12-31[&status=success][&method=upi]
+     */
+    @GetMapping("/reports/payments")
+    public ResponseEntity<?> getPaymentReport(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String method) {
+        PaymentStatus statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            statusFilter = PaymentStatus.fromLabel(status.trim());
+            if (statusFilter == null) {
+                return ResponseEntity.badRequest().body(MessageResponse.error("Unknown status: " + status));
+            }
         }
+        try {
+            return ResponseEntity.ok(rollupService.report(granularity, from, to, statusFilter, method));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Start reconciling a day's settlement file in the background (reports are
+     * written server-side); poll the GET for the outcome
+     * POST /api/reconciliation/{date}
+     */
+    @PostMapping("/reconciliation/{date}")
+    public ResponseEntity<?> reconcileSettlement(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        CompletableFuture<ReconciliationSummary> run;
+        try {
+            run = reconciliationService.start(date);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageResponse.error(e.getMessage()));
+        }
+        if (run.isDone()) {
+            return reconciliationOutcome(date, run);
+        }
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/reconciliation/" + date)
+                .body(ReconciliationResponse.running(date));
+    }
+
+    /**
+     * Outcome of the latest reconciliation of a day started through the POST
+     * GET /api/reconciliation/{date}
+     */
+    @GetMapping("/reconciliation/{date}")
+    public ResponseEntity<?> getReconciliation(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        CompletableFuture<ReconciliationSummary> run = reconciliationService.lastRun(date);
+        if (run == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(MessageResponse.error("No reconciliation started for " + date));
+        }
+        if (!run.isDone()) {
+            return ResponseEntity.accepted().body(ReconciliationResponse.running(date));
+        }
+        return reconciliationOutcome(date, run);
+    }
+
+    private ResponseEntity<?> reconciliationOutcome(LocalDate date, CompletableFuture<ReconciliationSummary> run) {
+        try {
+            return ResponseEntity.ok(ReconciliationResponse.done(date, run.join()));
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+            if (cause instanceof IllegalArgumentException) {
+                // The file disappeared before the run started
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageResponse.error(cause.getMessage()));
+            }
+            log.error("Reconciliation for {} failed: {}", date, cause.getMessage(), cause);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(MessageResponse.error("Reconciliation failed: " + cause.getMessage()));
+        }
+    }
+
+    /**
+     * Velocity rules and how often each was exceeded
+     * GET /api/velocity/metrics
+     */
+    @GetMapping("/velocity/metrics")
+    public ResponseEntity<VelocityMetricsResponse> getVelocityMetrics() {
+        return ResponseEntity.ok(velocityEngine.snapshot());
+    }
+
+    /**
+     * Webhook delivery counters and per-endpoint queue depth
+     * GET /api/webhooks/metrics
+     */
+    @GetMapping("/webhooks/metrics")
+    public ResponseEntity<WebhookMetricsResponse> getWebhookMetrics() {
+        return ResponseEntity.ok(webhookDispatcher.snapshot());
+    }
+
+    /**
+     * Put an endpoint's dead-lettered webhook events back in the queue
+     * POST /api/webhooks/:endpoint/replay
+     */
+    @PostMapping("/webhooks/{endpoint}/replay")
+    public ResponseEntity<MessageResponse> replayWebhooks(@PathVariable String endpoint) {
+        int requeued = webhookDispatcher.replayDead(endpoint);
+        if (requeued < 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(MessageResponse.error("Unknown webhook endpoint: " + endpoint));
+        }
+        return ResponseEntity.ok(MessageResponse.ok(requeued + " events requeued"));
+    }
+
+    /**
+     * Occupancy and refusals of the executors behind the asynchronous handlers
+     * GET /api/handlers/metrics
+     */
+    @GetMapping("/handlers/metrics")
+    public ResponseEntity<HandlerPoolMetricsResponse> getHandlerMetrics() {
+        return ResponseEntity.ok(handlerPools.snapshot());
+    }
+
+    /**
+     * Per-second request, error and latency series for the dashboard chart
+     * GET /api/metrics/live?seconds=60
+     */
+    @GetMapping("/metrics/live")
+    public ResponseEntity<LiveMetricsResponse> getLiveMetrics(@RequestParam(defaultValue = "60") int seconds) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(requestTimeSeries.snapshot(seconds));
     }
 
     /**
@@ -185,33 +627,19 @@ public class PaymentController {
             String password = credentials.get("password");
 
             if (username == null || password == null) {
-                Map<String, Object> errorResponse = new LinkedHashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("message", "Username and password are required");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(MessageResponse.error("Username and password are required"));
             }
 
             String token = authenticationService.authenticate(username, password);
 
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("success", true);
-            response.put("message", "Authentication successful");
-            response.put("token", token);
-            response.put("username", username);
-
             log.info("User {} logged in successfully", username);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new LoginResponse(true, "Authentication successful", token, username));
         } catch (IllegalArgumentException e) {
-            Map<String, Object> errorResponse = new LinkedHashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Login error: {}", e.getMessage(), e);
-            Map<String, Object> errorResponse = new LinkedHashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", "Authentication failed");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageResponse.error("Authentication failed"));
         }
     }
 
@@ -220,32 +648,21 @@ public class PaymentController {
      * POST /api/auth/verify
      */
     @PostMapping("/auth/verify")
-    public ResponseEntity<?> verifyToken(@RequestBody Map<String, String> request) {
+    public ResponseEntity<TokenVerificationResponse> verifyToken(@RequestBody Map<String, String> request) {
         try {
             String token = request.get("token");
 
             if (token == null || token.isEmpty()) {
-                Map<String, Object> response = new LinkedHashMap<>();
-                response.put("success", false);
-                response.put("valid", false);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok(TokenVerificationResponse.INVALID);
             }
 
             boolean isValid = authenticationService.verifyToken(token);
             String username = authenticationService.getUsernameFromToken(token);
 
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("success", true);
-            response.put("valid", isValid);
-            response.put("username", username);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new TokenVerificationResponse(true, isValid, username));
         } catch (Exception e) {
             log.error("Token verification error: {}", e.getMessage(), e);
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("success", false);
-            response.put("valid", false);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(TokenVerificationResponse.INVALID);
         }
     }
 
@@ -254,23 +671,16 @@ public class PaymentController {
      * POST /api/auth/logout
      */
     @PostMapping("/auth/logout")
-    public ResponseEntity<?> logout(@RequestBody Map<String, String> request) {
+    public ResponseEntity<MessageResponse> logout(@RequestBody Map<String, String> request) {
         try {
             String token = request.get("token");
             authenticationService.logout(token);
 
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("success", true);
-            response.put("message", "Logged out successfully");
-
             log.info("User logged out");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(MessageResponse.ok("Logged out successfully"));
         } catch (Exception e) {
             log.error("Logout error: {}", e.getMessage(), e);
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("success", false);
-            response.put("message", "Logout failed");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageResponse.error("Logout failed"));
         }
     }
 
@@ -279,33 +689,55 @@ public class PaymentController {
      * POST /api/qr-code
      */
     @PostMapping("/qr-code")
-    public ResponseEntity<?> generateQRCode(@RequestBody Map<String, String> request) {
-        try {
-            String upiId = request.get("upiId");
-            String name = request.get("name");
-            String amount = request.get("amount");
-
-            if (upiId == null || name == null || amount == null) {
-                Map<String, Object> errorResponse = new LinkedHashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("message", "UPI ID, name, and amount are required");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    public CompletableFuture<ResponseEntity<?>> generateQRCode(@RequestBody Map<String, String> request) {
+        String upiId = request.get("upiId");
+        String name = request.get("name");
+        String amount = request.get("amount");
+
+        if (upiId == null || name == null || amount == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(MessageResponse.error("UPI ID, name, and amount are required")));
+        }
+
+        return handlerPools.qrCode().submit(() -> {
+            try {
+                String qrCodeDataUrl = paymentService.generateUPIQRCode(upiId, name, amount);
+
+                return ResponseEntity.ok(new QRCodeResponse(true, "QR code generated successfully", qrCodeDataUrl));
+            } catch (Exception e) {
+                log.error("QR code generation error: {}", e.getMessage(), e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(MessageResponse.error("Failed to generate QR code: " + e.getMessage()));
             }
+        });
+    }
 
-            String qrCodeDataUrl = paymentService.generateUPIQRCode(upiId, name, amount);
+    /**
+     * Generate many UPI QR codes at once, streamed back as a ZIP of PNGs plus
+     * manifest.csv (per-item status and errors)
+     * POST /api/qr-code/bulk
+     */
+    @PostMapping("/qr-code/bulk")
+    public ResponseEntity<StreamingResponseBody> generateBulkQRCodes(@Valid @RequestBody BulkQRCodeRequest request) {
+        log.info(LogSampling.ROUTINE, "Bulk QR code request for {} items", request.getItems().size());
+        StreamingResponseBody body = out -> bulkQRCodeService.writeZip(request.getItems(), out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"upi-qr-codes.zip\"")
+                .body(body);
+    }
 
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("success", true);
-            response.put("message", "QR code generated successfully");
-            response.put("qrCode", qrCodeDataUrl);
+    /**
+     * 304 for a listing whose data version hasn't moved since the client's copy
+     */
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
 
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("QR code generation error: {}", e.getMessage(), e);
-            Map<String, Object> errorResponse = new LinkedHashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", "Failed to generate QR code: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    /**
+     * Listings may be cached but must be revalidated against the ETag on every poll
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
     }
 }
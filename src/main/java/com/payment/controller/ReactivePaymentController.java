@@ -0,0 +1,639 @@
+package com.payment.controller;
+
+import com.payment.dto.ApiResponse;
+import com.payment.dto.BulkQRCodeRequest;
+import com.payment.dto.ErrorMetricsResponse;
+import com.payment.dto.LiveMetricsResponse;
+import com.payment.dto.LoginResponse;
+import com.payment.dto.MessageResponse;
+import com.payment.dto.PaymentListResponse;
+import com.payment.dto.PaymentQueryRequest;
+import com.payment.dto.PaymentRequest;
+import com.payment.dto.PaymentSearchResponse;
+import com.payment.dto.QRCodeResponse;
+import com.payment.dto.ReconciliationResponse;
+import com.payment.dto.SmtpMetricsResponse;
+import com.payment.dto.TokenVerificationResponse;
+import com.payment.dto.TransitionMetricsResponse;
+import com.payment.dto.VelocityMetricsResponse;
+import com.payment.dto.WebhookMetricsResponse;
+import com.payment.entity.PaymentStatus;
+import com.payment.exception.DuplicatePaymentException;
+import com.payment.exception.PaymentException;
+import com.payment.exception.PaymentValidationException;
+import com.payment.logging.LogSampling;
+import com.payment.recent.RecentPayments;
+import com.payment.reconciliation.ReconciliationSummary;
+import com.payment.reconciliation.SettlementReconciliationService;
+import com.payment.search.PaymentSearchIndex;
+import com.payment.search.TrigramIndex;
+import com.payment.service.AuthenticationService;
+import com.payment.service.BulkQRCodeService;
+import com.payment.service.ErrorMetrics;
+import com.payment.service.PaymentDataVersion;
+import com.payment.service.PaymentLifecycleService;
+import com.payment.service.PaymentRollupService;
+import com.payment.service.PaymentTransitionMetrics;
+import com.payment.service.ReactivePaymentService;
+import com.payment.service.RequestTimeSeries;
+import com.payment.service.SmtpBulkhead;
+import com.payment.velocity.VelocityEngine;
+import com.payment.webhook.WebhookDispatcher;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * WebFlux implementation of the /api contract served by {@link PaymentController}.
+ * Active only with the "reactive" profile.
+ */
+@RestController
+@RequestMapping("/api")
+@Profile("reactive")
+public class ReactivePaymentController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactivePaymentController.class);
+
+    @Autowired
+    private ReactivePaymentService paymentService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    private static final Executor BLOCKING_EXECUTOR = task -> Schedulers.boundedElastic().schedule(task);
+
+    @Autowired
+    private PaymentDataVersion dataVersion;
+
+    @Autowired
+    private PaymentTransitionMetrics transitionMetrics;
+
+    @Autowired
+    private ErrorMetrics errorMetrics;
+
+    @Autowired
+    private PaymentSearchIndex searchIndex;
+
+    @Autowired
+    private RequestTimeSeries requestTimeSeries;
+
+    @Autowired
+    private BulkQRCodeService bulkQRCodeService;
+
+    @Autowired
+    private SmtpBulkhead smtpBulkhead;
+
+    @Autowired
+    private VelocityEngine velocityEngine;
+
+    @Autowired
+    private SettlementReconciliationService reconciliationService;
+
+    @Autowired
+    private PaymentRollupService rollupService;
+
+    @Autowired
+    private WebhookDispatcher webhookDispatcher;
+
+    @Autowired
+    private RecentPayments recentPayments;
+
+    @Value("${payment.search.max-results:100}")
+    private int maxSearchResults;
+
+    /**
+     * Process a payment request
+     * POST /api/payment
+     */
+    @PostMapping("/payment")
+    public Mono<ResponseEntity<ApiResponse>> processPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
+        log.info(LogSampling.ROUTINE, "Processing payment");
+
+        return paymentService.processPayment(paymentRequest)
+                .map(paymentResponse -> ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.builder()
+                        .success(true)
+                        .message("Payment processed successfully")
+                        .paymentId(String.valueOf(paymentResponse.getId()))
+                        .data(paymentResponse)
+                        .build()))
+                .onErrorResume(DuplicatePaymentException.class, e ->
+                        Mono.just(ResponseEntity.status(e.getStatus()).body(ApiResponse.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .paymentId(String.valueOf(e.getExistingPaymentId()))
+                                .build())))
+                .onErrorResume(PaymentException.class, e ->
+                        Mono.just(ResponseEntity.status(e.getStatus()).body(ApiResponse.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error processing payment: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.builder()
+                            .success(false)
+                            .message("Failed to process payment: " + e.getMessage())
+                            .build()));
+                });
+    }
+
+    /**
+     * Get all payments
+     * GET /api/payments
+     */
+    @GetMapping("/payments")
+    public Mono<ResponseEntity<?>> getAllPayments(ServerWebExchange exchange) {
+        return etag().flatMap(etag -> exchange.checkNotModified(etag)
+                ? Mono.just(notModified(etag))
+                : paymentService.getAllPayments()
+                        .collectList()
+                        .<ResponseEntity<?>>map(payments -> revalidated(etag).body(PaymentListResponse.of(payments)))
+                        .onErrorResume(e -> Mono.just(failure("Failed to retrieve payments: ", e))));
+    }
+
+    /**
+     * Get payment by ID
+     * GET /api/payments/:id
+     */
+    @GetMapping("/payments/{id}")
+    public Mono<ResponseEntity<ApiResponse>> getPaymentById(@PathVariable Long id) {
+        return paymentService.getPaymentById(id)
+                .map(payment -> ResponseEntity.ok(ApiResponse.builder()
+                        .success(true)
+                        .message("Payment retrieved successfully")
+                        .data(payment)
+                        .build()))
+                .switchIfEmpty(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.builder()
+                        .success(false)
+                        .message("Payment not found with ID: " + id)
+                        .build())));
+    }
+
+    /**
+     * Get payments by status
+     * GET /api/payments/status/:status
+     */
+    @GetMapping("/payments/status/{status}")
+    public Mono<ResponseEntity<?>> getPaymentsByStatus(@PathVariable String status, ServerWebExchange exchange) {
+        return etag().flatMap(etag -> exchange.checkNotModified(etag)
+                ? Mono.just(notModified(etag))
+                : paymentService.getPaymentsByStatus(status)
+                        .collectList()
+                        .<ResponseEntity<?>>map(payments -> revalidated(etag).body(PaymentListResponse.of(payments)))
+                        .onErrorResume(e -> Mono.just(failure("Failed to retrieve payments: ", e))));
+    }
+
+    /**
+     * The newest payments, newest first, written straight from the in-memory ring
+     * GET /api/payments/recent?limit=100
+     */
+    @GetMapping("/payments/recent")
+    public ResponseEntity<Flux<DataBuffer>> getRecentPayments(@RequestParam(defaultValue = "100") int limit,
+                                                              ServerWebExchange exchange) {
+        String etag = dataVersion.localEtag();
+        if (exchange.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        int rows = Math.max(1, Math.min(limit, recentPayments.capacity()));
+        return revalidated(etag).contentType(MediaType.APPLICATION_JSON)
+                .body(stream(exchange, out -> recentPayments.writeList(rows, out)));
+    }
+
+    /**
+     * Get payments changed since a watermark (delta sync for the dashboard)
+     * GET /api/payments/changes?since=:watermark&limit=:n
+     */
+    @GetMapping("/payments/changes")
+    public Mono<ResponseEntity<?>> getPaymentChanges(@RequestParam(required = false) String since,
+                                                     @RequestParam(defaultValue = "500") int limit) {
+        return paymentService.getChangesSince(since, limit)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()))));
+    }
+
+    /**
+     * One page of payments for the dashboard: sort, filters and a keyset cursor
+     * GET /api/payments/query?sort=amount&dir=desc&status=success&minAmount=100&size=25&after=:next
+     */
+    @GetMapping("/payments/query")
+    public Mono<ResponseEntity<?>> queryPayments(PaymentQueryRequest request, ServerWebExchange exchange) {
+        // Text queries depend on the search index, not only on the table, so skip the ETag for them
+        if (request.getQ() != null && !request.getQ().isBlank()) {
+            return query(request, ResponseEntity.ok());
+        }
+        return etag().flatMap(etag -> exchange.checkNotModified(etag)
+                ? Mono.just(notModified(etag))
+                : query(request, revalidated(etag)));
+    }
+
+    private Mono<ResponseEntity<?>> query(PaymentQueryRequest request, ResponseEntity.BodyBuilder response) {
+        return paymentService.queryPayments(request)
+                .<ResponseEntity<?>>map(response::body)
+                .onErrorResume(e -> e instanceof IllegalArgumentException || e instanceof PaymentValidationException, e -> {
+                    errorMetrics.record(e);
+                    return Mono.just(ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage())));
+                });
+    }
+
+    /**
+     * Dashboard totals (count, amount, count per status)
+     * GET /api/payments/stats
+     */
+    @GetMapping("/payments/stats")
+    public Mono<ResponseEntity<?>> getPaymentStats(ServerWebExchange exchange) {
+        return etag().flatMap(etag -> exchange.checkNotModified(etag)
+                ? Mono.just(notModified(etag))
+                : paymentService.getPaymentStats().map(stats -> revalidated(etag).body(stats)));
+    }
+
+    /**
+     * Search payments by partial payer name, email or phone number
+     * GET /api/payments/search?q=:text&limit=:n
+     */
+    @GetMapping("/payments/search")
+    public Mono<ResponseEntity<?>> searchPayments(@RequestParam(required = false) String q,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        if (q == null || q.strip().length() < 2) {
+            return Mono.just(ResponseEntity.badRequest().body(MessageResponse.error("Search query must be at least 2 characters")));
+        }
+        // In-memory index: cheap enough to query on the event loop
+        String query = q.strip();
+        List<TrigramIndex.Hit> hits = searchIndex.search(query, Math.max(1, Math.min(limit, maxSearchResults)));
+        return Mono.just(ResponseEntity.ok(PaymentSearchResponse.of(query, searchIndex.isComplete(), hits)));
+    }
+
+    /**
+     * Get payments created within a date range (includes archived payments)
+     * GET /api/payments/range?from=:iso&to=:iso
+     */
+    @GetMapping("/payments/range")
+    public Mono<ResponseEntity<?>> getPaymentsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return Mono.just(ResponseEntity.badRequest().body(MessageResponse.error("'from' must not be after 'to'")));
+        }
+        return paymentService.getPaymentsByDateRange(from, to)
+                .<ResponseEntity<?>>map(payments -> ResponseEntity.ok(PaymentListResponse.of(payments)))
+                .onErrorResume(e -> Mono.just(failure("Failed to retrieve payments: ", e)));
+    }
+
+    /**
+     * Move a payment through its lifecycle (gateway callbacks)
+     * POST /api/payments/:id/authorize | capture | fail | refund
+     */
+    @PostMapping("/payments/{id}/{action:authorize|capture|fail|refund}")
+    public Mono<ResponseEntity<ApiResponse>> transitionPayment(@PathVariable Long id, @PathVariable String action) {
+        PaymentStatus target = switch (action) {
+            case "authorize" -> PaymentStatus.AUTHORIZED;
+            case "capture" -> PaymentStatus.CAPTURED;
+            case "fail" -> PaymentStatus.FAILED;
+            default -> PaymentStatus.REFUNDED;
+        };
+        log.info(LogSampling.ROUTINE, "Transition payment {} to {}", id, target.label());
+
+        return paymentService.transition(id, target).map(result -> switch (result.outcome()) {
+            case APPLIED, ALREADY_IN_STATE -> ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message(result.outcome() == PaymentLifecycleService.Outcome.APPLIED
+                            ? "Payment is now " + target.label()
+                            : "Payment was already " + target.label())
+                    .paymentId(String.valueOf(id))
+                    .data(result.payment().orElse(null))
+                    .build());
+            case INVALID_TRANSITION -> ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Cannot " + action + " a payment that is " + result.current().label())
+                    .paymentId(String.valueOf(id))
+                    .data(result.payment().orElse(null))
+                    .build());
+            case CONFLICT -> ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Payment is being updated concurrently, retry the request")
+                    .paymentId(String.valueOf(id))
+                    .build());
+            case ARCHIVED -> ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Payment is archived and can no longer change state (it is "
+                            + result.current().label() + ")")
+                    .paymentId(String.valueOf(id))
+                    .data(result.payment().orElse(null))
+                    .build());
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Payment not found with ID: " + id)
+                    .build());
+        });
+    }
+
+    /**
+     * Lifecycle transition counters (applied, conflicts, retries, ...)
+     * GET /api/payments/lifecycle/metrics
+     */
+    @GetMapping("/payments/lifecycle/metrics")
+    public Mono<TransitionMetricsResponse> getTransitionMetrics() {
+        return Mono.just(transitionMetrics.snapshot());
+    }
+
+    /**
+     * Errors counted by type, and log lines held back by the log rate limit
+     * GET /api/errors/metrics
+     */
+    @GetMapping("/errors/metrics")
+    public Mono<ErrorMetricsResponse> getErrorMetrics() {
+        return Mono.just(errorMetrics.snapshot());
+    }
+
+    /**
+     * Mail relay circuit breaker and bulkhead state
+     * GET /api/email/metrics
+     */
+    @GetMapping("/email/metrics")
+    public Mono<SmtpMetricsResponse> getEmailMetrics() {
+        return Mono.just(smtpBulkhead.snapshot());
+    }
+
+    /**
+     * Revenue and counts per hour or day, by status and payment method, from the rollup tables
+     * GET /api/reports/payments?granularity=day&from=2026-01-01&to=2026-12-31[&status=success][&method=upi]
+     */
+    @GetMapping("/reports/payments")
+    public Mono<ResponseEntity<?>> getPaymentReport(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String method) {
+        PaymentStatus statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            statusFilter = PaymentStatus.fromLabel(status.trim());
+            if (statusFilter == null) {
+                return Mono.just(ResponseEntity.badRequest().body(MessageResponse.error("Unknown status: " + status)));
+            }
+        }
+        PaymentStatus filter = statusFilter;
+        return blocking(() -> rollupService.report(granularity, from, to, filter, method))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()))));
+    }
+
+    /**
+     * Start reconciling a day's settlement file in the background (reports are
+     * written server-side); poll the GET for the outcome
+     * POST /api/reconciliation/{date}
+     */
+    @PostMapping("/reconciliation/{date}")
+    public Mono<ResponseEntity<?>> reconcileSettlement(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return blocking(() -> reconciliationService.start(date))
+                .map(run -> run.isDone()
+                        ? reconciliationOutcome(date, run)
+                        : ResponseEntity.accepted()
+                                .header(HttpHeaders.LOCATION, "/api/reconciliation/" + date)
+                                .body(ReconciliationResponse.running(date)))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageResponse.error(e.getMessage()))));
+    }
+
+    /**
+     * Outcome of the latest reconciliation of a day started through the POST
+     * GET /api/reconciliation/{date}
+     */
+    @GetMapping("/reconciliation/{date}")
+    public Mono<ResponseEntity<?>> getReconciliation(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        CompletableFuture<ReconciliationSummary> run = reconciliationService.lastRun(date);
+        if (run == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(MessageResponse.error("No reconciliation started for " + date)));
+        }
+        if (!run.isDone()) {
+            return Mono.just(ResponseEntity.accepted().body(ReconciliationResponse.running(date)));
+        }
+        return Mono.just(reconciliationOutcome(date, run));
+    }
+
+    private ResponseEntity<?> reconciliationOutcome(LocalDate date, CompletableFuture<ReconciliationSummary> run) {
+        try {
+            return ResponseEntity.ok(ReconciliationResponse.done(date, run.join()));
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+            if (cause instanceof IllegalArgumentException) {
+                // The file disappeared before the run started
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageResponse.error(cause.getMessage()));
+            }
+            log.error("Reconciliation for {} failed: {}", date, cause.getMessage(), cause);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(MessageResponse.error("Reconciliation failed: " + cause.getMessage()));
+        }
+    }
+
+    /**
+     * Velocity rules and how often each was exceeded
+     * GET /api/velocity/metrics
+     */
+    @GetMapping("/velocity/metrics")
+    public Mono<VelocityMetricsResponse> getVelocityMetrics() {
+        return Mono.just(velocityEngine.snapshot());
+    }
+
+    /**
+     * Webhook delivery counters and per-endpoint queue depth
+     * GET /api/webhooks/metrics
+     */
+    @GetMapping("/webhooks/metrics")
+    public Mono<WebhookMetricsResponse> getWebhookMetrics() {
+        return Mono.just(webhookDispatcher.snapshot());
+    }
+
+    /**
+     * Put an endpoint's dead-lettered webhook events back in the queue
+     * POST /api/webhooks/:endpoint/replay
+     */
+    @PostMapping("/webhooks/{endpoint}/replay")
+    public Mono<ResponseEntity<MessageResponse>> replayWebhooks(@PathVariable String endpoint) {
+        return blocking(() -> webhookDispatcher.replayDead(endpoint))
+                .map(requeued -> requeued < 0
+                        ? ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageResponse.error("Unknown webhook endpoint: " + endpoint))
+                        : ResponseEntity.ok(MessageResponse.ok(requeued + " events requeued")));
+    }
+
+    /**
+     * Per-second request, error and latency series for the dashboard chart
+     * GET /api/metrics/live?seconds=60
+     */
+    @GetMapping("/metrics/live")
+    public ResponseEntity<LiveMetricsResponse> getLiveMetrics(@RequestParam(defaultValue = "60") int seconds) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(requestTimeSeries.snapshot(seconds));
+    }
+
+    /**
+     * Health check endpoint
+     * GET /api/health
+     */
+    @GetMapping("/health")
+    public Mono<ResponseEntity<ApiResponse>> health() {
+        return Mono.just(ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Payment Processing API is running")
+                .build()));
+    }
+
+    /**
+     * Login endpoint for dashboard authentication
+     * POST /api/auth/login
+     */
+    @PostMapping("/auth/login")
+    public Mono<ResponseEntity<?>> login(@RequestBody Map<String, String> credentials) {
+        String username = credentials.get("username");
+        String password = credentials.get("password");
+
+        if (username == null || password == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(MessageResponse.error("Username and password are required")));
+        }
+
+        // In-memory token store: cheap enough to call on the event loop
+        try {
+            String token = authenticationService.authenticate(username, password);
+            return Mono.just(ResponseEntity.ok(new LoginResponse(true, "Authentication successful", token, username)));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.error(e.getMessage())));
+        }
+    }
+
+    /**
+     * Verify token endpoint
+     * POST /api/auth/verify
+     */
+    @PostMapping("/auth/verify")
+    public Mono<ResponseEntity<TokenVerificationResponse>> verifyToken(@RequestBody Map<String, String> request) {
+        String token = request.get("token");
+
+        if (token == null || token.isEmpty()) {
+            return Mono.just(ResponseEntity.ok(TokenVerificationResponse.INVALID));
+        }
+
+        return Mono.just(ResponseEntity.ok(new TokenVerificationResponse(true,
+                authenticationService.verifyToken(token), authenticationService.getUsernameFromToken(token))));
+    }
+
+    /**
+     * Logout endpoint
+     * POST /api/auth/logout
+     */
+    @PostMapping("/auth/logout")
+    public Mono<ResponseEntity<MessageResponse>> logout(@RequestBody Map<String, String> request) {
+        authenticationService.logout(request.get("token"));
+        return Mono.just(ResponseEntity.ok(MessageResponse.ok("Logged out successfully")));
+    }
+
+    /**
+     * Generate UPI QR code
+     * POST /api/qr-code
+     */
+    @PostMapping("/qr-code")
+    public Mono<ResponseEntity<?>> generateQRCode(@RequestBody Map<String, String> request) {
+        String upiId = request.get("upiId");
+        String name = request.get("name");
+        String amount = request.get("amount");
+
+        if (upiId == null || name == null || amount == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(MessageResponse.error("UPI ID, name, and amount are required")));
+        }
+
+        return paymentService.generateUPIQRCode(upiId, name, amount)
+                .<ResponseEntity<?>>map(qrCodeDataUrl ->
+                        ResponseEntity.ok(new QRCodeResponse(true, "QR code generated successfully", qrCodeDataUrl)))
+                .onErrorResume(e -> Mono.just(failure("Failed to generate QR code: ", e)));
+    }
+
+    /**
+     * Generate many UPI QR codes at once, streamed back as a ZIP of PNGs plus
+     * manifest.csv (per-item status and errors)
+     * POST /api/qr-code/bulk
+     */
+    @PostMapping("/qr-code/bulk")
+    public ResponseEntity<Flux<DataBuffer>> generateBulkQRCodes(@Valid @RequestBody BulkQRCodeRequest request,
+                                                                ServerWebExchange exchange) {
+        log.info(LogSampling.ROUTINE, "Bulk QR code request for {} items", request.getItems().size());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"upi-qr-codes.zip\"")
+                .body(stream(exchange, out -> bulkQRCodeService.writeZip(request.getItems(), out)));
+    }
+
+    /**
+     * A body written to an OutputStream by blocking code, off the event loop
+     */
+    private static Flux<DataBuffer> stream(ServerWebExchange exchange, StreamWriter writer) {
+        return Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, exchange.getResponse().bufferFactory(), BLOCKING_EXECUTOR));
+    }
+
+    private interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Calls into blocking services run on the bounded elastic scheduler
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * The listing ETag; refreshing it queries the database, so off the event loop
+     */
+    private Mono<String> etag() {
+        return Mono.fromCallable(dataVersion::etag).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+
+    private ResponseEntity<?> failure(String prefix, Throwable e) {
+        log.error("{}{}", prefix, e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageResponse.error(prefix + e.getMessage()));
+    }
+}
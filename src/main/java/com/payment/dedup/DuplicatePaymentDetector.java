@@ -0,0 +1,88 @@
+package com.payment.dedup;
+
+import com.payment.entity.Payment;
+import com.payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Catches accidental double submits: the same email, contact, amount and
+ * currency again within the window.
+ *
+ * Every payment's fingerprint goes into a {@link RotatingBloomFilter}; only when
+ * the filter says it may have been seen is the database asked for a matching
+ * payment, so the common case costs no query. Two identical requests arriving
+ * at the same instant can both pass if neither is committed when the other is
+ * confirmed; this guards against double clicks, not deliberate races.
+ */
+@Component
+public class DuplicatePaymentDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicatePaymentDetector.class);
+
+    private final PaymentRepository paymentRepository;
+    private final boolean enabled;
+    private final Duration window;
+    private final RotatingBloomFilter filter;
+
+    public DuplicatePaymentDetector(PaymentRepository paymentRepository,
+                                    @Value("${payment.duplicates.enabled:true}") boolean enabled,
+                                    @Value("${payment.duplicates.window:PT1M}") Duration window,
+                                    @Value("${payment.duplicates.expected-per-window:20000}") int expectedPerWindow,
+                                    @Value("${payment.duplicates.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.paymentRepository = paymentRepository;
+        this.enabled = enabled;
+        this.window = window;
+        this.filter = new RotatingBloomFilter(window, expectedPerWindow, falsePositiveRate);
+        log.info("Duplicate detector: {} bits x {} hashes per window, {} KB",
+                filter.bitsPerFilter(), filter.hashes(), filter.memoryBytes() / 1024);
+    }
+
+    /**
+     * Record a payment about to be made and return the earlier identical
+     * payment within the window, if there is one
+     *
+     * @param email the normalized (stored) email
+     */
+    public Optional<Payment> findRecentDuplicate(String email, String contact, long amountMinor, String currency) {
+        if (!enabled || !filter.put(fingerprint(email, contact, amountMinor, currency))) {
+            return Optional.empty();
+        }
+        Optional<Payment> duplicate = paymentRepository.findLatestIdentical(
+                email, contact, amountMinor, currency, LocalDateTime.now().minus(window));
+        if (duplicate.isEmpty()) {
+            log.debug("Duplicate filter false positive");
+        }
+        return duplicate;
+    }
+
+    /**
+     * 64-bit hash of the fields that make two payments identical
+     */
+    static long fingerprint(String email, String contact, long amountMinor, String currency) {
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, email);
+        h = (h ^ 0x1f) * 0x100000001b3L;
+        h = fnv(h, contact);
+        h = (h ^ 0x1f) * 0x100000001b3L;
+        h = fnv(h, currency);
+        return (h ^ amountMinor) * 0x100000001b3L;
+    }
+
+    private static long fnv(long h, String value) {
+        if (value == null) {
+            return h;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
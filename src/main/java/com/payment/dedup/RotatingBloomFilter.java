@@ -0,0 +1,176 @@
+package com.payment.dedup;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-bucketed set membership over 64-bit fingerprints: one Bloom filter per
+ * window, with the current and the previous window kept. A fingerprint added
+ * at time t is remembered until at least t + window (and at most t + 2 windows),
+ * then forgotten when its filter is dropped, so memory stays fixed however
+ * long the service runs.
+ *
+ * Each filter is sized for expectedPerWindow fingerprints at half the target
+ * false-positive rate, since a lookup consults both filters. There are no
+ * false negatives within the window. Bits are set with CAS, so concurrent
+ * adds never lose each other's bits.
+ */
+public class RotatingBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final long bits;
+    private final int hashes;
+    private final long windowNanos;
+    private final LongSupplier clockNanos;
+    private final long origin;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    private static final class Generation {
+        final long epoch;
+        final AtomicLongArray words;
+
+        Generation(long epoch, long bits) {
+            this.epoch = epoch;
+            this.words = new AtomicLongArray((int) (bits >>> 6));
+        }
+    }
+
+    public RotatingBloomFilter(Duration window, int expectedPerWindow, double falsePositiveRate) {
+        this(window, expectedPerWindow, falsePositiveRate, System::nanoTime);
+    }
+
+    RotatingBloomFilter(Duration window, int expectedPerWindow, double falsePositiveRate, LongSupplier clockNanos) {
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        if (expectedPerWindow < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("expectedPerWindow must be positive and falsePositiveRate in (0, 1)");
+        }
+        double perFilterRate = falsePositiveRate / 2;
+        long optimal = (long) Math.ceil(-expectedPerWindow * Math.log(perFilterRate) / (LN2 * LN2));
+        this.bits = Math.max(64, (optimal + 63) & ~63L);
+        if (bits >>> 6 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("filter too large");
+        }
+        this.hashes = (int) Math.max(1, Math.round((double) bits / expectedPerWindow * LN2));
+        this.windowNanos = window.toNanos();
+        this.clockNanos = clockNanos;
+        this.origin = clockNanos.getAsLong();
+        this.current = new Generation(0, bits);
+    }
+
+    /**
+     * Add a fingerprint
+     *
+     * @return true if it may have been added already within the window
+     *         (false means it certainly wasn't)
+     */
+    public boolean put(long fingerprint) {
+        Generation[] generations = generations();
+        long h1 = mix(fingerprint);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+
+        boolean present = true;
+        AtomicLongArray words = generations[0].words;
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long value = words.get(word);
+            while ((value & mask) == 0) {
+                present = false;
+                if (words.compareAndSet(word, value, value | mask)) {
+                    break;
+                }
+                value = words.get(word);
+            }
+        }
+        return present || contains(generations[1], h1, h2);
+    }
+
+    /**
+     * Whether the fingerprint may have been added within the window
+     */
+    public boolean mightContain(long fingerprint) {
+        Generation[] generations = generations();
+        long h1 = mix(fingerprint);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        return contains(generations[0], h1, h2) || contains(generations[1], h1, h2);
+    }
+
+    /**
+     * Bits per filter
+     */
+    public long bitsPerFilter() {
+        return bits;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    /**
+     * Heap held by the bit arrays (two filters)
+     */
+    public long memoryBytes() {
+        return 2 * (bits >>> 3);
+    }
+
+    private boolean contains(Generation generation, long h1, long h2) {
+        if (generation == null) {
+            return false;
+        }
+        AtomicLongArray words = generation.words;
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Current and previous filter for the present window, rotating if the
+     * window has moved on
+     */
+    private Generation[] generations() {
+        long epoch = (clockNanos.getAsLong() - origin) / windowNanos;
+        Generation now = current;
+        if (now.epoch != epoch) {
+            now = rotate(epoch);
+        }
+        Generation before = previous;
+        return new Generation[] {now, before != null && before.epoch == epoch - 1 ? before : null};
+    }
+
+    private synchronized Generation rotate(long epoch) {
+        Generation now = current;
+        if (now.epoch < epoch) {
+            previous = now.epoch == epoch - 1 ? now : null;
+            now = new Generation(epoch, bits);
+            current = now;
+        }
+        return now;
+    }
+
+    /**
+     * Map a hash onto [0, bits) without division
+     */
+    private long index(long hash) {
+        return Math.multiplyHigh(hash & Long.MAX_VALUE, bits << 1);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,72 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.payment.util.Amounts;
+
+import java.io.IOException;
+
+/**
+ * JSON mapping of minor-unit amounts. On the wire an amount stays a decimal
+ * number in currency units (1500.00); in memory it is a long (150000).
+ */
+public final class AmountJson {
+
+    private AmountJson() {}
+
+    /**
+     * Writes minor units as a decimal number with two places. The generator
+     * copies the digits before returning, so each thread reuses one scratch
+     * buffer instead of allocating one per amount.
+     */
+    public static final class Serializer extends StdSerializer<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[Amounts.MAX_CHARS]);
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long minor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            char[] buffer = BUFFER.get();
+            gen.writeNumber(buffer, 0, Amounts.getChars(minor, buffer));
+        }
+    }
+
+    /**
+     * Reads a decimal number (or numeric string) exactly into minor units
+     */
+    public static final class Deserializer extends StdDeserializer<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+            }
+            String text = p.getText().trim();
+            try {
+                return Amounts.parse(text);
+            } catch (NumberFormatException e) {
+                throw InvalidFormatException.from(p,
+                        "Amount must be a number with at most " + Amounts.SCALE + " decimal places", text, Long.class);
+            }
+        }
+    }
+}
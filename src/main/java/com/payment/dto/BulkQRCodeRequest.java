@@ -0,0 +1,78 @@
+package com.payment.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Body of POST /api/qr-code/bulk. Items are checked one by one while the ZIP
+ * is written, so a bad item is reported in the manifest instead of failing
+ * the whole batch.
+ */
+public class BulkQRCodeRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 1000, message = "At most 1000 items per request")
+    private List<Item> items;
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    /**
+     * One QR code: payee UPI ID, display name, optional fixed amount and an
+     * optional label used for the file name (e.g. the counter number)
+     */
+    public static class Item {
+
+        private String upiId;
+        private String name;
+        private String amount;
+        private String label;
+
+        public Item() {}
+
+        public Item(String upiId, String name, String amount, String label) {
+            this.upiId = upiId;
+            this.name = name;
+            this.amount = amount;
+            this.label = label;
+        }
+
+        public String getUpiId() {
+            return upiId;
+        }
+
+        public void setUpiId(String upiId) {
+            this.upiId = upiId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getAmount() {
+            return amount;
+        }
+
+        public void setAmount(String amount) {
+            this.amount = amount;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.payment.dto;
+
+import java.util.Map;
+
+/**
+ * Errors counted by exception type since startup, and log lines held back
+ * by the per-type log rate limit
+ */
+public record ErrorMetricsResponse(boolean success, long total, long suppressedLogs, Map<String, Long> byType) {
+}
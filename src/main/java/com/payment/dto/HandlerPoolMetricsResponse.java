@@ -0,0 +1,13 @@
+package com.payment.dto;
+
+import java.util.Map;
+
+/**
+ * Per handler executor: requests running and queued now, and totals
+ * completed, refused for a full queue (rejected) and abandoned at the timeout
+ */
+public record HandlerPoolMetricsResponse(boolean success, Map<String, PoolMetrics> pools) {
+
+    public record PoolMetrics(int active, int queued, long completed, long rejected, long timedOut) {
+    }
+}
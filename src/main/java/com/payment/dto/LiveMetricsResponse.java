@@ -0,0 +1,16 @@
+package com.payment.dto;
+
+import java.util.Map;
+
+/**
+ * Per-second series for the dashboard: element i is second {@code start + i}
+ * (epoch seconds). Latency percentiles are in microseconds; {@code dropped}
+ * counts samples lost while a slot was being recycled.
+ */
+public record LiveMetricsResponse(boolean success, long start, int seconds, long[] requests, long[] errors,
+                                  long[] p50Micros, long[] p99Micros, long dropped,
+                                  Map<String, EndpointSeries> endpoints) {
+
+    public record EndpointSeries(long[] requests, long[] errors) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response for POST /api/auth/login
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LoginResponse(boolean success, String message, String token, String username) {
+}
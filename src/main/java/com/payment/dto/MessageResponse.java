@@ -0,0 +1,18 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Plain success/failure message without a payload
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MessageResponse(boolean success, String message) {
+
+    public static MessageResponse ok(String message) {
+        return new MessageResponse(true, message);
+    }
+
+    public static MessageResponse error(String message) {
+        return new MessageResponse(false, message);
+    }
+}
@@ -0,0 +1,27 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Response for GET /api/payments/changes: payments changed after the client's
+ * watermark, the watermark to send next time, whether the client has to keep
+ * paging (hasMore) or reload everything (resyncRequired), and the creation
+ * time up to which payments have moved to the archive (archivedThrough)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaymentChangesResponse(boolean success, String message, List<PaymentResponse> data,
+                                     String watermark, boolean hasMore, boolean resyncRequired,
+                                     String archivedThrough) {
+
+    public static PaymentChangesResponse changes(List<PaymentResponse> payments, String watermark, boolean hasMore,
+                                                 String archivedThrough) {
+        return new PaymentChangesResponse(true, "Changes retrieved successfully", payments, watermark, hasMore, false,
+                archivedThrough);
+    }
+
+    public static PaymentChangesResponse resync() {
+        return new PaymentChangesResponse(true, "Watermark too old, full resync required", List.of(), null, false, true,
+                null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Response for payment listings (GET /api/payments, /api/payments/status/:status)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaymentListResponse(boolean success, String message, List<PaymentResponse> data) {
+
+    public static PaymentListResponse of(List<PaymentResponse> payments) {
+        return new PaymentListResponse(true, "Payments retrieved successfully", payments);
+    }
+}
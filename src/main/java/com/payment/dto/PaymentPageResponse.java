@@ -0,0 +1,19 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Response for GET /api/payments/query: one page of payments and, if there
+ * are more, the cursor to pass as ?after= for the next page. truncated is
+ * true when a text query matched more payments than the listing narrows to,
+ * so the pages cover only the best-ranked matches.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaymentPageResponse(boolean success, String message, List<PaymentResponse> data,
+                                  String next, boolean hasMore, boolean truncated) {
+
+    public static PaymentPageResponse of(List<PaymentResponse> payments, String next, boolean truncated) {
+        return new PaymentPageResponse(true, "Payments retrieved successfully", payments, next, next != null, truncated);
+    }
+}
@@ -0,0 +1,108 @@
+package com.payment.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of GET /api/payments/query. Values arrive as the client
+ * sent them and are checked against the allowlists by PaymentService.
+ */
+public class PaymentQueryRequest {
+
+    private String sort = "createdAt";   // createdAt | updatedAt | amount | id
+    private String dir = "desc";         // asc | desc
+    private String status;               // status label, e.g. success
+    private String minAmount;            // decimal rupees
+    private String maxAmount;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private String q;                    // text search over name, email and contact
+    private String after;                // cursor from the previous page's "next"
+    private int size = 25;
+
+    // Getters and Setters
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getDir() {
+        return dir;
+    }
+
+    public void setDir(String dir) {
+        this.dir = dir;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(String minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public String getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(String maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
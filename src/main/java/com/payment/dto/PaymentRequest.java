@@ -1,7 +1,10 @@
 package com.payment.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.payment.util.Amounts;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 
 public class PaymentRequest {
 
@@ -18,20 +21,29 @@ public class PaymentRequest {
     @Pattern(regexp = "^\\d{10}$", message = "Contact must be exactly 10 digits")
     private String contact;
 
+    // Minor units (paise); a decimal number in rupees on the wire
     @NotNull(message = "Amount is required")
-    @DecimalMin(value = "1.00", message = "Amount must be at least ₹1.00")
-    @DecimalMax(value = "100000.00", message = "Amount must not exceed ₹100,000.00")
-    private BigDecimal amount;
+    @Min(value = 100, message = "Amount must be at least ₹1.00")
+    @Max(value = 10_000_000, message = "Amount must not exceed ₹100,000.00")
+    @JsonSerialize(using = AmountJson.Serializer.class)
+    @JsonDeserialize(using = AmountJson.Deserializer.class)
+    private Long amount;
+
+    @Pattern(regexp = "^[A-Z]{3}$", message = "Currency must be an ISO 4217 code")
+    private String currency = Amounts.DEFAULT_CURRENCY;
 
     @Pattern(regexp = "^[a-zA-Z0-9._-]+@[a-zA-Z]{3,}$", message = "UPI ID must be in format: username@upiname")
     private String upiId;
 
     private String paymentMethod; // "card" or "upi"
 
+    // paymentId of a 409 duplicate response, to make the identical payment again on purpose
+    private Long confirmDuplicateOf;
+
     // Constructors
     public PaymentRequest() {}
 
-    public PaymentRequest(String name, String email, String contact, BigDecimal amount) {
+    public PaymentRequest(String name, String email, String contact, long amount) {
         this.name = name;
         this.email = email;
         this.contact = contact;
@@ -39,7 +51,7 @@ public class PaymentRequest {
         this.paymentMethod = "card";
     }
 
-    public PaymentRequest(String name, String email, String contact, BigDecimal amount, String upiId, String paymentMethod) {
+    public PaymentRequest(String name, String email, String contact, long amount, String upiId, String paymentMethod) {
         this.name = name;
         this.email = email;
         this.contact = contact;
@@ -73,14 +85,22 @@ public class PaymentRequest {
         this.contact = contact;
     }
 
-    public BigDecimal getAmount() {
+    public Long getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Long amount) {
         this.amount = amount;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public String getUpiId() {
         return upiId;
     }
@@ -96,4 +116,22 @@ public class PaymentRequest {
     public void setPaymentMethod(String paymentMethod) {
         this.paymentMethod = paymentMethod;
     }
+
+    public Long getConfirmDuplicateOf() {
+        return confirmDuplicateOf;
+    }
+
+    public void setConfirmDuplicateOf(Long confirmDuplicateOf) {
+        this.confirmDuplicateOf = confirmDuplicateOf;
+    }
+
+    /**
+     * Amounts are hundredths of the currency unit, so currencies with another
+     * minor unit would be stored at the wrong scale
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Currency must be an ISO 4217 code with two decimal places")
+    public boolean isCurrencySupported() {
+        return currency == null || !currency.matches("^[A-Z]{3}$") || Amounts.isSupportedCurrency(currency);
+    }
 }
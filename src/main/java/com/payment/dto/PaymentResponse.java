@@ -1,6 +1,8 @@
 package com.payment.dto;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.payment.util.Amounts;
 
 public class PaymentResponse {
 
@@ -8,14 +10,17 @@ public class PaymentResponse {
     private String name;
     private String email;
     private String contact;
-    private BigDecimal amount;
+    @JsonSerialize(using = AmountJson.Serializer.class)
+    private long amount; // minor units
+    @JsonIgnore // not part of the wire format yet
+    private String currency = Amounts.DEFAULT_CURRENCY;
     private String status;
     private String createdAt;
 
     // Constructors
     public PaymentResponse() {}
 
-    public PaymentResponse(Long id, String name, String email, String contact, BigDecimal amount, String status, String createdAt) {
+    public PaymentResponse(Long id, String name, String email, String contact, long amount, String status, String createdAt) {
         this.id = id;
         this.name = name;
         this.email = email;
@@ -58,14 +63,22 @@ public class PaymentResponse {
         this.contact = contact;
     }
 
-    public BigDecimal getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public String getStatus() {
         return status;
     }
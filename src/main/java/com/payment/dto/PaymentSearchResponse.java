@@ -0,0 +1,16 @@
+package com.payment.dto;
+
+import com.payment.search.TrigramIndex;
+import java.util.List;
+
+/**
+ * Response for GET /api/payments/search: payment ids ranked by match quality.
+ * complete is false while the startup index rebuild is still running.
+ */
+public record PaymentSearchResponse(boolean success, String message, String query,
+                                    boolean complete, List<TrigramIndex.Hit> hits) {
+
+    public static PaymentSearchResponse of(String query, boolean complete, List<TrigramIndex.Hit> hits) {
+        return new PaymentSearchResponse(true, hits.size() + " matches", query, complete, hits);
+    }
+}
@@ -0,0 +1,16 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.Map;
+
+/**
+ * Response for GET /api/payments/stats: dashboard totals, overall and per status label
+ */
+public record PaymentStatsResponse(boolean success, String message, long count,
+                                   @JsonSerialize(using = AmountJson.Serializer.class) Long totalAmount,
+                                   Map<String, Long> countByStatus) {
+
+    public static PaymentStatsResponse of(long count, long totalAmount, Map<String, Long> countByStatus) {
+        return new PaymentStatsResponse(true, "Statistics retrieved successfully", count, totalAmount, countByStatus);
+    }
+}
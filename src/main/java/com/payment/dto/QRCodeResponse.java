@@ -0,0 +1,10 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response for POST /api/qr-code
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record QRCodeResponse(boolean success, String message, String qrCode) {
+}
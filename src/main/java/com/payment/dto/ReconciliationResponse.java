@@ -0,0 +1,22 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.payment.reconciliation.ReconciliationSummary;
+
+import java.time.LocalDate;
+
+/**
+ * State of one day's settlement reconciliation: "running" until the run
+ * finishes, then "done" with its summary
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReconciliationResponse(boolean success, LocalDate date, String status, ReconciliationSummary summary) {
+
+    public static ReconciliationResponse running(LocalDate date) {
+        return new ReconciliationResponse(true, date, "running", null);
+    }
+
+    public static ReconciliationResponse done(LocalDate date, ReconciliationSummary summary) {
+        return new ReconciliationResponse(true, date, "done", summary);
+    }
+}
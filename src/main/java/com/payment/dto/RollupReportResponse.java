@@ -0,0 +1,18 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response for GET /api/reports/payments: pre-aggregated buckets (hour or day)
+ * by status label, payment method and currency, in time order
+ */
+public record RollupReportResponse(boolean success, String granularity, LocalDate from, LocalDate to,
+                                   List<Bucket> buckets) {
+
+    public record Bucket(LocalDateTime start, String status, String method, String currency, long count,
+                         @JsonSerialize(using = AmountJson.Serializer.class) Long amount) {
+    }
+}
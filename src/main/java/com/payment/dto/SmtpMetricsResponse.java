@@ -0,0 +1,14 @@
+package com.payment.dto;
+
+import java.util.Map;
+
+/**
+ * Mail relay protection: breaker state, how often it entered each state,
+ * call outcomes, emails refused by the open breaker (notPermitted), by the
+ * half-open breaker with every probe slot taken (probesBusy) or by a full
+ * bulkhead (rejected), and current bulkhead occupancy
+ */
+public record SmtpMetricsResponse(boolean success, String state, Map<String, Long> transitions,
+                                  long succeeded, long failed, long notPermitted, long probesBusy, long rejected,
+                                  int active, int queued) {
+}
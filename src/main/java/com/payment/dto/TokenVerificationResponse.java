@@ -0,0 +1,12 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response for POST /api/auth/verify
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenVerificationResponse(boolean success, boolean valid, String username) {
+
+    public static final TokenVerificationResponse INVALID = new TokenVerificationResponse(false, false, null);
+}
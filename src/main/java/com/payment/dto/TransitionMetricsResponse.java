@@ -0,0 +1,10 @@
+package com.payment.dto;
+
+/**
+ * Lifecycle transition counters: applied, duplicate callbacks for a state the
+ * payment is already in, rejected (illegal) transitions, failed conditional
+ * updates (conflicts), re-attempts, and transitions given up after the retry limit
+ */
+public record TransitionMetricsResponse(boolean success, long applied, long duplicates, long rejected,
+                                        long conflicts, long retries, long exhausted) {
+}
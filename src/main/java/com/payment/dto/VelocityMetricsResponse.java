@@ -0,0 +1,14 @@
+package com.payment.dto;
+
+import java.util.Map;
+
+/**
+ * Velocity engine counters: payments evaluated and blocked, and per rule how
+ * often it was exceeded (hits) and how many payments it blocked
+ */
+public record VelocityMetricsResponse(boolean success, long evaluated, long blocked, Map<String, RuleMetrics> rules) {
+
+    public record RuleMetrics(String dimension, String metric, long limit, String window, String action,
+                              long hits, long blocked) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.payment.dto;
+
+import java.util.Map;
+
+/**
+ * Webhook delivery: events delivered, batches sent and how many failed,
+ * events moved to the dead-letter queue, and per endpoint the events waiting
+ * (pending), dead-lettered and batches in flight now
+ */
+public record WebhookMetricsResponse(boolean success, long delivered, long batches, long failedBatches,
+                                     long deadLettered, Map<String, EndpointMetrics> endpoints) {
+
+    public record EndpointMetrics(long pending, long dead, int inFlight) {
+    }
+}
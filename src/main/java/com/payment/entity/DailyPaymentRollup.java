@@ -0,0 +1,20 @@
+package com.payment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Payment totals per day (by creation time)
+ */
+@Entity
+@Table(name = "payment_rollup_daily", uniqueConstraints = @UniqueConstraint(name = "uk_payment_rollup_daily",
+        columnNames = {"bucket_start", "status", "payment_method", "currency"}))
+public class DailyPaymentRollup extends PaymentRollup {
+
+    protected DailyPaymentRollup() {}
+
+    public DailyPaymentRollup(LocalDateTime day, PaymentStatus status, String method, String currency,
+                              long paymentCount, long amountMinor) {
+        super(day, status, method, currency, paymentCount, amountMinor);
+    }
+}
@@ -0,0 +1,20 @@
+package com.payment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Payment totals per hour (by creation time)
+ */
+@Entity
+@Table(name = "payment_rollup_hourly", uniqueConstraints = @UniqueConstraint(name = "uk_payment_rollup_hourly",
+        columnNames = {"bucket_start", "status", "payment_method", "currency"}))
+public class HourlyPaymentRollup extends PaymentRollup {
+
+    protected HourlyPaymentRollup() {}
+
+    public HourlyPaymentRollup(LocalDateTime hour, PaymentStatus status, String method, String currency,
+                               long paymentCount, long amountMinor) {
+        super(hour, status, method, currency, paymentCount, amountMinor);
+    }
+}
@@ -0,0 +1,66 @@
+package com.payment.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+/**
+ * Which node may run a cluster-wide job (e.g. archiving) and until when.
+ * A node takes or extends the lease with a conditional UPDATE; a lease
+ * whose holder died simply runs out. New instances are always inserted,
+ * never merged, so two nodes creating the same lease cannot overwrite
+ * each other.
+ */
+@Entity
+@Table(name = "job_leases")
+public class JobLease implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected JobLease() {}
+
+    public JobLease(String name, String owner, LocalDateTime leaseUntil) {
+        this.name = name;
+        this.owner = owner;
+        this.leaseUntil = leaseUntil;
+    }
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+}
@@ -1,14 +1,21 @@
 package com.payment.entity;
 
+import com.payment.util.Amounts;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_updated_at_id", columnList = "updatedAt, id"),
+        @Index(name = "idx_payments_created_at", columnList = "createdAt"),
+        @Index(name = "idx_payments_status_created_at", columnList = "status, createdAt"),
+        @Index(name = "idx_payments_amount_minor", columnList = "amount_minor")
+})
+@org.springframework.data.relational.core.mapping.Table("payments") // R2DBC mapping for the reactive profile
 public class Payment {
 
     @Id
+    @org.springframework.data.annotation.Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -21,11 +28,23 @@ public class Payment {
     @Column(nullable = false, length = 10)
     private String contact;
 
-    @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    // Minor units (paise/cents) of the currency
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
 
-    @Column(nullable = false, length = 20)
-    private String status = "pending";
+    @Column(nullable = false, length = 3)
+    private String currency = Amounts.DEFAULT_CURRENCY;
+
+    @Column(nullable = false)
+    private PaymentStatus status = PaymentStatus.PENDING;
+
+    // "card", "upi" or "other"; null for payments made before it was recorded
+    @Column(name = "payment_method", length = 10)
+    private String paymentMethod;
+
+    // Optimistic concurrency guard for status transitions
+    @Version
+    private Long version;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -47,12 +66,13 @@ public class Payment {
     // Constructors
     public Payment() {}
 
-    public Payment(Long id, String name, String email, String contact, BigDecimal amount, String status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    public Payment(Long id, String name, String email, String contact, long amountMinor, String currency, PaymentStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.contact = contact;
-        this.amount = amount;
+        this.amountMinor = amountMinor;
+        this.currency = currency;
         this.status = status;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
@@ -91,22 +111,46 @@ public class Payment {
         this.contact = contact;
     }
 
-    public BigDecimal getAmount() {
-        return amount;
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
     }
 
-    public void setAmount(BigDecimal amount) {
-        this.amount = amount;
+    public void setCurrency(String currency) {
+        this.currency = currency;
     }
 
-    public String getStatus() {
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public PaymentStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(PaymentStatus status) {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
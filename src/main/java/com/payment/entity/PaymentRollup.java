@@ -0,0 +1,74 @@
+package com.payment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated payment count and amount for one time bucket, status,
+ * payment method and currency. Reporting reads these instead of payments.
+ */
+@MappedSuperclass
+public abstract class PaymentRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    @Column(name = "payment_method", nullable = false, length = 10)
+    private String method;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    protected PaymentRollup() {}
+
+    protected PaymentRollup(LocalDateTime bucketStart, PaymentStatus status, String method, String currency,
+                            long paymentCount, long amountMinor) {
+        this.bucketStart = bucketStart;
+        this.status = status;
+        this.method = method;
+        this.currency = currency;
+        this.paymentCount = paymentCount;
+        this.amountMinor = amountMinor;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+}
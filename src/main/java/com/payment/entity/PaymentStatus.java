@@ -0,0 +1,73 @@
+package com.payment.entity;
+
+/**
+ * Payment lifecycle states. Stored as a one-byte code; exposed on the API by
+ * label. Captured payments keep the original "success" label so existing
+ * clients and status filters are unaffected ("captured" is accepted as an alias).
+ *
+ * pending -> authorized -> captured -> refunded
+ *    \___________\_______-> failed
+ */
+public enum PaymentStatus {
+
+    PENDING(0, "pending"),
+    AUTHORIZED(1, "authorized"),
+    CAPTURED(2, "success"),
+    FAILED(3, "failed"),
+    REFUNDED(4, "refunded");
+
+    private static final PaymentStatus[] BY_CODE = values();
+
+    private final byte code;
+    private final String label;
+
+    PaymentStatus(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Whether a payment in this state may move to the next state
+     */
+    public boolean canTransitionTo(PaymentStatus next) {
+        return switch (this) {
+            case PENDING -> next == AUTHORIZED || next == FAILED;
+            case AUTHORIZED -> next == CAPTURED || next == FAILED;
+            case CAPTURED -> next == REFUNDED;
+            case FAILED, REFUNDED -> false;
+        };
+    }
+
+    public static PaymentStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown payment status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Look up a state by API label (case-insensitive); null if there is none
+     */
+    public static PaymentStatus fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+        if ("captured".equalsIgnoreCase(label)) {
+            return CAPTURED;
+        }
+        for (PaymentStatus status : BY_CODE) {
+            if (status.label.equalsIgnoreCase(label)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.payment.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps PaymentStatus to its TINYINT code for JPA
+ */
+@Converter(autoApply = true)
+public class PaymentStatusConverter implements AttributeConverter<PaymentStatus, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(PaymentStatus status) {
+        return status == null ? null : status.code();
+    }
+
+    @Override
+    public PaymentStatus convertToEntityAttribute(Byte code) {
+        return code == null ? null : PaymentStatus.fromCode(code);
+    }
+}
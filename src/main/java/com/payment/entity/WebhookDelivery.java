@@ -0,0 +1,121 @@
+package com.payment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One payment event queued for one merchant endpoint. Delivered rows are
+ * deleted; rows that exhaust their attempts stay as DEAD (the dead-letter
+ * queue) until replayed.
+ */
+@Entity
+@Table(name = "webhook_deliveries", indexes = @Index(name = "idx_webhook_due",
+        columnList = "endpoint, state, next_attempt_at, id"))
+public class WebhookDelivery {
+
+    public enum State {
+        PENDING, DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String endpoint;
+
+    /** Shared by the copies of one event queued for different endpoints */
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+
+    /** The event as JSON, exactly as it goes into the batch body */
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private State state = State.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /** When the row may next be sent; pushed forward while a batch holding it is in flight */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected WebhookDelivery() {}
+
+    public WebhookDelivery(String endpoint, String eventId, String eventType, String payload, LocalDateTime now) {
+        this.endpoint = endpoint;
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.nextAttemptAt = now;
+        this.createdAt = now;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.payment.exception;
+
+/**
+ * The same payment (email, contact, amount and currency) was already made
+ * moments ago. Resubmitting with confirmDuplicateOf set to the existing
+ * payment's id makes it again.
+ */
+public class DuplicatePaymentException extends PaymentConflictException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long existingPaymentId;
+
+    public DuplicatePaymentException(Long existingPaymentId) {
+        super("This payment was already submitted");
+        this.existingPaymentId = existingPaymentId;
+    }
+
+    public Long getExistingPaymentId() {
+        return existingPaymentId;
+    }
+}
@@ -1,14 +1,30 @@
 package com.payment.exception;
 
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.payment.dto.ApiResponse;
+import com.payment.service.ErrorMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,6 +33,9 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Autowired
+    private ErrorMetrics errorMetrics;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -37,9 +56,129 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    /**
+     * Bean validation failures on the reactive (WebFlux) stack
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse> handleReactiveValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+
+        log.warn("Validation error: {}", errors);
+
+        ApiResponse response = ApiResponse.builder()
+                .success(false)
+                .message("Validation failed")
+                .errors(errors)
+                .build();
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Request bodies that cannot be mapped, e.g. an amount with more than two decimals
+     */
+    @ExceptionHandler({HttpMessageNotReadableException.class, ServerWebInputException.class})
+    public ResponseEntity<ApiResponse> handleUnreadableBody(Exception ex) {
+        Map<String, String> errors = new HashMap<>();
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        if (cause instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String fieldName = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (fieldName != null) {
+                errors.put(fieldName, mapping.getOriginalMessage());
+            }
+        }
+
+        log.warn("Unreadable request body: {}", cause.getMessage());
+
+        ApiResponse response = ApiResponse.builder()
+                .success(false)
+                .message(errors.isEmpty() ? "Malformed request body" : "Validation failed")
+                .errors(errors.isEmpty() ? null : errors)
+                .build();
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Asynchronous handlers that could not be queued or did not finish in time
+     */
+    @ExceptionHandler({ServerBusyException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<ApiResponse> handleServerBusy(Exception ex) {
+        long suppressed = errorMetrics.record(ex);
+        if (suppressed != ErrorMetrics.SUPPRESSED) {
+            log.warn("Request not handled in time: {}{}", ex.getMessage(), suppressedNote(suppressed));
+        }
+
+        ApiResponse response = ApiResponse.builder()
+                .success(false)
+                .message(ex instanceof ServerBusyException ? ex.getMessage() : "Request timed out, please retry")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+    }
+
+    /**
+     * Expected outcomes (not found, invalid input, conflicts, limits): no
+     * stack trace to log, and the answer is the exception's own status
+     */
+    @ExceptionHandler(PaymentException.class)
+    public ResponseEntity<ApiResponse> handlePaymentException(PaymentException ex) {
+        long suppressed = errorMetrics.record(ex);
+        if (suppressed != ErrorMetrics.SUPPRESSED && log.isDebugEnabled()) {
+            log.debug("{}: {}{}", ex.getClass().getSimpleName(), ex.getMessage(), suppressedNote(suppressed));
+        }
+
+        ApiResponse response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .build();
+
+        return ResponseEntity.status(ex.getStatus()).body(response);
+    }
+
+    /**
+     * Requests the framework turns away before a handler runs: an unknown path
+     * or method, a missing parameter, a path or query value of the wrong type.
+     * Client errors like PaymentException, so no stack trace is logged and the
+     * framework's message, which names internals, is not sent back.
+     */
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class,
+            NoResourceFoundException.class, HttpRequestMethodNotSupportedException.class, ResponseStatusException.class})
+    public ResponseEntity<ApiResponse> handleRejectedRequest(Exception ex) {
+        long suppressed = errorMetrics.record(ex);
+        if (suppressed != ErrorMetrics.SUPPRESSED && log.isDebugEnabled()) {
+            log.debug("{}: {}{}", ex.getClass().getSimpleName(), ex.getMessage(), suppressedNote(suppressed));
+        }
+
+        HttpStatusCode status;
+        String message;
+        if (ex instanceof MethodArgumentTypeMismatchException mismatch) {
+            status = HttpStatus.BAD_REQUEST;
+            message = "Invalid value for '" + mismatch.getName() + "'";
+        } else if (ex instanceof MissingServletRequestParameterException missing) {
+            status = HttpStatus.BAD_REQUEST;
+            message = "Missing parameter '" + missing.getParameterName() + "'";
+        } else {
+            status = ((ErrorResponse) ex).getStatusCode();
+            HttpStatus known = HttpStatus.resolve(status.value());
+            message = known == null ? "Request rejected" : known.getReasonPhrase();
+        }
+
+        ApiResponse response = ApiResponse.builder()
+                .success(false)
+                .message(message)
+                .build();
+
+        return ResponseEntity.status(status).body(response);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse> handleRuntimeException(RuntimeException ex) {
-        log.error("Runtime exception: {}", ex.getMessage(), ex);
+        long suppressed = errorMetrics.record(ex);
+        if (suppressed != ErrorMetrics.SUPPRESSED) {
+            log.error("Runtime exception: {}{}", ex.getMessage(), suppressedNote(suppressed), ex);
+        }
 
         ApiResponse response = ApiResponse.builder()
                 .success(false)
@@ -51,7 +190,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse> handleGenericException(Exception ex) {
-        log.error("Unexpected exception: {}", ex.getMessage(), ex);
+        long suppressed = errorMetrics.record(ex);
+        if (suppressed != ErrorMetrics.SUPPRESSED) {
+            log.error("Unexpected exception: {}{}", ex.getMessage(), suppressedNote(suppressed), ex);
+        }
 
         ApiResponse response = ApiResponse.builder()
                 .success(false)
@@ -60,4 +202,8 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
+
+    private static String suppressedNote(long suppressed) {
+        return suppressed > 0 ? " (" + suppressed + " similar not logged)" : "";
+    }
 }
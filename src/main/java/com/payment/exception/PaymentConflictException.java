@@ -0,0 +1,20 @@
+package com.payment.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The request clashes with the payment's current state
+ */
+public class PaymentConflictException extends PaymentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PaymentConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
@@ -0,0 +1,23 @@
+package com.payment.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An expected outcome of a payment request (not found, invalid input, a
+ * conflict, a limit) rather than a fault. These are answered with a status
+ * code and never debugged from a trace, so they are created without one:
+ * a client probing random IDs does not cost a stack walk per request.
+ */
+public abstract class PaymentException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected PaymentException(String message) {
+        super(message, null, false, false);
+    }
+
+    /**
+     * Status the outcome is answered with
+     */
+    public abstract HttpStatus getStatus();
+}
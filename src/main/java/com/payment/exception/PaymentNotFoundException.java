@@ -0,0 +1,27 @@
+package com.payment.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * No payment with the given ID in the hot table or the archive
+ */
+public class PaymentNotFoundException extends PaymentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long paymentId;
+
+    public PaymentNotFoundException(Long paymentId) {
+        super("Payment not found with ID: " + paymentId);
+        this.paymentId = paymentId;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
@@ -0,0 +1,21 @@
+package com.payment.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request parameter outside what the service accepts (unknown sort or
+ * status, malformed amount, inverted date range)
+ */
+public class PaymentValidationException extends PaymentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PaymentValidationException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
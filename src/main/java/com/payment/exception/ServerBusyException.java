@@ -0,0 +1,22 @@
+package com.payment.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request could not be handled in time: its executor's queue was full or
+ * it waited and ran longer than the executor's timeout. Answered with 503.
+ * Carries no request state, so each executor reuses one instance per cause.
+ */
+public class ServerBusyException extends PaymentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServerBusyException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
@@ -0,0 +1,28 @@
+package com.payment.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A payment was refused by a velocity rule (too many payments or too much
+ * money for one email, contact or UPI ID within the rule's window)
+ */
+public class VelocityLimitExceededException extends PaymentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String rule;
+
+    public VelocityLimitExceededException(String rule) {
+        super("Payment limit reached, please try again later");
+        this.rule = rule;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.TOO_MANY_REQUESTS;
+    }
+}
@@ -0,0 +1,100 @@
+package com.payment.filter;
+
+import com.payment.service.AuthenticationService;
+import com.payment.webhook.WebhookSigner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Which endpoints need an operator and whether a request may call them, for
+ * {@link OperatorAuthFilter} and {@link ReactiveOperatorAuthFilter}.
+ *
+ * Guarded endpoints change payments on someone else's behalf or run operator
+ * jobs. They need a dashboard token (Authorization: Bearer, from
+ * /api/auth/login); lifecycle transitions also accept a gateway signature instead:
+ * X-Gateway-Timestamp (epoch seconds) and X-Gateway-Signature, the
+ * {@link WebhookSigner} v1 HMAC of "METHOD path" under payment.gateway.secret.
+ */
+@Component
+public class OperatorGuard {
+
+    static final String TIMESTAMP_HEADER = "X-Gateway-Timestamp";
+    static final String SIGNATURE_HEADER = "X-Gateway-Signature";
+
+    static final byte[] UNAUTHORIZED_BODY =
+            "{\"success\":false,\"message\":\"Authentication required\"}".getBytes(StandardCharsets.UTF_8);
+
+    private record Guarded(String method, Pattern path, boolean gatewaySigned) {
+    }
+
+    private static final List<Guarded> GUARDED = List.of(
+            new Guarded("POST", Pattern.compile("/api/payments/\\d+/(authorize|capture|fail|refund)"), true),
+            new Guarded("POST", Pattern.compile("/api/reconciliation/[^/]+"), false),
+            new Guarded("GET", Pattern.compile("/api/reconciliation/[^/]+"), false),
+            new Guarded("POST", Pattern.compile("/api/webhooks/[^/]+/replay"), false));
+
+    private final AuthenticationService authenticationService;
+    private final String gatewaySecret;
+    private final long toleranceSeconds;
+
+    public OperatorGuard(AuthenticationService authenticationService,
+                         @Value("${payment.gateway.secret:}") String gatewaySecret,
+                         @Value("${payment.gateway.signature-tolerance:PT5M}") Duration tolerance) {
+        this.authenticationService = authenticationService;
+        this.gatewaySecret = gatewaySecret;
+        this.toleranceSeconds = tolerance.toSeconds();
+    }
+
+    /**
+     * Whether the request may proceed. routedPath is the path the framework
+     * routes on (decoded, ";" parameters removed), so no spelling of a guarded
+     * route reaches its handler unchecked; the gateway signs the raw path.
+     */
+    public boolean permits(String method, String routedPath, String rawPath,
+                           String authorization, String timestamp, String signature) {
+        Guarded guarded = match(method, routedPath);
+        return guarded == null || hasToken(authorization)
+                || (guarded.gatewaySigned && hasGatewaySignature(method, rawPath, timestamp, signature));
+    }
+
+    private static Guarded match(String method, String path) {
+        for (Guarded guarded : GUARDED) {
+            if (guarded.method.equals(method) && guarded.path.matcher(path).matches()) {
+                return guarded;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasToken(String authorization) {
+        return authorization != null && authorization.startsWith("Bearer ")
+                && authenticationService.isActive(authorization.substring(7));
+    }
+
+    private boolean hasGatewaySignature(String method, String rawPath, String timestamp, String signature) {
+        if (gatewaySecret.isEmpty() || timestamp == null || signature == null) {
+            return false;
+        }
+        long seconds;
+        try {
+            seconds = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (Math.abs(System.currentTimeMillis() / 1000 - seconds) > toleranceSeconds) {
+            return false;
+        }
+        String expected = WebhookSigner.sign(gatewaySecret, seconds, signedContent(method, rawPath));
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static byte[] signedContent(String method, String path) {
+        return (method + " " + path).getBytes(StandardCharsets.UTF_8);
+    }
+}
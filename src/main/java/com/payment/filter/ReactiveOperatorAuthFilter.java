@@ -0,0 +1,62 @@
+package com.payment.filter;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link OperatorAuthFilter} for the reactive profile
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 15)
+public class ReactiveOperatorAuthFilter implements WebFilter {
+
+    private final OperatorGuard guard;
+
+    public ReactiveOperatorAuthFilter(OperatorGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        if (guard.permits(request.getMethod().name(),
+                routedPath(request),
+                request.getPath().value(),
+                headers.getFirst(HttpHeaders.AUTHORIZATION),
+                headers.getFirst(OperatorGuard.TIMESTAMP_HEADER),
+                headers.getFirst(OperatorGuard.SIGNATURE_HEADER))) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(OperatorGuard.UNAUTHORIZED_BODY);
+        return response.writeWith(Mono.just(body));
+    }
+
+    /**
+     * The path WebFlux routes on: each segment decoded, ";" parameters removed
+     */
+    static String routedPath(ServerHttpRequest request) {
+        StringBuilder path = new StringBuilder();
+        for (PathContainer.Element element : request.getPath().pathWithinApplication().elements()) {
+            path.append(element instanceof PathContainer.PathSegment segment ? segment.valueToMatch() : element.value());
+        }
+        return path.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.payment.filter;
+
+import com.payment.service.RateLimitService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * WebFlux counterpart of {@link RateLimitFilter} for the reactive profile
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ReactiveRateLimitFilter implements WebFilter {
+
+    private final RateLimitService rateLimitService;
+
+    public ReactiveRateLimitFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        InetSocketAddress remote = request.getRemoteAddress();
+
+        long retryAfterMillis = rateLimitService.check(
+                request.getMethod().name(),
+                ReactiveOperatorAuthFilter.routedPath(request),
+                headers.getFirst(HttpHeaders.AUTHORIZATION),
+                headers.getFirst("X-Forwarded-For"),
+                remote == null || remote.getAddress() == null ? null : remote.getAddress().getHostAddress());
+
+        if (retryAfterMillis > 0) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(RateLimitFilter.retryAfterSeconds(retryAfterMillis)));
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            DataBuffer body = response.bufferFactory().wrap(RateLimitFilter.TOO_MANY_REQUESTS_BODY);
+            return response.writeWith(Mono.just(body));
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,51 @@
+package com.payment.filter;
+
+import com.payment.service.RequestTimeSeries;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * WebFlux counterpart of {@link RequestMetricsFilter} for the reactive profile
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class ReactiveRequestMetricsFilter implements WebFilter {
+
+    private final RequestTimeSeries timeSeries;
+
+    public ReactiveRequestMetricsFilter(RequestTimeSeries timeSeries) {
+        this.timeSeries = timeSeries;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!path.startsWith("/api/") || path.equals(RequestMetricsFilter.LIVE_METRICS_PATH)) {
+            return chain.filter(exchange);
+        }
+        long started = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            // Errors reach the exception handlers after the chain, so their status is not set yet
+            int code = signal == SignalType.ON_ERROR ? 500 : status == null ? 200 : status.value();
+            timeSeries.record(endpoint(exchange), code, System.nanoTime() - started);
+        });
+    }
+
+    /** Null when no handler matched (404, or rejected before dispatch): counted as "other" */
+    static String endpoint(ServerWebExchange exchange) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? null : exchange.getRequest().getMethod().name() + " " + pattern.getPatternString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.payment.filter;
+
+import com.payment.config.ReadRoutingContext;
+import com.payment.config.ReplicaProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes across requests: the first write of a request sets a
+ * short-lived cookie, and while it is valid the client's reads are pinned to
+ * the primary instead of a possibly lagging replica. When the write ran on
+ * an asynchronous handler's thread, the cookie is added on the async dispatch
+ * that writes the response.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "payment.datasource.replicas[0].url")
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "payment_ryw";
+
+    private static final String CONTEXT_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".context";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(ReplicaProperties replicaProperties) {
+        this.window = replicaProperties.getReadYourWritesWindow();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            if (request.getAttribute(CONTEXT_ATTRIBUTE) instanceof ReadRoutingContext context
+                    && context.wroteOffThread()) {
+                setCookie(response);
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ReadRoutingContext context = ReadRoutingContext.open(pinnedUntil(request) > System.currentTimeMillis(),
+                () -> setCookie(response));
+        request.setAttribute(CONTEXT_ATTRIBUTE, context);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRoutingContext.close();
+        }
+    }
+
+    private void setCookie(HttpServletResponse response) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME,
+                        Long.toString(System.currentTimeMillis() + window.toMillis()))
+                .path("/")
+                .maxAge(window)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
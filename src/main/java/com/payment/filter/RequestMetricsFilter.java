@@ -0,0 +1,83 @@
+package com.payment.filter;
+
+import com.payment.service.RequestTimeSeries;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every API request into the live time series, keyed by method and
+ * mapped path pattern. Runs outside the rate limiter so 429s are counted too.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    static final String LIVE_METRICS_PATH = "/api/metrics/live";
+
+    private final RequestTimeSeries timeSeries;
+
+    public RequestMetricsFilter(RequestTimeSeries timeSeries) {
+        this.timeSeries = timeSeries;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.equals(LIVE_METRICS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            timeSeries.record(endpoint(request), 500, System.nanoTime() - started);
+            throw e;
+        }
+
+        if (request.isAsyncStarted()) {
+            // Streamed responses finish on another thread; count them when they complete
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    timeSeries.record(endpoint(request), response.getStatus(), System.nanoTime() - started);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return;
+        }
+        timeSeries.record(endpoint(request), response.getStatus(), System.nanoTime() - started);
+    }
+
+    /** Null when no handler matched (404, or rejected before dispatch): counted as "other" */
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? null : request.getMethod() + " " + pattern;
+    }
+}
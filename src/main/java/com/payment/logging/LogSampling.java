@@ -0,0 +1,71 @@
+package com.payment.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples routine per-request log lines: lines logged with the
+ * {@link #ROUTINE} marker at INFO or below are kept one in sample-rate, and
+ * at most max-per-second of them in any second. Anything else, and every
+ * WARN and ERROR, passes untouched. Runs as a turbo filter, before the
+ * message is formatted, so a dropped line costs a couple of atomic updates.
+ */
+public class LogSampling extends TurboFilter {
+
+    /** Marks a line that is logged for every request and may be sampled */
+    public static final Marker ROUTINE = MarkerFactory.getMarker("ROUTINE");
+
+    private int sampleRate = 1;
+    private int maxPerSecond = Integer.MAX_VALUE;
+
+    private final AtomicLong seen = new AtomicLong();
+    private final AtomicInteger keptThisSecond = new AtomicInteger();
+    private volatile long second;
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which must not use up a sample
+        if (marker == null || format == null || level.isGreaterOrEqual(Level.WARN) || !marker.contains(ROUTINE)
+                || !logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (seen.getAndIncrement() % sampleRate != 0) {
+            dropped.increment();
+            return FilterReply.DENY;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        if (now != second) {
+            second = now;
+            keptThisSecond.set(0);
+        }
+        if (keptThisSecond.incrementAndGet() > maxPerSecond) {
+            dropped.increment();
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond <= 0 ? Integer.MAX_VALUE : maxPerSecond;
+    }
+
+    /**
+     * Routine lines dropped by sampling or the rate cap since startup
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,343 @@
+package com.payment.recent;
+
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.util.Amounts;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The most recent payments in a direct (off-heap) buffer of fixed-size
+ * slots. A payment lives in slot id mod capacity until a newer id lands
+ * there, so the ring holds up to the last capacity ids; ids skipped by
+ * failed inserts simply leave an older row behind, which readers ignore.
+ * Each slot keeps the row version of its status, so status changes that
+ * arrive out of order never replace a newer status with an older one.
+ *
+ * Each slot starts with a sequence number (a seqlock). A writer makes it odd,
+ * writes the fields and makes it even again; a reader copies the slot and
+ * keeps the copy only if the sequence was even and unchanged across the
+ * copy. Readers never block writers and reuse one scratch array, so a read
+ * allocates nothing per row.
+ *
+ * Text is stored as UTF-8 with room for the column's maximum length at three
+ * bytes per char; createdAt is stored already formatted.
+ */
+public final class PaymentRing {
+
+    private static final int SEQ = 0;
+    private static final int ID = 8;
+    private static final int AMOUNT = 16;
+    private static final int VERSION = 24;
+    private static final int STATUS = 32;
+    private static final int NAME_LENGTH = 33;
+    private static final int CONTACT_LENGTH = 34;
+    private static final int EMAIL_LENGTH = 36;
+    private static final int CREATED_AT = 38;
+    private static final int CREATED_AT_BYTES = 19;
+    private static final int NAME = CREATED_AT + CREATED_AT_BYTES;
+    private static final int NAME_BYTES = 150;
+    private static final int EMAIL = NAME + NAME_BYTES;
+    private static final int EMAIL_BYTES = 300;
+    private static final int CONTACT = EMAIL + EMAIL_BYTES;
+    private static final int CONTACT_BYTES = 30;
+    /** Rounded up to 8 so every slot's sequence number is aligned */
+    static final int SLOT_BYTES = (CONTACT + CONTACT_BYTES + 7) & ~7;
+
+    private static final VarHandle SEQUENCE = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final byte[][] STATUS_JSON = new byte[PaymentStatus.values().length][];
+    static {
+        for (PaymentStatus status : PaymentStatus.values()) {
+            STATUS_JSON[status.ordinal()] = ("\"" + status.label() + "\"").getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final ByteBuffer slots;
+    private final int capacity;
+    private final AtomicLong highestId = new AtomicLong();
+
+    public PaymentRing(int capacity) {
+        if (capacity < 1 || (long) capacity * SLOT_BYTES > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Ring capacity must be between 1 and "
+                    + (Integer.MAX_VALUE - 8) / SLOT_BYTES + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES + 7).alignedSlice(8)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Off-heap bytes held by the ring
+     */
+    public long memoryBytes() {
+        return (long) capacity * SLOT_BYTES;
+    }
+
+    /**
+     * Store a payment unless its slot already holds the same or a newer id
+     *
+     * @return false if the payment was not stored (older than the slot's, or
+     *         a field too long for its column)
+     */
+    public boolean add(Payment payment) {
+        long id = payment.getId();
+        byte[] name = payment.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = payment.getEmail().getBytes(StandardCharsets.UTF_8);
+        byte[] contact = payment.getContact().getBytes(StandardCharsets.UTF_8);
+        String createdAt = payment.getCreatedAt().format(DATE_FORMATTER);
+        if (name.length > NAME_BYTES || email.length > EMAIL_BYTES || contact.length > CONTACT_BYTES
+                || createdAt.length() != CREATED_AT_BYTES) {
+            return false;
+        }
+
+        int base = slot(id);
+        long sequence = lock(base);
+        if (slots.getLong(base + ID) >= id) {
+            unlock(base, sequence);
+            return false;
+        }
+        try {
+            slots.putLong(base + ID, id);
+            slots.putLong(base + AMOUNT, payment.getAmountMinor());
+            slots.putLong(base + VERSION, payment.getVersion() != null ? payment.getVersion() : 0);
+            slots.put(base + STATUS, (byte) payment.getStatus().ordinal());
+            slots.put(base + NAME_LENGTH, (byte) name.length);
+            slots.put(base + CONTACT_LENGTH, (byte) contact.length);
+            slots.putShort(base + EMAIL_LENGTH, (short) email.length);
+            for (int i = 0; i < CREATED_AT_BYTES; i++) {
+                slots.put(base + CREATED_AT + i, (byte) createdAt.charAt(i));
+            }
+            slots.put(base + NAME, name);
+            slots.put(base + EMAIL, email);
+            slots.put(base + CONTACT, contact);
+        } finally {
+            unlock(base, sequence + 2);
+        }
+        highestId.accumulateAndGet(id, Math::max);
+        return true;
+    }
+
+    /**
+     * Record a status change if the payment is still in the ring and version
+     * is newer than the row version of the status it holds
+     *
+     * @return false if the payment left the ring or the change is stale
+     */
+    public boolean updateStatus(long id, PaymentStatus status, long version) {
+        int base = slot(id);
+        long sequence = lock(base);
+        if (slots.getLong(base + ID) != id || slots.getLong(base + VERSION) >= version) {
+            unlock(base, sequence);
+            return false;
+        }
+        slots.putLong(base + VERSION, version);
+        slots.put(base + STATUS, (byte) status.ordinal());
+        unlock(base, sequence + 2);
+        return true;
+    }
+
+    /**
+     * Write up to limit of the most recent payments, newest first, as a JSON
+     * array in the PaymentResponse wire format.
+     *
+     * @return rows written
+     */
+    public int writeJson(int limit, OutputStream out) throws IOException {
+        JsonOutput json = new JsonOutput(out);
+        byte[] scratch = new byte[SLOT_BYTES];
+        ByteBuffer row = ByteBuffer.wrap(scratch).order(ByteOrder.nativeOrder());
+
+        json.write('[');
+        int written = 0;
+        long highest = highestId.get();
+        for (long id = highest; id > 0 && id > highest - capacity && written < limit; id--) {
+            if (!read(slot(id), scratch) || row.getLong(ID) != id) {
+                continue;
+            }
+            if (written++ > 0) {
+                json.write(',');
+            }
+            json.row(id, row, scratch);
+        }
+        json.write(']');
+        json.flush();
+        return written;
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) capacity) * SLOT_BYTES;
+    }
+
+    /**
+     * Take the slot's write lock: move its sequence from even to odd
+     */
+    private long lock(int base) {
+        while (true) {
+            long sequence = (long) SEQUENCE.getVolatile(slots, base + SEQ);
+            if ((sequence & 1) == 0 && SEQUENCE.compareAndSet(slots, base + SEQ, sequence, sequence + 1)) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void unlock(int base, long sequence) {
+        SEQUENCE.setRelease(slots, base + SEQ, sequence);
+    }
+
+    /**
+     * Copy a consistent snapshot of the slot into scratch
+     *
+     * @return false if the slot has never been written
+     */
+    private boolean read(int base, byte[] scratch) {
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(slots, base + SEQ);
+            if (before == 0) {
+                return false;
+            }
+            if ((before & 1) == 0) {
+                slots.get(base, scratch, 0, SLOT_BYTES);
+                // The copy's loads must complete before the sequence is read again
+                VarHandle.acquireFence();
+                if ((long) SEQUENCE.getVolatile(slots, base + SEQ) == before) {
+                    return true;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Buffered JSON writer over the caller's stream; one per read, reused for every row
+     */
+    private static final class JsonOutput {
+
+        private static final byte[] ID_FIELD = "{\"id\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] NAME_FIELD = ",\"name\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] EMAIL_FIELD = ",\"email\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] CONTACT_FIELD = ",\"contact\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] AMOUNT_FIELD = ",\"amount\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] STATUS_FIELD = ",\"status\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] CREATED_AT_FIELD = ",\"createdAt\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[8192];
+        private final char[] digits = new char[Amounts.MAX_CHARS];
+        private int position;
+
+        JsonOutput(OutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * One row, in the field order Jackson uses for PaymentResponse
+         */
+        void row(long id, ByteBuffer row, byte[] scratch) throws IOException {
+            write(ID_FIELD);
+            number(id);
+            write(NAME_FIELD);
+            string(scratch, NAME, row.get(NAME_LENGTH) & 0xFF);
+            write(EMAIL_FIELD);
+            string(scratch, EMAIL, row.getShort(EMAIL_LENGTH) & 0xFFFF);
+            write(CONTACT_FIELD);
+            string(scratch, CONTACT, row.get(CONTACT_LENGTH) & 0xFF);
+            write(AMOUNT_FIELD);
+            int length = Amounts.getChars(row.getLong(AMOUNT), digits);
+            for (int i = 0; i < length; i++) {
+                write(digits[i]);
+            }
+            write(STATUS_FIELD);
+            write(STATUS_JSON[row.get(STATUS)]);
+            write(CREATED_AT_FIELD);
+            string(scratch, CREATED_AT, CREATED_AT_BYTES);
+            write('}');
+        }
+
+        private void number(long value) throws IOException {
+            if (value == 0) {
+                write('0');
+                return;
+            }
+            int end = 0;
+            long rest = value;
+            while (rest > 0) {
+                digits[end++] = (char) ('0' + rest % 10);
+                rest /= 10;
+            }
+            while (end > 0) {
+                write(digits[--end]);
+            }
+        }
+
+        /**
+         * A quoted JSON string from UTF-8 bytes, escaped as Jackson escapes it;
+         * non-ASCII bytes are copied as is
+         */
+        private void string(byte[] source, int offset, int length) throws IOException {
+            write('"');
+            for (int i = offset; i < offset + length; i++) {
+                byte b = source[i];
+                if (b == '"' || b == '\\') {
+                    write('\\');
+                    write(b);
+                } else if (b >= 0 && b < 0x20) {
+                    write('\\');
+                    switch (b) {
+                        case '\b' -> write('b');
+                        case '\t' -> write('t');
+                        case '\n' -> write('n');
+                        case '\f' -> write('f');
+                        case '\r' -> write('r');
+                        default -> {
+                            write('u');
+                            write('0');
+                            write('0');
+                            write(HEX[b >> 4]);
+                            write(HEX[b & 0xF]);
+                        }
+                    }
+                } else {
+                    write(b);
+                }
+            }
+            write('"');
+        }
+
+        void write(int b) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            if (position + bytes.length > buffer.length) {
+                flush();
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
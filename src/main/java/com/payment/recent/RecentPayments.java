@@ -0,0 +1,93 @@
+package com.payment.recent;
+
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Serves the most recent payments from an off-heap PaymentRing instead of
+ * the database. PaymentService adds every new payment, lifecycle
+ * transitions update the status, and the ring is filled from the hot table
+ * once the application is ready. The ring lives outside the heap, so
+ * payment.recent.capacity does not change the heap the service needs.
+ *
+ * The ring is node-local: it sees the payments this node creates (servlet
+ * and reactive checkouts both go through PaymentService) and transitions,
+ * plus whatever the hot table held at startup. With several nodes, each one
+ * lists its own recent traffic; clients that need every node's payments use
+ * GET /api/payments.
+ */
+@Component
+public class RecentPayments {
+
+    private static final Logger log = LoggerFactory.getLogger(RecentPayments.class);
+
+    private static final byte[] LIST_START = "{\"success\":true,\"message\":\"Payments retrieved successfully\",\"data\":"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LIST_END = "}".getBytes(StandardCharsets.US_ASCII);
+
+    private final PaymentRing ring;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public RecentPayments(@Value("${payment.recent.capacity:4096}") int capacity) {
+        this.ring = new PaymentRing(capacity);
+        log.info("Recent payments ring: {} slots, {} KB off-heap", capacity, ring.memoryBytes() / 1024);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        // A read-write transaction, so this reads the primary rather than a replica that may lag
+        List<Payment> latest = new TransactionTemplate(transactionManager).execute(status -> paymentRepository.findAll(
+                PageRequest.of(0, ring.capacity(), Sort.by(Sort.Direction.DESC, "id"))).getContent());
+        // Oldest first; payments added meanwhile are newer and are kept
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            ring.add(latest.get(i));
+        }
+        log.info("Recent payments ring loaded with {} payments", latest.size());
+    }
+
+    public void add(Payment payment) {
+        ring.add(payment);
+    }
+
+    /**
+     * A transition committed; version is the row version it left behind
+     */
+    public void statusChanged(long id, PaymentStatus status, long version) {
+        ring.updateStatus(id, status, version);
+    }
+
+    public int capacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Write up to limit of the newest payments as a PaymentListResponse
+     */
+    public void writeList(int limit, OutputStream out) throws IOException {
+        out.write(LIST_START);
+        ring.writeJson(limit, out);
+        out.write(LIST_END);
+    }
+}
@@ -0,0 +1,17 @@
+package com.payment.reconciliation;
+
+/**
+ * Outcome counts of one reconciliation run; the rows behind each count are in
+ * the CSV reports under reportDirectory
+ */
+public record ReconciliationSummary(String settlementFile,
+                                    long settlementLines,
+                                    long malformedLines,
+                                    long payments,
+                                    long matched,
+                                    long mismatched,
+                                    long missingFromSettlement,
+                                    long missingFromPayments,
+                                    long elapsedMillis,
+                                    String reportDirectory) {
+}
@@ -0,0 +1,255 @@
+package com.payment.reconciliation;
+
+import com.payment.util.Amounts;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Parses a settlement file ("reference,amount[,currency[,...]]" per line,
+ * optional header, amounts as plain decimals) straight out of a memory map.
+ *
+ * The file is cut into chunks parsed in parallel; a chunk owns every line that
+ * starts inside it, reading past its end to finish the last one. Fields are
+ * decoded in place from the mapped bytes (reference and currency as numbers,
+ * amounts through {@link Amounts#parse} over a reusable view), so no String
+ * is created per line. Each chunk appends rows to its own buffer per hash
+ * partition; the buffers of a partition are merged and indexed afterwards.
+ */
+final class SettlementFileParser {
+
+    /** Longest line accepted; a chunk maps this much past its end */
+    static final int MAX_LINE = 4096;
+
+    private static final long MIN_CHUNK = 8L << 20;
+    private static final long MAX_CHUNK = 1L << 30;
+    private static final int DEFAULT_CURRENCY = packCurrency(Amounts.DEFAULT_CURRENCY);
+
+    record Result(SettlementPartition[] partitions, long lines, long malformed) {
+    }
+
+    private record ChunkResult(SettlementPartition[] buffers, long lines, long malformed) {
+    }
+
+    private SettlementFileParser() {}
+
+    /**
+     * @param partitionCount a power of two
+     */
+    static Result parse(Path file, int partitionCount, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunks = Math.max(1, Math.min(size / MIN_CHUNK, pool.getParallelism() * 4L));
+            chunks = Math.max(chunks, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+            long chunkSize = (size + chunks - 1) / chunks;
+
+            List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>();
+            for (long start = 0; start < size; start += chunkSize) {
+                long chunkStart = start;
+                long chunkEnd = Math.min(size, start + chunkSize);
+                tasks.add(pool.submit(() -> parseChunk(channel, size, chunkStart, chunkEnd, partitionCount)));
+            }
+
+            long lines = 0;
+            long malformed = 0;
+            SettlementPartition[][] byPartition = new SettlementPartition[partitionCount][tasks.size()];
+            for (int c = 0; c < tasks.size(); c++) {
+                ChunkResult chunk = tasks.get(c).join();
+                lines += chunk.lines();
+                malformed += chunk.malformed();
+                for (int p = 0; p < partitionCount; p++) {
+                    byPartition[p][c] = chunk.buffers()[p];
+                }
+            }
+            if (tasks.isEmpty()) {
+                for (int p = 0; p < partitionCount; p++) {
+                    byPartition[p] = new SettlementPartition[] {new SettlementPartition(0)};
+                }
+            }
+
+            SettlementPartition[] partitions = new SettlementPartition[partitionCount];
+            pool.submit(() -> IntStream.range(0, partitionCount).parallel()
+                    .forEach(p -> partitions[p] = SettlementPartition.merge(byPartition[p]))).join();
+            return new Result(partitions, lines, malformed);
+        }
+    }
+
+    private static ChunkResult parseChunk(FileChannel channel, long fileSize, long start, long end,
+                                          int partitionCount) throws IOException {
+        // Map one byte early so a line starting exactly at `start` is recognised as ours
+        long mapStart = start == 0 ? 0 : start - 1;
+        long mapEnd = Math.min(fileSize, end + MAX_LINE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int limit = (int) (end - mapStart);
+        int mapped = buffer.limit();
+
+        SettlementPartition[] buffers = new SettlementPartition[partitionCount];
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, (end - start) / 24 / partitionCount + 16);
+        for (int p = 0; p < partitionCount; p++) {
+            buffers[p] = new SettlementPartition(capacity);
+        }
+
+        int pos = 0;
+        if (start > 0) {
+            while (pos < mapped && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        } else if (mapped > 0 && !isDigit(buffer.get(0))) {
+            // Header line
+            while (pos < mapped && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+
+        ByteView view = new ByteView(buffer);
+        long lines = 0;
+        long malformed = 0;
+        while (pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < mapped && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == mapped && mapEnd < fileSize) {
+                // Longer than MAX_LINE: can't find where it ends
+                malformed++;
+                break;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > pos && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > pos) {
+                lines++;
+                if (!parseLine(buffer, view, pos, lineEnd, buffers, partitionCount)) {
+                    malformed++;
+                }
+            }
+            pos = next;
+        }
+        return new ChunkResult(buffers, lines, malformed);
+    }
+
+    private static boolean parseLine(ByteBuffer buffer, ByteView view, int pos, int end,
+                                     SettlementPartition[] buffers, int partitionCount) {
+        long reference = 0;
+        int digits = 0;
+        for (; pos < end && buffer.get(pos) != ','; pos++, digits++) {
+            byte b = buffer.get(pos);
+            if (!isDigit(b) || digits == 18) {
+                return false;
+            }
+            reference = reference * 10 + (b - '0');
+        }
+        if (digits == 0 || pos == end) {
+            return false;
+        }
+
+        int amountStart = ++pos;
+        while (pos < end && buffer.get(pos) != ',') {
+            pos++;
+        }
+        long amount;
+        try {
+            amount = Amounts.parse(view.of(amountStart, pos - amountStart));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        int currency = DEFAULT_CURRENCY;
+        if (pos < end) {
+            pos++;
+            if (pos + 3 > end || (pos + 3 < end && buffer.get(pos + 3) != ',')) {
+                return false;
+            }
+            currency = 0;
+            for (int i = 0; i < 3; i++) {
+                byte b = buffer.get(pos + i);
+                if (b < 'A' || b > 'Z') {
+                    return false;
+                }
+                currency = currency << 8 | b;
+            }
+        }
+
+        buffers[partition(reference, partitionCount)].add(reference, amount, currency);
+        return true;
+    }
+
+    static int partition(long reference, int partitionCount) {
+        return (int) mix(reference) & (partitionCount - 1);
+    }
+
+    static int packCurrency(String currency) {
+        int packed = 0;
+        for (int i = 0; i < currency.length(); i++) {
+            packed = packed << 8 | (currency.charAt(i) & 0xff);
+        }
+        return packed;
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Reusable CharSequence over a range of the mapped bytes (ASCII)
+     */
+    private static final class ByteView implements CharSequence {
+        private final ByteBuffer buffer;
+        private int offset;
+        private int length;
+
+        ByteView(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ByteView of(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(offset + index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.payment.reconciliation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * One hash partition of the settlement file: its lines as parallel primitive
+ * columns (reference, amount in minor units, packed currency) plus an
+ * open-addressed index from reference to row, built once all lines are in.
+ *
+ * Rows are appended by a single parser thread per buffer; after
+ * {@link #build()} the partition is probed by one thread at a time.
+ */
+final class SettlementPartition {
+
+    private long[] references;
+    private long[] amounts;
+    private int[] currencies;
+    private int size;
+
+    /** Row + 1 per slot, 0 = empty */
+    private int[] index;
+    private int mask;
+
+    /** Rows a payment claimed, claimed rows that didn't agree, and later copies of a reference */
+    final BitSet claimed = new BitSet();
+    final BitSet mismatched = new BitSet();
+    final BitSet duplicates = new BitSet();
+
+    SettlementPartition(int capacity) {
+        references = new long[Math.max(16, capacity)];
+        amounts = new long[references.length];
+        currencies = new int[references.length];
+    }
+
+    void add(long reference, long amountMinor, int currency) {
+        if (size == references.length) {
+            int grown = size + (size >> 1);
+            references = Arrays.copyOf(references, grown);
+            amounts = Arrays.copyOf(amounts, grown);
+            currencies = Arrays.copyOf(currencies, grown);
+        }
+        references[size] = reference;
+        amounts[size] = amountMinor;
+        currencies[size] = currency;
+        size++;
+    }
+
+    /**
+     * Concatenate the per-parser buffers of one partition (releasing them)
+     * and index the result
+     */
+    static SettlementPartition merge(SettlementPartition[] buffers) {
+        int total = 0;
+        for (SettlementPartition buffer : buffers) {
+            total += buffer.size;
+        }
+        SettlementPartition merged = new SettlementPartition(total);
+        for (int i = 0; i < buffers.length; i++) {
+            SettlementPartition buffer = buffers[i];
+            System.arraycopy(buffer.references, 0, merged.references, merged.size, buffer.size);
+            System.arraycopy(buffer.amounts, 0, merged.amounts, merged.size, buffer.size);
+            System.arraycopy(buffer.currencies, 0, merged.currencies, merged.size, buffer.size);
+            merged.size += buffer.size;
+            buffers[i] = null;
+        }
+        merged.build();
+        return merged;
+    }
+
+    /**
+     * Index every row by reference; a reference seen again marks the later
+     * rows as duplicates (the first stays joinable)
+     */
+    void build() {
+        // Power of two at most 75% full
+        int slots = Integer.highestOneBit(Math.max(4, size + size / 3) * 2 - 1);
+        index = new int[slots];
+        mask = slots - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = slot(references[row]);
+            while (true) {
+                int existing = index[slot];
+                if (existing == 0) {
+                    index[slot] = row + 1;
+                    break;
+                }
+                if (references[existing - 1] == references[row]) {
+                    duplicates.set(row);
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    /**
+     * Row holding the reference, or -1
+     */
+    int find(long reference) {
+        int slot = slot(reference);
+        while (true) {
+            int existing = index[slot];
+            if (existing == 0) {
+                return -1;
+            }
+            if (references[existing - 1] == reference) {
+                return existing - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long reference(int row) {
+        return references[row];
+    }
+
+    long amount(int row) {
+        return amounts[row];
+    }
+
+    int currency(int row) {
+        return currencies[row];
+    }
+
+    private int slot(long reference) {
+        return (int) (SettlementFileParser.mix(reference) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,269 @@
+package com.payment.reconciliation;
+
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.ReconciliationRow;
+import com.payment.util.Amounts;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Joins a settlement file against our payments on reference (the payment id)
+ * and compares amount, currency and status.
+ *
+ * Partitioned hash join: the file is parsed into hash partitions, each with
+ * its own index (build side). Our payments arrive in pages (probe side); each
+ * page is split by the same hash and its partitions probed in parallel while
+ * the caller fetches the next page, so only one page of payments is held at a
+ * time. A partition is only ever probed by one thread, so no locking is needed.
+ *
+ * Reports (CSV, in partition order):
+ *   matched.csv     settled exactly as recorded
+ *   mismatched.csv  settled with a different amount or currency, settled while
+ *                   not captured, or a reference settled more than once
+ *   missing.csv     captured/refunded but not settled, or settled but unknown to us
+ */
+public class SettlementReconciler {
+
+    /**
+     * Our side of the join, one page at a time
+     */
+    @FunctionalInterface
+    public interface PaymentSource {
+        /** Next page of payments; empty when there are no more */
+        List<ReconciliationRow> nextPage() throws IOException;
+    }
+
+    private record Mismatch(long reference, ReconciliationRow payment, long settledAmount, int settledCurrency,
+                            String reason) {
+    }
+
+    /** What probing one partition found; written by that partition's probe only */
+    private static final class PartitionOutcome {
+        long payments;
+        long matched;
+        final List<Mismatch> mismatches = new ArrayList<>();
+        final List<ReconciliationRow> unsettled = new ArrayList<>();
+    }
+
+    private final ForkJoinPool pool;
+    private final int partitionCount;
+
+    public SettlementReconciler(ForkJoinPool pool) {
+        this.pool = pool;
+        this.partitionCount = Integer.highestOneBit(Math.max(1, pool.getParallelism()) * 4);
+    }
+
+    public ReconciliationSummary reconcile(Path settlementFile, PaymentSource payments, Path reportDirectory)
+            throws IOException {
+        long started = System.nanoTime();
+        SettlementFileParser.Result parsed = SettlementFileParser.parse(settlementFile, partitionCount, pool);
+        SettlementPartition[] partitions = parsed.partitions();
+
+        PartitionOutcome[] outcomes = new PartitionOutcome[partitionCount];
+        for (int p = 0; p < partitionCount; p++) {
+            outcomes[p] = new PartitionOutcome();
+        }
+
+        ForkJoinTask<?> probing = null;
+        List<ReconciliationRow> page;
+        while (!(page = payments.nextPage()).isEmpty()) {
+            List<ReconciliationRow> current = page;
+            if (probing != null) {
+                probing.join();
+            }
+            probing = pool.submit(() -> probe(current, partitions, outcomes));
+        }
+        if (probing != null) {
+            probing.join();
+        }
+
+        Files.createDirectories(reportDirectory);
+        long paymentCount = 0;
+        long matched = 0;
+        long mismatched = 0;
+        long missingFromSettlement = 0;
+        for (PartitionOutcome outcome : outcomes) {
+            paymentCount += outcome.payments;
+            matched += outcome.matched;
+            mismatched += outcome.mismatches.size();
+            missingFromSettlement += outcome.unsettled.size();
+        }
+        writeMatched(reportDirectory.resolve("matched.csv"), partitions);
+        mismatched += writeMismatched(reportDirectory.resolve("mismatched.csv"), partitions, outcomes);
+        long missingFromPayments = writeMissing(reportDirectory.resolve("missing.csv"), partitions, outcomes);
+
+        return new ReconciliationSummary(settlementFile.toString(), parsed.lines(), parsed.malformed(),
+                paymentCount, matched, mismatched, missingFromSettlement, missingFromPayments,
+                (System.nanoTime() - started) / 1_000_000, reportDirectory.toString());
+    }
+
+    private void probe(List<ReconciliationRow> page, SettlementPartition[] partitions, PartitionOutcome[] outcomes) {
+        // Counting sort of the page's rows by partition
+        int[] partitionOf = new int[page.size()];
+        int[] starts = new int[partitionCount + 1];
+        for (int i = 0; i < page.size(); i++) {
+            partitionOf[i] = SettlementFileParser.partition(page.get(i).id(), partitionCount);
+            starts[partitionOf[i] + 1]++;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            starts[p + 1] += starts[p];
+        }
+        int[] order = new int[page.size()];
+        int[] fill = starts.clone();
+        for (int i = 0; i < page.size(); i++) {
+            order[fill[partitionOf[i]]++] = i;
+        }
+
+        IntStream.range(0, partitionCount).parallel().forEach(p -> {
+            SettlementPartition partition = partitions[p];
+            PartitionOutcome outcome = outcomes[p];
+            for (int k = starts[p]; k < starts[p + 1]; k++) {
+                probeRow(page.get(order[k]), partition, outcome);
+            }
+        });
+    }
+
+    private static void probeRow(ReconciliationRow payment, SettlementPartition partition, PartitionOutcome outcome) {
+        boolean settles = payment.status() == PaymentStatus.CAPTURED || payment.status() == PaymentStatus.REFUNDED;
+        int row = partition.find(payment.id());
+        if (row >= 0 && partition.claimed.get(row)) {
+            // Same payment read twice (hot and archived copy during tiering)
+            return;
+        }
+        outcome.payments++;
+        if (row < 0) {
+            if (settles) {
+                outcome.unsettled.add(payment);
+            }
+            return;
+        }
+        partition.claimed.set(row);
+
+        String reason = null;
+        if (!settles) {
+            reason = "settled while " + payment.status().label();
+        } else if (payment.amountMinor() != partition.amount(row)) {
+            reason = "amount differs";
+        } else if (SettlementFileParser.packCurrency(payment.currency()) != partition.currency(row)) {
+            reason = "currency differs";
+        }
+        if (reason == null) {
+            outcome.matched++;
+        } else {
+            partition.mismatched.set(row);
+            outcome.mismatches.add(new Mismatch(payment.id(), payment, partition.amount(row), partition.currency(row), reason));
+        }
+    }
+
+    private static void writeMatched(Path file, SettlementPartition[] partitions) throws IOException {
+        try (Writer out = writer(file)) {
+            out.write("reference,amount,currency\n");
+            StringBuilder line = new StringBuilder(64);
+            for (SettlementPartition partition : partitions) {
+                for (int row = partition.claimed.nextSetBit(0); row >= 0; row = partition.claimed.nextSetBit(row + 1)) {
+                    if (partition.mismatched.get(row)) {
+                        continue;
+                    }
+                    line.setLength(0);
+                    line.append(partition.reference(row)).append(',');
+                    Amounts.appendTo(line, partition.amount(row)).append(',');
+                    appendCurrency(line, partition.currency(row)).append('\n');
+                    out.append(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the mismatches found while probing, then settlement lines repeating
+     * a reference; returns the number of the latter
+     */
+    private static long writeMismatched(Path file, SettlementPartition[] partitions, PartitionOutcome[] outcomes)
+            throws IOException {
+        long repeated = 0;
+        try (Writer out = writer(file)) {
+            out.write("reference,payment_amount,settled_amount,payment_currency,settled_currency,payment_status,reason\n");
+            StringBuilder line = new StringBuilder(128);
+            for (PartitionOutcome outcome : outcomes) {
+                for (Mismatch mismatch : outcome.mismatches) {
+                    line.setLength(0);
+                    line.append(mismatch.reference()).append(',');
+                    Amounts.appendTo(line, mismatch.payment().amountMinor()).append(',');
+                    Amounts.appendTo(line, mismatch.settledAmount()).append(',');
+                    line.append(mismatch.payment().currency()).append(',');
+                    appendCurrency(line, mismatch.settledCurrency()).append(',');
+                    line.append(mismatch.payment().status().label()).append(',');
+                    line.append(mismatch.reason()).append('\n');
+                    out.append(line);
+                }
+            }
+            for (SettlementPartition partition : partitions) {
+                // Never claimed: lookups resolve a reference to its first line
+                for (int row = partition.duplicates.nextSetBit(0); row >= 0; row = partition.duplicates.nextSetBit(row + 1)) {
+                    line.setLength(0);
+                    line.append(partition.reference(row)).append(",,");
+                    Amounts.appendTo(line, partition.amount(row)).append(",,");
+                    appendCurrency(line, partition.currency(row)).append(",,settled more than once\n");
+                    out.append(line);
+                    repeated++;
+                }
+            }
+        }
+        return repeated;
+    }
+
+    /**
+     * Write payments that didn't settle, then settlement lines no payment
+     * claimed; returns the number of the latter
+     */
+    private static long writeMissing(Path file, SettlementPartition[] partitions, PartitionOutcome[] outcomes)
+            throws IOException {
+        long unknown = 0;
+        try (Writer out = writer(file)) {
+            out.write("reference,amount,currency,missing_from\n");
+            StringBuilder line = new StringBuilder(64);
+            for (PartitionOutcome outcome : outcomes) {
+                for (ReconciliationRow payment : outcome.unsettled) {
+                    line.setLength(0);
+                    line.append(payment.id()).append(',');
+                    Amounts.appendTo(line, payment.amountMinor()).append(',');
+                    line.append(payment.currency()).append(",settlement\n");
+                    out.append(line);
+                }
+            }
+            for (SettlementPartition partition : partitions) {
+                for (int row = partition.claimed.nextClearBit(0); row < partition.size();
+                     row = partition.claimed.nextClearBit(row + 1)) {
+                    if (partition.duplicates.get(row)) {
+                        continue;
+                    }
+                    line.setLength(0);
+                    line.append(partition.reference(row)).append(',');
+                    Amounts.appendTo(line, partition.amount(row)).append(',');
+                    appendCurrency(line, partition.currency(row)).append(",payments\n");
+                    out.append(line);
+                    unknown++;
+                }
+            }
+        }
+        return unknown;
+    }
+
+    private static StringBuilder appendCurrency(StringBuilder line, int packed) {
+        return line.append((char) (packed >>> 16 & 0xff)).append((char) (packed >>> 8 & 0xff)).append((char) (packed & 0xff));
+    }
+
+    private static Writer writer(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+    }
+}
@@ -0,0 +1,205 @@
+package com.payment.reconciliation;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.repository.PaymentRepository;
+import com.payment.repository.ReconciliationRow;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Daily settlement reconciliation: joins inbox/settlement-YYYY-MM-DD.csv
+ * against the payments created that day (archived ones first, then the hot
+ * table by keyset) and writes the reports to reports/YYYY-MM-DD/.
+ *
+ * Runs on payment.reconciliation.cron for the previous day (disabled by
+ * default) or on demand for any day. One run at a time; on-demand runs are
+ * queued on a single background thread and their outcome kept for the most
+ * recent days, so no request thread waits on a run.
+ */
+@Service
+public class SettlementReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementReconciliationService.class);
+
+    /** On-demand outcomes kept for polling */
+    private static final int KEPT_RUNS = 31;
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentArchive paymentArchive;
+    private final Path inbox;
+    private final Path reports;
+    private final int pageSize;
+    private final ForkJoinPool pool;
+    private final SettlementReconciler reconciler;
+    private final ExecutorService runner;
+    private final Map<LocalDate, CompletableFuture<ReconciliationSummary>> runs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocalDate, CompletableFuture<ReconciliationSummary>> eldest) {
+            return size() > KEPT_RUNS;
+        }
+    };
+
+    public SettlementReconciliationService(PaymentRepository paymentRepository,
+                                           PaymentArchive paymentArchive,
+                                           @Value("${payment.reconciliation.inbox:data/settlements}") String inbox,
+                                           @Value("${payment.reconciliation.reports:data/reconciliation}") String reports,
+                                           @Value("${payment.reconciliation.page-size:5000}") int pageSize,
+                                           @Value("${payment.reconciliation.parallelism:0}") int parallelism) {
+        this.paymentRepository = paymentRepository;
+        this.paymentArchive = paymentArchive;
+        this.inbox = Paths.get(inbox);
+        this.reports = Paths.get(reports);
+        this.pageSize = pageSize;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("reconcile-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.reconciler = new SettlementReconciler(pool);
+        this.runner = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "reconcile-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(cron = "${payment.reconciliation.cron:-}")
+    public void reconcileYesterday() {
+        LocalDate date = LocalDate.now().minusDays(1);
+        try {
+            reconcile(date);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping reconciliation for {}: {}", date, e.getMessage());
+        } catch (Exception e) {
+            log.error("Reconciliation for {} failed: {}", date, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queue a reconciliation of the date in the background, or return the run
+     * already queued or in progress for it
+     *
+     * @throws IllegalArgumentException if there is no settlement file for the date
+     */
+    public CompletableFuture<ReconciliationSummary> start(LocalDate date) {
+        settlementFile(date);
+        synchronized (runs) {
+            CompletableFuture<ReconciliationSummary> run = runs.get(date);
+            if (run == null || run.isDone()) {
+                run = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return reconcile(date);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, runner);
+                runs.put(date, run);
+            }
+            return run;
+        }
+    }
+
+    /**
+     * The latest on-demand run for the date, or null if there was none recently
+     */
+    public CompletableFuture<ReconciliationSummary> lastRun(LocalDate date) {
+        synchronized (runs) {
+            return runs.get(date);
+        }
+    }
+
+    /**
+     * Reconcile one day's settlement file
+     *
+     * @throws IllegalArgumentException if there is no settlement file for the date
+     */
+    public synchronized ReconciliationSummary reconcile(LocalDate date) throws IOException {
+        Path file = settlementFile(date);
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+
+        ReconciliationSummary summary = reconciler.reconcile(file, paymentsCreatedBetween(from, to),
+                reports.resolve(date.toString()));
+        log.info("Reconciled {}: {} lines, {} payments, {} matched, {} mismatched, {} unsettled, {} unknown, "
+                        + "{} malformed in {} ms", file.getFileName(), summary.settlementLines(), summary.payments(),
+                summary.matched(), summary.mismatched(), summary.missingFromSettlement(),
+                summary.missingFromPayments(), summary.malformedLines(), summary.elapsedMillis());
+        return summary;
+    }
+
+    private Path settlementFile(LocalDate date) {
+        Path file = inbox.resolve("settlement-" + date + ".csv");
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No settlement file for " + date);
+        }
+        return file;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Archived payments of the range, then the hot table, both paged by id
+     * keyset. Hot rows at or below the highest archived id at the start are
+     * skipped: they were archived and are about to be deleted, and reading
+     * them twice would report them twice.
+     */
+    private SettlementReconciler.PaymentSource paymentsCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        long archivedUpTo = paymentArchive.maxArchivedId();
+        LocalDateTime last = to.minusNanos(1);
+        long[] afterId = {0};
+        boolean[] archiveDone = {archivedUpTo == 0};
+        return () -> {
+            List<ReconciliationRow> page = new ArrayList<>(pageSize);
+            if (!archiveDone[0]) {
+                paymentArchive.forEachCreatedBetween(from, last, afterId[0], archivedUpTo, payment -> {
+                    page.add(new ReconciliationRow(payment.getId(), payment.getAmountMinor(), payment.getCurrency(),
+                            payment.getStatus()));
+                    return page.size() < pageSize;
+                });
+                if (page.size() < pageSize) {
+                    archiveDone[0] = true;
+                    afterId[0] = archivedUpTo;
+                } else {
+                    afterId[0] = page.get(page.size() - 1).id();
+                }
+                if (!page.isEmpty()) {
+                    return page;
+                }
+            }
+            List<ReconciliationRow> hot = paymentRepository.findReconciliationRows(from, to, afterId[0],
+                    PageRequest.of(0, pageSize));
+            if (!hot.isEmpty()) {
+                afterId[0] = hot.get(hot.size() - 1).id();
+            }
+            return hot;
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.payment.repository;
+
+import com.payment.entity.DailyPaymentRollup;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DailyPaymentRollupRepository extends PaymentRollupRepository<DailyPaymentRollup> {
+}
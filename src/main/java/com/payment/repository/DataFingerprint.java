@@ -0,0 +1,11 @@
+package com.payment.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lowest and highest id and latest update time of the hot payments table (all
+ * null when it is empty). An insert raises maxId, archiving raises minId and a
+ * status change moves lastUpdate.
+ */
+public record DataFingerprint(Long minId, Long maxId, LocalDateTime lastUpdate) {
+}
@@ -0,0 +1,8 @@
+package com.payment.repository;
+
+import com.payment.entity.HourlyPaymentRollup;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HourlyPaymentRollupRepository extends PaymentRollupRepository<HourlyPaymentRollup> {
+}
@@ -0,0 +1,15 @@
+package com.payment.repository;
+
+import com.payment.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Count and amount of payments created in one hour, by status, method and currency
+ */
+public record HourlyTotals(int year, int month, int day, int hour, PaymentStatus status, String method,
+                           String currency, long count, long amountMinor) {
+
+    public LocalDateTime hourStart() {
+        return LocalDateTime.of(year, month, day, hour, 0);
+    }
+}
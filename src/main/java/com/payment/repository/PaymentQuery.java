@@ -0,0 +1,67 @@
+package com.payment.repository;
+
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Validated filters, sort and keyset position for one page of the payment
+ * listing. Null filters are not applied; afterValue/afterId (both set or both
+ * null) is the sort key of the last row of the previous page. Rows with an id
+ * at or below idAbove are skipped (the hot table uses it to leave out rows
+ * that are already archived).
+ */
+public record PaymentQuery(PaymentStatus status,
+                           Long minAmount,
+                           Long maxAmount,
+                           LocalDateTime from,
+                           LocalDateTime to,
+                           Collection<Long> ids,
+                           Long idAbove,
+                           PaymentSort sort,
+                           boolean descending,
+                           Comparable<?> afterValue,
+                           Long afterId,
+                           int limit) {
+
+    /**
+     * Listing order: sort value, then id, in the query's direction
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Payment> order() {
+        Comparator<Payment> bySort = (a, b) -> ((Comparable) sort.valueOf(a)).compareTo(sort.valueOf(b));
+        Comparator<Payment> order = bySort.thenComparingLong(Payment::getId);
+        return descending ? order.reversed() : order;
+    }
+
+    /**
+     * The filters and keyset position applied to a row held in memory (the
+     * archive); the same predicates the repository turns into SQL
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean matches(Payment payment) {
+        if (status != null && payment.getStatus() != status) {
+            return false;
+        }
+        if (minAmount != null && payment.getAmountMinor() < minAmount
+                || maxAmount != null && payment.getAmountMinor() > maxAmount) {
+            return false;
+        }
+        if (from != null && payment.getCreatedAt().isBefore(from) || to != null && payment.getCreatedAt().isAfter(to)) {
+            return false;
+        }
+        if (ids != null && !ids.contains(payment.getId()) || idAbove != null && payment.getId() <= idAbove) {
+            return false;
+        }
+        if (afterId == null) {
+            return true;
+        }
+        int compared = sort == PaymentSort.ID ? 0 : ((Comparable) sort.valueOf(payment)).compareTo(afterValue);
+        if (compared == 0) {
+            compared = Long.compare(payment.getId(), afterId);
+        }
+        return descending ? compared < 0 : compared > 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.payment.repository;
+
+import com.payment.entity.Payment;
+import java.util.List;
+
+/**
+ * Dynamic listing queries that derived finder methods can't express
+ */
+public interface PaymentQueryRepository {
+
+    /**
+     * One keyset page: rows after the query's position, in sort order, at most limit rows
+     */
+    List<Payment> findPage(PaymentQuery query);
+}
@@ -0,0 +1,81 @@
+package com.payment.repository;
+
+import com.payment.entity.Payment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the listing query with the Criteria API so that only allowlisted
+ * attributes ever reach the SQL. Every filter is a plain comparison on a
+ * column (no functions or leading wildcards), and paging continues from the
+ * last row's (sort value, id) instead of an OFFSET, so deep pages cost the
+ * same as the first one.
+ */
+class PaymentQueryRepositoryImpl implements PaymentQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Payment> findPage(PaymentQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Payment> cq = cb.createQuery(Payment.class);
+        Root<Payment> payment = cq.from(Payment.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (query.status() != null) {
+            where.add(cb.equal(payment.get("status"), query.status()));
+        }
+        if (query.minAmount() != null) {
+            where.add(cb.greaterThanOrEqualTo(payment.get("amountMinor"), query.minAmount()));
+        }
+        if (query.maxAmount() != null) {
+            where.add(cb.lessThanOrEqualTo(payment.get("amountMinor"), query.maxAmount()));
+        }
+        if (query.from() != null) {
+            where.add(cb.greaterThanOrEqualTo(payment.get("createdAt"), query.from()));
+        }
+        if (query.to() != null) {
+            where.add(cb.lessThanOrEqualTo(payment.get("createdAt"), query.to()));
+        }
+        if (query.ids() != null) {
+            where.add(payment.get("id").in(query.ids()));
+        }
+        if (query.idAbove() != null) {
+            where.add(cb.greaterThan(payment.get("id"), query.idAbove()));
+        }
+
+        Expression<Long> id = payment.get("id");
+        Expression<Comparable> key = payment.get(query.sort().attribute());
+        boolean descending = query.descending();
+        if (query.afterId() != null) {
+            Predicate idBeyond = descending ? cb.lessThan(id, query.afterId()) : cb.greaterThan(id, query.afterId());
+            if (query.sort() == PaymentSort.ID) {
+                where.add(idBeyond);
+            } else {
+                Comparable value = query.afterValue();
+                Predicate keyBeyond = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+                where.add(cb.or(keyBeyond, cb.and(cb.equal(key, value), idBeyond)));
+            }
+        }
+        cq.where(where.toArray(Predicate[]::new));
+
+        if (query.sort() == PaymentSort.ID) {
+            cq.orderBy(descending ? cb.desc(id) : cb.asc(id));
+        } else {
+            cq.orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+        }
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.limit())
+                .getResultList();
+    }
+}
@@ -1,17 +1,164 @@
 package com.payment.repository;
 
+import com.payment.config.ReadRoutingContext;
 import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Finder methods run in read-only transactions and may be served by a read
+ * replica. Reads a lagging replica would make incorrect are default methods
+ * that run their query under {@link ReadRoutingContext#readPrimary}: they go
+ * to the primary without counting as a write for read-your-writes. Only
+ * methods that change rows are read-write @Transactional.
+ */
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentQueryRepository {
     
     List<Payment> findByEmail(String email);
     
-    List<Payment> findByStatus(String status);
+    List<Payment> findByStatus(PaymentStatus status);
     
     Optional<Payment> findByIdAndEmail(Long id, String email);
+
+    List<Payment> findByCreatedAtBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Per-status totals of the rows above idAbove (those at or below it are archived)
+     */
+    @Query("SELECT new com.payment.repository.StatusTotals(p.status, COUNT(p), COALESCE(SUM(p.amountMinor), 0)) " +
+            "FROM Payment p WHERE p.id > :idAbove GROUP BY p.status")
+    List<StatusTotals> findStatusTotals(@Param("idAbove") long idAbove);
+
+    /**
+     * Most recent identical payment since a time (duplicate confirmation).
+     * Primary only: the earlier submit may have been committed moments ago.
+     */
+    default Optional<Payment> findLatestIdentical(String email, String contact, long amountMinor, String currency,
+                                                  LocalDateTime since) {
+        return ReadRoutingContext.readPrimary(() ->
+                findFirstByEmailAndContactAndAmountMinorAndCurrencyAndCreatedAtAfterOrderByIdDesc(
+                        email, contact, amountMinor, currency, since));
+    }
+
+    @Transactional(readOnly = true)
+    Optional<Payment> findFirstByEmailAndContactAndAmountMinorAndCurrencyAndCreatedAtAfterOrderByIdDesc(
+            String email, String contact, long amountMinor, String currency, LocalDateTime since);
+
+    /**
+     * Per-hour totals of payments created in [from, to), computed by the database
+     * (rollup rebuild and correction)
+     */
+    @Query("SELECT new com.payment.repository.HourlyTotals(year(p.createdAt), month(p.createdAt), day(p.createdAt), " +
+            "hour(p.createdAt), p.status, p.paymentMethod, p.currency, COUNT(p), COALESCE(SUM(p.amountMinor), 0)) " +
+            "FROM Payment p WHERE p.createdAt >= :from AND p.createdAt < :to " +
+            "GROUP BY year(p.createdAt), month(p.createdAt), day(p.createdAt), hour(p.createdAt), " +
+            "p.status, p.paymentMethod, p.currency")
+    List<HourlyTotals> findHourlyTotals(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Keyset page in id order (search index rebuild)
+     */
+    List<Payment> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Keyset page of payments created in [from, to), in id order (settlement reconciliation)
+     */
+    @Query("SELECT new com.payment.repository.ReconciliationRow(p.id, p.amountMinor, p.currency, p.status) " +
+            "FROM Payment p WHERE p.createdAt >= :from AND p.createdAt < :to AND p.id > :afterId ORDER BY p.id")
+    List<ReconciliationRow> findReconciliationRows(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("afterId") long afterId,
+                                                   Pageable pageable);
+
+    /**
+     * Oldest payments created before the cutoff, in id order (archive candidates),
+     * locked until the caller's transaction ends so no transition can change a
+     * row between its copy going into a segment and its delete. Call it in the
+     * archiver's read-write transaction, which reads the primary.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.createdAt < :cutoff ORDER BY p.id")
+    List<Payment> lockArchiveCandidates(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Current status and version, read without loading the entity into the
+     * persistence context (so a retry after a conflict always sees fresh values).
+     * Primary only: the version must be current for the conditional update.
+     */
+    default Optional<PaymentState> findStateById(Long id) {
+        return ReadRoutingContext.readPrimary(() -> selectStateById(id));
+    }
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.payment.repository.PaymentState(p.status, p.version) FROM Payment p WHERE p.id = :id")
+    Optional<PaymentState> selectStateById(@Param("id") Long id);
+
+    /**
+     * Compare-and-set status transition: a single conditional UPDATE that only
+     * succeeds if nobody changed the row since its state was read
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to, p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.status = :from AND p.version = :version")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("from") PaymentStatus from,
+                            @Param("version") long version,
+                            @Param("to") PaymentStatus to,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Hot ids up to maxId (hot copies of archived rows). Primary only: the result is deleted.
+     */
+    default List<Long> findIdsUpTo(long maxId) {
+        return ReadRoutingContext.readPrimary(() -> selectIdsUpTo(maxId));
+    }
+
+    @Transactional(readOnly = true)
+    @Query("SELECT p.id FROM Payment p WHERE p.id <= :maxId")
+    List<Long> selectIdsUpTo(@Param("maxId") long maxId);
+
+    /**
+     * Fingerprint of the hot table for the listing ETag: three ends of indexes,
+     * so it costs the same at any table size. Primary only: the tag must not lag
+     * the data it is compared against.
+     */
+    default DataFingerprint findFingerprint() {
+        return ReadRoutingContext.readPrimary(this::selectFingerprint);
+    }
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.payment.repository.DataFingerprint(MIN(p.id), MAX(p.id), MAX(p.updatedAt)) FROM Payment p")
+    DataFingerprint selectFingerprint();
+
+    /**
+     * Keyset page of payments changed after (updatedAt, id), up to a settle cutoff.
+     * Written as a range on updatedAt so it is served by idx_payments_updated_at_id.
+     * Primary only: a lagging replica could let the watermark pass unreplicated rows.
+     */
+    default List<Payment> findChangedAfter(LocalDateTime updatedAt, long id, LocalDateTime cutoff, Pageable pageable) {
+        return ReadRoutingContext.readPrimary(() -> selectChangedAfter(updatedAt, id, cutoff, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Payment p " +
+            "WHERE p.updatedAt >= :updatedAt AND (p.updatedAt > :updatedAt OR p.id > :id) " +
+            "AND p.updatedAt <= :cutoff " +
+            "ORDER BY p.updatedAt ASC, p.id ASC")
+    List<Payment> selectChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                     @Param("id") long id,
+                                     @Param("cutoff") LocalDateTime cutoff,
+                                     Pageable pageable);
 }
@@ -0,0 +1,43 @@
+package com.payment.repository;
+
+import com.payment.entity.PaymentRollup;
+import com.payment.entity.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queries shared by the hourly and daily rollup tables. Range reads go
+ * through the (bucket_start, ...) unique index.
+ */
+@NoRepositoryBean
+public interface PaymentRollupRepository<T extends PaymentRollup> extends JpaRepository<T, Long> {
+
+    List<T> findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(LocalDateTime from,
+                                                                                         LocalDateTime to);
+
+    /**
+     * Add to an existing bucket row; returns 0 if the row doesn't exist yet
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE #{#entityName} r SET r.paymentCount = r.paymentCount + :count, " +
+            "r.amountMinor = r.amountMinor + :amount WHERE r.bucketStart = :bucket AND r.status = :status " +
+            "AND r.method = :method AND r.currency = :currency")
+    int increment(@Param("bucket") LocalDateTime bucket,
+                  @Param("status") PaymentStatus status,
+                  @Param("method") String method,
+                  @Param("currency") String currency,
+                  @Param("count") long count,
+                  @Param("amount") long amount);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM #{#entityName} r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBuckets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,60 @@
+package com.payment.repository;
+
+import com.payment.entity.Payment;
+
+/**
+ * Columns the payment listing may be sorted on: each one is indexed, and
+ * every sort is tie-broken by id so keyset paging is stable
+ */
+public enum PaymentSort {
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt"),
+    AMOUNT("amount", "amountMinor"),
+    ID("id", "id");
+
+    private final String param;
+    private final String attribute;
+
+    PaymentSort(String param, String attribute) {
+        this.param = param;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Name used in the API (?sort=amount)
+     */
+    public String param() {
+        return param;
+    }
+
+    /**
+     * Entity attribute the sort maps to
+     */
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * The row's value of this attribute (LocalDateTime or Long)
+     */
+    public Comparable<?> valueOf(Payment payment) {
+        return switch (this) {
+            case CREATED_AT -> payment.getCreatedAt();
+            case UPDATED_AT -> payment.getUpdatedAt();
+            case AMOUNT -> payment.getAmountMinor();
+            case ID -> payment.getId();
+        };
+    }
+
+    /**
+     * @return the sort for an API name, or null if it is not allowed
+     */
+    public static PaymentSort fromParam(String param) {
+        for (PaymentSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        return null;
+    }
+}
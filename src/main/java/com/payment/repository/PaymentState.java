@@ -0,0 +1,9 @@
+package com.payment.repository;
+
+import com.payment.entity.PaymentStatus;
+
+/**
+ * Status and optimistic-lock version of one payment row
+ */
+public record PaymentState(PaymentStatus status, long version) {
+}
@@ -0,0 +1,18 @@
+package com.payment.repository;
+
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking R2DBC view of the payments table, used by the reactive profile
+ */
+@Repository
+public interface ReactivePaymentRepository extends R2dbcRepository<Payment, Long> {
+
+    Flux<Payment> findByEmail(String email);
+
+    Flux<Payment> findByStatus(PaymentStatus status);
+}
@@ -0,0 +1,9 @@
+package com.payment.repository;
+
+import com.payment.entity.PaymentStatus;
+
+/**
+ * The columns settlement reconciliation compares, read without loading entities
+ */
+public record ReconciliationRow(Long id, long amountMinor, String currency, PaymentStatus status) {
+}
@@ -0,0 +1,9 @@
+package com.payment.repository;
+
+import com.payment.entity.PaymentStatus;
+
+/**
+ * Number and total amount (minor units) of payments in one status
+ */
+public record StatusTotals(PaymentStatus status, long count, long amountMinor) {
+}
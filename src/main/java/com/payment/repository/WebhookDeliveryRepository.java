@@ -0,0 +1,61 @@
+package com.payment.repository;
+
+import com.payment.entity.WebhookDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The webhook queue. Claims run inside the dispatcher's read-write
+ * transaction, so they always see the primary.
+ */
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    /**
+     * Rows of an endpoint that have been due longest. The ORDER BY spells out
+     * the whole (endpoint, state, next_attempt_at, id) index so the database
+     * reads it in order and stops after one page, however long the queue is.
+     */
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.endpoint = :endpoint AND d.state = :state " +
+            "AND d.nextAttemptAt <= :now ORDER BY d.endpoint, d.state, d.nextAttemptAt, d.id")
+    List<WebhookDelivery> findDue(@Param("endpoint") String endpoint,
+                                  @Param("state") WebhookDelivery.State state,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable page);
+
+    /**
+     * Hide a row from other claims until {@code until}, provided it is still
+     * as the claim read it (no other node has leased, delivered or
+     * dead-lettered it since); if the sender dies it becomes due again then
+     *
+     * @return 1 if this claim got the row, 0 if another one did
+     */
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.nextAttemptAt = :until WHERE d.id = :id AND d.state = :state " +
+            "AND d.nextAttemptAt = :seen")
+    int lease(@Param("id") Long id,
+              @Param("state") WebhookDelivery.State state,
+              @Param("seen") LocalDateTime seen,
+              @Param("until") LocalDateTime until);
+
+    long countByEndpointAndState(String endpoint, WebhookDelivery.State state);
+
+    /**
+     * Move an endpoint's dead-lettered rows back to the queue with fresh attempts
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.state = :pending, d.attempts = 0, d.nextAttemptAt = :now, " +
+            "d.lastError = NULL WHERE d.endpoint = :endpoint AND d.state = :dead")
+    int requeue(@Param("endpoint") String endpoint,
+                @Param("dead") WebhookDelivery.State dead,
+                @Param("pending") WebhookDelivery.State pending,
+                @Param("now") LocalDateTime now);
+}
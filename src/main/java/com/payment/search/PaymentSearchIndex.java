@@ -0,0 +1,163 @@
+package com.payment.search;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.entity.Payment;
+import com.payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Keeps a TrigramIndex over payer name, email and contact for every payment,
+ * archived or hot.
+ *
+ * The index is rebuilt in the background once the application is ready and
+ * updated by PaymentService on every new payment, which covers the servlet
+ * and reactive checkouts alike. Payments saved by other nodes never pass
+ * through this node's PaymentService, so a scheduled catch-up
+ * (payment.search.catch-up-interval) reads rows changed since its last run,
+ * the same keyset the delta sync uses. Payments seen more than once (rebuild,
+ * local add, catch-up) are indexed once: the index ignores ids it has
+ * already seen.
+ */
+@Component
+public class PaymentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentSearchIndex.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentArchive paymentArchive;
+
+    @Value("${payment.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.search.min-match:0.75}")
+    private double minMatch;
+
+    @Value("${payment.search.rebuild-batch:5000}")
+    private int rebuildBatch;
+
+    @Value("${payment.sync.settle-window:PT1S}")
+    private Duration settleWindow;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    private volatile boolean complete;
+
+    /** Catch-up keyset position; null until the rebuild has started */
+    private volatile LocalDateTime caughtUpTo;
+    private long caughtUpId;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread rebuild = new Thread(this::rebuild, "search-index-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Index the archive, then the hot table in id order (keyset pages)
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        // Rows saved elsewhere after this point are left to the catch-up
+        caughtUpId = 0;
+        caughtUpTo = LocalDateTime.now().minus(settleWindow).truncatedTo(ChronoUnit.MICROS);
+        try {
+            paymentArchive.forEach(this::add);
+            long lastId = 0;
+            List<Payment> page;
+            do {
+                page = paymentRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, rebuildBatch));
+                for (Payment payment : page) {
+                    add(payment);
+                    lastId = payment.getId();
+                }
+            } while (page.size() == rebuildBatch);
+            complete = true;
+            log.info("Search index built: {} payments in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Search index rebuild failed; results will be partial: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Index payments other nodes saved since the last run. Only one catch-up
+     * runs at a time (the scheduler's single thread), so the keyset fields
+     * need no further guarding.
+     */
+    @Scheduled(fixedDelayString = "${payment.search.catch-up-interval:PT10S}",
+            initialDelayString = "${payment.search.catch-up-interval:PT10S}")
+    public void catchUp() {
+        LocalDateTime from = caughtUpTo;
+        if (!enabled || from == null) {
+            return;
+        }
+        // Rows younger than the settle window may still be joined by lower ids committing late
+        LocalDateTime cutoff = LocalDateTime.now().minus(settleWindow).truncatedTo(ChronoUnit.MICROS);
+        long fromId = caughtUpId;
+        int added = 0;
+        try {
+            List<Payment> page;
+            do {
+                page = paymentRepository.findChangedAfter(from, fromId, cutoff, PageRequest.of(0, rebuildBatch));
+                for (Payment payment : page) {
+                    if (index.add(payment.getId(), payment.getName(), payment.getEmail(), payment.getContact())) {
+                        added++;
+                    }
+                    from = payment.getUpdatedAt();
+                    fromId = payment.getId();
+                }
+            } while (page.size() == rebuildBatch);
+            if (cutoff.isAfter(from)) {
+                from = cutoff;
+                fromId = Long.MAX_VALUE;
+            }
+        } catch (Exception e) {
+            log.warn("Search index catch-up failed, retrying from the last position: {}", e.getMessage());
+        } finally {
+            caughtUpId = fromId;
+            caughtUpTo = from;
+        }
+        if (added > 0) {
+            log.debug("Search index caught up {} payments saved elsewhere", added);
+        }
+    }
+
+    /**
+     * Index a newly saved payment
+     */
+    public void add(Payment payment) {
+        if (enabled && payment.getId() != null) {
+            index.add(payment.getId(), payment.getName(), payment.getEmail(), payment.getContact());
+        }
+    }
+
+    public List<TrigramIndex.Hit> search(String query, int limit) {
+        return enabled ? index.search(query, minMatch, limit) : List.of();
+    }
+
+    /**
+     * False until the startup rebuild has finished (results may be missing older payments)
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,416 @@
+package com.payment.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index for substring and word-prefix search over short
+ * text fields (names, emails, phone numbers).
+ *
+ * Text is folded to a 6-bit alphabet, so a trigram is an 18-bit key that
+ * indexes a flat array of postings lists. Each list is an int[] of document
+ * numbers in insertion order (hence sorted), which lets queries intersect by
+ * binary search without any boxing. Besides every 3-character window, the
+ * index stores a "word start" trigram (marker + first two characters) for
+ * each word, which serves two-character prefix queries and ranks prefix
+ * matches above mid-word ones.
+ *
+ * Writers take a write lock; searches share a read lock.
+ */
+public final class TrigramIndex {
+
+    private static final int BITS = 6;
+    private static final int KEY_SPACE = 1 << (3 * BITS);
+    private static final int START = 1;   // word-start marker
+    private static final int OTHER = 63;  // any character outside the alphabet
+
+    /**
+     * One ranked result; score is the weighted fraction of query trigrams matched (0..1]
+     */
+    public record Hit(long id, double score) {
+    }
+
+    private final int[][] postings = new int[KEY_SPACE][];
+    private final int[] sizes = new int[KEY_SPACE];
+    private long[] docIds = new long[1024];
+    private int docCount;
+    private final IdSet indexedIds = new IdSet();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index a document's fields; a no-op if the id is already indexed
+     */
+    public boolean add(long id, String... fields) {
+        int[] keys = documentKeys(fields);
+        lock.writeLock().lock();
+        try {
+            if (!indexedIds.add(id)) {
+                return false;
+            }
+            int doc = docCount++;
+            if (doc == docIds.length) {
+                docIds = Arrays.copyOf(docIds, doc + (doc >> 1));
+            }
+            docIds[doc] = id;
+            for (int key : keys) {
+                append(key, doc);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank documents against the query. A document must contain at least
+     * minMatch of the query's trigrams (all of them for one- or two-trigram
+     * queries), which tolerates a typo in longer queries.
+     *
+     * @return up to limit hits, best first (newer documents win ties)
+     */
+    public List<Hit> search(String query, double minMatch, int limit) {
+        int[][] terms = queryKeys(query);
+        int[] required = terms[0];
+        int[] prefixes = terms[1];
+        if (required.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int k = required.length;
+        int needed = k <= 2 ? k : Math.max(1, (int) Math.ceil(k * minMatch));
+
+        lock.readLock().lock();
+        try {
+            Integer[] order = new Integer[k];
+            for (int i = 0; i < k; i++) {
+                order[i] = required[i];
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(sizes[a], sizes[b]));
+
+            // Any document with `needed` matches appears in one of the k - needed + 1 shortest lists
+            int[] candidates = union(order, k - needed + 1);
+
+            long[] heap = new long[limit];
+            int heapSize = 0;
+            for (int doc : candidates) {
+                int matched = 0;
+                for (int key : required) {
+                    if (contains(key, doc)) {
+                        matched++;
+                    }
+                }
+                if (matched < needed) {
+                    continue;
+                }
+                int prefixMatched = 0;
+                for (int key : prefixes) {
+                    if (contains(key, doc)) {
+                        prefixMatched++;
+                    }
+                }
+                int rank = matched * 2 + prefixMatched;
+                long entry = ((long) rank << 32) | doc;
+                if (heapSize < limit) {
+                    heap[heapSize++] = entry;
+                    siftUp(heap, heapSize - 1);
+                } else if (entry > heap[0]) {
+                    heap[0] = entry;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            long[] ranked = Arrays.copyOf(heap, heapSize);
+            Arrays.sort(ranked);
+            double maxRank = k * 2.0 + prefixes.length;
+            List<Hit> hits = new ArrayList<>(heapSize);
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                int doc = (int) ranked[i];
+                int rank = (int) (ranked[i] >>> 32);
+                hits.add(new Hit(docIds[doc], Math.round(rank / maxRank * 1000) / 1000.0));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- postings
+
+    private void append(int key, int doc) {
+        int[] list = postings[key];
+        int size = sizes[key];
+        if (list == null) {
+            list = postings[key] = new int[4];
+        } else if (size == list.length) {
+            list = postings[key] = Arrays.copyOf(list, size + (size >> 1) + 1);
+        }
+        list[size] = doc;
+        sizes[key] = size + 1;
+    }
+
+    private boolean contains(int key, int doc) {
+        return sizes[key] > 0 && Arrays.binarySearch(postings[key], 0, sizes[key], doc) >= 0;
+    }
+
+    private int[] union(Integer[] keysByLength, int count) {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += sizes[keysByLength[i]];
+        }
+        int[] merged = new int[total];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int key = keysByLength[i];
+            System.arraycopy(postings[key] == null ? merged : postings[key], 0, merged, length, sizes[key]);
+            length += sizes[key];
+        }
+        if (count > 1) {
+            Arrays.sort(merged, 0, length);
+            length = dedupe(merged, length);
+        }
+        return length == merged.length ? merged : Arrays.copyOf(merged, length);
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1, right = left + 1, smallest = i;
+            if (left < size && heap[left] < heap[smallest]) smallest = left;
+            if (right < size && heap[right] < heap[smallest]) smallest = right;
+            if (smallest == i) {
+                return;
+            }
+            swap(heap, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+
+    /**
+     * Set of any long ids: open addressing with linear probing over a long[],
+     * so membership costs no boxing and no allocation until it grows
+     */
+    private static final class IdSet {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] slots = newSlots(1024);
+        private int size;
+        private boolean hasEmptyValue;
+
+        /**
+         * @return false if the id was already present
+         */
+        boolean add(long id) {
+            if (id == EMPTY) {
+                boolean added = !hasEmptyValue;
+                hasEmptyValue = true;
+                return added;
+            }
+            if ((size + 1) * 4L > slots.length * 3L) {
+                grow();
+            }
+            if (!insert(slots, id)) {
+                return false;
+            }
+            size++;
+            return true;
+        }
+
+        private static boolean insert(long[] table, long id) {
+            int mask = table.length - 1;
+            int i = (int) mix(id) & mask;
+            while (table[i] != EMPTY) {
+                if (table[i] == id) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = id;
+            return true;
+        }
+
+        private void grow() {
+            long[] larger = newSlots(slots.length * 2);
+            for (long id : slots) {
+                if (id != EMPTY) {
+                    insert(larger, id);
+                }
+            }
+            slots = larger;
+        }
+
+        private static long[] newSlots(int capacity) {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+
+        /** Sequential ids would cluster under identity hashing */
+        private static long mix(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+    }
+
+    // ---------------------------------------------------------------- tokenizing
+
+    /**
+     * Distinct keys of all windows and word starts in the fields
+     */
+    private static int[] documentKeys(String... fields) {
+        int[] keys = new int[64];
+        int count = 0;
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            int[] codes = encode(field);
+            for (int i = 0; i < codes.length; i++) {
+                if (codes[i] == 0) {
+                    continue;
+                }
+                if (keys.length < count + 2) {
+                    keys = Arrays.copyOf(keys, keys.length * 2);
+                }
+                if (isWordStart(codes, i) && i + 1 < codes.length && codes[i + 1] != 0) {
+                    keys[count++] = key(START, codes[i], codes[i + 1]);
+                }
+                if (i + 2 < codes.length && codes[i + 1] != 0 && codes[i + 2] != 0) {
+                    keys[count++] = key(codes[i], codes[i + 1], codes[i + 2]);
+                }
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        return Arrays.copyOf(keys, dedupe(keys, count));
+    }
+
+    /**
+     * [required keys, word-start bonus keys] for a query. Words of three or
+     * more characters require their windows; two-character words require
+     * their word-start trigram (prefix search); single characters are ignored.
+     */
+    private static int[][] queryKeys(String query) {
+        int[] required = new int[64];
+        int[] prefixes = new int[16];
+        int requiredCount = 0, prefixCount = 0;
+        int[] codes = encode(query == null ? "" : query);
+        for (int start = 0; start < codes.length; ) {
+            if (codes[start] == 0) {
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < codes.length && codes[end] != 0) {
+                end++;
+            }
+            int length = end - start;
+            if (length >= 2) {
+                int prefix = key(START, codes[start], codes[start + 1]);
+                if (length == 2) {
+                    required = ensure(required, requiredCount + 1);
+                    required[requiredCount++] = prefix;
+                } else {
+                    prefixes = ensure(prefixes, prefixCount + 1);
+                    prefixes[prefixCount++] = prefix;
+                    for (int i = start; i + 2 < end; i++) {
+                        required = ensure(required, requiredCount + 1);
+                        required[requiredCount++] = key(codes[i], codes[i + 1], codes[i + 2]);
+                    }
+                }
+            }
+            start = end;
+        }
+        Arrays.sort(required, 0, requiredCount);
+        Arrays.sort(prefixes, 0, prefixCount);
+        return new int[][]{
+                Arrays.copyOf(required, dedupe(required, requiredCount)),
+                Arrays.copyOf(prefixes, dedupe(prefixes, prefixCount))};
+    }
+
+    /**
+     * Fold text to 6-bit codes; 0 marks a word break (whitespace)
+     */
+    private static int[] encode(String text) {
+        int[] codes = new int[text.length()];
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                codes[i] = 2 + (c - 'a');
+            } else if (c >= '0' && c <= '9') {
+                codes[i] = 28 + (c - '0');
+            } else if (Character.isWhitespace(c)) {
+                codes[i] = 0;
+            } else {
+                codes[i] = switch (c) {
+                    case '@' -> 38;
+                    case '.' -> 39;
+                    case '_' -> 40;
+                    case '-' -> 41;
+                    case '+' -> 42;
+                    default -> OTHER;
+                };
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Words start after whitespace and after email punctuation (so "exam"
+     * is a prefix match for john@example.com)
+     */
+    private static boolean isWordStart(int[] codes, int i) {
+        if (i == 0) {
+            return true;
+        }
+        int previous = codes[i - 1];
+        return previous == 0 || (previous >= 38 && previous <= 42);
+    }
+
+    private static int key(int a, int b, int c) {
+        return (a << (2 * BITS)) | (b << BITS) | c;
+    }
+
+    private static int[] ensure(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, array.length * 2);
+    }
+
+    private static int dedupe(int[] sorted, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int unique = 1;
+        for (int i = 1; i < length; i++) {
+            if (sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return unique;
+    }
+}
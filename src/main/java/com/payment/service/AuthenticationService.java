@@ -4,9 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class AuthenticationService {
@@ -18,7 +18,7 @@ public class AuthenticationService {
     private static final String VALID_PASSWORD = "1234";
 
     // Token storage (in production, use Redis or database)
-    private Map<String, AuthToken> tokens = new HashMap<>();
+    private Map<String, AuthToken> tokens = new ConcurrentHashMap<>();
 
     /**
      * Authenticate user with username and password
@@ -69,6 +69,15 @@ public class AuthenticationService {
         return true;
     }
 
+    /**
+     * Whether the token is current, without logging; for per-request checks
+     * such as rate limiting, where callers may send arbitrary tokens
+     */
+    public boolean isActive(String token) {
+        AuthToken authToken = token == null ? null : tokens.get(token);
+        return authToken != null && authToken.expiresAt > System.currentTimeMillis();
+    }
+
     /**
      * Get username from token
      */
@@ -0,0 +1,191 @@
+package com.payment.service;
+
+import com.payment.dto.BulkQRCodeRequest;
+import com.payment.util.Amounts;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders batches of UPI QR codes on a dedicated, bounded fork-join pool and
+ * streams them into a ZIP in completion order.
+ *
+ * Each request keeps at most `window` codes in flight (rendering or rendered
+ * but not yet written), so memory per request is independent of batch size;
+ * the pool is shared, so concurrent batches share its CPU budget rather than
+ * adding threads. A manifest.csv written last lists every item with its file
+ * name or the reason it was skipped.
+ */
+@Service
+public class BulkQRCodeService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkQRCodeService.class);
+
+    // Same rules as PaymentRequest.upiId
+    private static final Pattern UPI_ID = Pattern.compile("^[a-zA-Z0-9._-]+@[a-zA-Z]{3,}$");
+    private static final Pattern UNSAFE_FILE_CHARS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    private final QRCodeService qrCodeService;
+    private final ForkJoinPool pool;
+    private final int window;
+
+    public BulkQRCodeService(@Lazy QRCodeService qrCodeService,
+                             @Value("${payment.qr.bulk.parallelism:0}") int parallelism) {
+        this.qrCodeService = qrCodeService;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("qr-render-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.window = threads * 2;
+    }
+
+    /**
+     * Outcome of one item: PNG bytes, or the error that prevented rendering
+     */
+    private record Rendered(int index, String fileName, byte[] png, String error) {
+    }
+
+    /**
+     * Render all items and write them, plus manifest.csv, as a ZIP to out
+     *
+     * @return number of codes written
+     */
+    public int writeZip(List<BulkQRCodeRequest.Item> items, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        BlockingQueue<Rendered> completed = new LinkedBlockingQueue<>();
+        String[] manifest = new String[items.size()];
+        int submitted = 0;
+        int inFlight = 0;
+        int written = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            for (int done = 0; done < items.size(); done++) {
+                while (submitted < items.size() && inFlight < window) {
+                    int index = submitted++;
+                    BulkQRCodeRequest.Item item = items.get(index);
+                    pool.execute(() -> completed.add(render(index, item)));
+                    inFlight++;
+                }
+                Rendered result = completed.take();
+                inFlight--;
+
+                BulkQRCodeRequest.Item item = items.get(result.index());
+                if (result.png() != null) {
+                    writeStored(zip, result.fileName(), result.png());
+                    written++;
+                }
+                manifest[result.index()] = csv(result.index() + 1, result.png() != null ? result.fileName() : "",
+                        item == null ? "" : item.getUpiId(), item == null ? "" : item.getName(),
+                        item == null ? "" : item.getAmount(), result.png() != null ? "ok" : "error",
+                        result.error() == null ? "" : result.error());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering QR codes");
+        }
+
+        StringBuilder csv = new StringBuilder("index,file,upiId,name,amount,status,error\n");
+        for (String line : manifest) {
+            csv.append(line).append('\n');
+        }
+        zip.putNextEntry(new ZipEntry("manifest.csv"));
+        zip.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+        zip.finish();
+
+        log.info("Bulk QR: {} of {} codes written in {} ms", written, items.size(), (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+
+    private Rendered render(int index, BulkQRCodeRequest.Item item) {
+        try {
+            if (item == null) {
+                return new Rendered(index, null, null, "Item is empty");
+            }
+            String upiId = item.getUpiId() == null ? "" : item.getUpiId().trim();
+            if (!UPI_ID.matcher(upiId).matches()) {
+                return new Rendered(index, null, null, "UPI ID must be in format: username@upiname");
+            }
+            String name = item.getName() == null ? "" : item.getName().trim();
+            if (name.isEmpty() || name.length() > 50) {
+                return new Rendered(index, null, null, "Name must be between 1 and 50 characters");
+            }
+            String amount = null;
+            if (item.getAmount() != null && !item.getAmount().isBlank()) {
+                long minor;
+                try {
+                    minor = Amounts.parse(item.getAmount().trim());
+                } catch (NumberFormatException e) {
+                    return new Rendered(index, null, null, "Amount must be a number with at most 2 decimal places");
+                }
+                if (minor <= 0) {
+                    return new Rendered(index, null, null, "Amount must be positive");
+                }
+                amount = Amounts.format(minor);
+            }
+            String label = item.getLabel() == null || item.getLabel().isBlank() ? upiId : item.getLabel().trim();
+            String fileName = String.format("%04d-%s.png", index + 1, UNSAFE_FILE_CHARS.matcher(label).replaceAll("_"));
+            return new Rendered(index, fileName, qrCodeService.renderUPIQRCode(upiId, name, amount), null);
+        } catch (Exception e) {
+            log.warn("Bulk QR item {} failed: {}", index + 1, e.getMessage());
+            return new Rendered(index, null, null, "Rendering failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * PNG data is already compressed, so store it instead of deflating again
+     */
+    private static void writeStored(ZipOutputStream zip, String name, byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(data.length);
+        entry.setCompressedSize(data.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(data);
+        zip.closeEntry();
+    }
+
+    private static String csv(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (Object value : values) {
+            if (line.length() > 0) {
+                line.append(',');
+            }
+            String text = String.valueOf(value == null ? "" : value);
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                text = '"' + text.replace("\"", "\"\"") + '"';
+            }
+            line.append(text);
+        }
+        return line.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
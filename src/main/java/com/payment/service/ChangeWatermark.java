@@ -0,0 +1,37 @@
+package com.payment.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Keyset position in the (updatedAt, id) change order, exchanged with clients
+ * as an opaque "micros-id" string
+ */
+record ChangeWatermark(LocalDateTime updatedAt, long id) {
+
+    static final ChangeWatermark ORIGIN = new ChangeWatermark(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    static ChangeWatermark parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ORIGIN;
+        }
+        int dash = value.indexOf('-');
+        try {
+            if (dash <= 0) {
+                throw new NumberFormatException();
+            }
+            long micros = Long.parseLong(value, 0, dash, 10);
+            long id = Long.parseLong(value, dash + 1, value.length(), 10);
+            LocalDateTime updatedAt = LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+            return new ChangeWatermark(updatedAt, id);
+        } catch (NumberFormatException | java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Invalid watermark: " + value);
+        }
+    }
+
+    String format() {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1000;
+        return micros + "-" + id;
+    }
+}
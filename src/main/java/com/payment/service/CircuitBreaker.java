@@ -0,0 +1,187 @@
+package com.payment.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker over the outcomes of the last windowSize calls.
+ *
+ * CLOSED: calls pass; once at least minimumCalls are recorded and either the
+ * failure rate or the slow-call rate reaches its threshold, the breaker opens.
+ * OPEN: calls are refused until openDuration has passed, then the breaker goes
+ * HALF_OPEN and lets halfOpenCalls probes through. All probes succeeding (and
+ * fast) closes it with a fresh window; any failed or slow probe reopens it.
+ *
+ * Every transition starts a new generation, and a permission is the
+ * generation it was granted in. A result reported with a permission from an
+ * earlier generation is ignored: a slow call admitted while CLOSED must not
+ * count as a half-open probe, nor one admitted before a reopen as a call of
+ * the fresh window.
+ *
+ * Calls are infrequent relative to the cost of a lock, so state is guarded by
+ * the instance monitor.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Returned by acquirePermission when the call must not be made */
+    public static final long NOT_PERMITTED = -1;
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    private final Consumer<State> onTransition;
+
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+    private final Map<State, Long> transitions = new EnumMap<>(State.class);
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long slowCallNanos,
+                          double slowCallRateThreshold, long openNanos, int halfOpenCalls, Consumer<State> onTransition) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallNanos, slowCallRateThreshold, openNanos,
+                halfOpenCalls, onTransition, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long slowCallNanos,
+                   double slowCallRateThreshold, long openNanos, int halfOpenCalls, Consumer<State> onTransition,
+                   LongSupplier clock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("windowSize >= minimumCalls >= 1 and halfOpenCalls >= 1 required");
+        }
+        this.outcomes = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.onTransition = onTransition;
+        this.clock = clock;
+        for (State s : State.values()) {
+            transitions.put(s, 0L);
+        }
+    }
+
+    /**
+     * Cheap pre-check that doesn't consume a half-open probe: false only while
+     * the breaker is open and its open period hasn't elapsed
+     */
+    public synchronized boolean isCallPermitted() {
+        return state != State.OPEN || clock.getAsLong() - openedAt >= openNanos;
+    }
+
+    /**
+     * Ask to make a call; every permission must be passed back to onSuccess
+     * or onError
+     *
+     * @return the permission, or NOT_PERMITTED
+     */
+    public synchronized long acquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                return NOT_PERMITTED;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                return NOT_PERMITTED;
+            }
+            probesStarted++;
+        }
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permission, long durationNanos) {
+        record(permission, durationNanos >= slowCallNanos ? SLOW : 0);
+    }
+
+    public synchronized void onError(long permission, long durationNanos) {
+        record(permission, (byte) (FAILED | (durationNanos >= slowCallNanos ? SLOW : 0)));
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Number of times the breaker entered each state
+     */
+    public synchronized Map<State, Long> transitions() {
+        return new EnumMap<>(transitions);
+    }
+
+    private void record(long permission, byte outcome) {
+        if (permission != generation) {
+            // Admitted under an earlier state; its result says nothing about this one
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (outcome != 0) {
+                transitionTo(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (recorded >= minimumCalls
+                && (failures * 100.0 / recorded >= failureRateThreshold
+                || slowCalls * 100.0 / recorded >= slowCallRateThreshold)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        generation++;
+        transitions.merge(target, 1L, Long::sum);
+        switch (target) {
+            case OPEN -> openedAt = clock.getAsLong();
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                next = 0;
+                recorded = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+        if (onTransition != null) {
+            onTransition.accept(target);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.payment.service;
+
+import com.payment.config.EmailDigestProperties;
+import com.payment.dto.PaymentResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects payment confirmations per recipient into tumbling windows.
+ *
+ * The first confirmation for an address opens its digest; the digest closes
+ * when its window (per payer domain, or the default) has elapsed or when it
+ * reaches maxPayments, whichever comes first. Closing removes the entry from
+ * the map atomically, so a payment arriving concurrently either joins the
+ * closing digest or opens the next one - never both, never neither.
+ */
+@Component
+@EnableConfigurationProperties(EmailDigestProperties.class)
+public class ConfirmationDigests {
+
+    private final EmailDigestProperties properties;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Digest> open = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConfirmationDigests(EmailDigestProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ConfirmationDigests(EmailDigestProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    private static final class Digest {
+        final long closesAt;
+        final List<PaymentResponse> payments = new ArrayList<>();
+
+        Digest(long closesAt) {
+            this.closesAt = closesAt;
+        }
+    }
+
+    /**
+     * True if confirmations for this address should be collected rather than sent now
+     */
+    public boolean appliesTo(String email) {
+        return properties.isEnabled() && email != null && !windowFor(email).isZero();
+    }
+
+    /**
+     * Add a confirmation to its recipient's digest.
+     *
+     * @return the closed digest if this payment filled it (send it now), null otherwise;
+     * a single-element list if no digest could be opened (recipient cap reached)
+     */
+    public List<PaymentResponse> add(PaymentResponse payment) {
+        String recipient = payment.getEmail().toLowerCase(Locale.ROOT);
+        List<List<PaymentResponse>> closed = new ArrayList<>(1);
+        open.compute(recipient, (key, digest) -> {
+            if (digest == null) {
+                if (open.size() >= properties.getMaxRecipients()) {
+                    closed.add(List.of(payment));
+                    return null;
+                }
+                digest = new Digest(clock.getAsLong() + windowFor(key).toNanos());
+            }
+            digest.payments.add(payment);
+            if (digest.payments.size() >= properties.getMaxPayments()) {
+                closed.add(digest.payments);
+                return null;
+            }
+            return digest;
+        });
+        return closed.isEmpty() ? null : closed.get(0);
+    }
+
+    /**
+     * Remove and return every digest whose window has elapsed, by recipient
+     */
+    public Map<String, List<PaymentResponse>> drainDue() {
+        return drain(false);
+    }
+
+    /**
+     * Remove and return every open digest (shutdown)
+     */
+    public Map<String, List<PaymentResponse>> drainAll() {
+        return drain(true);
+    }
+
+    public int openDigests() {
+        return open.size();
+    }
+
+    private Map<String, List<PaymentResponse>> drain(boolean all) {
+        long now = clock.getAsLong();
+        Map<String, List<PaymentResponse>> due = new LinkedHashMap<>();
+        for (Map.Entry<String, Digest> entry : open.entrySet()) {
+            Digest digest = entry.getValue();
+            if ((all || now - digest.closesAt >= 0) && open.remove(entry.getKey(), digest)) {
+                due.put(entry.getKey(), digest.payments);
+            }
+        }
+        return due;
+    }
+
+    private Duration windowFor(String email) {
+        int at = email.lastIndexOf('@');
+        String domain = at < 0 ? "" : email.substring(at + 1).toLowerCase(Locale.ROOT);
+        Duration window = properties.getDomains().get(domain);
+        return window != null ? window : properties.getWindow();
+    }
+}
@@ -1,15 +1,20 @@
 package com.payment.service;
 
 import com.payment.dto.PaymentResponse;
+import com.payment.util.Amounts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import jakarta.mail.MessagingException;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.internet.MimeMessage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class EmailService {
@@ -19,8 +24,15 @@ public class EmailService {
     @Autowired(required = false)
     private JavaMailSender mailSender;
 
+    @Autowired
+    private ConfirmationDigests digests;
+
+    @Autowired
+    private SmtpBulkhead smtp;
+
     /**
-     * Send payment confirmation email
+     * Send payment confirmation email, or add it to the recipient's digest
+     * when digest mode applies to them
      */
     public void sendPaymentConfirmationEmail(PaymentResponse payment) {
         // Check if email is configured
@@ -29,7 +41,56 @@ public class EmailService {
             return;
         }
 
-        try {
+        if (digests.appliesTo(payment.getEmail())) {
+            List<PaymentResponse> full = digests.add(payment);
+            if (full != null) {
+                sendDigest(payment.getEmail(), full);
+            }
+            return;
+        }
+        sendConfirmation(payment);
+    }
+
+    /**
+     * Send the digests whose window has closed
+     */
+    @Scheduled(fixedDelayString = "${payment.email.digest.flush-interval:PT10S}")
+    public void flushDueDigests() {
+        digests.drainDue().forEach(this::sendDigest);
+    }
+
+    /**
+     * Don't drop collected confirmations on shutdown
+     */
+    @PreDestroy
+    public void flushAllDigests() {
+        digests.drainAll().forEach(this::sendDigest);
+    }
+
+    private void sendDigest(String recipient, List<PaymentResponse> payments) {
+        if (payments.size() == 1) {
+            sendConfirmation(payments.get(0));
+            return;
+        }
+        smtp.submit("payment digest to " + recipient, () -> {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+            helper.setTo(recipient);
+            helper.setSubject("Payment Summary - " + payments.size() + " payments");
+            helper.setFrom("noreply@paymentmvp.com");
+            helper.setText(buildDigestContent(payments), true);
+
+            mailSender.send(message);
+            log.info("Payment digest with {} payments sent to: {}", payments.size(), recipient);
+        });
+    }
+
+    /**
+     * Hand the email to the SMTP bulkhead; the caller (checkout) never waits for the relay
+     */
+    private void sendConfirmation(PaymentResponse payment) {
+        smtp.submit("confirmation for payment #" + payment.getId(), () -> {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
@@ -41,13 +102,8 @@ public class EmailService {
             helper.setText(emailContent, true);
 
             mailSender.send(message);
-            log.info("Payment confirmation email sent to: {}", payment.getEmail());
-        } catch (MessagingException e) {
-            log.error("Failed to send email to: {}", payment.getEmail(), e);
-            // Don't throw exception - payment is already processed
-        } catch (Exception e) {
-            log.error("Unexpected error sending email: {}", e.getMessage(), e);
-        }
+            log.info("Payment confirmation email sent for payment ID: {}", payment.getId());
+        });
     }
 
     /**
@@ -93,7 +149,7 @@ public class EmailService {
                 "</div>" +
                 "<div class='detail'>" +
                 "<span class='label'>Amount:</span>" +
-                "<span>₹" + String.format("%.2f", payment.getAmount()) + "</span>" +
+                "<span>" + currencyPrefix(payment.getCurrency()) + Amounts.format(payment.getAmount()) + "</span>" +
                 "</div>" +
                 "<div class='detail'>" +
                 "<span class='label'>Status:</span>" +
@@ -113,6 +169,62 @@ public class EmailService {
                 "</html>";
     }
 
+    /**
+     * Build HTML summary of several payments
+     */
+    private String buildDigestContent(List<PaymentResponse> payments) {
+        StringBuilder rows = new StringBuilder();
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (PaymentResponse payment : payments) {
+            rows.append("<tr>")
+                    .append("<td>#").append(payment.getId()).append("</td>")
+                    .append("<td>").append(escapeHtml(payment.getName())).append("</td>")
+                    .append("<td>").append(currencyPrefix(payment.getCurrency())).append(Amounts.format(payment.getAmount())).append("</td>")
+                    .append("<td>").append(payment.getCreatedAt()).append("</td>")
+                    .append("</tr>");
+            totals.merge(payment.getCurrency() == null ? Amounts.DEFAULT_CURRENCY : payment.getCurrency(),
+                    payment.getAmount(), Long::sum);
+        }
+        StringBuilder total = new StringBuilder();
+        totals.forEach((currency, amount) -> total.append(total.length() > 0 ? ", " : "")
+                .append(currencyPrefix(currency)).append(Amounts.format(amount)));
+
+        return "<!DOCTYPE html>" +
+                "<html>" +
+                "<head>" +
+                "<style>" +
+                "body { font-family: Arial, sans-serif; color: #333; }" +
+                ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
+                ".header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 20px; border-radius: 5px; text-align: center; }" +
+                "table { width: 100%; border-collapse: collapse; margin-top: 20px; }" +
+                "th, td { text-align: left; padding: 8px; border-bottom: 1px solid #ddd; }" +
+                "th { color: #667eea; }" +
+                ".footer { text-align: center; color: #999; font-size: 12px; margin-top: 20px; }" +
+                "</style>" +
+                "</head>" +
+                "<body>" +
+                "<div class='container'>" +
+                "<div class='header'>" +
+                "<h1>✓ " + payments.size() + " Payments Successful</h1>" +
+                "<p>Total: " + total + "</p>" +
+                "</div>" +
+                "<table>" +
+                "<tr><th>Payment ID</th><th>Name</th><th>Amount</th><th>Date & Time</th></tr>" +
+                rows +
+                "</table>" +
+                "<div class='footer'>" +
+                "<p>This is an automated message. Please do not reply to this email.</p>" +
+                "<p>&copy; 2026 Payment Processing MVP. All rights reserved.</p>" +
+                "</div>" +
+                "</div>" +
+                "</body>" +
+                "</html>";
+    }
+
+    private static String currencyPrefix(String currency) {
+        return currency == null || Amounts.DEFAULT_CURRENCY.equals(currency) ? "₹" : currency + " ";
+    }
+
     /**
      * Escape HTML to prevent XSS
      */
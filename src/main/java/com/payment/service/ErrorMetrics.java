@@ -0,0 +1,96 @@
+package com.payment.service;
+
+import com.payment.dto.ErrorMetricsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Error counts by exception type, and a log rate limit per type: at most
+ * log-burst lines per log-window, the rest are counted and reported with
+ * the next line that gets through. A burst of one failure (a scanner, a
+ * database outage) then costs a counter increment per request instead of
+ * a stack trace in the log.
+ */
+@Component
+public class ErrorMetrics {
+
+    /** Returned by {@link #record} when the error should not be logged */
+    public static final long SUPPRESSED = -1;
+
+    private static final class TypeCounter {
+        final LongAdder count = new LongAdder();
+        final AtomicInteger logged = new AtomicInteger();
+        final LongAdder suppressed = new LongAdder();
+        volatile long windowStart;
+    }
+
+    private final Map<String, TypeCounter> counters = new ConcurrentHashMap<>();
+    private final LongAdder suppressedTotal = new LongAdder();
+    private final int logBurst;
+    private final long logWindowMillis;
+    private final LongSupplier clockMillis;
+
+    @Autowired
+    public ErrorMetrics(@Value("${payment.errors.log-burst:5}") int logBurst,
+                        @Value("${payment.errors.log-window:PT10S}") Duration logWindow) {
+        this(logBurst, logWindow, System::currentTimeMillis);
+    }
+
+    ErrorMetrics(int logBurst, Duration logWindow, LongSupplier clockMillis) {
+        this.logBurst = logBurst;
+        this.logWindowMillis = logWindow.toMillis();
+        this.clockMillis = clockMillis;
+    }
+
+    public long record(Throwable error) {
+        return record(error.getClass());
+    }
+
+    /**
+     * Count one error of this type.
+     *
+     * @return {@link #SUPPRESSED} if the log limit for the type is used up,
+     *         otherwise the number of lines suppressed since the last one logged
+     */
+    public long record(Class<?> type) {
+        TypeCounter counter = counters.computeIfAbsent(type.getSimpleName(), name -> new TypeCounter());
+        counter.count.increment();
+
+        long now = clockMillis.getAsLong();
+        long start = counter.windowStart;
+        if (now - start >= logWindowMillis) {
+            synchronized (counter) {
+                if (counter.windowStart == start) {
+                    counter.windowStart = now;
+                    counter.logged.set(0);
+                }
+            }
+        }
+        if (counter.logged.get() >= logBurst || counter.logged.incrementAndGet() > logBurst) {
+            counter.suppressed.increment();
+            suppressedTotal.increment();
+            return SUPPRESSED;
+        }
+        return counter.suppressed.sumThenReset();
+    }
+
+    public ErrorMetricsResponse snapshot() {
+        Map<String, Long> byType = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<String, TypeCounter> entry : counters.entrySet()) {
+            long count = entry.getValue().count.sum();
+            byType.put(entry.getKey(), count);
+            total += count;
+        }
+        return new ErrorMetricsResponse(true, total, suppressedTotal.sum(), byType);
+    }
+}
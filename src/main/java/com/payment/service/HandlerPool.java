@@ -0,0 +1,119 @@
+package com.payment.service;
+
+import com.payment.config.ReadRoutingContext;
+import com.payment.dto.HandlerPoolMetricsResponse;
+import com.payment.exception.ServerBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded executor for one group of controller handlers. Work is refused
+ * when the queue is full and abandoned at the timeout; either way the caller's
+ * future fails with {@link ServerBusyException}. Work that times out before it
+ * starts is taken off the queue and never runs.
+ *
+ * Only an idempotent pool abandons work that has already started. On the
+ * others (checkout) the write may still commit, so a "please retry" answer
+ * could charge twice; the caller waits for the real result instead, bounded
+ * by spring.mvc.async.request-timeout.
+ */
+public class HandlerPool {
+
+    private enum Stage { QUEUED, STARTED, ABANDONED }
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService timer;
+    private final long timeoutMillis;
+    private final boolean idempotent;
+    private final ServerBusyException busy;
+    private final ServerBusyException timeoutExceeded;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    HandlerPool(String name, int threads, int queueCapacity, Duration timeout, boolean idempotent,
+                ScheduledExecutorService timer) {
+        this.timer = timer;
+        this.timeoutMillis = timeout.toMillis();
+        this.idempotent = idempotent;
+        this.busy = new ServerBusyException("Server busy (" + name + "), please retry");
+        this.timeoutExceeded = new ServerBusyException("Request timed out (" + name + "), please retry");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs the task on this pool with the caller's read routing
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Callable<T> routed = ReadRoutingContext.propagate(task);
+        AtomicReference<Stage> stage = new AtomicReference<>(Stage.QUEUED);
+        FutureTask<Void> work = new FutureTask<>(() -> {
+            if (!stage.compareAndSet(Stage.QUEUED, Stage.STARTED)) {
+                return;
+            }
+            try {
+                if (result.complete(routed.call())) {
+                    completed.increment();
+                }
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, null);
+
+        try {
+            executor.execute(work);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(busy);
+            return result;
+        }
+
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (stage.compareAndSet(Stage.QUEUED, Stage.ABANDONED)) {
+                // Off the queue before the caller hears about the timeout
+                work.cancel(false);
+                executor.remove(work);
+            } else if (!idempotent) {
+                return;
+            }
+            if (result.completeExceptionally(timeoutExceeded)) {
+                timedOut.increment();
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> timeout.cancel(false));
+        return result;
+    }
+
+    HandlerPoolMetricsResponse.PoolMetrics snapshot() {
+        return new HandlerPoolMetricsResponse.PoolMetrics(executor.getActiveCount(), executor.getQueue().size(),
+                completed.sum(), rejected.sum(), timedOut.sum());
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,75 @@
+package com.payment.service;
+
+import com.payment.config.HandlerPoolProperties;
+import com.payment.dto.HandlerPoolMetricsResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Dedicated executors for the asynchronous controller handlers, so a burst of
+ * checkouts cannot starve listings or QR rendering and no handler holds a
+ * container thread while it waits on JDBC or renders an image
+ */
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(HandlerPoolProperties.class)
+public class HandlerPools {
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final HandlerPool checkout;
+    private final HandlerPool qrCode;
+    private final HandlerPool listing;
+
+    public HandlerPools(HandlerPoolProperties properties) {
+        this.timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "handler-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        // A checkout that has started may still commit, so it is never abandoned
+        this.checkout = create("checkout", properties.getCheckout(), false);
+        this.qrCode = create("qr-code", properties.getQrCode(), true);
+        this.listing = create("listing", properties.getListing(), true);
+    }
+
+    private HandlerPool create(String name, HandlerPoolProperties.Pool pool, boolean idempotent) {
+        return new HandlerPool(name, pool.getThreads(), pool.getQueueCapacity(), pool.getTimeout(), idempotent,
+                timer);
+    }
+
+    public HandlerPool checkout() {
+        return checkout;
+    }
+
+    public HandlerPool qrCode() {
+        return qrCode;
+    }
+
+    public HandlerPool listing() {
+        return listing;
+    }
+
+    public HandlerPoolMetricsResponse snapshot() {
+        Map<String, HandlerPoolMetricsResponse.PoolMetrics> pools = new LinkedHashMap<>();
+        pools.put("checkout", checkout.snapshot());
+        pools.put("qr-code", qrCode.snapshot());
+        pools.put("listing", listing.snapshot());
+        return new HandlerPoolMetricsResponse(true, pools);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkout.shutdown();
+        qrCode.shutdown();
+        listing.shutdown();
+        timer.shutdownNow();
+    }
+}
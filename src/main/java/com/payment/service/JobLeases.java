@@ -0,0 +1,58 @@
+package com.payment.service;
+
+import com.payment.entity.JobLease;
+import com.payment.repository.JobLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide leases for jobs that must run on one node at a time. Every
+ * call is its own short read-write transaction, so it sees the primary and
+ * never holds a lock across the job itself.
+ */
+@Service
+public class JobLeases {
+
+    /** pid@host, distinct per running node */
+    private static final String OWNER = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final JobLeaseRepository repository;
+    private final TransactionTemplate transactions;
+
+    public JobLeases(JobLeaseRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Take the named lease, or extend it if this node already holds it
+     *
+     * @return false if another node holds an unexpired lease
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!repository.existsById(name)) {
+            try {
+                transactions.executeWithoutResult(status ->
+                        repository.save(new JobLease(name, "", now.minusSeconds(1))));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+        Integer taken = transactions.execute(status -> repository.acquire(name, OWNER, now, now.plus(duration)));
+        return taken != null && taken == 1;
+    }
+
+    /**
+     * Give the lease up early so another node need not wait for it to run out
+     */
+    public void release(String name) {
+        transactions.executeWithoutResult(status -> repository.release(name, OWNER, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.payment.service;
+
+import com.payment.entity.Payment;
+import com.payment.repository.PaymentSort;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Keyset position in a sorted payment listing: the last row's sort value and
+ * id, exchanged with clients as an opaque "value-id" string (timestamps as
+ * epoch micros, amounts in minor units)
+ */
+record PageCursor(long value, long id) {
+
+    static PageCursor parse(String value) {
+        int dash = value.indexOf('-');
+        try {
+            if (dash <= 0) {
+                throw new NumberFormatException();
+            }
+            return new PageCursor(Long.parseLong(value, 0, dash, 10), Long.parseLong(value, dash + 1, value.length(), 10));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    static PageCursor of(PaymentSort sort, Payment last) {
+        long value = switch (sort) {
+            case CREATED_AT -> micros(last.getCreatedAt());
+            case UPDATED_AT -> micros(last.getUpdatedAt());
+            case AMOUNT -> last.getAmountMinor();
+            case ID -> last.getId();
+        };
+        return new PageCursor(value, last.getId());
+    }
+
+    /**
+     * The sort value in the attribute's own type
+     */
+    Comparable<?> sortValue(PaymentSort sort) {
+        return switch (sort) {
+            case CREATED_AT, UPDATED_AT -> LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(value, 1_000_000), (int) Math.floorMod(value, 1_000_000) * 1000, ZoneOffset.UTC);
+            case AMOUNT, ID -> value;
+        };
+    }
+
+    String format() {
+        return value + "-" + id;
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+}
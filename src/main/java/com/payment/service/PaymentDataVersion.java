@@ -0,0 +1,117 @@
+package com.payment.service;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.repository.DataFingerprint;
+import com.payment.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the payments data that listing ETags are derived from.
+ *
+ * The tag is a fingerprint of shared state: the hot table's id range and
+ * latest update, read on the primary, plus the archive this node has loaded.
+ * Every node hands out the same tag for the same data and a write on any node
+ * changes it, so polls may be balanced across nodes. The fingerprint is
+ * cached: a write on this node ({@link #bump}) invalidates it at once, writes
+ * on other nodes are seen within payment.etag.refresh-interval.
+ *
+ * A transaction can commit after a later one that has a newer updatedAt. While
+ * the latest update is younger than payment.sync.settle-window the tag also
+ * carries the time it was read, so a 304 given in that window stops matching
+ * at the next refresh.
+ *
+ * The recent-payments ring is node-local and keeps a node-local tag
+ * ({@link #localEtag}).
+ */
+@Component
+public class PaymentDataVersion {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentArchive paymentArchive;
+    private final long refreshNanos;
+    private final Duration settleWindow;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+    private volatile Snapshot local;
+
+    public PaymentDataVersion(PaymentRepository paymentRepository,
+                              PaymentArchive paymentArchive,
+                              @Value("${payment.etag.refresh-interval:PT1S}") Duration refreshInterval,
+                              @Value("${payment.sync.settle-window:PT1S}") Duration settleWindow) {
+        this.paymentRepository = paymentRepository;
+        this.paymentArchive = paymentArchive;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.settleWindow = settleWindow;
+    }
+
+    /**
+     * Record that payment data changed on this node
+     */
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Strong ETag for the listings. Read it before querying, so data written
+     * during the query at worst produces one extra full response. The tag
+     * follows the primary, so a body sent under it must be read from the
+     * primary too; a replica may not have caught up.
+     */
+    public String etag() {
+        long current = version.get();
+        Snapshot cached = snapshot;
+        if (cached == null || cached.version != current || System.nanoTime() - cached.readAt >= refreshNanos) {
+            cached = new Snapshot(current, System.nanoTime(), fingerprint());
+            snapshot = cached;
+        }
+        return cached.etag;
+    }
+
+    /**
+     * ETag for data only this node holds, changed by this node's writes. The
+     * epoch changes on every start, so tags from a previous process never match.
+     */
+    public String localEtag() {
+        long current = version.get();
+        Snapshot cached = local;
+        if (cached == null || cached.version != current) {
+            cached = new Snapshot(current, 0, "\"" + epoch + "-" + current + "\"");
+            local = cached;
+        }
+        return cached.etag;
+    }
+
+    private String fingerprint() {
+        DataFingerprint fingerprint = paymentRepository.findFingerprint();
+        LocalDateTime lastUpdate = fingerprint.lastUpdate();
+        StringBuilder tag = new StringBuilder("\"")
+                .append(base36(fingerprint.minId())).append('-')
+                .append(base36(fingerprint.maxId())).append('-')
+                .append(base36(paymentArchive.maxArchivedId())).append('-')
+                .append(lastUpdate == null ? "0" : base36(micros(lastUpdate)));
+        if (lastUpdate != null && lastUpdate.isAfter(LocalDateTime.now().minus(settleWindow))) {
+            tag.append('-').append(base36(System.currentTimeMillis()));
+        }
+        return tag.append('"').toString();
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+
+    private static String base36(Long value) {
+        return value == null ? "0" : Long.toString(value, 36);
+    }
+
+    private record Snapshot(long version, long readAt, String etag) {}
+}
@@ -0,0 +1,165 @@
+package com.payment.service;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.dto.PaymentResponse;
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.logging.LogSampling;
+import com.payment.recent.RecentPayments;
+import com.payment.repository.PaymentRepository;
+import com.payment.repository.PaymentState;
+import com.payment.webhook.WebhookOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Moves payments through their lifecycle with optimistic, lock-free updates:
+ * read (status, version), validate the transition, then issue one conditional
+ * UPDATE guarded by both. A lost race re-reads and retries; nothing ever holds
+ * a row lock across the read and the write.
+ */
+@Service
+public class PaymentLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentLifecycleService.class);
+
+    /**
+     * Outcome of a transition request
+     */
+    public enum Outcome {
+        APPLIED, ALREADY_IN_STATE, INVALID_TRANSITION, CONFLICT, NOT_FOUND,
+        /** The payment has moved to the read-only archive */
+        ARCHIVED
+    }
+
+    /**
+     * Outcome plus the payment as it stands afterwards (absent if not found)
+     */
+    public record TransitionResult(Outcome outcome, PaymentStatus current, Optional<PaymentResponse> payment) {
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentDataVersion dataVersion;
+
+    @Autowired
+    private PaymentTransitionMetrics metrics;
+
+    @Autowired
+    private PaymentRollupService rollups;
+
+    @Autowired
+    private WebhookOutbox webhooks;
+
+    @Autowired
+    private RecentPayments recentPayments;
+
+    @Autowired
+    private PaymentArchive paymentArchive;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Lazy
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${payment.lifecycle.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    /**
+     * Move a payment to the target state
+     */
+    public TransitionResult transition(Long id, PaymentStatus target) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<PaymentState> read = paymentRepository.findStateById(id);
+            if (read.isEmpty()) {
+                Optional<Payment> archived = paymentArchive.findById(id);
+                if (archived.isPresent()) {
+                    metrics.rejected();
+                    return new TransitionResult(Outcome.ARCHIVED, archived.get().getStatus(),
+                            archived.map(PaymentService::convertToResponse));
+                }
+                return new TransitionResult(Outcome.NOT_FOUND, null, Optional.empty());
+            }
+            PaymentState state = read.get();
+
+            if (state.status() == target) {
+                // Gateways redeliver callbacks; a repeat is a no-op, not an error
+                metrics.duplicate();
+                return result(Outcome.ALREADY_IN_STATE, id, target);
+            }
+            if (!state.status().canTransitionTo(target)) {
+                metrics.rejected();
+                return result(Outcome.INVALID_TRANSITION, id, state.status());
+            }
+
+            Optional<Payment> moved = rollups.recording(
+                    () -> new TransactionTemplate(transactionManager).execute(status -> moveStatus(id, state, target)));
+            if (moved != null) {
+                metrics.applied();
+                dataVersion.bump();
+                log.info(LogSampling.ROUTINE, "Payment {} moved from {} to {}", id, state.status().label(), target.label());
+                moved.ifPresent(payment -> recentPayments.statusChanged(id, payment.getStatus(), payment.getVersion()));
+                TransitionResult result = new TransitionResult(Outcome.APPLIED, target,
+                        moved.map(PaymentService::convertToResponse));
+                if (target == PaymentStatus.CAPTURED) {
+                    result.payment().ifPresent(this::sendConfirmation);
+                }
+                return result;
+            }
+
+            metrics.conflict();
+            if (attempt >= maxAttempts) {
+                metrics.exhausted();
+                log.warn("Payment {} transition to {} abandoned after {} conflicting attempts", id, target.label(), attempt);
+                return new TransitionResult(Outcome.CONFLICT, state.status(), Optional.empty());
+            }
+            metrics.retry();
+            log.debug("Payment {} changed concurrently (version {}), retrying", id, state.version());
+        }
+    }
+
+    /**
+     * Compare-and-set the status, queue the webhooks and record the rollup
+     * delta; runs in one transaction inside PaymentRollupService.recording
+     *
+     * @return the moved payment (empty if it was archived meanwhile), or null
+     *         if another writer changed it first
+     */
+    private Optional<Payment> moveStatus(Long id, PaymentState state, PaymentStatus target) {
+        if (paymentRepository.compareAndSetStatus(id, state.status(), state.version(), target, LocalDateTime.now()) != 1) {
+            return null;
+        }
+        Optional<Payment> moved = paymentRepository.findById(id);
+        moved.ifPresent(payment -> {
+            webhooks.paymentTransitioned(PaymentService.convertToResponse(payment), target);
+            rollups.recordTransition(payment, state.status(), target);
+        });
+        return moved;
+    }
+
+    private TransitionResult result(Outcome outcome, Long id, PaymentStatus current) {
+        return new TransitionResult(outcome, current,
+                paymentRepository.findById(id).map(PaymentService::convertToResponse));
+    }
+
+    private void sendConfirmation(PaymentResponse payment) {
+        try {
+            emailService.sendPaymentConfirmationEmail(payment);
+        } catch (Exception e) {
+            log.warn("Email sending failed but payment was captured: {}", e.getMessage());
+        }
+    }
+}
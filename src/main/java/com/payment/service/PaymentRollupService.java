@@ -0,0 +1,386 @@
+package com.payment.service;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.dto.RollupReportResponse;
+import com.payment.entity.DailyPaymentRollup;
+import com.payment.entity.HourlyPaymentRollup;
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentRollup;
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.DailyPaymentRollupRepository;
+import com.payment.repository.HourlyPaymentRollupRepository;
+import com.payment.repository.HourlyTotals;
+import com.payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the hourly and daily rollup tables that reporting reads instead
+ * of scanning payments.
+ *
+ * The write path records deltas in memory (a new payment adds to its bucket,
+ * a status change moves it from the old status to the new one) and a flush
+ * applies them every few seconds, so a busy bucket costs one UPDATE per flush
+ * rather than one per payment. Buckets are by creation time, so a late change
+ * (a refund days later) lands in the original hour and day.
+ *
+ * A correction pass periodically recomputes the most recent hours, and whole
+ * days touched by late changes, from the payments table. That repairs deltas
+ * lost to a crash and counts payments written by other nodes. Local writes run
+ * through recording(), which a correction waits for: every change it reads
+ * has had its delta recorded (and flushed first), and every later change
+ * lands after the recompute, so no delta is counted twice. Daily rows are
+ * always re-derived from the day's hourly rows. Days partly or wholly moved to
+ * the archive are never recomputed, since their rows are no longer in the table.
+ */
+@Service
+public class PaymentRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRollupService.class);
+
+    /** Method label for payments made before the method was recorded */
+    public static final String UNKNOWN_METHOD = "unknown";
+
+    static final int MAX_HOURLY_DAYS = 7;
+    static final int MAX_DAILY_DAYS = 366;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private record Key(LocalDateTime hour, PaymentStatus status, String method, String currency) {
+    }
+
+    private static final class Delta {
+        long count;
+        long amount;
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private HourlyPaymentRollupRepository hourlyRepository;
+
+    @Autowired
+    private DailyPaymentRollupRepository dailyRepository;
+
+    @Autowired
+    private PaymentArchive paymentArchive;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${payment.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.rollup.correction-window:PT6H}")
+    private Duration correctionWindow;
+
+    @Value("${payment.archive.max-age:P90D}")
+    private Duration archiveMaxAge;
+
+    private final Map<Key, Delta> pending = new ConcurrentHashMap<>();
+    private final Set<LocalDate> lateDays = ConcurrentHashMap.newKeySet();
+
+    /** Read side: a payment write and its delta; write side: a correction */
+    private final ReentrantReadWriteLock writes = new ReentrantReadWriteLock();
+
+    /**
+     * Run a payment write that records its delta (recordCreated,
+     * recordTransition) before returning. Writes run concurrently with each
+     * other but not with a correction.
+     */
+    public <T> T recording(Supplier<T> write) {
+        writes.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            writes.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count a newly stored payment
+     */
+    public void recordCreated(Payment payment) {
+        if (enabled) {
+            add(key(payment, payment.getStatus()), 1, payment.getAmountMinor());
+        }
+    }
+
+    /**
+     * Move a payment between status buckets after a transition
+     */
+    public void recordTransition(Payment payment, PaymentStatus from, PaymentStatus to) {
+        if (!enabled) {
+            return;
+        }
+        add(key(payment, from), -1, -payment.getAmountMinor());
+        add(key(payment, to), 1, payment.getAmountMinor());
+        if (payment.getCreatedAt().isBefore(LocalDateTime.now().minus(correctionWindow))) {
+            lateDays.add(payment.getCreatedAt().toLocalDate());
+        }
+    }
+
+    /**
+     * Apply the pending deltas to both tables in one transaction
+     */
+    @Scheduled(fixedDelayString = "${payment.rollup.flush-interval:PT5S}")
+    public synchronized void flush() {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        Map<Key, Delta> batch = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            Delta delta = pending.remove(key);
+            if (delta != null && (delta.count != 0 || delta.amount != 0)) {
+                batch.put(key, delta);
+            }
+        }
+        try {
+            transaction().executeWithoutResult(status -> batch.forEach(this::apply));
+        } catch (RuntimeException e) {
+            // Keep the deltas for the next flush
+            batch.forEach((key, delta) -> add(key, delta.count, delta.amount));
+            log.error("Rollup flush failed, {} buckets kept for retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute recent hours and days with late changes from the payments table
+     */
+    @Scheduled(fixedDelayString = "${payment.rollup.correction-interval:PT15M}",
+            initialDelayString = "${payment.rollup.correction-interval:PT15M}")
+    public synchronized void correct() {
+        if (!enabled) {
+            return;
+        }
+        writes.writeLock().lock();
+        try {
+            correctQuiesced();
+        } finally {
+            writes.writeLock().unlock();
+        }
+    }
+
+    private void correctQuiesced() {
+        flush();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.minus(archiveMaxAge).toLocalDate().plusDays(1).atStartOfDay();
+        LocalDateTime from = now.minus(correctionWindow).truncatedTo(ChronoUnit.HOURS);
+        if (from.isBefore(horizon)) {
+            from = horizon;
+        }
+        LocalDateTime recentFrom = from;
+        LocalDateTime to = now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+        Set<LocalDate> days = new TreeSet<>();
+        for (LocalDate day : lateDays) {
+            lateDays.remove(day);
+            if (!day.atStartOfDay().isBefore(horizon) && day.atStartOfDay().isBefore(recentFrom)) {
+                days.add(day);
+            }
+        }
+        try {
+            transaction().executeWithoutResult(status -> {
+                recompute(recentFrom, to);
+                days.forEach(day -> recompute(day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+            });
+            log.debug("Rollups corrected from {} and for {} late days", recentFrom, days.size());
+        } catch (RuntimeException e) {
+            lateDays.addAll(days);
+            log.error("Rollup correction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread rebuild = new Thread(this::rebuildIfEmpty, "rollup-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Build the tables from every payment (archive and hot table) if they are
+     * empty, e.g. on first start
+     */
+    public synchronized void rebuildIfEmpty() {
+        long start = System.nanoTime();
+        try {
+            if (hourlyRepository.count() > 0) {
+                return;
+            }
+            Map<Key, Delta> archived = new HashMap<>();
+            paymentArchive.forEach(payment -> {
+                Delta delta = archived.computeIfAbsent(key(payment, payment.getStatus()), k -> new Delta());
+                delta.count++;
+                delta.amount += payment.getAmountMinor();
+            });
+            transaction().executeWithoutResult(status -> {
+                Map<Key, Delta> totals = new HashMap<>(archived);
+                LocalDateTime to = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                for (HourlyTotals row : paymentRepository.findHourlyTotals(EPOCH, to)) {
+                    Delta delta = totals.computeIfAbsent(key(row), k -> new Delta());
+                    delta.count += row.count();
+                    delta.amount += row.amountMinor();
+                }
+                insert(totals);
+            });
+            log.info("Rollups built in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Rollup rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read buckets for a date range (inclusive) from the rollup tables only
+     *
+     * @throws IllegalArgumentException for an unknown granularity or a range too long for it
+     */
+    public RollupReportResponse report(String granularity, LocalDate from, LocalDate to, PaymentStatus status,
+                                       String method) {
+        boolean hourly;
+        if ("hour".equalsIgnoreCase(granularity)) {
+            hourly = true;
+        } else if (granularity == null || "day".equalsIgnoreCase(granularity)) {
+            hourly = false;
+        } else {
+            throw new IllegalArgumentException("granularity must be 'hour' or 'day'");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        int maxDays = hourly ? MAX_HOURLY_DAYS : MAX_DAILY_DAYS;
+        if (days > maxDays) {
+            throw new IllegalArgumentException("Range too long for " + (hourly ? "hourly" : "daily")
+                    + " buckets (at most " + maxDays + " days)");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<? extends PaymentRollup> rows = hourly
+                ? hourlyRepository.findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(start, end)
+                : dailyRepository.findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(start, end);
+
+        List<RollupReportResponse.Bucket> buckets = new ArrayList<>();
+        for (PaymentRollup row : rows) {
+            if ((status == null || row.getStatus() == status)
+                    && (method == null || method.equalsIgnoreCase(row.getMethod()))
+                    && row.getPaymentCount() != 0) {
+                buckets.add(new RollupReportResponse.Bucket(row.getBucketStart(), row.getStatus().label(),
+                        row.getMethod(), row.getCurrency(), row.getPaymentCount(), row.getAmountMinor()));
+            }
+        }
+        return new RollupReportResponse(true, hourly ? "hour" : "day", from, to, buckets);
+    }
+
+    private void add(Key key, long count, long amount) {
+        pending.compute(key, (k, delta) -> {
+            Delta d = delta == null ? new Delta() : delta;
+            d.count += count;
+            d.amount += amount;
+            return d;
+        });
+    }
+
+    private void apply(Key key, Delta delta) {
+        LocalDateTime day = key.hour().toLocalDate().atStartOfDay();
+        if (hourlyRepository.increment(key.hour(), key.status(), key.method(), key.currency(), delta.count, delta.amount) == 0) {
+            hourlyRepository.save(new HourlyPaymentRollup(key.hour(), key.status(), key.method(), key.currency(),
+                    delta.count, delta.amount));
+        }
+        if (dailyRepository.increment(day, key.status(), key.method(), key.currency(), delta.count, delta.amount) == 0) {
+            dailyRepository.save(new DailyPaymentRollup(day, key.status(), key.method(), key.currency(),
+                    delta.count, delta.amount));
+        }
+    }
+
+    /**
+     * Replace hourly rows in [from, to) with fresh totals, then re-derive the
+     * daily rows of every day the range touches
+     */
+    private void recompute(LocalDateTime from, LocalDateTime to) {
+        hourlyRepository.deleteBuckets(from, to);
+        for (HourlyTotals row : paymentRepository.findHourlyTotals(from, to)) {
+            Key key = key(row);
+            hourlyRepository.save(new HourlyPaymentRollup(key.hour(), key.status(), key.method(), key.currency(),
+                    row.count(), row.amountMinor()));
+        }
+        hourlyRepository.flush();
+
+        LocalDateTime dayStart = from.toLocalDate().atStartOfDay();
+        LocalDateTime dayEnd = to.minusNanos(1).toLocalDate().plusDays(1).atStartOfDay();
+        Map<Key, Delta> daily = new LinkedHashMap<>();
+        for (HourlyPaymentRollup row : hourlyRepository
+                .findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(dayStart, dayEnd)) {
+            Key key = new Key(row.getBucketStart().toLocalDate().atStartOfDay(), row.getStatus(), row.getMethod(),
+                    row.getCurrency());
+            Delta delta = daily.computeIfAbsent(key, k -> new Delta());
+            delta.count += row.getPaymentCount();
+            delta.amount += row.getAmountMinor();
+        }
+        dailyRepository.deleteBuckets(dayStart, dayEnd);
+        daily.forEach((key, delta) -> dailyRepository.save(new DailyPaymentRollup(key.hour(), key.status(),
+                key.method(), key.currency(), delta.count, delta.amount)));
+    }
+
+    /**
+     * Insert hourly rows and the daily rows summed from them (empty tables)
+     */
+    private void insert(Map<Key, Delta> hourly) {
+        Map<Key, Delta> daily = new HashMap<>();
+        hourly.forEach((key, delta) -> {
+            hourlyRepository.save(new HourlyPaymentRollup(key.hour(), key.status(), key.method(), key.currency(),
+                    delta.count, delta.amount));
+            Delta day = daily.computeIfAbsent(new Key(key.hour().toLocalDate().atStartOfDay(), key.status(),
+                    key.method(), key.currency()), k -> new Delta());
+            day.count += delta.count;
+            day.amount += delta.amount;
+        });
+        daily.forEach((key, delta) -> dailyRepository.save(new DailyPaymentRollup(key.hour(), key.status(),
+                key.method(), key.currency(), delta.count, delta.amount)));
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static Key key(Payment payment, PaymentStatus status) {
+        return new Key(payment.getCreatedAt().truncatedTo(ChronoUnit.HOURS), status, method(payment.getPaymentMethod()),
+                payment.getCurrency());
+    }
+
+    private static Key key(HourlyTotals row) {
+        return new Key(row.hourStart(), row.status(), method(row.method()), row.currency());
+    }
+
+    private static String method(String method) {
+        return method == null ? UNKNOWN_METHOD : method;
+    }
+}
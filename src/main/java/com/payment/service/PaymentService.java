@@ -1,15 +1,48 @@
 package com.payment.service;
 
+import com.payment.archive.PaymentArchive;
+import com.payment.dedup.DuplicatePaymentDetector;
+import com.payment.dto.PaymentChangesResponse;
+import com.payment.dto.PaymentPageResponse;
+import com.payment.dto.PaymentQueryRequest;
 import com.payment.dto.PaymentRequest;
 import com.payment.dto.PaymentResponse;
+import com.payment.dto.PaymentStatsResponse;
 import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.exception.DuplicatePaymentException;
+import com.payment.exception.PaymentNotFoundException;
+import com.payment.exception.PaymentValidationException;
+import com.payment.repository.PaymentQuery;
 import com.payment.repository.PaymentRepository;
+import com.payment.repository.PaymentSort;
+import com.payment.repository.StatusTotals;
+import com.payment.search.PaymentSearchIndex;
+import com.payment.logging.LogSampling;
+import com.payment.recent.RecentPayments;
+import com.payment.search.TrigramIndex;
+import com.payment.util.Amounts;
+import com.payment.velocity.VelocityEngine;
+import com.payment.webhook.WebhookOutbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,39 +53,111 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Lazy
     @Autowired
     private EmailService emailService;
 
+    @Lazy
     @Autowired
     private QRCodeService qrCodeService;
 
+    @Autowired
+    private PaymentDataVersion dataVersion;
+
+    @Autowired
+    private PaymentArchive paymentArchive;
+
+    @Autowired
+    private PaymentSearchIndex searchIndex;
+
+    @Autowired
+    private VelocityEngine velocityEngine;
+
+    @Autowired
+    private DuplicatePaymentDetector duplicateDetector;
+
+    @Autowired
+    private PaymentRollupService rollups;
+
+    @Autowired
+    private WebhookOutbox webhooks;
+
+    @Autowired
+    private RecentPayments recentPayments;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${payment.query.max-page-size:100}")
+    private int queryMaxPageSize = 100;
+
+    @Value("${payment.query.max-search-hits:1000}")
+    private int queryMaxSearchHits = 1000;
+
+    @Value("${payment.lifecycle.auto-capture:true}")
+    private boolean autoCapture = true;
+
+    @Value("${payment.sync.max-batch:500}")
+    private int syncMaxBatch = 500;
+
+    @Value("${payment.sync.max-lag:P1D}")
+    private Duration syncMaxLag = Duration.ofDays(1);
+
+    @Value("${payment.sync.settle-window:PT1S}")
+    private Duration syncSettleWindow = Duration.ofSeconds(1);
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
      * Process a payment request
      */
     public PaymentResponse processPayment(PaymentRequest paymentRequest) {
+        // Duplicate and velocity checks run before anything is stored; refusals propagate as is.
+        // Duplicates go first so an accidental resubmit is not counted against the payer's limits.
+        String email = sanitizeInput(paymentRequest.getEmail().trim().toLowerCase());
+        String currency = paymentRequest.getCurrency() != null ? paymentRequest.getCurrency() : Amounts.DEFAULT_CURRENCY;
+        duplicateDetector.findRecentDuplicate(email, paymentRequest.getContact(), paymentRequest.getAmount(), currency)
+                .filter(existing -> !existing.getId().equals(paymentRequest.getConfirmDuplicateOf()))
+                .ifPresent(existing -> {
+                    throw new DuplicatePaymentException(existing.getId());
+                });
+        velocityEngine.enforce(paymentRequest.getEmail().trim(), paymentRequest.getContact(),
+                paymentRequest.getUpiId(), paymentRequest.getAmount());
         try {
             // Create payment entity
             Payment payment = new Payment();
             payment.setName(sanitizeInput(paymentRequest.getName().trim()));
-            payment.setEmail(sanitizeInput(paymentRequest.getEmail().trim().toLowerCase()));
+            payment.setEmail(email);
             payment.setContact(paymentRequest.getContact());
-            payment.setAmount(paymentRequest.getAmount());
-            payment.setStatus("success");
+            payment.setAmountMinor(paymentRequest.getAmount());
+            payment.setPaymentMethod(paymentMethod(paymentRequest));
+            payment.setCurrency(currency);
+            // Without a real gateway checkout captures immediately; otherwise the
+            // payment waits as pending for the gateway's authorize/capture callbacks
+            payment.setStatus(autoCapture ? PaymentStatus.CAPTURED : PaymentStatus.PENDING);
 
-            // Save to database
-            Payment savedPayment = paymentRepository.save(payment);
+            // Save and queue the webhooks in one transaction; the rollup delta is recorded before a correction can run
+            Payment savedPayment = rollups.recording(() -> transaction().execute(status -> {
+                Payment saved = paymentRepository.save(payment);
+                webhooks.paymentCreated(convertToResponse(saved));
+                rollups.recordCreated(saved);
+                return saved;
+            }));
+            dataVersion.bump();
+            searchIndex.add(savedPayment);
+            recentPayments.add(savedPayment);
 
-            log.info("Payment processed successfully. Payment ID: {}, Email: {}", savedPayment.getId(), savedPayment.getEmail());
+            log.info(LogSampling.ROUTINE, "Payment processed successfully. Payment ID: {}", savedPayment.getId());
 
             PaymentResponse response = convertToResponse(savedPayment);
 
             // Send confirmation email asynchronously
-            try {
-                emailService.sendPaymentConfirmationEmail(response);
-            } catch (Exception e) {
-                log.warn("Email sending failed but payment was successful: {}", e.getMessage());
+            if (savedPayment.getStatus() == PaymentStatus.CAPTURED) {
+                try {
+                    emailService.sendPaymentConfirmationEmail(response);
+                } catch (Exception e) {
+                    log.warn("Email sending failed but payment was successful: {}", e.getMessage());
+                }
             }
 
             return response;
@@ -62,6 +167,10 @@ public class PaymentService {
         }
     }
 
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Generate QR code for UPI payment
      */
@@ -72,12 +181,13 @@ public class PaymentService {
     /**
      * Get all payments
      */
+    @Transactional(readOnly = true)
     public List<PaymentResponse> getAllPayments() {
         try {
             List<Payment> payments = paymentRepository.findAll();
-            log.info("Retrieved {} payments from database", payments.size());
+            log.info(LogSampling.ROUTINE, "Retrieved {} payments from database", payments.size());
             return payments.stream()
-                    .map(this::convertToResponse)
+                    .map(PaymentService::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
             log.error("Error retrieving payments: {}", e.getMessage(), e);
@@ -86,28 +196,238 @@ public class PaymentService {
     }
 
     /**
-     * Get payment by ID
+     * Find a payment by ID (hot table first, then the archive). Callers that
+     * expect misses, like the lookup endpoint, use this instead of an exception.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PaymentResponse> findPaymentById(Long id) {
+        return paymentRepository.findById(id)
+                .or(() -> paymentArchive.findById(id))
+                .map(PaymentService::convertToResponse);
+    }
+
+    /**
+     * Get payment by ID, or PaymentNotFoundException
      */
+    @Transactional(readOnly = true)
     public PaymentResponse getPaymentById(Long id) {
-        Payment payment = paymentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + id));
-        return convertToResponse(payment);
+        return findPaymentById(id).orElseThrow(() -> new PaymentNotFoundException(id));
     }
 
     /**
-     * Get payments by status
+     * Get payments by status across the hot and archived tiers
      */
-    public List<PaymentResponse> getPaymentsByStatus(String status) {
-        List<Payment> payments = paymentRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> getPaymentsByStatus(String label) {
+        PaymentStatus status = PaymentStatus.fromLabel(label);
+        if (status == null) {
+            return List.of();
+        }
+        List<Payment> payments = new ArrayList<>(paymentArchive.findByStatus(status));
+        payments.addAll(paymentRepository.findByStatus(status));
         return payments.stream()
-                .map(this::convertToResponse)
+                .map(PaymentService::convertToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get payments created in [from, to] across the hot and archived tiers
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> getPaymentsByDateRange(LocalDateTime from, LocalDateTime to) {
+        List<Payment> payments = new ArrayList<>(paymentArchive.findByCreatedAtBetween(from, to));
+        payments.addAll(paymentRepository.findByCreatedAtBetween(from, to));
+        return payments.stream()
+                .map(PaymentService::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get payments created or updated after a watermark, in (updatedAt, id) order.
+     * Rows younger than the settle window are held back so a transaction that
+     * commits late with an earlier updatedAt can't be skipped by the client.
+     * Once the feed is drained the watermark moves up to the settle boundary,
+     * so a quiet period does not age an idle client into a resync. Archiving
+     * deletes hot rows without touching updatedAt, so every response also
+     * carries archivedThrough: payments created at or before it have left
+     * /api/payments for the archive.
+     */
+    public PaymentChangesResponse getChangesSince(String since, int limit) {
+        ChangeWatermark from = ChangeWatermark.parse(since);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (from != ChangeWatermark.ORIGIN && from.updatedAt().isBefore(now.minus(syncMaxLag))) {
+            return PaymentChangesResponse.resync();
+        }
+
+        // Watermarks carry microseconds, so the boundary must not be finer
+        LocalDateTime cutoff = now.minus(syncSettleWindow).truncatedTo(ChronoUnit.MICROS);
+        int batchSize = Math.max(1, Math.min(limit, syncMaxBatch));
+        List<Payment> changed = paymentRepository.findChangedAfter(
+                from.updatedAt(), from.id(), cutoff, PageRequest.of(0, batchSize + 1));
+
+        boolean hasMore = changed.size() > batchSize;
+        if (hasMore) {
+            changed = changed.subList(0, batchSize);
+        }
+
+        ChangeWatermark next = from;
+        if (hasMore) {
+            Payment last = changed.get(changed.size() - 1);
+            next = new ChangeWatermark(last.getUpdatedAt(), last.getId());
+        } else if (cutoff.isAfter(from.updatedAt())) {
+            // Everything up to and including the cutoff has been delivered
+            next = new ChangeWatermark(cutoff, Long.MAX_VALUE);
+        }
+
+        List<PaymentResponse> payments = changed.stream()
+                .map(PaymentService::convertToResponse)
+                .collect(Collectors.toList());
+        LocalDateTime archivedThrough = paymentArchive.maxArchivedCreatedAt();
+        return PaymentChangesResponse.changes(payments, next.format(), hasMore,
+                archivedThrough == null ? null : archivedThrough.toString());
+    }
+
+    /**
+     * One page of the dashboard listing. Sort, direction and filters are
+     * checked against allowlists (PaymentValidationException otherwise); a text
+     * query is resolved through the search index to a set of ids first.
+     */
+    @Transactional(readOnly = true)
+    public PaymentPageResponse queryPayments(PaymentQueryRequest request) {
+        PaymentSort sort = PaymentSort.fromParam(request.getSort());
+        if (sort == null) {
+            throw new PaymentValidationException("Unsupported sort: " + request.getSort());
+        }
+        if (!"asc".equals(request.getDir()) && !"desc".equals(request.getDir())) {
+            throw new PaymentValidationException("Sort direction must be asc or desc");
+        }
+        PaymentStatus status = null;
+        if (request.getStatus() != null && !request.getStatus().isBlank()) {
+            status = PaymentStatus.fromLabel(request.getStatus());
+            if (status == null) {
+                throw new PaymentValidationException("Unknown status: " + request.getStatus());
+            }
+        }
+        Long minAmount = parseAmountFilter(request.getMinAmount());
+        Long maxAmount = parseAmountFilter(request.getMaxAmount());
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new PaymentValidationException("'from' must not be after 'to'");
+        }
+
+        List<Long> ids = null;
+        boolean truncated = false;
+        if (request.getQ() != null && !request.getQ().isBlank()) {
+            ids = searchIndex.search(request.getQ().strip(), queryMaxSearchHits + 1).stream()
+                    .map(TrigramIndex.Hit::id)
+                    .collect(Collectors.toList());
+            if (ids.isEmpty()) {
+                return PaymentPageResponse.of(List.of(), null, false);
+            }
+            if (ids.size() > queryMaxSearchHits) {
+                ids = ids.subList(0, queryMaxSearchHits);
+                truncated = true;
+            }
+        }
+
+        PageCursor after = request.getAfter() == null || request.getAfter().isBlank()
+                ? null : PageCursor.parse(request.getAfter());
+        int pageSize = Math.max(1, Math.min(request.getSize(), queryMaxPageSize));
+
+        // Rows moved to the archive but not yet deleted are listed from the archive only
+        long archivedUpTo = paymentArchive.maxArchivedId();
+        PaymentQuery query = new PaymentQuery(
+                status, minAmount, maxAmount, request.getFrom(), request.getTo(), ids,
+                archivedUpTo > 0 ? archivedUpTo : null,
+                sort, "desc".equals(request.getDir()),
+                after == null ? null : after.sortValue(sort), after == null ? null : after.id(),
+                pageSize + 1);
+        List<Payment> rows = paymentRepository.findPage(query);
+        if (archivedUpTo > 0) {
+            rows = mergeArchived(query, rows);
+        }
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            next = PageCursor.of(sort, rows.get(pageSize - 1)).format();
+        }
+        return PaymentPageResponse.of(rows.stream()
+                .map(PaymentService::convertToResponse)
+                .collect(Collectors.toList()), next, truncated);
+    }
+
+    /**
+     * The first query.limit() rows of the hot rows and the archived rows
+     * together. A full hot page bounds the archive scan by its last row.
+     */
+    private List<Payment> mergeArchived(PaymentQuery query, List<Payment> hot) {
+        Payment before = hot.size() == query.limit() ? hot.get(hot.size() - 1) : null;
+        List<Payment> archived = paymentArchive.findPage(
+                new PaymentQuery(query.status(), query.minAmount(), query.maxAmount(), query.from(), query.to(),
+                        query.ids(), null, query.sort(), query.descending(), query.afterValue(), query.afterId(),
+                        query.limit()),
+                before);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Payment> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(query.order());
+        return merged.size() > query.limit() ? merged.subList(0, query.limit()) : merged;
+    }
+
+    /**
+     * Dashboard totals over hot and archived payments, per status label
+     */
+    @Transactional(readOnly = true)
+    public PaymentStatsResponse getPaymentStats() {
+        long count = 0;
+        long totalAmount = 0;
+        Map<String, Long> countByStatus = new LinkedHashMap<>();
+        for (PaymentStatus status : PaymentStatus.values()) {
+            countByStatus.put(status.label(), 0L);
+        }
+        List<StatusTotals> all = new ArrayList<>(paymentArchive.statusTotals());
+        // Rows moved to the archive but not yet deleted are counted from the archive only
+        all.addAll(paymentRepository.findStatusTotals(paymentArchive.maxArchivedId()));
+        for (StatusTotals totals : all) {
+            count += totals.count();
+            totalAmount += totals.amountMinor();
+            countByStatus.merge(totals.status().label(), totals.count(), Long::sum);
+        }
+        return PaymentStatsResponse.of(count, totalAmount, countByStatus);
+    }
+
+    private static Long parseAmountFilter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Amounts.parse(value.strip());
+        } catch (NumberFormatException e) {
+            throw new PaymentValidationException("Invalid amount: " + value);
+        }
+    }
+
+    /**
+     * Normalized payment method: "card" or "upi" as requested (UPI if only a
+     * UPI ID is given), anything else as "other"
+     */
+    static String paymentMethod(PaymentRequest request) {
+        String method = request.getPaymentMethod();
+        if (method == null || method.isBlank()) {
+            return request.getUpiId() != null && !request.getUpiId().isBlank() ? "upi" : "card";
+        }
+        method = method.trim().toLowerCase();
+        return method.equals("card") || method.equals("upi") ? method : "other";
+    }
+
     /**
      * Sanitize input to prevent XSS attacks
      */
-    private String sanitizeInput(String input) {
+    static String sanitizeInput(String input) {
         if (input == null) {
             return null;
         }
@@ -122,14 +442,15 @@ public class PaymentService {
     /**
      * Convert Payment entity to PaymentResponse DTO
      */
-    private PaymentResponse convertToResponse(Payment payment) {
+    static PaymentResponse convertToResponse(Payment payment) {
         PaymentResponse response = new PaymentResponse();
         response.setId(payment.getId());
         response.setName(payment.getName());
         response.setEmail(payment.getEmail());
         response.setContact(payment.getContact());
-        response.setAmount(payment.getAmount());
-        response.setStatus(payment.getStatus());
+        response.setAmount(payment.getAmountMinor());
+        response.setCurrency(payment.getCurrency());
+        response.setStatus(payment.getStatus().label());
         response.setCreatedAt(payment.getCreatedAt().format(DATE_FORMATTER));
         return response;
     }
@@ -0,0 +1,166 @@
+package com.payment.service;
+
+import com.payment.archive.ArchiveSegment;
+import com.payment.archive.PaymentArchive;
+import com.payment.entity.Payment;
+import com.payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves payments older than payment.archive.max-age from the hot table into
+ * archive segments, keeping the hot table's size flat as history grows.
+ *
+ * Each batch is written and fsynced as a segment before its rows are deleted
+ * from the table. If the process dies in between, the rows exist in both
+ * tiers until the next run removes the hot copies (lookups prefer the hot
+ * tier, so nothing is lost or duplicated for readers).
+ *
+ * A batch's rows stay locked from the read until the delete commits. A
+ * lifecycle transition on one of them waits, then finds the row gone and
+ * answers ARCHIVED, rather than changing a row whose old copy is already in
+ * the segment.
+ *
+ * Runs hold the "payment-archive" lease, so with several nodes sharing the
+ * archive directory only one of them moves rows at a time and segments stay
+ * disjoint; the others skip the run.
+ */
+@Service
+public class PaymentTieringService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentTieringService.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentArchive paymentArchive;
+
+    @Autowired
+    private PaymentDataVersion dataVersion;
+
+    @Autowired
+    private JobLeases jobLeases;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${payment.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.archive.max-age:P90D}")
+    private Duration maxAge;
+
+    @Value("${payment.archive.segment-rows:50000}")
+    private int segmentRows;
+
+    /** Longer than writing one segment takes; renewed before each */
+    @Value("${payment.archive.lease:PT10M}")
+    private Duration lease;
+
+    static final String LEASE = "payment-archive";
+
+    /**
+     * Archive everything older than the configured age
+     */
+    @Scheduled(fixedDelayString = "${payment.archive.run-interval:PT1H}", initialDelayString = "${payment.archive.run-interval:PT1H}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveOlderThan(LocalDateTime.now().minus(maxAge));
+        } catch (Exception e) {
+            log.error("Payment archiving failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive payments created before the cutoff
+     *
+     * @return number of payments moved to the cold tier
+     */
+    public synchronized int archiveOlderThan(LocalDateTime cutoff) throws IOException {
+        if (!jobLeases.tryAcquire(LEASE, lease)) {
+            log.debug("Another node is archiving, skipping this run");
+            return 0;
+        }
+        try {
+            paymentArchive.refresh();
+            removeHotCopiesOfArchivedRows();
+
+            int archived = 0;
+            while (true) {
+                if (!jobLeases.tryAcquire(LEASE, lease)) {
+                    log.warn("Archive lease lost after {} payments, stopping this run", archived);
+                    break;
+                }
+                ArchiveSegment segment = new TransactionTemplate(transactionManager).execute(status -> archiveBatch(cutoff));
+                if (segment == null) {
+                    break;
+                }
+                dataVersion.bump();
+
+                archived += segment.rowCount();
+                log.info("Archived {} payments (ids {}-{}) to {} ({} bytes)", segment.rowCount(), segment.minId(),
+                        segment.maxId(), segment.file().getFileName(), segment.sizeOnDisk());
+            }
+            return archived;
+        } finally {
+            jobLeases.release(LEASE);
+        }
+    }
+
+    /**
+     * Lock the next batch, write it as a segment and delete it, in the
+     * caller's transaction
+     *
+     * @return the new segment, or null if nothing is left to archive
+     */
+    private ArchiveSegment archiveBatch(LocalDateTime cutoff) {
+        List<Payment> batch = paymentRepository.lockArchiveCandidates(cutoff, PageRequest.of(0, segmentRows));
+        if (batch.isEmpty()) {
+            return null;
+        }
+        ArchiveSegment segment;
+        try {
+            segment = paymentArchive.append(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        paymentRepository.deleteAllByIdInBatch(batch.stream().map(Payment::getId).collect(Collectors.toList()));
+        return segment;
+    }
+
+    /**
+     * Delete hot rows that an interrupted run already wrote to a segment
+     */
+    private void removeHotCopiesOfArchivedRows() {
+        long maxArchivedId = paymentArchive.maxArchivedId();
+        if (maxArchivedId == 0) {
+            return;
+        }
+        List<Long> leftovers = paymentRepository.findIdsUpTo(maxArchivedId).stream()
+                .filter(id -> paymentArchive.findById(id).isPresent())
+                .collect(Collectors.toList());
+        if (!leftovers.isEmpty()) {
+            paymentRepository.deleteAllByIdInBatch(leftovers);
+            dataVersion.bump();
+            log.warn("Removed {} hot payments already present in the archive", leftovers.size());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.payment.service;
+
+import com.payment.dto.TransitionMetricsResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for lifecycle transitions. LongAdder keeps the hot path
+ * contention-free when many gateway callbacks land at once.
+ */
+@Component
+public class PaymentTransitionMetrics {
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    void applied() {
+        applied.increment();
+    }
+
+    void duplicate() {
+        duplicates.increment();
+    }
+
+    void rejected() {
+        rejected.increment();
+    }
+
+    void conflict() {
+        conflicts.increment();
+    }
+
+    void retry() {
+        retries.increment();
+    }
+
+    void exhausted() {
+        exhausted.increment();
+    }
+
+    public TransitionMetricsResponse snapshot() {
+        return new TransitionMetricsResponse(true, applied.sum(), duplicates.sum(), rejected.sum(),
+                conflicts.sum(), retries.sum(), exhausted.sum());
+    }
+}
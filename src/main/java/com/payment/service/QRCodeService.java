@@ -2,12 +2,17 @@ package com.payment.service;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
+import com.payment.logging.LogSampling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 @Service
@@ -23,34 +28,15 @@ public class QRCodeService {
      */
     public String generateUPIQRCode(String upiId, String payerName, String amount) {
         try {
-            // Build UPI string
-            String upiString = String.format(
-                    "upi://pay?pa=%s&pn=%s&am=%s&tn=Payment",
-                    upiId.replace("@", "%40"),
-                    payerName.replace(" ", "%%20"),
-                    amount
-            );
+            log.info(LogSampling.ROUTINE, "Generating UPI QR code");
 
-            log.info("Generating QR code for UPI: {}", upiId);
-
-            // Generate QR code
-            BitMatrix bitMatrix = new MultiFormatWriter().encode(
-                    upiString,
-                    BarcodeFormat.QR_CODE,
-                    QR_WIDTH,
-                    QR_HEIGHT
-            );
-
-            // Convert to image
-            ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-            MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream);
-            byte[] pngData = pngOutputStream.toByteArray();
+            byte[] pngData = renderUPIQRCode(upiId, payerName, amount);
 
             // Encode to Base64 for embedding in HTML/JSON
             String base64Image = Base64.getEncoder().encodeToString(pngData);
             String dataUrl = "data:image/png;base64," + base64Image;
 
-            log.info("QR code generated successfully");
+            log.info(LogSampling.ROUTINE, "QR code generated successfully");
             return dataUrl;
         } catch (Exception e) {
             log.error("Error generating QR code: {}", e.getMessage(), e);
@@ -59,14 +45,41 @@ public class QRCodeService {
     }
 
     /**
-     * Generate simple text QR code for display
+     * Render a UPI QR code as PNG bytes. A null amount leaves it open for the
+     * payer to enter (static counter QR). Thread-safe.
      */
-    public String generateUPIString(String upiId, String payerName, String amount) {
-        return String.format(
-                "upi://pay?pa=%s&pn=%s&am=%s&tn=Payment",
-                upiId,
-                payerName.replace(" ", " "),
-                amount
+    public byte[] renderUPIQRCode(String upiId, String payerName, String amount) throws WriterException, IOException {
+        // Generate QR code
+        BitMatrix bitMatrix = new MultiFormatWriter().encode(
+                generateUPIString(upiId, payerName, amount),
+                BarcodeFormat.QR_CODE,
+                QR_WIDTH,
+                QR_HEIGHT
         );
+
+        // Convert to image
+        ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream);
+        return pngOutputStream.toByteArray();
+    }
+
+    /**
+     * The UPI deep link a QR code encodes. Every value is percent-encoded, so
+     * a name containing '&' or '=' cannot add or override parameters such as
+     * am; a null amount is left out.
+     */
+    public String generateUPIString(String upiId, String payerName, String amount) {
+        return "upi://pay?pa=" + encode(upiId)
+                + "&pn=" + encode(payerName)
+                + (amount == null ? "" : "&am=" + encode(amount))
+                + "&tn=Payment";
+    }
+
+    /**
+     * URI query encoding: URLEncoder writes form encoding, whose '+' for a
+     * space UPI apps would show literally
+     */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
     }
 }
@@ -0,0 +1,117 @@
+package com.payment.service;
+
+import com.payment.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-client, per-route request admission backed by {@link TokenBucketRateLimiter}.
+ * Clients are identified by a bearer token that AuthenticationService accepts,
+ * otherwise by IP address. Anything else a caller sends (an unchecked API key,
+ * a made-up token, the client-written part of X-Forwarded-For) is ignored, so
+ * varying it cannot buy a fresh bucket.
+ */
+@Service
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitService {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitService.class);
+
+    private static final long TOKEN_SEED = 0x2L;
+    private static final long IP_SEED = 0x3L;
+
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final int trustedProxies;
+    private final Route[] routes;
+    private final AuthenticationService authenticationService;
+
+    public RateLimitService(RateLimitProperties properties, AuthenticationService authenticationService) {
+        this.enabled = properties.isEnabled();
+        this.trustForwardedFor = properties.isTrustForwardedFor();
+        this.trustedProxies = Math.max(1, properties.getTrustedProxies());
+        this.authenticationService = authenticationService;
+
+        List<Route> configured = new ArrayList<>();
+        properties.getRoutes().forEach((name, policy) -> {
+            configured.add(new Route(name, policy.getMethod(), policy.getPath(),
+                    new TokenBucketRateLimiter(policy.getCapacity(), policy.getRefillPerSecond(), properties.getMaxClients())));
+            log.info("Rate limit '{}': {} {} burst {} at {}/s", name, policy.getMethod(), policy.getPath(),
+                    policy.getCapacity(), policy.getRefillPerSecond());
+        });
+        this.routes = configured.toArray(new Route[0]);
+    }
+
+    /**
+     * Check and consume the client's allowance for a request.
+     *
+     * @return 0 if the request may proceed, otherwise milliseconds until it may be retried
+     */
+    public long check(String method, String path, String authorization, String forwardedFor, String remoteAddr) {
+        if (!enabled) {
+            return 0;
+        }
+        for (Route route : routes) {
+            if (route.path.equals(path) && route.method.equalsIgnoreCase(method)) {
+                long retryAfter = route.limiter.tryAcquire(clientKey(authorization, forwardedFor, remoteAddr));
+                if (retryAfter > 0) {
+                    log.debug("Rate limit '{}' exceeded, retry after {} ms", route.name, retryAfter);
+                }
+                return retryAfter;
+            }
+        }
+        return 0;
+    }
+
+    private long clientKey(String authorization, String forwardedFor, String remoteAddr) {
+        if (authorization != null && authorization.startsWith("Bearer ")
+                && authenticationService.isActive(authorization.substring(7))) {
+            return TokenBucketRateLimiter.hash(TOKEN_SEED, authorization);
+        }
+        if (trustForwardedFor && forwardedFor != null && !forwardedFor.isEmpty()) {
+            CharSequence hop = trustedHop(forwardedFor);
+            if (hop != null) {
+                return TokenBucketRateLimiter.hash(IP_SEED, hop);
+            }
+        }
+        return TokenBucketRateLimiter.hash(IP_SEED, remoteAddr == null ? "" : remoteAddr);
+    }
+
+    /**
+     * The address the outermost trusted proxy received the request from: the
+     * trustedProxies-th entry from the right. Entries left of it were written
+     * by the client and prove nothing.
+     *
+     * @return null if the header has fewer entries than there are proxies
+     */
+    private CharSequence trustedHop(String forwardedFor) {
+        int end = forwardedFor.length();
+        for (int hop = 1; hop < trustedProxies; hop++) {
+            end = forwardedFor.lastIndexOf(',', end - 1);
+            if (end < 0) {
+                return null;
+            }
+        }
+        int start = forwardedFor.lastIndexOf(',', end - 1) + 1;
+        return forwardedFor.subSequence(start, end).toString().trim();
+    }
+
+    private static final class Route {
+        final String name;
+        final String method;
+        final String path;
+        final TokenBucketRateLimiter limiter;
+
+        Route(String name, String method, String path, TokenBucketRateLimiter limiter) {
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.limiter = limiter;
+        }
+    }
+}
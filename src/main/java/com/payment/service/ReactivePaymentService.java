@@ -0,0 +1,153 @@
+package com.payment.service;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.dto.PaymentChangesResponse;
+import com.payment.dto.PaymentPageResponse;
+import com.payment.dto.PaymentQueryRequest;
+import com.payment.dto.PaymentRequest;
+import com.payment.dto.PaymentResponse;
+import com.payment.dto.PaymentStatsResponse;
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.ReactivePaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking counterpart of {@link PaymentService} for the reactive profile.
+ * Reads go through R2DBC; checkout and the CPU-bound QR stage run on their own
+ * bounded schedulers.
+ */
+@Service
+@Profile("reactive")
+public class ReactivePaymentService {
+
+    @Autowired
+    private ReactivePaymentRepository paymentRepository;
+
+    @Lazy
+    @Autowired
+    private QRCodeService qrCodeService;
+
+    @Autowired
+    private PaymentService paymentCore;
+
+    @Autowired
+    private PaymentLifecycleService lifecycleService;
+
+    @Autowired
+    private PaymentArchive paymentArchive;
+
+    @Autowired
+    @Qualifier("checkoutScheduler")
+    private Scheduler checkoutScheduler;
+
+    @Autowired
+    @Qualifier("qrScheduler")
+    private Scheduler qrScheduler;
+
+    /**
+     * Process a payment request. Checkout is not reimplemented over R2DBC: it
+     * runs the servlet stack's PaymentService on the checkout scheduler, so
+     * velocity, duplicate screening, auto-capture, the search index, rollups,
+     * webhooks, the recent ring and the confirmation email behave the same on
+     * both stacks.
+     */
+    public Mono<PaymentResponse> processPayment(PaymentRequest paymentRequest) {
+        return Mono.fromCallable(() -> paymentCore.processPayment(paymentRequest))
+                .subscribeOn(checkoutScheduler);
+    }
+
+    /**
+     * Generate QR code for UPI payment
+     */
+    public Mono<String> generateUPIQRCode(String upiId, String payerName, String amount) {
+        return Mono.fromCallable(() -> qrCodeService.generateUPIQRCode(upiId, payerName, amount))
+                .subscribeOn(qrScheduler);
+    }
+
+    /**
+     * Get all payments
+     */
+    public Flux<PaymentResponse> getAllPayments() {
+        return paymentRepository.findAll().map(PaymentService::convertToResponse);
+    }
+
+    /**
+     * Get payment by ID, hot table first, then the archive (empty when not found)
+     */
+    public Mono<PaymentResponse> getPaymentById(Long id) {
+        return paymentRepository.findById(id)
+                .switchIfEmpty(Mono.fromCallable(() -> paymentArchive.findById(id).orElse(null))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .map(PaymentService::convertToResponse);
+    }
+
+    /**
+     * Get payments by status, archived first and then the hot table, as on the servlet stack
+     */
+    public Flux<PaymentResponse> getPaymentsByStatus(String label) {
+        PaymentStatus status = PaymentStatus.fromLabel(label);
+        if (status == null) {
+            return Flux.empty();
+        }
+        return Mono.fromCallable(() -> paymentArchive.findByStatus(status))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(archived -> archived)
+                .concatWith(paymentRepository.findByStatus(status))
+                .map(PaymentService::convertToResponse);
+    }
+
+    /**
+     * One page of the dashboard listing, hot and archived. Keyset paging, the
+     * archive merge and the search index are not reimplemented over R2DBC: the
+     * servlet stack's query runs on the bounded elastic scheduler.
+     */
+    public Mono<PaymentPageResponse> queryPayments(PaymentQueryRequest request) {
+        return blocking(() -> paymentCore.queryPayments(request));
+    }
+
+    /**
+     * Dashboard totals, hot and archived
+     */
+    public Mono<PaymentStatsResponse> getPaymentStats() {
+        return blocking(paymentCore::getPaymentStats);
+    }
+
+    /**
+     * Payments created within a date range, hot and archived
+     */
+    public Mono<List<PaymentResponse>> getPaymentsByDateRange(LocalDateTime from, LocalDateTime to) {
+        return blocking(() -> paymentCore.getPaymentsByDateRange(from, to));
+    }
+
+    /**
+     * Delta sync page after a watermark
+     */
+    public Mono<PaymentChangesResponse> getChangesSince(String since, int limit) {
+        return blocking(() -> paymentCore.getChangesSince(since, limit));
+    }
+
+    /**
+     * Lifecycle transition through the servlet stack's service, on the checkout
+     * scheduler like the other payment writes
+     */
+    public Mono<PaymentLifecycleService.TransitionResult> transition(Long id, PaymentStatus target) {
+        return Mono.fromCallable(() -> lifecycleService.transition(id, target))
+                .subscribeOn(checkoutScheduler);
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,236 @@
+package com.payment.service;
+
+import com.payment.dto.LiveMetricsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Live request counts, errors and latency for the last few minutes, one slot
+ * per second in a ring of fixed-size primitive arrays. A slot is reused when
+ * its second comes round again; the thread that claims it clears it, and
+ * samples that race with the clear are dropped rather than waited for, so
+ * recording never blocks or loops and memory never grows.
+ */
+@Component
+public class RequestTimeSeries {
+
+    static final String OTHER = "other";
+
+    /** Latency buckets: exact below 16 µs, then 8 per power of two up to 2^26 µs (~67 s) */
+    static final int LATENCY_BUCKETS = 16 + 22 * 8;
+    private static final long MAX_MICROS = (1L << 26) - 1;
+
+    private static final long CLEARING = -1;
+
+    private final int seconds;
+    private final int maxEndpoints;
+    private final LongSupplier clockMillis;
+
+    private final AtomicLongArray stamps;
+    private final AtomicLongArray requests;
+    private final AtomicLongArray errors;
+    private final AtomicLongArray latency;
+
+    private final ConcurrentHashMap<String, Integer> endpointIds = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> endpointNames;
+    private final AtomicInteger nextEndpoint = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    @Autowired
+    public RequestTimeSeries(@Value("${payment.metrics.live.window-seconds:300}") int seconds,
+                             @Value("${payment.metrics.live.max-endpoints:32}") int maxEndpoints) {
+        this(seconds, maxEndpoints, System::currentTimeMillis);
+    }
+
+    RequestTimeSeries(int seconds, int maxEndpoints, LongSupplier clockMillis) {
+        if (seconds < 2 || maxEndpoints < 1) {
+            throw new IllegalArgumentException("window-seconds must be at least 2 and max-endpoints at least 1");
+        }
+        this.seconds = seconds;
+        this.maxEndpoints = maxEndpoints;
+        this.clockMillis = clockMillis;
+        this.stamps = new AtomicLongArray(seconds);
+        this.requests = new AtomicLongArray(seconds * maxEndpoints);
+        this.errors = new AtomicLongArray(seconds * maxEndpoints);
+        this.latency = new AtomicLongArray(seconds * LATENCY_BUCKETS);
+        this.endpointNames = new AtomicReferenceArray<>(maxEndpoints);
+        this.endpointNames.set(maxEndpoints - 1, OTHER);
+    }
+
+    /**
+     * Counts one finished request; status 5xx is an error
+     */
+    public void record(String endpoint, int status, long elapsedNanos) {
+        long second = Math.floorDiv(clockMillis.getAsLong(), 1000L);
+        int slot = (int) (second % seconds);
+        long stamp = stamps.get(slot);
+        if (stamp != second) {
+            if (stamp > second || stamp == CLEARING || !stamps.compareAndSet(slot, stamp, CLEARING)) {
+                dropped.increment();
+                return;
+            }
+            clear(slot);
+            stamps.set(slot, second);
+        }
+
+        int e = endpointId(endpoint);
+        requests.incrementAndGet(slot * maxEndpoints + e);
+        if (status >= 500) {
+            errors.incrementAndGet(slot * maxEndpoints + e);
+        }
+        latency.incrementAndGet(slot * LATENCY_BUCKETS + latencyBucket(elapsedNanos / 1000));
+    }
+
+    /**
+     * The last {@code lastSeconds} complete seconds (the current one is still
+     * filling), oldest first. Seconds without traffic read as zero.
+     */
+    public LiveMetricsResponse snapshot(int lastSeconds) {
+        int n = Math.max(1, Math.min(lastSeconds, seconds - 1));
+        long end = Math.floorDiv(clockMillis.getAsLong(), 1000L);
+        long start = end - n;
+
+        int registered = Math.min(nextEndpoint.get(), maxEndpoints - 1);
+        long[][] endpointRequests = new long[maxEndpoints][n];
+        long[][] endpointErrors = new long[maxEndpoints][n];
+        long[] totalRequests = new long[n];
+        long[] totalErrors = new long[n];
+        long[] p50 = new long[n];
+        long[] p99 = new long[n];
+
+        long[] rowRequests = new long[maxEndpoints];
+        long[] rowErrors = new long[maxEndpoints];
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < n; i++) {
+            long second = start + i;
+            int slot = (int) (second % seconds);
+            if (stamps.get(slot) != second) {
+                continue;
+            }
+            for (int e = 0; e < maxEndpoints; e++) {
+                rowRequests[e] = requests.get(slot * maxEndpoints + e);
+                rowErrors[e] = errors.get(slot * maxEndpoints + e);
+            }
+            for (int b = 0; b < LATENCY_BUCKETS; b++) {
+                histogram[b] = latency.get(slot * LATENCY_BUCKETS + b);
+            }
+            // The slot was reused while we copied it: that second is gone
+            if (stamps.get(slot) != second) {
+                continue;
+            }
+            for (int e = 0; e < maxEndpoints; e++) {
+                endpointRequests[e][i] = rowRequests[e];
+                endpointErrors[e][i] = rowErrors[e];
+                totalRequests[i] += rowRequests[e];
+                totalErrors[i] += rowErrors[e];
+            }
+            p50[i] = percentile(histogram, 0.50);
+            p99[i] = percentile(histogram, 0.99);
+        }
+
+        Map<String, LiveMetricsResponse.EndpointSeries> endpoints = new LinkedHashMap<>();
+        for (int e = 0; e < maxEndpoints; e++) {
+            if (e < registered || e == maxEndpoints - 1) {
+                if (any(endpointRequests[e])) {
+                    endpoints.put(endpointNames.get(e),
+                            new LiveMetricsResponse.EndpointSeries(endpointRequests[e], endpointErrors[e]));
+                }
+            }
+        }
+        return new LiveMetricsResponse(true, start, n, totalRequests, totalErrors, p50, p99,
+                dropped.sum(), endpoints);
+    }
+
+    private void clear(int slot) {
+        for (int e = 0; e < maxEndpoints; e++) {
+            requests.set(slot * maxEndpoints + e, 0);
+            errors.set(slot * maxEndpoints + e, 0);
+        }
+        for (int b = 0; b < LATENCY_BUCKETS; b++) {
+            latency.set(slot * LATENCY_BUCKETS + b, 0);
+        }
+    }
+
+    /**
+     * Endpoints get an id the first time they are seen; once the table is
+     * full, new ones share the last id ("other")
+     */
+    private int endpointId(String endpoint) {
+        if (endpoint == null) {
+            return maxEndpoints - 1;
+        }
+        Integer id = endpointIds.get(endpoint);
+        if (id != null) {
+            return id;
+        }
+        if (nextEndpoint.get() >= maxEndpoints - 1) {
+            return maxEndpoints - 1;
+        }
+        return endpointIds.computeIfAbsent(endpoint, name -> {
+            int next = nextEndpoint.getAndIncrement();
+            if (next >= maxEndpoints - 1) {
+                return maxEndpoints - 1;
+            }
+            endpointNames.set(next, name);
+            return next;
+        });
+    }
+
+    static int latencyBucket(long micros) {
+        long v = Math.max(0, Math.min(micros, MAX_MICROS));
+        if (v < 16) {
+            return (int) v;
+        }
+        int power = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (power - 3)) & 7;
+        return 16 + (power - 4) * 8 + sub;
+    }
+
+    /** Upper bound of a bucket, in µs: within 12.5% of any value in it */
+    static long bucketUpperMicros(int bucket) {
+        if (bucket < 16) {
+            return bucket;
+        }
+        int power = (bucket - 16) / 8 + 4;
+        int sub = (bucket - 16) % 8;
+        return ((9L + sub) << (power - 3)) - 1;
+    }
+
+    static long percentile(long[] histogram, double quantile) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int b = 0; b < histogram.length; b++) {
+            seen += histogram[b];
+            if (seen >= rank) {
+                return bucketUpperMicros(b);
+            }
+        }
+        return bucketUpperMicros(histogram.length - 1);
+    }
+
+    private static boolean any(long[] values) {
+        for (long value : values) {
+            if (value != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
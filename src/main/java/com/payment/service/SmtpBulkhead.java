@@ -0,0 +1,136 @@
+package com.payment.service;
+
+import com.payment.config.SmtpResilienceProperties;
+import com.payment.dto.SmtpMetricsResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs SMTP calls on a small dedicated pool (the bulkhead) behind a circuit
+ * breaker, so a slow or dead mail relay costs callers nothing: submit()
+ * returns immediately, the pool caps concurrent SMTP calls, its bounded queue
+ * caps waiting emails, and while the breaker is open emails are refused
+ * without touching the network.
+ *
+ * Emails refused by the breaker (open, or half-open with every probe slot
+ * taken) or a full queue are logged and counted, not retried; a confirmation
+ * is not worth holding checkout threads or memory for.
+ */
+@Component
+@EnableConfigurationProperties(SmtpResilienceProperties.class)
+public class SmtpBulkhead {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpBulkhead.class);
+
+    /**
+     * One SMTP interaction (build and send a message)
+     */
+    @FunctionalInterface
+    public interface SmtpCall {
+        void run() throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker breaker;
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder notPermitted = new LongAdder();
+    private final LongAdder probesBusy = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public SmtpBulkhead(SmtpResilienceProperties properties) {
+        SmtpResilienceProperties.Bulkhead bulkhead = properties.getBulkhead();
+        SmtpResilienceProperties.Breaker config = properties.getBreaker();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(bulkhead.getMaxConcurrent(), bulkhead.getMaxConcurrent(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(bulkhead.getQueueCapacity()), task -> {
+                    Thread thread = new Thread(task, "smtp-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.breaker = new CircuitBreaker(config.getWindowSize(), config.getMinimumCalls(),
+                config.getFailureRateThreshold(), config.getSlowCallDuration().toNanos(),
+                config.getSlowCallRateThreshold(), config.getOpenDuration().toNanos(), config.getHalfOpenCalls(),
+                state -> log.warn("SMTP circuit breaker is now {}", state));
+    }
+
+    /**
+     * Queue an SMTP call.
+     *
+     * @return false if it was refused (breaker open or bulkhead full)
+     */
+    public boolean submit(String description, SmtpCall call) {
+        if (!breaker.isCallPermitted()) {
+            notPermitted.increment();
+            log.warn("SMTP circuit open, not sending {}", description);
+            return false;
+        }
+        try {
+            executor.execute(() -> run(description, call));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("SMTP bulkhead full, not sending {}", description);
+            return false;
+        }
+    }
+
+    private void run(String description, SmtpCall call) {
+        // The breaker may have opened while this call was queued
+        long permission = breaker.acquirePermission();
+        if (permission == CircuitBreaker.NOT_PERMITTED) {
+            if (breaker.state() == CircuitBreaker.State.HALF_OPEN) {
+                probesBusy.increment();
+                log.warn("SMTP circuit half-open and all probes in flight, not sending {}", description);
+            } else {
+                notPermitted.increment();
+                log.warn("SMTP circuit open, not sending {}", description);
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            call.run();
+            breaker.onSuccess(permission, System.nanoTime() - start);
+            succeeded.increment();
+        } catch (Exception e) {
+            breaker.onError(permission, System.nanoTime() - start);
+            failed.increment();
+            log.error("Failed to send {}: {}", description, e.getMessage());
+        }
+    }
+
+    public SmtpMetricsResponse snapshot() {
+        Map<String, Long> transitions = new LinkedHashMap<>();
+        breaker.transitions().forEach((state, count) -> transitions.put(state.name().toLowerCase(), count));
+        return new SmtpMetricsResponse(true, breaker.state().name().toLowerCase(), transitions,
+                succeeded.sum(), failed.sum(), notPermitted.sum(), probesBusy.sum(), rejected.sum(),
+                executor.getActiveCount(), executor.getQueue().size());
+    }
+
+    /**
+     * Let queued emails (including digests flushed on shutdown) go out, within limits
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} queued emails dropped at shutdown", executor.shutdownNow().size());
+        }
+    }
+}
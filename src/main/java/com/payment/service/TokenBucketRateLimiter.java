@@ -0,0 +1,162 @@
+package com.payment.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket over a fixed-size, open-addressed client table.
+ *
+ * Each slot holds a 64-bit client key hash and a packed bucket state
+ * (24 bits of milli-tokens, 40 bits of milliseconds since the limiter was
+ * created), both updated with CAS. A key probes {@value #PROBES} slots; when
+ * all are taken by other clients the least recently refilled one is evicted,
+ * so memory stays at two longs per slot regardless of how many clients show up.
+ *
+ * Eviction races between two new clients can briefly hand one of them a fresh
+ * bucket; that errs on the side of admitting traffic, which is acceptable here.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int TIME_BITS = 40;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long MAX_MILLI_TOKENS = (1L << (64 - TIME_BITS)) - 1;
+    private static final long ONE_TOKEN = 1000;
+    private static final int PROBES = 4;
+    private static final long EMPTY = 0L;
+
+    private final long capacity;
+    private final double refillPerMilli;
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray states;
+    private final LongSupplier clockMillis;
+    private final long origin;
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxClients) {
+        this(capacity, refillPerSecond, maxClients, () -> System.nanoTime() / 1_000_000);
+    }
+
+    TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxClients, LongSupplier clockMillis) {
+        if (capacity < 1 || capacity * ONE_TOKEN > MAX_MILLI_TOKENS) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_MILLI_TOKENS / ONE_TOKEN);
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("refillPerSecond must be positive");
+        }
+        int slots = Integer.highestOneBit(Math.max(PROBES, maxClients - 1)) << 1;
+        this.capacity = capacity * ONE_TOKEN;
+        // milli-tokens per millisecond == tokens per second
+        this.refillPerMilli = refillPerSecond;
+        this.mask = slots - 1;
+        this.keys = new AtomicLongArray(slots);
+        this.states = new AtomicLongArray(slots);
+        this.clockMillis = clockMillis;
+        this.origin = clockMillis.getAsLong();
+    }
+
+    /**
+     * Take one token for the client.
+     *
+     * @return 0 if the request is admitted, otherwise the milliseconds until a token is available
+     */
+    public long tryAcquire(long keyHash) {
+        long key = keyHash == EMPTY ? 1 : keyHash;
+        long now = (clockMillis.getAsLong() - origin) & TIME_MASK;
+        int slot = slotFor(key, now);
+
+        while (true) {
+            long state = states.get(slot);
+            long tokens = state >>> TIME_BITS;
+            long last = state & TIME_MASK;
+
+            long elapsed = Math.max(0, now - last);
+            long added = (long) (elapsed * refillPerMilli);
+            long refreshedAt = last;
+            if (tokens + added >= capacity) {
+                tokens = capacity;
+                refreshedAt = now;
+            } else if (added > 0) {
+                tokens += added;
+                refreshedAt = last + (long) (added / refillPerMilli);
+            }
+
+            if (tokens < ONE_TOKEN) {
+                return Math.max(1, (long) Math.ceil((ONE_TOKEN - tokens) / refillPerMilli));
+            }
+            if (states.compareAndSet(slot, state, pack(tokens - ONE_TOKEN, refreshedAt))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of client slots in the table
+     */
+    public int slots() {
+        return mask + 1;
+    }
+
+    private int slotFor(long key, long now) {
+        int start = (int) mix(key) & mask;
+
+        while (true) {
+            int victim = -1;
+            long victimTime = Long.MAX_VALUE;
+
+            for (int i = 0; i < PROBES; i++) {
+                int index = (start + i) & mask;
+                long existing = keys.get(index);
+                if (existing == key) {
+                    return index;
+                }
+                if (existing == EMPTY) {
+                    if (keys.compareAndSet(index, EMPTY, key)) {
+                        states.set(index, pack(capacity, now));
+                        return index;
+                    }
+                    if (keys.get(index) == key) {
+                        return index;
+                    }
+                    continue;
+                }
+                long touched = states.get(index) & TIME_MASK;
+                if (touched < victimTime) {
+                    victimTime = touched;
+                    victim = index;
+                }
+            }
+
+            if (victim >= 0) {
+                long evicted = keys.get(victim);
+                if (evicted != EMPTY && keys.compareAndSet(victim, evicted, key)) {
+                    states.set(victim, pack(capacity, now));
+                    return victim;
+                }
+            }
+        }
+    }
+
+    private static long pack(long milliTokens, long time) {
+        return (milliTokens << TIME_BITS) | (time & TIME_MASK);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 64-bit FNV-1a over a string, seeded so equal strings of different kinds
+     * (IP vs API key) land on different buckets. Allocation-free.
+     */
+    public static long hash(long seed, CharSequence value) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
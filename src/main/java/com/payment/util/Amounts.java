@@ -0,0 +1,138 @@
+package com.payment.util;
+
+import java.util.Currency;
+
+/**
+ * Exact money arithmetic on amounts held as a long count of minor units
+ * (paise, cents), i.e. hundredths of the currency unit. Only currencies whose
+ * minor unit is a hundredth fit that; {@link #isSupportedCurrency} keeps the
+ * others (JPY, BHD, ...) out rather than storing them at the wrong scale.
+ */
+public final class Amounts {
+
+    public static final String DEFAULT_CURRENCY = "INR";
+    public static final int SCALE = 2;
+
+    /** Longest formatted amount: sign, 17 unit digits, point, 2 decimals */
+    public static final int MAX_CHARS = 21;
+
+    private Amounts() {}
+
+    /**
+     * Whether the code is an ISO 4217 currency with two decimal places
+     */
+    public static boolean isSupportedCurrency(String code) {
+        try {
+            return Currency.getInstance(code).getDefaultFractionDigits() == SCALE;
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parse a plain decimal ("1500", "1500.5", "-0.25") into minor units.
+     * Rejects exponents, more than two significant decimals and overflow.
+     */
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        try {
+            long units = 0;
+            int unitDigits = 0;
+            for (; i < length && text.charAt(i) != '.'; i++) {
+                units = Math.addExact(Math.multiplyExact(units, 10), digit(text, i));
+                unitDigits++;
+            }
+            long fraction = 0;
+            int fractionDigits = 0;
+            int seen = 0;
+            for (i++; i < length; i++, seen++) {
+                int digit = digit(text, i);
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + digit;
+                    fractionDigits++;
+                } else if (digit != 0) {
+                    throw new NumberFormatException("Amount has more than " + SCALE + " decimal places: " + text);
+                }
+            }
+            if (unitDigits == 0 && seen == 0) {
+                throw new NumberFormatException("Not an amount: " + text);
+            }
+            for (; fractionDigits < SCALE; fractionDigits++) {
+                fraction *= 10;
+            }
+            long minor = Math.addExact(Math.multiplyExact(units, 100), fraction);
+            return negative ? -minor : minor;
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /**
+     * Write minor units as a plain decimal with two places into the buffer
+     * (at least MAX_CHARS long); returns the number of chars written.
+     */
+    public static int getChars(long minor, char[] buffer) {
+        int pos = 0;
+        long abs = minor;
+        if (minor < 0) {
+            buffer[pos++] = '-';
+            abs = Math.negateExact(minor);
+        }
+        long units = abs / 100;
+        int cents = (int) (abs % 100);
+
+        int end = pos + digitCount(units);
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + units % 10);
+            units /= 10;
+        }
+        pos = end;
+        buffer[pos++] = '.';
+        buffer[pos++] = (char) ('0' + cents / 10);
+        buffer[pos++] = (char) ('0' + cents % 10);
+        return pos;
+    }
+
+    /**
+     * Append minor units as a plain decimal with two places
+     */
+    public static StringBuilder appendTo(StringBuilder target, long minor) {
+        if (minor < 0) {
+            target.append('-');
+            minor = Math.negateExact(minor);
+        }
+        int cents = (int) (minor % 100);
+        return target.append(minor / 100).append('.').append((char) ('0' + cents / 10)).append((char) ('0' + cents % 10));
+    }
+
+    /**
+     * Format minor units as a plain decimal with two places ("1500.00")
+     */
+    public static String format(long minor) {
+        char[] buffer = new char[MAX_CHARS];
+        return new String(buffer, 0, getChars(minor, buffer));
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        return c - '0';
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,187 @@
+package com.payment.velocity;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free sliding-window counters over a fixed-size, open-addressed key table.
+ *
+ * Each slot holds an entry of a 64-bit key hash and one packed state word: the
+ * index of the current fixed window (16 bits), the previous window's total and
+ * the current window's total (24 bits each), updated with CAS. A key claims a
+ * slot by swapping in a fresh entry, so its zeroed state arrives with it in
+ * the same CAS; an add still racing on the evicted entry only changes that
+ * entry, never the new key's counts. The sliding total
+ * is estimated as current + previous * (unelapsed fraction of the current
+ * window), which is exact at window boundaries and assumes events were evenly
+ * spread in the previous window otherwise.
+ *
+ * A key probes {@value #PROBES} slots; when all hold other keys the one idle
+ * the longest is evicted, so memory is one small entry per slot however many
+ * identifiers appear. An evicted key restarts from zero, which errs on the
+ * side of admitting a payment. Totals saturate at {@link #MAX_COUNT}.
+ */
+public class SlidingWindowCounter {
+
+    public static final long MAX_COUNT = (1L << 24) - 1;
+
+    private static final int COUNT_BITS = 24;
+    private static final int EPOCH_SHIFT = 2 * COUNT_BITS;
+    private static final long EPOCH_MASK = 0xFFFF;
+    private static final int PROBES = 4;
+
+    private static final VarHandle STATE;
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Entry.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * A key and its counts; replaced, never reused, when another key takes the slot
+     */
+    private static final class Entry {
+        final long key;
+        volatile long state;
+
+        Entry(long key, long state) {
+            this.key = key;
+            this.state = state;
+        }
+    }
+
+    private final long windowNanos;
+    private final int mask;
+    private final AtomicReferenceArray<Entry> table;
+    private final LongSupplier clockNanos;
+    private final long origin;
+
+    public SlidingWindowCounter(Duration window, int maxKeys) {
+        this(window, maxKeys, System::nanoTime);
+    }
+
+    SlidingWindowCounter(Duration window, int maxKeys, LongSupplier clockNanos) {
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        int slots = Integer.highestOneBit(Math.max(PROBES, maxKeys - 1)) << 1;
+        this.windowNanos = window.toNanos();
+        this.mask = slots - 1;
+        this.table = new AtomicReferenceArray<>(slots);
+        this.clockNanos = clockNanos;
+        this.origin = clockNanos.getAsLong();
+    }
+
+    /**
+     * Sliding-window total for the key (0 for a key not in the table)
+     */
+    public long total(long key) {
+        long now = clockNanos.getAsLong() - origin;
+        int start = (int) mix(key) & mask;
+        for (int i = 0; i < PROBES; i++) {
+            Entry entry = table.get((start + i) & mask);
+            if (entry != null && entry.key == key) {
+                return estimate(roll(entry.state, now / windowNanos), now);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Add to the key's current window
+     */
+    public void add(long key, long amount) {
+        long now = clockNanos.getAsLong() - origin;
+        long epoch = now / windowNanos;
+        Entry entry = entryFor(key, epoch);
+
+        while (true) {
+            long state = entry.state;
+            long rolled = roll(state, epoch);
+            long current = Math.min(MAX_COUNT, (rolled & MAX_COUNT) + amount);
+            if (STATE.compareAndSet(entry, state, (rolled & ~MAX_COUNT) | current)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of key slots in the table
+     */
+    public int slots() {
+        return mask + 1;
+    }
+
+    /**
+     * Move a state forward to the given window: the current total becomes the
+     * previous one after one window, both reset after two or more
+     */
+    private static long roll(long state, long epoch) {
+        long stateEpoch = state >>> EPOCH_SHIFT;
+        long target = epoch & EPOCH_MASK;
+        if (stateEpoch == target) {
+            return state;
+        }
+        long previous = ((stateEpoch + 1) & EPOCH_MASK) == target ? state & MAX_COUNT : 0;
+        return (target << EPOCH_SHIFT) | (previous << COUNT_BITS);
+    }
+
+    private long estimate(long state, long now) {
+        long previous = (state >>> COUNT_BITS) & MAX_COUNT;
+        long current = state & MAX_COUNT;
+        if (previous == 0) {
+            return current;
+        }
+        double remaining = 1.0 - (double) (now % windowNanos) / windowNanos;
+        return current + (long) Math.ceil(previous * remaining);
+    }
+
+    private Entry entryFor(long key, long epoch) {
+        int start = (int) mix(key) & mask;
+        long emptyState = (epoch & EPOCH_MASK) << EPOCH_SHIFT;
+
+        while (true) {
+            int victim = -1;
+            Entry victimEntry = null;
+            long victimAge = -1;
+
+            for (int i = 0; i < PROBES; i++) {
+                int index = (start + i) & mask;
+                Entry existing = table.get(index);
+                if (existing == null) {
+                    Entry claimed = new Entry(key, emptyState);
+                    if (table.compareAndSet(index, null, claimed)) {
+                        return claimed;
+                    }
+                    existing = table.get(index);
+                }
+                if (existing.key == key) {
+                    return existing;
+                }
+                long age = (epoch - (existing.state >>> EPOCH_SHIFT)) & EPOCH_MASK;
+                if (age > victimAge) {
+                    victimAge = age;
+                    victim = index;
+                    victimEntry = existing;
+                }
+            }
+
+            Entry claimed = new Entry(key, emptyState);
+            if (table.compareAndSet(victim, victimEntry, claimed)) {
+                return claimed;
+            }
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,243 @@
+package com.payment.velocity;
+
+import com.payment.config.VelocityProperties;
+import com.payment.dto.VelocityMetricsResponse;
+import com.payment.exception.VelocityLimitExceededException;
+import com.payment.service.TokenBucketRateLimiter;
+import com.payment.util.Amounts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluates velocity rules inline, before a payment is stored, against
+ * in-memory sliding-window counters (one table per rule, keyed by a hash of
+ * the identifier) so no rule costs a database query.
+ *
+ * A payment is checked against every rule first and recorded in every rule's
+ * counter only if no BLOCK rule is exceeded; refused payments don't count.
+ * Concurrent payments for the same identifier may both pass a rule that only
+ * one of them fits in (check and record are separate steps), overshooting a
+ * limit by at most the number of concurrent requests.
+ *
+ * The rule set is an immutable array swapped atomically on reload. Counters
+ * survive a reload for rules whose dimension, metric and window are unchanged.
+ */
+@Component
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(VelocityEngine.class);
+
+    private static final long[] SEEDS = {0x11L, 0x12L, 0x13L};
+
+    private final VelocityProperties properties;
+    private volatile ActiveRule[] rules;
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private FileTime rulesFileModified;
+
+    private static final class ActiveRule {
+        final VelocityRule rule;
+        final SlidingWindowCounter counter;
+        final LongAdder hits;
+        final LongAdder blocked;
+
+        ActiveRule(VelocityRule rule, SlidingWindowCounter counter, LongAdder hits, LongAdder blocked) {
+            this.rule = rule;
+            this.counter = counter;
+            this.hits = hits;
+            this.blocked = blocked;
+        }
+    }
+
+    public VelocityEngine(VelocityProperties properties) {
+        this.properties = properties;
+        this.rules = compile(properties.getRules(), new ActiveRule[0]);
+        reloadRulesFile();
+    }
+
+    /**
+     * Check a payment and, if allowed, count it.
+     *
+     * @return the name of the rule that blocks it, or null if it may proceed
+     */
+    public String check(String email, String contact, String upiId, long amountMinor) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        evaluated.increment();
+        ActiveRule[] current = rules;
+        long emailKey = email == null ? 0 : hashLowerCase(SEEDS[0], email);
+        long contactKey = contact == null ? 0 : hashLowerCase(SEEDS[1], contact);
+        long upiKey = upiId == null || upiId.isBlank() ? 0 : hashLowerCase(SEEDS[2], upiId);
+
+        String blockedBy = null;
+        for (ActiveRule active : current) {
+            long key = key(active.rule.dimension(), emailKey, contactKey, upiKey);
+            if (key == 0) {
+                continue;
+            }
+            long units = active.rule.units(amountMinor);
+            if (active.counter.total(key) + units > active.rule.limit()) {
+                active.hits.increment();
+                if (active.rule.action() == VelocityRule.Action.BLOCK) {
+                    if (blockedBy == null) {
+                        blockedBy = active.rule.name();
+                        active.blocked.increment();
+                    }
+                } else {
+                    log.info("Velocity rule '{}' (monitor) exceeded", active.rule.name());
+                }
+            }
+        }
+
+        if (blockedBy != null) {
+            blocked.increment();
+            return blockedBy;
+        }
+        for (ActiveRule active : current) {
+            long key = key(active.rule.dimension(), emailKey, contactKey, upiKey);
+            if (key != 0) {
+                active.counter.add(key, active.rule.units(amountMinor));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Like {@link #check}, but throws when a rule blocks the payment
+     */
+    public void enforce(String email, String contact, String upiId, long amountMinor) {
+        String rule = check(email, contact, upiId, amountMinor);
+        if (rule != null) {
+            log.warn("Payment blocked by velocity rule '{}'", rule);
+            throw new VelocityLimitExceededException(rule);
+        }
+    }
+
+    /**
+     * Re-read the rules file if it changed since the last load
+     */
+    @Scheduled(fixedDelayString = "${payment.velocity.reload-interval:PT10S}")
+    public synchronized void reloadRulesFile() {
+        if (properties.getRulesFile() == null || properties.getRulesFile().isBlank()) {
+            return;
+        }
+        Path file = Paths.get(properties.getRulesFile());
+        try {
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(rulesFileModified)) {
+                return;
+            }
+            Properties loaded = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                loaded.load(reader);
+            }
+            Map<String, VelocityProperties.Rule> configured = new Binder(new MapConfigurationPropertySource(loaded))
+                    .bind("payment.velocity.rules", Bindable.mapOf(String.class, VelocityProperties.Rule.class))
+                    .orElse(Map.of());
+            rules = compile(configured, rules);
+            rulesFileModified = modified;
+            log.info("Velocity rules reloaded from {}: {} rules", file, rules.length);
+        } catch (IOException | RuntimeException e) {
+            // Keep enforcing the previous rules rather than none
+            log.error("Could not load velocity rules from {}: {}", file, e.getMessage());
+        }
+    }
+
+    public List<VelocityRule> rules() {
+        List<VelocityRule> list = new ArrayList<>();
+        for (ActiveRule active : rules) {
+            list.add(active.rule);
+        }
+        return list;
+    }
+
+    public VelocityMetricsResponse snapshot() {
+        Map<String, VelocityMetricsResponse.RuleMetrics> metrics = new LinkedHashMap<>();
+        for (ActiveRule active : rules) {
+            VelocityRule rule = active.rule;
+            metrics.put(rule.name(), new VelocityMetricsResponse.RuleMetrics(
+                    rule.dimension().name().toLowerCase(), rule.metric().name().toLowerCase(), rule.limit(),
+                    rule.window().toString(), rule.action().name().toLowerCase(), active.hits.sum(), active.blocked.sum()));
+        }
+        return new VelocityMetricsResponse(true, evaluated.sum(), blocked.sum(), metrics);
+    }
+
+    private ActiveRule[] compile(Map<String, VelocityProperties.Rule> configured, ActiveRule[] previous) {
+        Map<String, ActiveRule> byName = new HashMap<>();
+        for (ActiveRule active : previous) {
+            byName.put(active.rule.name(), active);
+        }
+
+        List<ActiveRule> compiled = new ArrayList<>();
+        configured.forEach((name, config) -> {
+            if (config.getDimension() == null || config.getLimit() == null) {
+                throw new IllegalArgumentException("Velocity rule '" + name + "' needs a dimension and a limit");
+            }
+            long limit = config.getMetric() == VelocityRule.Metric.COUNT
+                    ? Long.parseLong(config.getLimit().trim())
+                    : Amounts.parse(config.getLimit().trim()) / 100;
+            if (limit < 1 || limit >= SlidingWindowCounter.MAX_COUNT) {
+                throw new IllegalArgumentException("Velocity rule '" + name + "' limit out of range");
+            }
+            VelocityRule rule = new VelocityRule(name, config.getDimension(), config.getMetric(), limit,
+                    config.getWindow(), config.getAction());
+
+            ActiveRule existing = byName.get(name);
+            if (existing != null && existing.rule.dimension() == rule.dimension()
+                    && existing.rule.metric() == rule.metric() && existing.rule.window().equals(rule.window())) {
+                compiled.add(new ActiveRule(rule, existing.counter, existing.hits, existing.blocked));
+            } else {
+                compiled.add(new ActiveRule(rule, new SlidingWindowCounter(rule.window(), properties.getMaxKeys()),
+                        new LongAdder(), new LongAdder()));
+            }
+            log.info("Velocity rule '{}': {} {} <= {} per {} ({})", name, rule.dimension(), rule.metric(),
+                    rule.limit(), rule.window(), rule.action());
+        });
+        return compiled.toArray(new ActiveRule[0]);
+    }
+
+    private static long key(VelocityRule.Dimension dimension, long email, long contact, long upiId) {
+        return switch (dimension) {
+            case EMAIL -> email;
+            case CONTACT -> contact;
+            case UPI_ID -> upiId;
+        };
+    }
+
+    /**
+     * Identifiers are case-insensitive (emails, UPI IDs); hash them lower-cased without allocating
+     */
+    private static long hashLowerCase(long seed, String value) {
+        long h = TokenBucketRateLimiter.hash(seed, "");
+        for (int i = 0; i < value.length(); i++) {
+            h ^= Character.toLowerCase(value.charAt(i));
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+}
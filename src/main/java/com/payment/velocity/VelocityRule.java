@@ -0,0 +1,28 @@
+package com.payment.velocity;
+
+import java.time.Duration;
+
+/**
+ * One velocity limit, e.g. "at most 10 payments per email per minute" or
+ * "at most 50,000 rupees per contact per hour". Limits on amounts are kept in
+ * whole rupees (each payment rounded up), which keeps counters compact and
+ * errs on the strict side by under a rupee per payment.
+ */
+public record VelocityRule(String name, Dimension dimension, Metric metric, long limit, Duration window, Action action) {
+
+    /** Which payment identifier the rule counts by */
+    public enum Dimension { EMAIL, CONTACT, UPI_ID }
+
+    /** Number of payments, or their total amount */
+    public enum Metric { COUNT, AMOUNT }
+
+    /** BLOCK rejects the payment; MONITOR only counts the hit (for trying out a rule) */
+    public enum Action { BLOCK, MONITOR }
+
+    /**
+     * What this payment adds to the rule's counter
+     */
+    long units(long amountMinor) {
+        return metric == Metric.COUNT ? 1 : Math.max(1, (amountMinor + 99) / 100);
+    }
+}
@@ -0,0 +1,288 @@
+package com.payment.webhook;
+
+import com.payment.config.WebhookProperties;
+import com.payment.dto.WebhookMetricsResponse;
+import com.payment.entity.WebhookDelivery;
+import com.payment.repository.WebhookDeliveryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers queued webhook events. Each endpoint has a semaphore of
+ * max-concurrent permits; a permit is taken per batch, the batch's rows are
+ * leased (their next attempt pushed past the request timeout) and POSTed as
+ * one signed JSON array. A 2xx deletes the rows; anything else schedules them
+ * again with exponential backoff and jitter, and after max-attempts moves them
+ * to the dead-letter state.
+ *
+ * Delivery is at least once: a crash after the merchant accepted a batch but
+ * before the rows were deleted resends it when the lease runs out. Batches to
+ * one endpoint may arrive out of order when max-concurrent is above 1.
+ */
+@Component
+@EnableConfigurationProperties(WebhookProperties.class)
+public class WebhookDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private static final byte[] BATCH_START = "{\"events\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private static final class Target {
+        final String name;
+        final URI uri;
+        final String secret;
+        final int batchSize;
+        final Semaphore permits;
+        final int maxConcurrent;
+
+        Target(String name, WebhookProperties.Endpoint endpoint) {
+            this.name = name;
+            this.uri = URI.create(endpoint.getUrl());
+            this.secret = endpoint.getSecret();
+            this.batchSize = endpoint.getBatchSize();
+            this.maxConcurrent = endpoint.getMaxConcurrent();
+            this.permits = new Semaphore(endpoint.getMaxConcurrent());
+        }
+    }
+
+    private final WebhookDeliveryRepository repository;
+    private final TransactionTemplate transaction;
+    private final Map<String, Target> targets = new LinkedHashMap<>();
+    private final ExecutorService senders;
+    private final HttpClient client;
+
+    private final Duration requestTimeout;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    public WebhookDispatcher(WebhookProperties properties, WebhookDeliveryRepository repository,
+                             PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.requestTimeout = properties.getRequestTimeout();
+        this.lease = properties.getRequestTimeout().plusSeconds(30);
+        this.maxAttempts = properties.getMaxAttempts();
+        this.initialBackoffMillis = properties.getInitialBackoff().toMillis();
+        this.maxBackoffMillis = properties.getMaxBackoff().toMillis();
+        properties.getEndpoints().forEach((name, endpoint) -> {
+            targets.put(name, new Target(name, endpoint));
+            log.info("Webhook endpoint '{}': {} ({} in flight, {} per batch, events {})", name, endpoint.getUrl(),
+                    endpoint.getMaxConcurrent(), endpoint.getBatchSize(),
+                    endpoint.getEvents().isEmpty() ? "all" : endpoint.getEvents());
+        });
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), task -> {
+            Thread thread = new Thread(task, "webhook-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // One client for all endpoints: it keeps connections to each host open between batches
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(senders)
+                .build();
+    }
+
+    /**
+     * Fill every endpoint's free permits with due batches
+     */
+    @Scheduled(fixedDelayString = "${payment.webhooks.poll-interval:PT1S}")
+    public void dispatch() {
+        targets.values().forEach(this::dispatch);
+    }
+
+    private void dispatch(Target target) {
+        while (target.permits.tryAcquire()) {
+            List<WebhookDelivery> batch;
+            try {
+                batch = claim(target);
+            } catch (RuntimeException e) {
+                target.permits.release();
+                log.warn("Could not claim webhooks for '{}': {}", target.name, e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                target.permits.release();
+                return;
+            }
+            send(target, batch);
+        }
+    }
+
+    /**
+     * Each due row is leased with a conditional update, so when several nodes
+     * read the same rows only one gets each of them. Claims on one node are
+     * serialised per endpoint so they don't race each other for the same page.
+     */
+    private List<WebhookDelivery> claim(Target target) {
+        synchronized (target) {
+            return transaction.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime until = now.plus(lease);
+                List<WebhookDelivery> claimed = new ArrayList<>();
+                for (WebhookDelivery row : repository.findDue(target.name, WebhookDelivery.State.PENDING, now,
+                        PageRequest.of(0, target.batchSize))) {
+                    if (repository.lease(row.getId(), WebhookDelivery.State.PENDING, row.getNextAttemptAt(), until) == 1) {
+                        claimed.add(row);
+                    }
+                }
+                return claimed;
+            });
+        }
+    }
+
+    private void send(Target target, List<WebhookDelivery> batch) {
+        byte[] body = body(batch);
+        HttpRequest.Builder request = HttpRequest.newBuilder(target.uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (target.secret != null) {
+            long timestamp = System.currentTimeMillis() / 1000;
+            request.header(WebhookSigner.TIMESTAMP_HEADER, Long.toString(timestamp))
+                    .header(WebhookSigner.SIGNATURE_HEADER, WebhookSigner.sign(target.secret, timestamp, body));
+        }
+
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenCompleteAsync((response, error) -> {
+                    boolean ok = false;
+                    try {
+                        ok = record(target, batch, response, error);
+                    } catch (RuntimeException e) {
+                        // Rows stay leased and are retried when the lease runs out
+                        log.error("Could not record webhook outcome for '{}': {}", target.name, e.getMessage());
+                    } finally {
+                        target.permits.release();
+                    }
+                    if (ok && batch.size() == target.batchSize) {
+                        // A full batch suggests a backlog; keep going without waiting for the next poll
+                        dispatch(target);
+                    }
+                }, senders);
+    }
+
+    private boolean record(Target target, List<WebhookDelivery> batch, HttpResponse<Void> response, Throwable error) {
+        batches.increment();
+        List<Long> ids = batch.stream().map(WebhookDelivery::getId).toList();
+        if (error == null && response.statusCode() / 100 == 2) {
+            repository.deleteAllByIdInBatch(ids);
+            delivered.add(ids.size());
+            return true;
+        }
+
+        failedBatches.increment();
+        String reason = error != null ? error.getClass().getSimpleName() + ": " + error.getMessage()
+                : "HTTP " + response.statusCode();
+        String lastError = reason.length() > 255 ? reason.substring(0, 255) : reason;
+        log.warn("Webhook batch of {} to '{}' failed: {}", ids.size(), target.name, lastError);
+
+        transaction.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (WebhookDelivery row : repository.findAllById(ids)) {
+                row.setAttempts(row.getAttempts() + 1);
+                row.setLastError(lastError);
+                if (row.getAttempts() >= maxAttempts) {
+                    row.setState(WebhookDelivery.State.DEAD);
+                    deadLettered.increment();
+                } else {
+                    row.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis(row.getAttempts()))));
+                }
+            }
+        });
+        return false;
+    }
+
+    /**
+     * initial-backoff doubled per failed attempt, capped, then a random
+     * point in its upper half so endpoints recovering from an outage aren't
+     * hit by every retry at once
+     */
+    long backoffMillis(int attempts) {
+        long base = initialBackoffMillis << Math.min(attempts - 1, 30);
+        if (base <= 0 || base > maxBackoffMillis) {
+            base = maxBackoffMillis;
+        }
+        return base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+
+    private static byte[] body(List<WebhookDelivery> batch) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + batch.size() * 400);
+        out.writeBytes(BATCH_START);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(batch.get(i).getPayload().getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeBytes(BATCH_END);
+        return out.toByteArray();
+    }
+
+    /**
+     * Put an endpoint's dead-lettered events back in the queue.
+     *
+     * @return rows requeued, or -1 for an unknown endpoint
+     */
+    public int replayDead(String endpoint) {
+        if (!targets.containsKey(endpoint)) {
+            return -1;
+        }
+        int requeued = repository.requeue(endpoint, WebhookDelivery.State.DEAD, WebhookDelivery.State.PENDING,
+                LocalDateTime.now());
+        log.info("Requeued {} dead webhook events for '{}'", requeued, endpoint);
+        return requeued;
+    }
+
+    public WebhookMetricsResponse snapshot() {
+        Map<String, WebhookMetricsResponse.EndpointMetrics> endpoints = new LinkedHashMap<>();
+        targets.forEach((name, target) -> endpoints.put(name, new WebhookMetricsResponse.EndpointMetrics(
+                repository.countByEndpointAndState(name, WebhookDelivery.State.PENDING),
+                repository.countByEndpointAndState(name, WebhookDelivery.State.DEAD),
+                target.maxConcurrent - target.permits.availablePermits())));
+        return new WebhookMetricsResponse(true, delivered.sum(), batches.sum(), failedBatches.sum(),
+                deadLettered.sum(), endpoints);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
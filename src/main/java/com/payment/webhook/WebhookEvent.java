@@ -0,0 +1,10 @@
+package com.payment.webhook;
+
+import com.payment.dto.PaymentResponse;
+
+/**
+ * One event as merchants receive it, inside {"events": [...]}. The id is the
+ * same on every retry and for every endpoint, so receivers can drop repeats.
+ */
+public record WebhookEvent(String id, String type, String createdAt, PaymentResponse data) {
+}
@@ -0,0 +1,75 @@
+package com.payment.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.config.WebhookProperties;
+import com.payment.dto.PaymentResponse;
+import com.payment.entity.PaymentStatus;
+import com.payment.entity.WebhookDelivery;
+import com.payment.repository.WebhookDeliveryRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes payment events to the webhook queue, one row per subscribed
+ * endpoint. Call it inside the payment write's transaction: the rows join
+ * it, so an event is queued if and only if the write that raised it commits,
+ * and a failure to queue rolls the write back with it.
+ */
+@Component
+public class WebhookOutbox {
+
+    public static final String PAYMENT_CREATED = "payment.created";
+
+    private final Map<String, WebhookProperties.Endpoint> endpoints;
+    private final WebhookDeliveryRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public WebhookOutbox(WebhookProperties properties, WebhookDeliveryRepository repository,
+                         ObjectMapper objectMapper) {
+        this.endpoints = properties.getEndpoints();
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void paymentCreated(PaymentResponse payment) {
+        enqueue(PAYMENT_CREATED, payment);
+    }
+
+    /**
+     * payment.authorized, payment.captured, payment.failed or payment.refunded
+     */
+    public void paymentTransitioned(PaymentResponse payment, PaymentStatus target) {
+        enqueue("payment." + target.name().toLowerCase(), payment);
+    }
+
+    void enqueue(String type, PaymentResponse payment) {
+        if (endpoints.isEmpty()) {
+            return;
+        }
+        String eventId = UUID.randomUUID().toString();
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new WebhookEvent(eventId, type, Instant.now().toString(), payment));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise webhook " + type + " for payment " + payment.getId(), e);
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        List<WebhookDelivery> rows = new ArrayList<>(endpoints.size());
+        endpoints.forEach((name, endpoint) -> {
+            if (endpoint.getEvents().isEmpty() || endpoint.getEvents().contains(type)) {
+                rows.add(new WebhookDelivery(name, eventId, type, payload, now));
+            }
+        });
+        if (!rows.isEmpty()) {
+            repository.saveAll(rows);
+        }
+    }
+}
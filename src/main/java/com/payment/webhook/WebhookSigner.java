@@ -0,0 +1,33 @@
+package com.payment.webhook;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * Webhook signatures: {@code v1=} followed by the hex HMAC-SHA256 of
+ * {@code <timestamp>.<body>} under the endpoint's secret. Receivers recompute
+ * it from the X-Webhook-Timestamp header and the raw body, and reject old
+ * timestamps to stop replays.
+ */
+public final class WebhookSigner {
+
+    public static final String TIMESTAMP_HEADER = "X-Webhook-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+    private WebhookSigner() {}
+
+    public static String sign(String secret, long timestamp, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update(Long.toString(timestamp).getBytes(StandardCharsets.US_ASCII));
+            mac.update((byte) '.');
+            return "v1=" + HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.payment.archive;
+
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.PaymentQuery;
+import com.payment.repository.PaymentSort;
+import com.payment.repository.StatusTotals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Payment Archive Tests")
+class PaymentArchiveTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should round-trip every column through a segment")
+    void testRoundTrip() throws Exception {
+        PaymentArchive archive = new PaymentArchive(directory.toString());
+        archive.append(payments(1, 1000));
+
+        Payment payment = archive.findById(500).orElseThrow();
+        assertEquals("Payer 500", payment.getName());
+        assertEquals("payer500@example.com", payment.getEmail());
+        assertEquals("9876500500", payment.getContact());
+        assertEquals(150050L, payment.getAmountMinor());
+        assertEquals("INR", payment.getCurrency());
+        assertEquals(500 % 3 == 0 ? PaymentStatus.FAILED : PaymentStatus.CAPTURED, payment.getStatus());
+        assertEquals(START.plusMinutes(500), payment.getCreatedAt());
+        assertEquals(START.plusMinutes(501), payment.getUpdatedAt());
+        assertTrue(archive.findById(1001).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should route lookups across segments using their indexes")
+    void testLookupsAcrossSegments() throws Exception {
+        PaymentArchive archive = new PaymentArchive(directory.toString());
+        archive.append(payments(1, 100));
+        archive.append(payments(101, 200));
+
+        assertEquals(2, archive.segmentCount());
+        assertEquals(200, archive.maxArchivedId());
+        assertEquals(150, archive.findById(150).orElseThrow().getId());
+        assertEquals(66, archive.findByStatus(PaymentStatus.FAILED).size());
+        assertTrue(archive.findByStatus(PaymentStatus.REFUNDED).isEmpty());
+
+        List<Payment> range = archive.findByCreatedAtBetween(START.plusMinutes(95), START.plusMinutes(105));
+        assertEquals(11, range.size());
+    }
+
+    @Test
+    @DisplayName("Should reload segments from disk and reject out-of-order appends")
+    void testReloadAndOrdering() throws Exception {
+        PaymentArchive archive = new PaymentArchive(directory.toString());
+        archive.append(payments(1, 50));
+        Path abandoned = Files.writeString(directory.resolve("segment-partial.tmp"), "interrupted");
+        Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path inProgress = Files.writeString(directory.resolve("segment-writing.tmp"), "another node");
+
+        PaymentArchive reloaded = new PaymentArchive(directory.toString());
+        reloaded.load();
+        assertEquals(50, reloaded.archivedCount());
+        assertTrue(reloaded.findById(25).isPresent());
+        assertFalse(Files.exists(abandoned));
+        assertTrue(Files.exists(inProgress), "A fresh temporary file may belong to a node still writing it");
+
+        assertThrows(IllegalArgumentException.class, () -> reloaded.append(payments(10, 20)));
+    }
+
+    @Test
+    @DisplayName("Should find segments another node wrote to the shared directory")
+    void testSharedDirectory() throws Exception {
+        PaymentArchive writer = new PaymentArchive(directory.toString());
+        PaymentArchive reader = new PaymentArchive(directory.toString());
+        writer.append(payments(1, 10));
+        reader.load();
+
+        writer.append(payments(11, 20));
+        assertTrue(reader.findById(15).isPresent(), "A lookup miss rescans the changed directory");
+        assertEquals(20, reader.archivedCount());
+
+        // The reader's view is current, so its own appends stay in id order
+        assertThrows(IllegalArgumentException.class, () -> reader.append(payments(18, 25)));
+        reader.append(payments(21, 30));
+        writer.refresh();
+        assertEquals(3, writer.segmentCount());
+    }
+
+    @Test
+    @DisplayName("Should page archived payments with the listing's filters and keyset")
+    void testFindPage() throws Exception {
+        PaymentArchive archive = new PaymentArchive(directory.toString());
+        archive.append(payments(1, 100));
+        archive.append(payments(101, 200));
+
+        List<Payment> first = archive.findPage(query(PaymentSort.CREATED_AT, null, null), null);
+        assertEquals(List.of(198L, 195L, 192L), first.stream().map(Payment::getId).toList());
+
+        Payment last = first.get(2);
+        List<Payment> second = archive.findPage(query(PaymentSort.CREATED_AT, last.getCreatedAt(), last.getId()), null);
+        assertEquals(List.of(189L, 186L, 183L), second.stream().map(Payment::getId).toList());
+
+        // Rows that sort after a full hot page's last row are left out
+        Payment before = archive.findById(150).orElseThrow();
+        assertTrue(archive.findPage(query(PaymentSort.ID, 150L, 150L), before).isEmpty());
+
+        long failed = 0, count = 0;
+        for (StatusTotals totals : archive.statusTotals()) {
+            count += totals.count();
+            if (totals.status() == PaymentStatus.FAILED) {
+                failed += totals.count();
+                assertEquals(totals.count() * 150050L, totals.amountMinor());
+            }
+        }
+        assertEquals(200, count);
+        assertEquals(66, failed);
+    }
+
+    @Test
+    @DisplayName("Should visit a date range by id keyset without collecting it")
+    void testForEachCreatedBetween() throws Exception {
+        PaymentArchive archive = new PaymentArchive(directory.toString());
+        archive.append(payments(1, 100));
+        archive.append(payments(101, 200));
+
+        List<Long> visited = new ArrayList<>();
+        archive.forEachCreatedBetween(START.plusMinutes(90), START.plusMinutes(120), 95, 110, payment -> {
+            visited.add(payment.getId());
+            return visited.size() < 10;
+        });
+        assertEquals(List.of(96L, 97L, 98L, 99L, 100L, 101L, 102L, 103L, 104L, 105L), visited);
+
+        visited.clear();
+        archive.forEachCreatedBetween(START.plusMinutes(90), START.plusMinutes(120), 105, 110, payment -> {
+            visited.add(payment.getId());
+            return true;
+        });
+        assertEquals(List.of(106L, 107L, 108L, 109L, 110L), visited);
+    }
+
+    @Test
+    @DisplayName("Should store the payment method and still read version 2 segments without it")
+    void testPaymentMethodColumn() throws Exception {
+        List<Payment> payments = payments(1, 30);
+        payments.forEach(payment -> payment.setPaymentMethod(payment.getId() % 2 == 0 ? "upi" : "card"));
+        payments.get(0).setPaymentMethod(null);
+        PaymentArchive archive = new PaymentArchive(directory.toString());
+        ArchiveSegment segment = archive.append(payments);
+
+        assertNull(archive.findById(1).orElseThrow().getPaymentMethod());
+        assertEquals("upi", archive.findById(2).orElseThrow().getPaymentMethod());
+        assertEquals("card", archive.findById(3).orElseThrow().getPaymentMethod());
+
+        rewriteAsVersion2(segment.file());
+        PaymentArchive reloaded = new PaymentArchive(directory.toString());
+        reloaded.load();
+        Payment legacy = reloaded.findById(2).orElseThrow();
+        assertNull(legacy.getPaymentMethod());
+        assertEquals("INR", legacy.getCurrency());
+        assertEquals("Payer 2", legacy.getName());
+    }
+
+    /**
+     * Drop the method dictionary and column, as a version 2 writer would have written the file
+     */
+    private static void rewriteAsVersion2(Path file) throws Exception {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        int magic = bytes.getInt();
+        int headerLength = bytes.getInt();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.array(), 8, headerLength));
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(headerBytes);
+
+        assertEquals(3, in.readInt());
+        out.writeInt(2);
+        out.writeInt(in.readInt());
+        for (int i = 0; i < 4; i++) {
+            out.writeLong(in.readLong());
+        }
+        int statuses = in.readInt();
+        out.writeInt(statuses);
+        for (int i = 0; i < statuses; i++) {
+            out.writeUTF(in.readUTF());
+            out.writeInt(in.readInt());
+        }
+        int currencies = in.readInt();
+        out.writeInt(currencies);
+        for (int i = 0; i < currencies; i++) {
+            out.writeUTF(in.readUTF());
+        }
+        int methods = in.readInt();
+        for (int i = 0; i < methods; i++) {
+            in.readUTF();
+        }
+        for (int column = 0; column < 10; column++) {
+            long offset = in.readLong();
+            int length = in.readInt();
+            if (column < 9) {
+                out.writeLong(offset);
+                out.writeInt(length);
+            }
+        }
+        out.flush();
+
+        ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        DataOutputStream segment = new DataOutputStream(rewritten);
+        segment.writeInt(magic);
+        segment.writeInt(headerBytes.size());
+        segment.write(headerBytes.toByteArray());
+        // Column data is addressed by offset, so the unused method column can stay behind
+        segment.write(bytes.array(), 8 + headerLength, bytes.capacity() - 8 - headerLength);
+        Files.write(file, rewritten.toByteArray());
+    }
+
+    private static PaymentQuery query(PaymentSort sort, Comparable<?> afterValue, Long afterId) {
+        return new PaymentQuery(PaymentStatus.FAILED, null, null, null, null, null, null,
+                sort, true, afterValue, afterId, 3);
+    }
+
+    @Test
+    @DisplayName("Should store archived payments compactly")
+    void testCompression() throws Exception {
+        PaymentArchive archive = new PaymentArchive(directory.toString());
+        ArchiveSegment segment = archive.append(payments(1, 10_000));
+
+        assertTrue(segment.sizeOnDisk() < 10_000 * 20L,
+                "Expected under 20 bytes/row, got " + segment.sizeOnDisk() / 10_000.0);
+    }
+
+    private static List<Payment> payments(long fromId, long toId) {
+        List<Payment> payments = new ArrayList<>();
+        for (long id = fromId; id <= toId; id++) {
+            payments.add(new Payment(id, "Payer " + id, "payer" + id + "@example.com",
+                    String.format("98765%05d", id), 150050L, "INR",
+                    id % 3 == 0 ? PaymentStatus.FAILED : PaymentStatus.CAPTURED,
+                    START.plusMinutes(id), START.plusMinutes(id + 1)));
+        }
+        return payments;
+    }
+}
@@ -0,0 +1,81 @@
+package com.payment.benchmark;
+
+import com.payment.dto.BulkQRCodeRequest;
+import com.payment.service.BulkQRCodeService;
+import com.payment.service.QRCodeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk QR throughput (codes/s) as the render pool grows from 1 thread to all
+ * cores. Output goes to a counting sink so only rendering and zipping are measured.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=BulkQRCodeBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("Bulk QR Code Benchmark")
+class BulkQRCodeBenchmark {
+
+    private static final int ITEMS = 1_000;
+
+    @Test
+    @DisplayName("Measure codes per second by pool size")
+    void measure() throws Exception {
+        List<BulkQRCodeRequest.Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new BulkQRCodeRequest.Item("counter" + i + "@okaxis", "Store Counter " + i, null, null));
+        }
+
+        QRCodeService qrCodeService = new QRCodeService();
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> poolSizes = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            poolSizes.add(threads);
+        }
+        poolSizes.add(cores);
+
+        run("warmup", qrCodeService, items, cores);
+        double single = 0;
+        for (int threads : poolSizes) {
+            double rate = run(threads + " threads", qrCodeService, items, threads);
+            single = single == 0 ? rate : single;
+            System.out.printf("%-12s %8.2fx vs 1 thread%n", "", rate / single);
+        }
+    }
+
+    private double run(String label, QRCodeService qrCodeService, List<BulkQRCodeRequest.Item> items, int threads)
+            throws Exception {
+        BulkQRCodeService service = new BulkQRCodeService(qrCodeService, threads);
+        CountingSink sink = new CountingSink();
+        try {
+            long start = System.nanoTime();
+            service.writeZip(items, sink);
+            long elapsed = System.nanoTime() - start;
+            double rate = items.size() / (elapsed / 1e9);
+            System.out.printf("%-12s %8.0f codes/s  %6.1f ms/batch  %,d bytes%n",
+                    label, rate, elapsed / 1e6, sink.bytes);
+            return rate;
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
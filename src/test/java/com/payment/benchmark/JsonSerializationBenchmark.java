@@ -0,0 +1,93 @@
+package com.payment.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.payment.dto.PaymentListResponse;
+import com.payment.dto.PaymentResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serialisation throughput and allocation of the old LinkedHashMap responses
+ * against the typed records written through a cached ObjectWriter with Blackbird.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=JsonSerializationBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("JSON Serialisation Benchmark")
+class JsonSerializationBenchmark {
+
+    private static final int ITERATIONS = 20_000;
+    private static final int LIST_SIZE = 200;
+
+    private static final OutputStream NULL_STREAM = OutputStream.nullOutputStream();
+
+    @Test
+    @DisplayName("Compare map-based and record-based listing responses")
+    void compare() throws Exception {
+        List<PaymentResponse> payments = new ArrayList<>();
+        for (long i = 0; i < LIST_SIZE; i++) {
+            payments.add(new PaymentResponse(i, "John Doe", "john" + i + "@example.com", "9876543210",
+                    150000L, "success", "2026-02-12 10:30:45"));
+        }
+
+        ObjectMapper plain = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        ObjectMapper tuned = new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new BlackbirdModule());
+        ObjectWriter cachedWriter = tuned.writerFor(PaymentListResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        Runnable before = () -> {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("success", true);
+            response.put("message", "Payments retrieved successfully");
+            response.put("data", payments);
+            write(() -> plain.writeValue(NULL_STREAM, response));
+        };
+        Runnable after = () -> write(() -> cachedWriter.writeValue(NULL_STREAM, PaymentListResponse.of(payments)));
+
+        measure("warmup map", before);
+        measure("warmup record", after);
+        measure("LinkedHashMap + ObjectMapper", before);
+        measure("record + cached writer + Blackbird", after);
+    }
+
+    private void measure(String label, Runnable body) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            body.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-36s %10.0f responses/s  %10.1f KB allocated/response%n",
+                label, ITERATIONS / (elapsed / 1e9), allocated / 1024.0 / ITERATIONS);
+    }
+
+    private interface IoAction {
+        void run() throws Exception;
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.payment.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Minimal closed-loop HTTP load generator shared by the benchmarks:
+ * keeps a fixed number of requests in flight for a fixed duration and
+ * records per-request latency.
+ */
+final class LoadGenerator {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private LoadGenerator() {}
+
+    /**
+     * Outcome of one load run
+     */
+    record Result(String label, int requests, int errors, double seconds, long[] latenciesNanos) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+
+        double percentileMillis(double p) {
+            if (latenciesNanos.length == 0) return 0;
+            int index = (int) Math.min(latenciesNanos.length - 1, Math.ceil(p * latenciesNanos.length) - 1);
+            return latenciesNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %8d req %6d err %10.1f req/s  p50 %7.2f ms  p99 %7.2f ms",
+                    label, requests, errors, throughput(), percentileMillis(0.50), percentileMillis(0.99));
+        }
+    }
+
+    static Result run(String label, Supplier<HttpRequest> requests, int concurrency, Duration duration)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[1 << 20];
+        AtomicInteger count = new AtomicInteger();
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            CompletableFuture<HttpResponse<Void>> future =
+                    CLIENT.sendAsync(requests.get(), HttpResponse.BodyHandlers.discarding());
+            future.whenComplete((response, error) -> {
+                long elapsed = System.nanoTime() - sent;
+                if (error != null || response.statusCode() >= 500) {
+                    errors.incrementAndGet();
+                }
+                int slot = count.getAndIncrement();
+                if (slot < latencies.length) {
+                    latencies[slot] = elapsed;
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] recorded = Arrays.copyOf(latencies, Math.min(count.get(), latencies.length));
+        Arrays.sort(recorded);
+        return new Result(label, count.get(), errors.get(), seconds, recorded);
+    }
+
+    static HttpRequest get(String baseUrl, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    static HttpRequest postJson(String baseUrl, String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.payment.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.payment.logging.JsonLineEncoder;
+import com.payment.logging.LogSampling;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Caller-side cost of the per-request log lines of a checkout: the old setup
+ * (synchronous pattern layout, emails in the message, every line written)
+ * against the JSON lines through the async queue, with and without sampling.
+ * Each setup writes to its own temp file; the time reported is what the
+ * request thread spends, the line count what actually reached the file.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=LoggingOverheadBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("Logging Overhead Benchmark")
+class LoggingOverheadBenchmark {
+
+    private static final int REQUESTS = 200_000;
+    private static final int WARMUP = 50_000;
+
+    @Test
+    @DisplayName("Measure logging time per request")
+    void measure() throws Exception {
+        run("sync text, every line", false, false);
+        run("async JSON, every line", true, false);
+        run("async JSON, sampled 1/10, 200/s", true, true);
+    }
+
+    private static void run(String label, boolean async, boolean sampled) throws Exception {
+        Path file = Files.createTempFile("logging-benchmark", ".log");
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        if (sampled) {
+            LogSampling sampling = new LogSampling();
+            sampling.setSampleRate(10);
+            sampling.setMaxPerSecond(200);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        if (async) {
+            JsonLineEncoder encoder = new JsonLineEncoder();
+            encoder.setContext(context);
+            encoder.start();
+            fileAppender.setEncoder(encoder);
+        } else {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(context);
+            encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{39} : %m%n");
+            encoder.start();
+            fileAppender.setEncoder(encoder);
+        }
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        Logger log = context.getLogger("com.payment.controller.PaymentController");
+        log.setLevel(Level.INFO);
+        log.setAdditive(false);
+        log.addAppender(appender);
+
+        for (int i = 0; i < WARMUP; i++) {
+            request(log, i, async);
+        }
+        long[] nanos = new long[REQUESTS];
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            long t0 = System.nanoTime();
+            request(log, WARMUP + i, async);
+            nanos[i] = System.nanoTime() - t0;
+        }
+        long elapsed = System.nanoTime() - started;
+        context.stop();
+
+        long lines;
+        try (var stream = Files.lines(file)) {
+            lines = stream.count();
+        }
+        Files.delete(file);
+        Arrays.sort(nanos);
+        System.out.printf("%-34s %,7.0f ns/request mean, p99 %,7d ns, %,8d of %,d lines written%n", label,
+                (double) elapsed / REQUESTS, nanos[REQUESTS * 99 / 100], lines, 3L * (WARMUP + REQUESTS));
+    }
+
+    /**
+     * The three INFO lines a checkout used to log: before, the email went into two of them
+     */
+    private static void request(Logger log, long id, boolean routine) {
+        if (routine) {
+            log.info(LogSampling.ROUTINE, "Processing payment");
+            log.info(LogSampling.ROUTINE, "Payment processed successfully. Payment ID: {}", id);
+            log.info(LogSampling.ROUTINE, "Payment processed successfully with ID: {}", id);
+        } else {
+            String email = "payer" + id + "@example.com";
+            log.info("Processing payment for email: {}", email);
+            log.info("Payment processed successfully. Payment ID: {}, Email: {}", id, email);
+            log.info("Payment processed successfully with ID: {}", id);
+        }
+    }
+}
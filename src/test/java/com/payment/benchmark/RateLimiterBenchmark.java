@@ -0,0 +1,60 @@
+package com.payment.benchmark;
+
+import com.payment.service.TokenBucketRateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Per-check cost of the token-bucket limiter, single-threaded and contended.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=RateLimiterBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("Rate Limiter Benchmark")
+class RateLimiterBenchmark {
+
+    private static final int OPS = 20_000_000;
+
+    @Test
+    @DisplayName("Measure nanoseconds per tryAcquire")
+    void measure() throws Exception {
+        String[] clients = new String[10_000];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(20, 5.0, 65536);
+        run("warmup", limiter, clients, 1);
+        run("1 thread", limiter, clients, 1);
+        int threads = Runtime.getRuntime().availableProcessors();
+        run(threads + " threads", limiter, clients, threads);
+    }
+
+    private void run(String label, TokenBucketRateLimiter limiter, String[] clients, int threads) throws Exception {
+        long[] sink = new long[threads];
+        Thread[] workers = new Thread[threads];
+        int perThread = OPS / threads;
+
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                long acc = 0;
+                for (int i = 0; i < perThread; i++) {
+                    String client = clients[(i + id * 7919) % clients.length];
+                    acc += limiter.tryAcquire(TokenBucketRateLimiter.hash(3, client));
+                }
+                sink[id] = acc;
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-12s %8.1f ns/check (per thread)  %,12.0f checks/s total  [%d]%n",
+                label, (double) elapsed * threads / OPS, OPS / (elapsed / 1e9), sink[0] & 1);
+    }
+}
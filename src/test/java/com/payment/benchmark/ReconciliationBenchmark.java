@@ -0,0 +1,97 @@
+package com.payment.benchmark;
+
+import com.payment.entity.PaymentStatus;
+import com.payment.reconciliation.ReconciliationSummary;
+import com.payment.reconciliation.SettlementReconciler;
+import com.payment.repository.ReconciliationRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reconciles a generated 5M-line settlement file against 5M payments served
+ * in keyset-sized pages, as the pool grows from 1 thread to all cores.
+ * About 1 in 1,000 lines carries a wrong amount, 1 in 2,000 payments is
+ * missing from the file and 1 in 2,000 lines has no payment.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=ReconciliationBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("Settlement Reconciliation Benchmark")
+class ReconciliationBenchmark {
+
+    private static final int LINES = 5_000_000;
+    private static final int PAGE_SIZE = 5_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Measure lines per second by pool size")
+    void measure() throws Exception {
+        Path file = dir.resolve("settlement.csv");
+        long started = System.nanoTime();
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("reference,amount,currency,settled_at\n");
+            StringBuilder line = new StringBuilder();
+            for (long id = 1; id <= LINES; id++) {
+                if (id % 2000 == 0) {
+                    continue;
+                }
+                long reference = id % 2000 == 1000 ? id + 100_000_000L : id;
+                long amount = amountOf(id) + (id % 1000 == 7 ? 1 : 0);
+                line.setLength(0);
+                line.append(reference).append(',').append(amount / 100).append('.')
+                        .append(amount % 100 < 10 ? "0" : "").append(amount % 100).append(",INR,2026-10-18\n");
+                out.append(line);
+            }
+        }
+        System.out.printf("Generated %,d bytes in %d ms%n", Files.size(file), (System.nanoTime() - started) / 1_000_000);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> poolSizes = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            poolSizes.add(threads);
+        }
+        poolSizes.add(cores);
+
+        run("warmup", file, cores);
+        for (int threads : poolSizes) {
+            run(threads + " threads", file, threads);
+        }
+    }
+
+    private void run(String label, Path file, int threads) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long[] nextId = {1};
+            SettlementReconciler.PaymentSource payments = () -> {
+                List<ReconciliationRow> page = new ArrayList<>(PAGE_SIZE);
+                for (; nextId[0] <= LINES && page.size() < PAGE_SIZE; nextId[0]++) {
+                    page.add(new ReconciliationRow(nextId[0], amountOf(nextId[0]), "INR", PaymentStatus.CAPTURED));
+                }
+                return page;
+            };
+            ReconciliationSummary summary = new SettlementReconciler(pool)
+                    .reconcile(file, payments, dir.resolve("reports-" + threads));
+            System.out.printf("%-12s %,10.0f lines/s  %6d ms  matched %,d  mismatched %,d  unsettled %,d  unknown %,d%n",
+                    label, summary.settlementLines() / (summary.elapsedMillis() / 1e3), summary.elapsedMillis(),
+                    summary.matched(), summary.mismatched(), summary.missingFromSettlement(),
+                    summary.missingFromPayments());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long amountOf(long id) {
+        return 100 + (id * 7919) % 5_000_000;
+    }
+}
@@ -0,0 +1,71 @@
+package com.payment.benchmark;
+
+import com.payment.PaymentProcessingMvpApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load comparison of the servlet (default) and reactive deployment modes
+ * against the same /api contract.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=StackLoadBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("Servlet vs Reactive Stack Load Benchmark")
+class StackLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 64);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("bench.warmup", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("bench.duration", 15));
+
+    private static final String PAYMENT_JSON =
+            "{\"name\":\"John Doe\",\"email\":\"john@example.com\",\"contact\":\"9876543210\",\"amount\":1500.00}";
+
+    @Test
+    @DisplayName("Compare checkout and lookup throughput on both stacks")
+    void compareStacks() throws Exception {
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        results.addAll(runAgainst("servlet"));
+        results.addAll(runAgainst("reactive"));
+
+        System.out.printf("%n=== Stack comparison (concurrency %d, %ds) ===%n", CONCURRENCY, MEASURE.getSeconds());
+        results.forEach(System.out::println);
+    }
+
+    private List<LoadGenerator.Result> runAgainst(String profile) throws Exception {
+        // Point SMTP at a closed local port so both stacks fail fast instead of measuring the relay
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PaymentProcessingMvpApplication.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.mail.host=127.0.0.1",
+                        "--spring.mail.port=1",
+                        "--payment.rate-limit.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:bench_" + profile,
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///bench_" + profile,
+                        "--logging.level.com.payment=WARN")) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+
+            LoadGenerator.run("warmup", () -> LoadGenerator.postJson(baseUrl, "/api/payment", PAYMENT_JSON),
+                    CONCURRENCY, WARMUP);
+
+            List<LoadGenerator.Result> results = new ArrayList<>();
+            results.add(LoadGenerator.run(profile + " POST /api/payment",
+                    () -> LoadGenerator.postJson(baseUrl, "/api/payment", PAYMENT_JSON), CONCURRENCY, MEASURE));
+            results.add(LoadGenerator.run(profile + " GET /api/payments/1",
+                    () -> LoadGenerator.get(baseUrl, "/api/payments/1"), CONCURRENCY, MEASURE));
+            results.add(LoadGenerator.run(profile + " GET /api/health",
+                    () -> LoadGenerator.get(baseUrl, "/api/health"), CONCURRENCY, MEASURE));
+            return results;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.payment.benchmark;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time from JVM launch to the first successful /api/health response, for the
+ * plain fat jar and for the fast-start layout (AOT + AppCDS archive).
+ *
+ * Build the artifacts first: mvn -Pfaststart -DskipTests verify
+ * Run with: mvn test -Pbenchmark -Dtest=StartupBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("Startup Benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Path TARGET = Path.of("target");
+    private static final String MAIN_CLASS = "com.payment.PaymentProcessingMvpApplication";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    @DisplayName("Measure time to first healthy response")
+    void measure() throws Exception {
+        Path jar = findJar();
+        Path original = Path.of(jar + ".original");
+        Path archive = TARGET.resolve("app-cds.jsa");
+        Assumptions.assumeTrue(Files.exists(original) && Files.exists(archive),
+                "run mvn -Pfaststart -DskipTests verify first");
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = original + File.pathSeparator + TARGET.resolve("lib") + File.separator + "*";
+
+        report("fat jar", List.of(java, "-jar", jar.toString()));
+        report("fat jar, lazy init", List.of(java, "-Dspring.main.lazy-initialization=true", "-jar", jar.toString()));
+        report("AOT + AppCDS", List.of(java, "-XX:SharedArchiveFile=" + archive, "-Xshare:auto",
+                "-Dspring.aot.enabled=true", "-cp", classpath, MAIN_CLASS));
+    }
+
+    private void report(String label, List<String> command) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = timeToHealthy(command);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-24s median %6d ms  min %6d ms  max %6d ms%n",
+                label, millis[RUNS / 2], millis[0], millis[RUNS - 1]);
+    }
+
+    private long timeToHealthy(List<String> baseCommand) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add(command.size() - (command.contains("-jar") ? 2 : 1), "-Dserver.port=" + port);
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/health"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + Duration.ofSeconds(60).toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListeningYet) {
+                    // keep polling
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("no healthy response within 60s");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Path findJar() throws IOException {
+        try (var files = Files.list(TARGET)) {
+            return files.filter(p -> p.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElse(TARGET.resolve("missing.jar"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.payment.benchmark;
+
+import com.payment.dto.PaymentResponse;
+import com.payment.webhook.MerchantServer;
+import com.payment.webhook.WebhookDispatcher;
+import com.payment.webhook.WebhookOutbox;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Queues payment events and measures how fast they are delivered to a
+ * merchant on an embedded HTTP server: enqueue rate, then events per second
+ * from the first claim until the last batch is acknowledged.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=WebhookDeliveryBenchmark
+ */
+@Tag("benchmark")
+// The scheduled poll is pushed out of the way; the test starts delivery itself once everything is queued
+@SpringBootTest(properties = "payment.webhooks.poll-interval=PT1H")
+@DisplayName("Webhook Delivery Benchmark")
+class WebhookDeliveryBenchmark {
+
+    private static final int EVENTS = 50_000;
+    private static final String SECRET = "whsec_benchmark";
+    private static final MerchantServer MERCHANT = start();
+
+    @Autowired
+    private WebhookOutbox outbox;
+
+    @Autowired
+    private WebhookDispatcher dispatcher;
+
+    private static MerchantServer start() {
+        try {
+            return new MerchantServer(SECRET, 8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void endpoints(DynamicPropertyRegistry registry) {
+        registry.add("payment.webhooks.endpoints.merchant.url", () -> MERCHANT.url("/ok"));
+        registry.add("payment.webhooks.endpoints.merchant.secret", () -> SECRET);
+        registry.add("payment.webhooks.endpoints.merchant.batch-size", () -> "200");
+        registry.add("payment.webhooks.endpoints.merchant.max-concurrent", () -> "4");
+    }
+
+    @AfterAll
+    static void stop() {
+        MERCHANT.close();
+    }
+
+    @Test
+    @DisplayName("Measure delivered events per second")
+    void measure() throws Exception {
+        long started = System.nanoTime();
+        for (long id = 1; id <= EVENTS; id++) {
+            outbox.paymentCreated(new PaymentResponse(id, "Payer " + id, "payer" + id + "@example.com",
+                    "9876543210", 10_000 + id, "success", "2026-10-19 10:00:00"));
+        }
+        long queued = System.nanoTime();
+        System.out.printf("Queued    %,d events in %,d ms (%,.0f events/s)%n", EVENTS,
+                (queued - started) / 1_000_000, EVENTS / ((queued - started) / 1e9));
+
+        dispatcher.dispatch();
+        while (MERCHANT.eventIds().size() < EVENTS) {
+            Thread.sleep(5);
+        }
+        long done = System.nanoTime();
+        System.out.printf("Delivered %,d events in %,d batches in %,d ms (%,.0f events/s), %d in flight at most, " +
+                        "%d bad signatures%n", MERCHANT.events(), MERCHANT.batches(), (done - queued) / 1_000_000,
+                EVENTS / ((done - queued) / 1e9), MERCHANT.maxInFlight(), MERCHANT.badSignatures());
+        System.out.println(dispatcher.snapshot());
+    }
+}
@@ -0,0 +1,178 @@
+package com.payment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.payment.dto.PaymentRequest;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica. The replica
+ * gets a copy of the schema plus one row that only it has, and receives no
+ * later writes, so every response shows which database served it.
+ */
+@SpringBootTest(properties = {
+        "payment.datasource.replicas[0].url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "payment.datasource.health-check-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@DisplayName("Read/Write Routing Tests")
+class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:payment_replica_test;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void resetReplica() throws Exception {
+        List<String> schema = new ArrayList<>();
+        try (Connection primary = dataSource.getConnection();
+             Statement statement = primary.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                schema.add(script.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : schema) {
+                statement.execute(sql);
+            }
+            statement.execute("INSERT INTO payments (id, name, email, contact, amount_minor, currency, status, version, "
+                    + "created_at, updated_at) VALUES (900001, 'Replica Only', 'replica@example.com', '9876543210', "
+                    + "100, 'INR', 2, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        }
+        routingDataSource.checkReplicas();
+    }
+
+    @Test
+    @DisplayName("Should serve read-only lookups from the replica")
+    void testReadsGoToReplica() throws Exception {
+        long before = routingDataSource.replicaRoutes();
+
+        perform(get("/api/payments/900001"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Replica Only")));
+
+        assertTrue(routingDataSource.replicaRoutes() > before);
+    }
+
+    @Test
+    @DisplayName("Should read listings that carry an ETag from the primary")
+    void testTaggedListingsReadPrimary() throws Exception {
+        perform(get("/api/payments"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().string(not(containsString("Replica Only"))));
+
+        perform(get("/api/payments/status/success"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Replica Only"))));
+
+        perform(get("/api/payments/query"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Replica Only"))));
+    }
+
+    /**
+     * Performs the request and, for asynchronous handlers, the dispatch that writes the response
+     */
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return actions;
+    }
+
+    @Test
+    @DisplayName("Should pin a client's reads to the primary after it writes")
+    void testReadYourWrites() throws Exception {
+        PaymentRequest request = new PaymentRequest("John Doe", "john@example.com", "9876543210", 150000L);
+        MvcResult created = perform(post("/api/payment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Set-Cookie", containsString("payment_ryw=")))
+                .andReturn();
+        String id = JsonPath.read(created.getResponse().getContentAsString(), "$.paymentId");
+        String pinnedUntil = created.getResponse().getHeader("Set-Cookie").replaceAll("^payment_ryw=([0-9]+);.*$", "$1");
+
+        // The replica never saw the write
+        perform(get("/api/payments/" + id))
+                .andExpect(status().isNotFound());
+
+        perform(get("/api/payments/" + id).cookie(new Cookie("payment_ryw", pinnedUntil)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("John Doe"));
+    }
+
+    @Test
+    @DisplayName("Should read the delta feed from the primary without pinning the client")
+    void testPrimaryReadIsNotAWrite() throws Exception {
+        long primaryRoutes = routingDataSource.primaryRoutes();
+
+        perform(get("/api/payments/changes"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Set-Cookie"));
+
+        assertTrue(routingDataSource.primaryRoutes() > primaryRoutes);
+        // Still unpinned: the next lookup is served by the replica
+        perform(get("/api/payments/900001"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Replica Only")));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica fails its health check")
+    void testFallbackToPrimary() throws Exception {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP TABLE payments");
+        }
+        routingDataSource.checkReplicas();
+        assertFalse(routingDataSource.isHealthy("replica-0"));
+        long fallbacks = routingDataSource.fallbacks();
+
+        perform(get("/api/payments/900001"))
+                .andExpect(status().isNotFound());
+
+        assertTrue(routingDataSource.fallbacks() > fallbacks);
+    }
+}
@@ -1,22 +1,42 @@
 package com.payment.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import com.payment.dto.PaymentRequest;
+import com.payment.service.PaymentRollupService;
+import com.payment.webhook.WebhookSigner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
-import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "payment.gateway.secret=test-gateway-secret",
+        "payment.reconciliation.inbox=target/test-settlements",
+        "payment.reconciliation.reports=target/test-reconciliation",
+        "payment.etag.refresh-interval=PT1M"})
 @AutoConfigureMockMvc
 @DisplayName("Payment Controller Integration Tests")
 class PaymentControllerTest {
@@ -27,6 +47,16 @@ class PaymentControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PaymentRollupService rollupService;
+
+    // Distinct contact per test so repeated fixtures aren't refused as duplicate submits
+    private static final AtomicInteger CONTACT_SEQUENCE = new AtomicInteger();
+
+    private static final AtomicInteger LOGIN_SEQUENCE = new AtomicInteger();
+
+    private static final String GATEWAY_SECRET = "test-gateway-secret";
+
     private PaymentRequest validPaymentRequest;
 
     @BeforeEach
@@ -34,14 +64,26 @@ class PaymentControllerTest {
         validPaymentRequest = new PaymentRequest();
         validPaymentRequest.setName("John Doe");
         validPaymentRequest.setEmail("john@example.com");
-        validPaymentRequest.setContact("9876543210");
-        validPaymentRequest.setAmount(new BigDecimal("1500.00"));
+        validPaymentRequest.setContact(String.format("98765%05d", CONTACT_SEQUENCE.incrementAndGet()));
+        validPaymentRequest.setAmount(150000L);
+    }
+
+    /**
+     * Performs the request and, for asynchronous handlers, the dispatch that writes the response
+     */
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return actions;
     }
 
     @Test
     @DisplayName("Should process valid payment and return 201 Created")
     void testProcessPaymentSuccess() throws Exception {
-        mockMvc.perform(post("/api/payment")
+        perform(post("/api/payment")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validPaymentRequest)))
                 .andExpect(status().isCreated())
@@ -50,6 +92,7 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.paymentId").exists())
                 .andExpect(jsonPath("$.data.name").value("John Doe"))
                 .andExpect(jsonPath("$.data.email").value("john@example.com"))
+                .andExpect(jsonPath("$.data.amount").value(1500.00))
                 .andExpect(jsonPath("$.data.status").value("success"));
     }
 
@@ -60,9 +103,9 @@ class PaymentControllerTest {
         invalidRequest.setName("Jo");
         invalidRequest.setEmail("john@example.com");
         invalidRequest.setContact("9876543210");
-        invalidRequest.setAmount(new BigDecimal("1500.00"));
+        invalidRequest.setAmount(150000L);
 
-        mockMvc.perform(post("/api/payment")
+        perform(post("/api/payment")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest())
@@ -77,9 +120,9 @@ class PaymentControllerTest {
         invalidRequest.setName("John Doe");
         invalidRequest.setEmail("invalid-email");
         invalidRequest.setContact("9876543210");
-        invalidRequest.setAmount(new BigDecimal("1500.00"));
+        invalidRequest.setAmount(150000L);
 
-        mockMvc.perform(post("/api/payment")
+        perform(post("/api/payment")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest())
@@ -94,9 +137,9 @@ class PaymentControllerTest {
         invalidRequest.setName("John Doe");
         invalidRequest.setEmail("john@example.com");
         invalidRequest.setContact("123");
-        invalidRequest.setAmount(new BigDecimal("1500.00"));
+        invalidRequest.setAmount(150000L);
 
-        mockMvc.perform(post("/api/payment")
+        perform(post("/api/payment")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest())
@@ -104,6 +147,19 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.errors.contact").exists());
     }
 
+    @Test
+    @DisplayName("Should return 400 Bad Request for a currency without two decimal places")
+    void testProcessPaymentUnsupportedCurrency() throws Exception {
+        validPaymentRequest.setCurrency("JPY");
+
+        perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errors.currencySupported").exists());
+    }
+
     @Test
     @DisplayName("Should return 400 Bad Request for invalid amount")
     void testProcessPaymentInvalidAmount() throws Exception {
@@ -111,9 +167,9 @@ class PaymentControllerTest {
         invalidRequest.setName("John Doe");
         invalidRequest.setEmail("john@example.com");
         invalidRequest.setContact("9876543210");
-        invalidRequest.setAmount(new BigDecimal("0.50"));
+        invalidRequest.setAmount(50L);
 
-        mockMvc.perform(post("/api/payment")
+        perform(post("/api/payment")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest())
@@ -121,20 +177,395 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.errors.amount").exists());
     }
 
+    @Test
+    @DisplayName("Should return 400 Bad Request for amount with more than two decimals")
+    void testProcessPaymentAmountTooPrecise() throws Exception {
+        String body = "{\"name\":\"John Doe\",\"email\":\"john@example.com\","
+                + "\"contact\":\"9876543210\",\"amount\":1500.005}";
+
+        perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errors.amount").exists());
+    }
+
+    @Test
+    @DisplayName("Should refuse an identical payment submitted again within the window")
+    void testDuplicateSubmitRejected() throws Exception {
+        String created = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.paymentId");
+
+        perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.paymentId").value(id));
+
+        // Confirming the earlier payment makes the identical one again, once
+        validPaymentRequest.setConfirmDuplicateOf(Long.valueOf(id));
+        String repeated = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.paymentId").value((String) JsonPath.read(repeated, "$.paymentId")));
+        validPaymentRequest.setConfirmDuplicateOf(null);
+
+        validPaymentRequest.setCurrency("USD");
+        perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated());
+
+        validPaymentRequest.setAmount(150100L);
+        perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should list the newest payments from the recent ring, following status changes")
+    void testRecentPayments() throws Exception {
+        String created = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.paymentId");
+        perform(post("/api/payments/" + id + "/refund").header("Authorization", "Bearer " + operatorToken()))
+                .andExpect(status().isOk());
+
+        perform(get("/api/payments/recent").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(Long.parseLong(id)))
+                .andExpect(jsonPath("$.data[0].contact").value(validPaymentRequest.getContact()))
+                .andExpect(jsonPath("$.data[0].amount").value(1500.00))
+                .andExpect(jsonPath("$.data[0].status").value("refunded"));
+    }
+
+    @Test
+    @DisplayName("Should report payments from the rollups, following status changes")
+    void testRollupReport() throws Exception {
+        String today = LocalDate.now().toString();
+        validPaymentRequest.setPaymentMethod("upi");
+        validPaymentRequest.setAmount(4242L);
+        String created = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.paymentId");
+        perform(post("/api/payments/" + id + "/refund").header("Authorization", "Bearer " + operatorToken()))
+                .andExpect(status().isOk());
+        rollupService.flush();
+
+        String report = perform(get("/api/reports/payments")
+                .param("from", today).param("to", today).param("method", "upi"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("day"))
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> refunded = JsonPath.read(report, "$.buckets[?(@.status == 'refunded')].count");
+        assertEquals(1, refunded.size());
+
+        // Recomputing from the payments table must agree with the flushed deltas
+        rollupService.correct();
+        perform(get("/api/reports/payments")
+                .param("from", today).param("to", today).param("method", "upi"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(report));
+
+        perform(get("/api/reports/payments").param("granularity", "hour")
+                .param("from", "2026-01-01").param("to", "2026-12-31"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should get all payments")
     void testGetAllPayments() throws Exception {
-        mockMvc.perform(get("/api/payments")
+        perform(get("/api/payments")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Payments retrieved successfully"));
     }
 
+    @Test
+    @DisplayName("Should answer unchanged listing polls with 304 until a payment is written")
+    void testConditionalGetAllPayments() throws Exception {
+        String etag = perform(get("/api/payments"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        perform(get("/api/payments").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        perform(get("/api/payments/status/success").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated());
+
+        perform(get("/api/payments").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)));
+    }
+
+    @Test
+    @DisplayName("Should return a delta batch with a watermark")
+    void testPaymentChanges() throws Exception {
+        perform(get("/api/payments/changes").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data").isArray())
+                .andExpect(jsonPath("$.watermark").exists())
+                .andExpect(jsonPath("$.resyncRequired").value(false));
+    }
+
+    @Test
+    @DisplayName("Should move a payment through its lifecycle and reject illegal transitions")
+    void testPaymentLifecycleTransitions() throws Exception {
+        String created = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.paymentId");
+
+        perform(post("/api/payments/" + id + "/refund"))
+                .andExpect(status().isUnauthorized());
+        // Other spellings Spring routes to the same handler
+        perform(post(URI.create("/api/payments/" + id + "/refund;x=1")))
+                .andExpect(status().isUnauthorized());
+        perform(post(URI.create("/api/payments/" + id + "/%72efund")))
+                .andExpect(status().isUnauthorized());
+        perform(post(URI.create("/api;x=1/payments/" + id + "/refund")))
+                .andExpect(status().isUnauthorized());
+
+        String token = "Bearer " + operatorToken();
+        perform(post("/api/payments/" + id + "/refund").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("refunded"));
+
+        perform(post("/api/payments/" + id + "/refund").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Payment was already refunded"));
+
+        perform(post("/api/payments/" + id + "/capture").header("Authorization", token))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+
+        perform(post("/api/payments/999999/authorize").header("Authorization", token))
+                .andExpect(status().isNotFound());
+
+        perform(get("/api/payments/lifecycle/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conflicts").exists())
+                .andExpect(jsonPath("$.retries").exists());
+    }
+
+    @Test
+    @DisplayName("Should accept a gateway-signed transition and reject a stale or forged signature")
+    void testSignedGatewayTransition() throws Exception {
+        String created = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String path = "/api/payments/" + JsonPath.read(created, "$.paymentId") + "/refund";
+        long now = System.currentTimeMillis() / 1000;
+        byte[] signed = ("POST " + path).getBytes(StandardCharsets.UTF_8);
+
+        perform(post(path)
+                .header("X-Gateway-Timestamp", now - 3600)
+                .header("X-Gateway-Signature", WebhookSigner.sign(GATEWAY_SECRET, now - 3600, signed)))
+                .andExpect(status().isUnauthorized());
+        perform(post(path)
+                .header("X-Gateway-Timestamp", now)
+                .header("X-Gateway-Signature", WebhookSigner.sign("wrong-secret", now, signed)))
+                .andExpect(status().isUnauthorized());
+        perform(post(path)
+                .header("X-Gateway-Timestamp", now)
+                .header("X-Gateway-Signature", WebhookSigner.sign(GATEWAY_SECRET, now, signed)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("refunded"));
+    }
+
+    @Test
+    @DisplayName("Should find a new payment by partial name and reject too-short queries")
+    void testSearchPayments() throws Exception {
+        validPaymentRequest.setName("Searchable Person");
+        String created = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.paymentId");
+
+        perform(get("/api/payments/search").param("q", "searchab"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits[0].id").value(Long.parseLong(id)));
+
+        perform(get("/api/payments/search").param("q", "s"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @DisplayName("Should page a filtered, sorted listing with a keyset cursor")
+    void testQueryPayments() throws Exception {
+        for (long amount : new long[]{12342L, 12341L, 12343L}) {
+            validPaymentRequest.setAmount(amount);
+            perform(post("/api/payment")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                    .andExpect(status().isCreated());
+        }
+
+        String first = perform(get("/api/payments/query")
+                .param("sort", "amount").param("dir", "desc")
+                .param("minAmount", "123.41").param("maxAmount", "123.43")
+                .param("status", "success").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].amount").value(123.43))
+                .andExpect(jsonPath("$.data[1].amount").value(123.42))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.truncated").value(false))
+                .andReturn().getResponse().getContentAsString();
+        String next = JsonPath.read(first, "$.next");
+
+        perform(get("/api/payments/query")
+                .param("sort", "amount").param("dir", "desc")
+                .param("minAmount", "123.41").param("maxAmount", "123.43")
+                .param("status", "success").param("size", "2").param("after", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].amount").value(123.41))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        perform(get("/api/payments/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countByStatus.success").isNumber());
+    }
+
+    @Test
+    @DisplayName("Should reject sort columns and statuses outside the allowlist")
+    void testQueryPaymentsRejectsUnknownParameters() throws Exception {
+        perform(get("/api/payments/query").param("sort", "name; DROP TABLE payments"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        perform(get("/api/payments/query").param("status", "bogus"))
+                .andExpect(status().isBadRequest());
+
+        perform(get("/api/payments/query").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should stream a ZIP of QR codes for a bulk request")
+    void testBulkQRCodes() throws Exception {
+        String body = "{\"items\": [{\"upiId\": \"counter1@okaxis\", \"name\": \"Counter One\"}," +
+                " {\"upiId\": \"bad\", \"name\": \"Counter Two\", \"amount\": \"5\"}]}";
+        MvcResult started = mockMvc.perform(post("/api/qr-code/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] zip = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        // Local file header signature
+        assertEquals('P', zip[0]);
+        assertEquals('K', zip[1]);
+
+        perform(post("/api/qr-code/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.items").exists());
+    }
+
+    @Test
+    @DisplayName("Should return only payments changed after the watermark")
+    void testPaymentChangesAfterWatermark() throws Exception {
+        // Let earlier tests' payments settle, then drain the feed
+        Thread.sleep(1100);
+        String watermark = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            var request = get("/api/payments/changes").param("limit", "500");
+            if (watermark != null) {
+                request.param("since", watermark);
+            }
+            String body = perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            watermark = JsonPath.read(body, "$.watermark");
+            hasMore = JsonPath.read(body, "$.hasMore");
+        }
+
+        // Nothing changed: the watermark still moves up to the settle boundary
+        String idle = JsonPath.read(perform(get("/api/payments/changes").param("since", watermark))
+                .andReturn().getResponse().getContentAsString(), "$.watermark");
+        assertTrue(Long.parseLong(idle.substring(0, idle.indexOf('-')))
+                >= Long.parseLong(watermark.substring(0, watermark.indexOf('-'))));
+
+        String created = perform(post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.paymentId");
+        Thread.sleep(1100);
+
+        perform(get("/api/payments/changes").param("since", idle))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(Long.parseLong(id)))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("Should require a resync for a watermark older than the change window")
+    void testPaymentChangesResyncRequired() throws Exception {
+        perform(get("/api/payments/changes").param("since", "1000000-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resyncRequired").value(true))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed watermark")
+    void testPaymentChangesInvalidWatermark() throws Exception {
+        perform(get("/api/payments/changes").param("since", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @DisplayName("Should get health check")
     void testHealthCheck() throws Exception {
-        mockMvc.perform(get("/api/health")
+        perform(get("/api/health")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
@@ -144,9 +575,165 @@ class PaymentControllerTest {
     @Test
     @DisplayName("Should return 404 for non-existent payment")
     void testGetNonExistentPayment() throws Exception {
-        mockMvc.perform(get("/api/payments/99999")
+        perform(get("/api/payments/99999")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.success").value(false));
+
+        perform(get("/api/errors/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byType.PaymentNotFoundException").isNumber());
+    }
+
+    @Test
+    @DisplayName("Should answer malformed and unknown requests with 4xx, without internal detail")
+    void testRejectedRequests() throws Exception {
+        perform(get("/api/payments/abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Invalid value for 'id'"));
+
+        perform(get("/api/payments/range").param("from", "2026-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Missing parameter 'to'"));
+
+        perform(get("/api/no-such-endpoint"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Not Found"));
+
+        perform(delete("/api/health"))
+                .andExpect(status().isMethodNotAllowed())
+                .andExpect(jsonPath("$.message").value("Method Not Allowed"));
+
+        perform(get("/api/errors/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byType.MethodArgumentTypeMismatchException").isNumber())
+                .andExpect(jsonPath("$.byType.NoResourceFoundException").isNumber());
+    }
+
+    @Test
+    @DisplayName("Should return typed login response")
+    void testLoginSuccess() throws Exception {
+        perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"srikanth\",\"password\":\"1234\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.username").value("srikanth"));
+    }
+
+    @Test
+    @DisplayName("Should return 429 with Retry-After once the login burst is used up, whatever API key is sent")
+    void testLoginRateLimited() throws Exception {
+        String credentials = "{\"username\":\"srikanth\",\"password\":\"wrong\"}";
+        for (int i = 0; i < 5; i++) {
+            perform(post("/api/auth/login")
+                    .with(remoteAddr("10.0.27.1"))
+                    .header("X-API-Key", "rotating-" + i)
+                    .header("Authorization", "Bearer made-up-" + i)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(credentials))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        perform(post("/api/auth/login")
+                .with(remoteAddr("10.0.27.1"))
+                .header("X-API-Key", "rotating-5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(credentials))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @DisplayName("Should share one login limit across every spelling of the route")
+    void testLoginRateLimitIgnoresPathSpelling() throws Exception {
+        String credentials = "{\"username\":\"srikanth\",\"password\":\"wrong\"}";
+        List<String> spellings = List.of("/api/auth/login;a=1", "/api/auth/%6Cogin", "/api;a=2/auth/login",
+                "/api/auth/login;a=3", "/api/auth/%6Cogin;a=4");
+        for (String spelling : spellings) {
+            perform(post(URI.create(spelling))
+                    .with(remoteAddr("10.0.27.2"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(credentials))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        perform(post(URI.create("/api/auth/login;a=6"))
+                .with(remoteAddr("10.0.27.2"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(credentials))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Should run reconciliation in the background for operators only")
+    void testReconciliation() throws Exception {
+        Path inbox = Files.createDirectories(Path.of("target/test-settlements"));
+        Files.writeString(inbox.resolve("settlement-2001-02-03.csv"), "reference,amount\n999999999,10.00\n");
+        String token = "Bearer " + operatorToken();
+
+        perform(post("/api/reconciliation/2001-02-03"))
+                .andExpect(status().isUnauthorized());
+        perform(get("/api/reconciliation/2001-02-03"))
+                .andExpect(status().isUnauthorized());
+        perform(post(URI.create("/api/%72econciliation/2001-02-03")))
+                .andExpect(status().isUnauthorized());
+        perform(get(URI.create("/api;x=1/reconciliation/2001-02-03")))
+                .andExpect(status().isUnauthorized());
+        perform(post("/api/reconciliation/2001-02-04").header("Authorization", token))
+                .andExpect(status().isNotFound());
+
+        int started = perform(post("/api/reconciliation/2001-02-03").header("Authorization", token))
+                .andReturn().getResponse().getStatus();
+        assertTrue(started == 202 || started == 200, "status " + started);
+
+        String body = null;
+        for (int attempt = 0; attempt < 100 && body == null; attempt++) {
+            MvcResult result = perform(get("/api/reconciliation/2001-02-03").header("Authorization", token)).andReturn();
+            if (result.getResponse().getStatus() == 200) {
+                body = result.getResponse().getContentAsString();
+            } else {
+                assertEquals(202, result.getResponse().getStatus());
+                Thread.sleep(50);
+            }
+        }
+        assertEquals("done", JsonPath.read(body, "$.status"));
+        assertEquals(1, (int) JsonPath.read(body, "$.summary.missingFromPayments"));
+    }
+
+    @Test
+    @DisplayName("Should only let operators replay dead-lettered webhooks")
+    void testWebhookReplayRequiresToken() throws Exception {
+        perform(post("/api/webhooks/merchant/replay"))
+                .andExpect(status().isUnauthorized());
+        perform(post(URI.create("/api/webhooks/merchant/replay;x=1")))
+                .andExpect(status().isUnauthorized());
+        perform(post(URI.create("/api/webhooks/merchant/%72eplay")))
+                .andExpect(status().isUnauthorized());
+        perform(post("/api/webhooks/merchant/replay").header("Authorization", "Bearer " + operatorToken()))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Logs in from an address of its own, so tests never share the login rate limit
+     */
+    private String operatorToken() throws Exception {
+        String body = perform(post("/api/auth/login")
+                .with(remoteAddr("10.0.99." + LOGIN_SEQUENCE.incrementAndGet()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"srikanth\",\"password\":\"1234\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.token");
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
     }
 }
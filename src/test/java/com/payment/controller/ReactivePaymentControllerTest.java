@@ -0,0 +1,213 @@
+package com.payment.controller;
+
+import com.payment.dto.PaymentRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest(properties = "payment.rate-limit.trust-forwarded-for=true")
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+@DisplayName("Reactive Payment Controller Integration Tests")
+class ReactivePaymentControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private PaymentRequest validPaymentRequest;
+
+    @BeforeEach
+    void setUp() {
+        validPaymentRequest = new PaymentRequest();
+        validPaymentRequest.setName("John Doe");
+        validPaymentRequest.setEmail("john@example.com");
+        validPaymentRequest.setContact("9876543210");
+        validPaymentRequest.setAmount(150000L);
+    }
+
+    @Test
+    @DisplayName("Should process valid payment and read it back through R2DBC")
+    void testProcessPaymentAndFetch() {
+        Map<?, ?> created = webTestClient.post().uri("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(validPaymentRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        Long id = Long.valueOf((String) created.get("paymentId"));
+
+        webTestClient.get().uri("/api/payments/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.data.email").isEqualTo("john@example.com")
+                .jsonPath("$.data.status").isEqualTo("success");
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for invalid contact")
+    void testProcessPaymentInvalidContact() {
+        validPaymentRequest.setContact("123");
+
+        webTestClient.post().uri("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(validPaymentRequest)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.errors.contact").exists();
+    }
+
+    @Test
+    @DisplayName("Should return 404 for non-existent payment")
+    void testGetNonExistentPayment() {
+        webTestClient.get().uri("/api/payments/99999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("Should serve the dashboard's listing, totals and live metrics")
+    void testDashboardEndpoints() {
+        validPaymentRequest.setAmount(260100L);
+        webTestClient.post().uri("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(validPaymentRequest)
+                .exchange()
+                .expectStatus().isCreated();
+
+        String etag = webTestClient.get().uri("/api/payments/query?size=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectBody()
+                .jsonPath("$.data[0].name").isEqualTo("John Doe")
+                .returnResult()
+                .getResponseHeaders().getETag();
+        webTestClient.get().uri("/api/payments/query?size=5")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/api/payments/query?sort=nope")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get().uri("/api/payments/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isNumber();
+
+        webTestClient.get().uri("/api/payments/recent?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data[0].name").isEqualTo("John Doe");
+
+        webTestClient.get().uri("/api/payments/changes")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/metrics/live?seconds=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.requests").isArray();
+    }
+
+    @Test
+    @DisplayName("Should require an operator token for lifecycle transitions, however the path is spelled")
+    void testTransitionRequiresToken() {
+        validPaymentRequest.setAmount(260200L);
+        Map<?, ?> created = webTestClient.post().uri("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(validPaymentRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        String id = (String) created.get("paymentId");
+
+        for (String path : List.of("/refund", "/refund;x=1", "/%72efund")) {
+            webTestClient.post().uri(URI.create("/api/payments/" + id + path))
+                    .exchange()
+                    .expectStatus().isUnauthorized();
+        }
+
+        Map<?, ?> login = webTestClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "srikanth", "password", "1234"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        webTestClient.post().uri("/api/payments/{id}/refund", id)
+                .header("Authorization", "Bearer " + login.get("token"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.status").isEqualTo("refunded");
+    }
+
+    @Test
+    @DisplayName("Should share one login limit across every spelling of the route")
+    void testLoginRateLimitIgnoresPathSpelling() {
+        Map<String, String> credentials = Map.of("username", "srikanth", "password", "wrong");
+        List<String> spellings = List.of("/api/auth/login;a=1", "/api/auth/%6Cogin", "/api;a=2/auth/login",
+                "/api/auth/login;a=3", "/api/auth/%6Cogin;a=4");
+        for (String spelling : spellings) {
+            webTestClient.post().uri(URI.create(spelling))
+                    .header("X-Forwarded-For", "10.0.27.3")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(credentials)
+                    .exchange()
+                    .expectStatus().isUnauthorized();
+        }
+
+        webTestClient.post().uri(URI.create("/api/auth/login;a=6"))
+                .header("X-Forwarded-For", "10.0.27.3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(credentials)
+                .exchange()
+                .expectStatus().isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should answer unknown paths with 404, without internal detail")
+    void testUnknownPath() {
+        webTestClient.get().uri("/api/no-such-endpoint")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.message").isEqualTo("Not Found");
+    }
+
+    @Test
+    @DisplayName("Should get health check")
+    void testHealthCheck() {
+        webTestClient.get().uri("/api/health")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Payment Processing API is running");
+    }
+}
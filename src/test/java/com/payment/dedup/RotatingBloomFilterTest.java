@@ -0,0 +1,99 @@
+package com.payment.dedup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rotating Bloom Filter Tests")
+class RotatingBloomFilterTest {
+
+    private static final long MINUTE = 60_000_000_000L;
+    private static final long PAYMENTS_PER_DAY = 10_000_000L;
+    private static final double TARGET_RATE = 0.001;
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(0);
+    }
+
+    @Test
+    @DisplayName("Should always flag a repeat within the window and forget it after two windows")
+    void testNoFalseNegatives() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(Duration.ofMinutes(1), 1000, TARGET_RATE, clock::get);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] fingerprints = new long[1000];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = random.nextLong();
+            filter.put(fingerprints[i]);
+        }
+
+        clock.addAndGet(MINUTE - 1);
+        for (long fingerprint : fingerprints) {
+            assertTrue(filter.mightContain(fingerprint));
+        }
+        clock.addAndGet(1);
+        for (long fingerprint : fingerprints) {
+            assertTrue(filter.mightContain(fingerprint), "Previous window is still consulted");
+        }
+        clock.addAndGet(MINUTE);
+        int remembered = 0;
+        for (long fingerprint : fingerprints) {
+            remembered += filter.mightContain(fingerprint) ? 1 : 0;
+        }
+        assertEquals(0, remembered);
+    }
+
+    @Test
+    @DisplayName("Should keep false positives under target across a day of 10M distinct payments")
+    void testAccuracyAtTenMillionPerDay() {
+        // Sized for 3x the average minute (~6,900 payments) to absorb peaks
+        RotatingBloomFilter filter = new RotatingBloomFilter(Duration.ofMinutes(1), 20_000, TARGET_RATE, clock::get);
+        long step = 24 * 60 * MINUTE / PAYMENTS_PER_DAY;
+        SplittableRandom random = new SplittableRandom(42);
+
+        long falsePositives = 0;
+        for (long i = 0; i < PAYMENTS_PER_DAY; i++) {
+            clock.addAndGet(step);
+            if (filter.put(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / PAYMENTS_PER_DAY;
+        assertTrue(rate < TARGET_RATE, "False-positive rate " + rate);
+        // Each false positive costs one confirming query: at most ~10k/day instead of 10M
+        assertTrue(falsePositives < PAYMENTS_PER_DAY / 1000);
+    }
+
+    @Test
+    @DisplayName("Should hold the target rate at design peak load within fixed memory")
+    void testPeakLoadAndMemory() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(Duration.ofMinutes(1), 20_000, TARGET_RATE, clock::get);
+        // Two filters of ~16 bits per expected payment: about 80 KB for any daily volume
+        assertTrue(filter.memoryBytes() <= 100 * 1024, "Memory " + filter.memoryBytes());
+
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put(random.nextLong());
+        }
+        clock.addAndGet(MINUTE);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put(random.nextLong());
+        }
+
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            falsePositives += filter.mightContain(random.nextLong()) ? 1 : 0;
+        }
+        assertTrue((double) falsePositives / probes < TARGET_RATE * 1.5,
+                "Both filters full: " + falsePositives + " of " + probes);
+    }
+}
@@ -8,7 +8,6 @@ import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-import java.math.BigDecimal;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,7 +32,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertTrue(violations.isEmpty(), "Valid request should have no violations");
@@ -45,7 +44,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("Jo");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Short name should have violations");
@@ -57,7 +56,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John@Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Name with special characters should have violations");
@@ -69,7 +68,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("invalid-email");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Invalid email should have violations");
@@ -81,7 +80,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("987654321");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Contact with less than 10 digits should have violations");
@@ -93,7 +92,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("98765432a0");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Contact with letters should have violations");
@@ -105,7 +104,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("0.50"));
+        paymentRequest.setAmount(50L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Amount below minimum should have violations");
@@ -117,7 +116,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("150000.00"));
+        paymentRequest.setAmount(15000000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Amount above maximum should have violations");
@@ -129,7 +128,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName(null);
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Null name should have violations");
@@ -141,7 +140,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail(null);
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertFalse(violations.isEmpty(), "Null email should have violations");
@@ -153,7 +152,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Michael Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1500.00"));
+        paymentRequest.setAmount(150000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertTrue(violations.isEmpty(), "Name with spaces should be valid");
@@ -165,7 +164,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("1.00"));
+        paymentRequest.setAmount(100L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertTrue(violations.isEmpty(), "Minimum valid amount should be accepted");
@@ -177,7 +176,7 @@ class PaymentRequestValidationTest {
         paymentRequest.setName("John Doe");
         paymentRequest.setEmail("john@example.com");
         paymentRequest.setContact("9876543210");
-        paymentRequest.setAmount(new BigDecimal("100000.00"));
+        paymentRequest.setAmount(10000000L);
 
         Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(paymentRequest);
         assertTrue(violations.isEmpty(), "Maximum valid amount should be accepted");
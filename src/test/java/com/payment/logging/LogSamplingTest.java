@@ -0,0 +1,93 @@
+package com.payment.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Log Sampling Tests")
+class LogSamplingTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final LogSampling sampling = new LogSampling();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger log;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        sampling.setSampleRate(10);
+        sampling.setMaxPerSecond(0);
+        sampling.start();
+        context.addTurboFilter(sampling);
+        appender.setContext(context);
+        appender.start();
+        log = context.getLogger("com.payment.test");
+        log.setLevel(Level.INFO);
+        log.addAppender(appender);
+    }
+
+    @Test
+    @DisplayName("Should keep one routine line in sample-rate and every other line")
+    void testSamplesRoutineLinesOnly() {
+        for (int i = 0; i < 100; i++) {
+            log.info(LogSampling.ROUTINE, "Fetching payment with ID: {}", i);
+        }
+        assertEquals(10, appender.list.size());
+        assertEquals(90, sampling.getDropped());
+
+        log.info("Started");
+        log.warn(LogSampling.ROUTINE, "Slow lookup");
+        log.error(LogSampling.ROUTINE, "Lookup failed");
+        assertEquals(13, appender.list.size(), "Unmarked lines, warnings and errors are never sampled");
+    }
+
+    @Test
+    @DisplayName("Should cap routine lines per second")
+    void testRateCap() {
+        sampling.setSampleRate(1);
+        sampling.setMaxPerSecond(5);
+        for (int i = 0; i < 50; i++) {
+            log.info(LogSampling.ROUTINE, "Processing payment");
+        }
+        // The cap resets each wall-clock second; a boundary inside the loop lets one more batch through
+        assertTrue(appender.list.size() >= 5 && appender.list.size() <= 10, "Kept " + appender.list.size());
+    }
+
+    @Test
+    @DisplayName("Should not use up a sample on disabled levels or isEnabled checks")
+    void testDisabledLevels() {
+        for (int i = 0; i < 100; i++) {
+            log.debug(LogSampling.ROUTINE, "Not enabled");
+            assertTrue(log.isInfoEnabled(LogSampling.ROUTINE));
+        }
+        assertEquals(0, sampling.getDropped());
+        log.info(LogSampling.ROUTINE, "First routine line");
+        assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    @DisplayName("Should encode a line as one flat JSON object")
+    void testJsonLine() {
+        log.info("Payer \"{}\"\nsecond line", "O'Brien\t1");
+        JsonLineEncoder encoder = new JsonLineEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        String json = new String(encoder.encode(appender.list.get(0)), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"@timestamp\":\""), json);
+        assertTrue(json.contains("\"level\":\"INFO\",\"logger\":\"com.payment.test\""), json);
+        assertTrue(json.contains("\"message\":\"Payer \\\"O'Brien\\t1\\\"\\nsecond line\""), json);
+        assertTrue(json.endsWith("}\n"));
+        assertEquals(1, json.split("\n").length, "One line per event");
+    }
+}
@@ -0,0 +1,144 @@
+package com.payment.recent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.dto.PaymentResponse;
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Payment Ring Tests")
+class PaymentRingTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 19, 9, 30, 5);
+
+    @Test
+    @DisplayName("Should write the newest payments in the PaymentResponse wire format")
+    void testWireFormat() throws Exception {
+        PaymentRing ring = new PaymentRing(8);
+        ring.add(payment(1, "Ann \\ \"Lee\"", 150000, PaymentStatus.CAPTURED));
+        ring.add(payment(2, "Zoë Tab\there", 5, PaymentStatus.PENDING));
+
+        List<PaymentResponse> expected = List.of(
+                new PaymentResponse(2L, "Zoë Tab\there", "payer2@example.com", "9876543210", 5, "pending",
+                        "2026-10-19 09:30:05"),
+                new PaymentResponse(1L, "Ann \\ \"Lee\"", "payer1@example.com", "9876543210", 150000, "success",
+                        "2026-10-19 09:30:05"));
+        assertEquals(new ObjectMapper().writeValueAsString(expected), json(ring, 10));
+    }
+
+    @Test
+    @DisplayName("Should keep the last capacity ids, skip gaps and follow status changes")
+    void testWrapAroundAndUpdates() throws Exception {
+        PaymentRing ring = new PaymentRing(4);
+        for (long id = 1; id <= 10; id++) {
+            if (id != 9) {
+                ring.add(payment(id, "Payer " + id, id * 100, PaymentStatus.CAPTURED));
+            }
+        }
+        assertFalse(ring.add(payment(6, "Payer 6", 600, PaymentStatus.CAPTURED)), "Older than the slot's payment");
+        assertTrue(ring.updateStatus(8, PaymentStatus.REFUNDED, 2));
+        assertFalse(ring.updateStatus(8, PaymentStatus.CAPTURED, 1), "Older than the slot's status");
+        assertFalse(ring.updateStatus(2, PaymentStatus.REFUNDED, 2), "No longer in the ring");
+
+        String json = json(ring, 10);
+        assertEquals(List.of(10L, 8L, 7L), ids(json), "Id 9 was never added; 5 left the ring when 9 would have");
+        assertTrue(json.contains("\"id\":8,\"name\":\"Payer 8\",\"email\":\"payer8@example.com\",\"contact\":\"9876543210\","
+                + "\"amount\":8.00,\"status\":\"refunded\""), json);
+        assertEquals(List.of(10L, 8L), ids(json(ring, 2)));
+    }
+
+    @Test
+    @DisplayName("Should only ever return whole rows while writers overwrite the slots")
+    void testConsistentUnderConcurrentWrites() throws Exception {
+        PaymentRing ring = new PaymentRing(16);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            for (long id = 1; running.get(); id++) {
+                ring.add(payment(id, "Payer " + id + " " + "x".repeat((int) (id % 40)), id, PaymentStatus.CAPTURED));
+                started.countDown();
+            }
+        });
+        writer.start();
+        try {
+            // On one core the writer may not run at all during the reads otherwise
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Pattern row = Pattern.compile("\\{\"id\":(\\d+),\"name\":\"Payer (\\d+) x*\",\"email\":\"payer(\\d+)@example.com\"," +
+                    "\"contact\":\"9876543210\",\"amount\":(\\d+)\\.(\\d\\d),\"status\":\"success\"," +
+                    "\"createdAt\":\"2026-10-19 09:30:05\"}");
+            int rows = 0;
+            for (int i = 0; i < 2_000; i++) {
+                Matcher matcher = row.matcher(json(ring, 16));
+                while (matcher.find()) {
+                    long id = Long.parseLong(matcher.group(1));
+                    assertEquals(id, Long.parseLong(matcher.group(2)));
+                    assertEquals(id, Long.parseLong(matcher.group(3)));
+                    assertEquals(id, Long.parseLong(matcher.group(4)) * 100 + Long.parseLong(matcher.group(5)));
+                    rows++;
+                }
+            }
+            assertTrue(rows > 0);
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not allocate per row on reads")
+    void testReadsDoNotAllocatePerRow() throws Exception {
+        PaymentRing ring = new PaymentRing(4096);
+        for (long id = 1; id <= 4096; id++) {
+            ring.add(payment(id, "Payer " + id, id, PaymentStatus.CAPTURED));
+        }
+        OutputStream sink = OutputStream.nullOutputStream();
+        for (int i = 0; i < 200; i++) {
+            ring.writeJson(4096, sink);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        assertEquals(4096, ring.writeJson(4096, sink));
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated < 32 * 1024, "Allocated " + allocated + " bytes for 4096 rows");
+    }
+
+    private static Payment payment(long id, String name, long amountMinor, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setName(name);
+        payment.setEmail("payer" + id + "@example.com");
+        payment.setContact("9876543210");
+        payment.setAmountMinor(amountMinor);
+        payment.setStatus(status);
+        payment.setCreatedAt(CREATED_AT);
+        return payment;
+    }
+
+    private static String json(PaymentRing ring, int limit) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ring.writeJson(limit, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> ids(String json) {
+        return Pattern.compile("\"id\":(\\d+)").matcher(json).results()
+                .map(match -> Long.parseLong(match.group(1)))
+                .toList();
+    }
+}
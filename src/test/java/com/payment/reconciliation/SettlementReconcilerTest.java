@@ -0,0 +1,130 @@
+package com.payment.reconciliation;
+
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.ReconciliationRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Settlement Reconciler Tests")
+class SettlementReconcilerTest {
+
+    @TempDir
+    Path dir;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static SettlementReconciler.PaymentSource pages(List<ReconciliationRow> rows, int pageSize) {
+        Iterator<ReconciliationRow> iterator = rows.iterator();
+        return () -> {
+            List<ReconciliationRow> page = new ArrayList<>();
+            while (iterator.hasNext() && page.size() < pageSize) {
+                page.add(iterator.next());
+            }
+            return page;
+        };
+    }
+
+    @Test
+    @DisplayName("Should sort lines into matched, mismatched and missing")
+    void testOutcomes() throws IOException {
+        Path file = dir.resolve("settlement.csv");
+        Files.writeString(file, String.join("\n",
+                "reference,amount,currency,settled_at",
+                "1,1500.00,INR,2026-10-18",
+                "2,99.5,INR,2026-10-18\r",
+                "3,250.00,USD,2026-10-18",
+                "4,10,INR",
+                "4,10,INR",
+                "6,42.00",
+                "7,12.00,INR",
+                "not-a-reference,1.00,INR",
+                "8,1.234,INR",
+                ""));
+
+        List<ReconciliationRow> payments = List.of(
+                new ReconciliationRow(1L, 150000, "INR", PaymentStatus.CAPTURED),
+                new ReconciliationRow(2L, 9950, "INR", PaymentStatus.REFUNDED),
+                new ReconciliationRow(3L, 25000, "INR", PaymentStatus.CAPTURED),
+                new ReconciliationRow(4L, 2000, "INR", PaymentStatus.CAPTURED),
+                new ReconciliationRow(5L, 500, "INR", PaymentStatus.CAPTURED),
+                new ReconciliationRow(6L, 4200, "INR", PaymentStatus.FAILED),
+                new ReconciliationRow(9L, 100, "INR", PaymentStatus.PENDING),
+                new ReconciliationRow(1L, 150000, "INR", PaymentStatus.CAPTURED));
+
+        ReconciliationSummary summary = new SettlementReconciler(pool)
+                .reconcile(file, pages(payments, 3), dir.resolve("reports"));
+
+        assertEquals(9, summary.settlementLines());
+        assertEquals(2, summary.malformedLines());
+        assertEquals(7, summary.payments(), "The repeated payment 1 should count once");
+        assertEquals(2, summary.matched());
+        // 3 currency, 4 amount, 6 settled while failed, and the second line for 4
+        assertEquals(4, summary.mismatched());
+        assertEquals(1, summary.missingFromSettlement());
+        assertEquals(1, summary.missingFromPayments());
+
+        Path reports = dir.resolve("reports");
+        List<String> matched = Files.readAllLines(reports.resolve("matched.csv"));
+        assertEquals(3, matched.size());
+        assertTrue(matched.contains("1,1500.00,INR"));
+        assertTrue(matched.contains("2,99.50,INR"));
+
+        String mismatched = Files.readString(reports.resolve("mismatched.csv"));
+        assertTrue(mismatched.contains("3,250.00,250.00,INR,USD,success,currency differs"));
+        assertTrue(mismatched.contains("4,20.00,10.00,INR,INR,success,amount differs"));
+        assertTrue(mismatched.contains("6,42.00,42.00,INR,INR,failed,settled while failed"));
+        assertTrue(mismatched.contains("4,,10.00,,INR,,settled more than once"));
+
+        List<String> missing = Files.readAllLines(reports.resolve("missing.csv"));
+        assertTrue(missing.contains("5,5.00,INR,settlement"));
+        assertTrue(missing.contains("7,12.00,INR,payments"));
+        assertEquals(3, missing.size());
+    }
+
+    @Test
+    @DisplayName("Should parse every line exactly once across chunk boundaries")
+    void testChunkBoundaries() throws IOException {
+        int lines = 1_200_000;
+        Path file = dir.resolve("large.csv");
+        List<ReconciliationRow> payments = new ArrayList<>(lines);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int i = 1; i <= lines; i++) {
+                out.write(i + "," + i + ".25,INR\n");
+                payments.add(new ReconciliationRow((long) i, i * 100L + 25, "INR", PaymentStatus.CAPTURED));
+            }
+        }
+        assertTrue(Files.size(file) > 16 << 20, "File should span several chunks");
+
+        ReconciliationSummary summary = new SettlementReconciler(pool)
+                .reconcile(file, pages(payments, 5000), dir.resolve("reports"));
+
+        assertEquals(lines, summary.settlementLines());
+        assertEquals(0, summary.malformedLines());
+        assertEquals(lines, summary.matched());
+        assertEquals(0, summary.mismatched() + summary.missingFromPayments() + summary.missingFromSettlement());
+    }
+}
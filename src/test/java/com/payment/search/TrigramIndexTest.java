@@ -0,0 +1,87 @@
+package com.payment.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Trigram Index Tests")
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add(1, "John Doe", "john@example.com", "9876543210");
+        index.add(2, "Johnny Walker", "walker@mail.in", "9123456789");
+        index.add(3, "Priya Sharma", "priya.sharma@example.com", "9988776655");
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 0.75, 10).stream().map(TrigramIndex.Hit::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should find substrings of name, email and contact")
+    void testSubstringMatch() {
+        assertEquals(List.of(3L), ids("harm"));
+        assertEquals(List.of(2L), ids("walk"));
+        assertEquals(List.of(2L), ids("345678"));
+        assertEquals(List.of(3L, 1L), ids("example"));
+        assertTrue(ids("nobody").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should serve two-character prefixes and rank word starts higher")
+    void testPrefixRanking() {
+        assertEquals(List.of(3L), ids("pr"));
+        // Both match "john"; an exact word ranks with the newer document winning ties
+        index.add(4, "Ajohn Kumar", "ak@mail.in", "9000000000");
+        List<Long> ids = ids("john");
+        assertEquals(3, ids.size());
+        assertEquals(4L, ids.get(2));
+    }
+
+    @Test
+    @DisplayName("Should tolerate a typo in longer queries")
+    void testTypoTolerance() {
+        assertEquals(List.of(3L), ids("sharmx"));
+        assertTrue(index.search("sharmx", 1.0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should index each id once")
+    void testDuplicateAdd() {
+        assertFalse(index.add(1, "John Doe", "john@example.com", "9876543210"));
+        assertEquals(3, index.size());
+        assertTrue(index.search("x", 0.75, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should track ids beyond the int range")
+    void testLargeIds() {
+        long large = Integer.MAX_VALUE + 10L;
+        assertTrue(index.add(large, "Ravi Menon", "ravi@mail.in", "9000011111"));
+        assertFalse(index.add(large, "Ravi Menon", "ravi@mail.in", "9000011111"));
+        assertTrue(index.add(Long.MAX_VALUE, "Asha Rao", "asha@mail.in", "9000022222"));
+        assertFalse(index.add(Long.MAX_VALUE, "Asha Rao", "asha@mail.in", "9000022222"));
+        assertEquals(List.of(large), ids("menon"));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    @DisplayName("Should keep every id when the id set grows")
+    void testManyIds() {
+        for (long id = 10; id < 5000; id++) {
+            assertTrue(index.add(id, "Payer " + id));
+        }
+        for (long id = 10; id < 5000; id += 97) {
+            assertFalse(index.add(id, "Payer " + id));
+        }
+        assertEquals(4993, index.size());
+    }
+}
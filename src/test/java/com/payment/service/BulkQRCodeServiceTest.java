@@ -0,0 +1,63 @@
+package com.payment.service;
+
+import com.payment.dto.BulkQRCodeRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bulk QR Code Service Tests")
+class BulkQRCodeServiceTest {
+
+    private final BulkQRCodeService service = new BulkQRCodeService(new QRCodeService(), 2);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should zip a PNG per valid item and report invalid items in the manifest")
+    void testWriteZip() throws Exception {
+        List<BulkQRCodeRequest.Item> items = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            items.add(new BulkQRCodeRequest.Item("shop" + i + "@okaxis", "Counter " + i, i % 2 == 0 ? "10.50" : null, null));
+        }
+        items.add(new BulkQRCodeRequest.Item("not-a-upi-id", "Bad Counter", null, null));
+        items.add(new BulkQRCodeRequest.Item("shop@okaxis", "Bad Amount", "1.005", "counter/22"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(20, service.writeZip(items, out));
+
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+
+        assertEquals(21, entries.size());
+        byte[] png = entries.get("0001-shop1_okaxis.png");
+        assertNotNull(png);
+        assertEquals((byte) 0x89, png[0]);
+        assertEquals('P', png[1]);
+
+        String[] manifest = new String(entries.get("manifest.csv"), StandardCharsets.UTF_8).split("\n");
+        assertEquals(23, manifest.length);
+        assertTrue(manifest[1].startsWith("1,0001-shop1_okaxis.png,shop1@okaxis,Counter 1,,ok"));
+        assertTrue(manifest[21].startsWith("21,,not-a-upi-id,Bad Counter,,error,UPI ID"));
+        assertTrue(manifest[22].contains(",error,Amount must be"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.payment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Circuit Breaker Tests")
+class CircuitBreakerTest {
+
+    private static final long MS = 1_000_000;
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<CircuitBreaker.State> changes = new ArrayList<>();
+
+    // Window 10, trips at 50% failures or 80% slow calls after 4 calls; open 1s; 2 probes
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 50, 500 * MS, 80, 1000 * MS, 2,
+            changes::add, now::get);
+
+    private void call(boolean ok, long durationMs) {
+        long permission = breaker.acquirePermission();
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, permission);
+        if (ok) {
+            breaker.onSuccess(permission, durationMs * MS);
+        } else {
+            breaker.onError(permission, durationMs * MS);
+        }
+    }
+
+    @Test
+    @DisplayName("Should open once the failure rate reaches the threshold")
+    void testOpensOnFailureRate() {
+        call(false, 10);
+        call(false, 10);
+        call(true, 10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());  // below minimum calls
+        call(true, 10);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.acquirePermission());
+        assertFalse(breaker.isCallPermitted());
+    }
+
+    @Test
+    @DisplayName("Should open when calls are slow even if they succeed")
+    void testOpensOnSlowCalls() {
+        for (int i = 0; i < 4; i++) {
+            call(true, 600);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    @DisplayName("Should close after successful half-open probes and reopen on a failed probe")
+    void testHalfOpenProbing() {
+        for (int i = 0; i < 4; i++) {
+            call(false, 10);
+        }
+        now.addAndGet(1000 * MS);
+        assertTrue(breaker.isCallPermitted());
+
+        call(false, 10);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.addAndGet(1000 * MS);
+        long first = breaker.acquirePermission();
+        long second = breaker.acquirePermission();
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.acquirePermission());  // only 2 probes
+        breaker.onSuccess(first, 10 * MS);
+        breaker.onSuccess(second, 10 * MS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.OPEN,
+                CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED), changes);
+        assertEquals(2L, breaker.transitions().get(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    @DisplayName("Should ignore results of calls admitted before the last transition")
+    void testStaleResultsIgnored() {
+        long slow = breaker.acquirePermission();
+        for (int i = 0; i < 4; i++) {
+            call(false, 10);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        now.addAndGet(1000 * MS);
+        long probe = breaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        // Finished long after it was admitted under CLOSED: neither a probe nor a failure
+        breaker.onSuccess(slow, 10 * MS);
+        breaker.onError(slow, 10 * MS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess(probe, 10 * MS);
+        call(true, 10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    @DisplayName("Should forget old outcomes as the window slides")
+    void testSlidingWindow() {
+        for (int i = 0; i < 4; i++) {
+            call(true, 10);
+            call(true, 10);
+            call(false, 10);
+        }
+        // One failure in three never reaches 50% of the window
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+}
@@ -0,0 +1,83 @@
+package com.payment.service;
+
+import com.payment.config.EmailDigestProperties;
+import com.payment.dto.PaymentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Confirmation Digests Tests")
+class ConfirmationDigestsTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private EmailDigestProperties properties;
+    private ConfirmationDigests digests;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EmailDigestProperties();
+        properties.setEnabled(true);
+        properties.setWindow(Duration.ofMinutes(10));
+        properties.setMaxPayments(3);
+        properties.getDomains().put("bigcorp.com", Duration.ofHours(1));
+        properties.getDomains().put("retail.in", Duration.ZERO);
+        digests = new ConfirmationDigests(properties, now::get);
+    }
+
+    private static PaymentResponse payment(long id, String email) {
+        PaymentResponse payment = new PaymentResponse();
+        payment.setId(id);
+        payment.setEmail(email);
+        payment.setAmount(10_000L);
+        return payment;
+    }
+
+    @Test
+    @DisplayName("Should send immediately unless digest mode is enabled for the recipient")
+    void testAppliesTo() {
+        assertTrue(digests.appliesTo("ap@bigcorp.com"));
+        assertTrue(digests.appliesTo("someone@example.com"));
+        assertFalse(digests.appliesTo("shop@retail.in"));
+
+        properties.setEnabled(false);
+        assertFalse(digests.appliesTo("ap@bigcorp.com"));
+    }
+
+    @Test
+    @DisplayName("Should close a recipient's digest when its window elapses")
+    void testWindowClose() {
+        assertNull(digests.add(payment(1, "ap@bigcorp.com")));
+        assertNull(digests.add(payment(2, "AP@bigcorp.com")));
+        assertNull(digests.add(payment(3, "john@example.com")));
+
+        now.addAndGet(Duration.ofMinutes(10).toNanos());
+        Map<String, List<PaymentResponse>> due = digests.drainDue();
+        assertEquals(List.of("john@example.com"), List.copyOf(due.keySet()));
+
+        now.addAndGet(Duration.ofMinutes(50).toNanos());
+        due = digests.drainDue();
+        assertEquals(2, due.get("ap@bigcorp.com").size());
+        assertEquals(0, digests.openDigests());
+    }
+
+    @Test
+    @DisplayName("Should close a digest early when it reaches the size cap")
+    void testSizeCap() {
+        assertNull(digests.add(payment(1, "ap@bigcorp.com")));
+        assertNull(digests.add(payment(2, "ap@bigcorp.com")));
+        List<PaymentResponse> full = digests.add(payment(3, "ap@bigcorp.com"));
+        assertEquals(3, full.size());
+        assertEquals(0, digests.openDigests());
+
+        // The next payment opens a fresh digest
+        assertNull(digests.add(payment(4, "ap@bigcorp.com")));
+        assertEquals(1, digests.drainAll().get("ap@bigcorp.com").size());
+    }
+}
@@ -0,0 +1,47 @@
+package com.payment.service;
+
+import com.payment.dto.ErrorMetricsResponse;
+import com.payment.exception.PaymentNotFoundException;
+import com.payment.exception.PaymentValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Error Metrics Tests")
+class ErrorMetricsTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final ErrorMetrics metrics = new ErrorMetrics(2, Duration.ofSeconds(10), now::get);
+
+    @Test
+    @DisplayName("Should let a burst of log lines through per type and report what was held back")
+    void testLogRateLimit() {
+        assertEquals(0, metrics.record(PaymentNotFoundException.class));
+        assertEquals(0, metrics.record(PaymentNotFoundException.class));
+        assertEquals(ErrorMetrics.SUPPRESSED, metrics.record(PaymentNotFoundException.class));
+        assertEquals(ErrorMetrics.SUPPRESSED, metrics.record(PaymentNotFoundException.class));
+        assertEquals(0, metrics.record(new PaymentValidationException("bad sort")), "Each type has its own limit");
+
+        now.addAndGet(10_000);
+        assertEquals(2, metrics.record(PaymentNotFoundException.class), "Next window reports the suppressed lines");
+        assertEquals(0, metrics.record(PaymentNotFoundException.class));
+
+        ErrorMetricsResponse snapshot = metrics.snapshot();
+        assertEquals(7, snapshot.total());
+        assertEquals(6, snapshot.byType().get("PaymentNotFoundException"));
+        assertEquals(1, snapshot.byType().get("PaymentValidationException"));
+        assertEquals(2, snapshot.suppressedLogs());
+    }
+
+    @Test
+    @DisplayName("Should create expected-outcome exceptions without a stack trace")
+    void testStackless() {
+        PaymentNotFoundException e = new PaymentNotFoundException(42L);
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("Payment not found with ID: 42", e.getMessage());
+    }
+}
@@ -0,0 +1,106 @@
+package com.payment.service;
+
+import com.payment.exception.ServerBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Handler Pool Tests")
+class HandlerPoolTest {
+
+    private ScheduledThreadPoolExecutor timer;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        timer = new ScheduledThreadPoolExecutor(1);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        timer.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should complete the future with the task's result on a pool thread")
+    void testCompletes() throws Exception {
+        HandlerPool pool = new HandlerPool("test", 1, 1, Duration.ofSeconds(5), true, timer);
+        CompletableFuture<String> result = pool.submit(() -> Thread.currentThread().getName());
+
+        assertEquals("test-1", result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.snapshot().completed());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should refuse work when the queue is full")
+    void testRejectsWhenFull() throws Exception {
+        HandlerPool pool = new HandlerPool("test", 1, 1, Duration.ofSeconds(5), true, timer);
+        pool.submit(this::block);
+        pool.submit(this::block);
+
+        CompletableFuture<String> refused = pool.submit(() -> "late");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> refused.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ServerBusyException.class, e.getCause());
+        assertEquals(1, pool.snapshot().rejected());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fail timed-out work and never run it if it had not started")
+    void testTimeout() throws Exception {
+        HandlerPool pool = new HandlerPool("test", 1, 4, Duration.ofMillis(100), true, timer);
+        CompletableFuture<String> running = pool.submit(this::block);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> queued = pool.submit(() -> {
+            ran.set(true);
+            return "queued";
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServerBusyException.class, e.getCause());
+        assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+        assertEquals(0, pool.snapshot().queued(), "Timed-out work leaves the queue");
+
+        release.countDown();
+        pool.shutdown();
+        assertFalse(ran.get());
+        assertEquals(2, pool.snapshot().timedOut());
+    }
+
+    @Test
+    @DisplayName("Should wait for started non-idempotent work instead of timing it out")
+    void testStartedWorkNotAbandoned() throws Exception {
+        HandlerPool pool = new HandlerPool("test", 1, 4, Duration.ofMillis(100), false, timer);
+        CompletableFuture<String> running = pool.submit(this::block);
+        CompletableFuture<String> queued = pool.submit(() -> "queued");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServerBusyException.class, e.getCause());
+        Thread.sleep(300);
+        assertFalse(running.isDone(), "Started work outlives the timeout");
+
+        release.countDown();
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.snapshot().timedOut());
+        pool.shutdown();
+    }
+
+    private String block() throws InterruptedException {
+        release.await();
+        return "done";
+    }
+}
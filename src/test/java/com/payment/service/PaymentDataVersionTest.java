@@ -0,0 +1,98 @@
+package com.payment.service;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.repository.DataFingerprint;
+import com.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Payment Data Version Tests")
+class PaymentDataVersionTest {
+
+    private static final LocalDateTime SETTLED = LocalDateTime.now().minusMinutes(5);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentArchive paymentArchive;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(paymentRepository.findFingerprint()).thenReturn(new DataFingerprint(1L, 10L, SETTLED));
+    }
+
+    private PaymentDataVersion node(Duration refreshInterval) {
+        return new PaymentDataVersion(paymentRepository, paymentArchive, refreshInterval, Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should give every node the same ETag for the same data")
+    void testTagSharedAcrossNodes() {
+        PaymentDataVersion first = node(Duration.ofMinutes(1));
+        PaymentDataVersion second = node(Duration.ofMinutes(1));
+        first.bump();
+
+        assertEquals(first.etag(), second.etag());
+        assertNotEquals(first.localEtag(), second.localEtag());
+    }
+
+    @Test
+    @DisplayName("Should see a write made on another node once the fingerprint is refreshed")
+    void testWriteOnAnotherNode() {
+        PaymentDataVersion node = node(Duration.ZERO);
+        String etag = node.etag();
+
+        // Another node changed a status; this node never bumped
+        when(paymentRepository.findFingerprint()).thenReturn(new DataFingerprint(1L, 10L, SETTLED.plusSeconds(1)));
+        assertNotEquals(etag, node.etag());
+
+        // And archived the oldest rows
+        String updated = node.etag();
+        when(paymentRepository.findFingerprint()).thenReturn(new DataFingerprint(4L, 10L, SETTLED.plusSeconds(1)));
+        assertNotEquals(updated, node.etag());
+    }
+
+    @Test
+    @DisplayName("Should cache the fingerprint between refreshes until a local write")
+    void testCachedUntilLocalWrite() {
+        PaymentDataVersion node = node(Duration.ofMinutes(1));
+        String etag = node.etag();
+        assertEquals(etag, node.etag());
+        verify(paymentRepository, times(1)).findFingerprint();
+
+        when(paymentRepository.findFingerprint()).thenReturn(new DataFingerprint(1L, 11L, SETTLED));
+        node.bump();
+        assertNotEquals(etag, node.etag());
+        verify(paymentRepository, times(2)).findFingerprint();
+    }
+
+    @Test
+    @DisplayName("Should change the ETag on every refresh while the latest write may still be joined by a late commit")
+    void testUnsettledTagExpires() throws InterruptedException {
+        when(paymentRepository.findFingerprint()).thenReturn(new DataFingerprint(1L, 10L, LocalDateTime.now()));
+        PaymentDataVersion node = node(Duration.ZERO);
+        String etag = node.etag();
+        Thread.sleep(5);
+
+        assertNotEquals(etag, node.etag());
+    }
+
+    @Test
+    @DisplayName("Should tag an empty table")
+    void testEmptyTable() {
+        when(paymentRepository.findFingerprint()).thenReturn(new DataFingerprint(null, null, null));
+
+        assertEquals("\"0-0-0-0\"", node(Duration.ofMinutes(1)).etag());
+    }
+}
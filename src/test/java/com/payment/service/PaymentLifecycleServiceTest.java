@@ -0,0 +1,152 @@
+package com.payment.service;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.recent.RecentPayments;
+import com.payment.repository.PaymentRepository;
+import com.payment.repository.PaymentState;
+import com.payment.webhook.WebhookOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.mockito.Spy;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Payment Lifecycle Service Tests")
+class PaymentLifecycleServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentDataVersion dataVersion;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PaymentRollupService rollups;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WebhookOutbox webhooks;
+
+    @Mock
+    private RecentPayments recentPayments;
+
+    @Mock
+    private PaymentArchive paymentArchive;
+
+    @Spy
+    private PaymentTransitionMetrics metrics = new PaymentTransitionMetrics();
+
+    @InjectMocks
+    private PaymentLifecycleService lifecycleService;
+
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rollups.recording(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+
+        payment = new Payment();
+        payment.setId(7L);
+        payment.setName("John Doe");
+        payment.setEmail("john@example.com");
+        payment.setContact("9876543210");
+        payment.setAmountMinor(150000L);
+        payment.setCreatedAt(LocalDateTime.now());
+        payment.setVersion(0L);
+        when(paymentRepository.findById(7L)).thenReturn(Optional.of(payment));
+    }
+
+    @Test
+    @DisplayName("Should apply a valid transition with one conditional update")
+    void testTransitionApplied() {
+        when(paymentRepository.findStateById(7L)).thenReturn(Optional.of(new PaymentState(PaymentStatus.PENDING, 0)));
+        when(paymentRepository.compareAndSetStatus(eq(7L), eq(PaymentStatus.PENDING), eq(0L),
+                eq(PaymentStatus.AUTHORIZED), any())).thenReturn(1);
+        payment.setStatus(PaymentStatus.AUTHORIZED);
+        payment.setVersion(1L);
+
+        PaymentLifecycleService.TransitionResult result = lifecycleService.transition(7L, PaymentStatus.AUTHORIZED);
+
+        assertEquals(PaymentLifecycleService.Outcome.APPLIED, result.outcome());
+        assertEquals(1, metrics.snapshot().applied());
+        verify(dataVersion).bump();
+        verify(recentPayments).statusChanged(7L, PaymentStatus.AUTHORIZED, 1L);
+    }
+
+    @Test
+    @DisplayName("Should re-read and retry when a concurrent update wins the race")
+    void testTransitionRetriesOnConflict() {
+        when(paymentRepository.findStateById(7L))
+                .thenReturn(Optional.of(new PaymentState(PaymentStatus.AUTHORIZED, 1)))
+                .thenReturn(Optional.of(new PaymentState(PaymentStatus.AUTHORIZED, 2)));
+        when(paymentRepository.compareAndSetStatus(eq(7L), any(), eq(1L), any(), any())).thenReturn(0);
+        when(paymentRepository.compareAndSetStatus(eq(7L), any(), eq(2L), any(), any())).thenReturn(1);
+
+        PaymentLifecycleService.TransitionResult result = lifecycleService.transition(7L, PaymentStatus.CAPTURED);
+
+        assertEquals(PaymentLifecycleService.Outcome.APPLIED, result.outcome());
+        assertEquals(1, metrics.snapshot().conflicts());
+        assertEquals(1, metrics.snapshot().retries());
+        verify(emailService).sendPaymentConfirmationEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should treat a repeated callback as a no-op and reject illegal transitions")
+    void testDuplicateAndInvalidTransitions() {
+        when(paymentRepository.findStateById(7L)).thenReturn(Optional.of(new PaymentState(PaymentStatus.FAILED, 3)));
+
+        assertEquals(PaymentLifecycleService.Outcome.ALREADY_IN_STATE,
+                lifecycleService.transition(7L, PaymentStatus.FAILED).outcome());
+        assertEquals(PaymentLifecycleService.Outcome.INVALID_TRANSITION,
+                lifecycleService.transition(7L, PaymentStatus.CAPTURED).outcome());
+        verify(paymentRepository, never()).compareAndSetStatus(any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should give up with a conflict after the retry limit")
+    void testTransitionExhausted() {
+        when(paymentRepository.findStateById(7L)).thenReturn(Optional.of(new PaymentState(PaymentStatus.PENDING, 0)));
+        when(paymentRepository.compareAndSetStatus(any(), any(), anyLong(), any(), any())).thenReturn(0);
+
+        PaymentLifecycleService.TransitionResult result = lifecycleService.transition(7L, PaymentStatus.FAILED);
+
+        assertEquals(PaymentLifecycleService.Outcome.CONFLICT, result.outcome());
+        assertEquals(5, metrics.snapshot().conflicts());
+        assertEquals(1, metrics.snapshot().exhausted());
+    }
+
+    @Test
+    @DisplayName("Should refuse to move an archived payment and report unknown ids as not found")
+    void testArchivedAndMissingPayments() {
+        payment.setStatus(PaymentStatus.CAPTURED);
+        when(paymentRepository.findStateById(anyLong())).thenReturn(Optional.empty());
+        when(paymentArchive.findById(7L)).thenReturn(Optional.of(payment));
+        when(paymentArchive.findById(8L)).thenReturn(Optional.empty());
+
+        PaymentLifecycleService.TransitionResult archived = lifecycleService.transition(7L, PaymentStatus.REFUNDED);
+        assertEquals(PaymentLifecycleService.Outcome.ARCHIVED, archived.outcome());
+        assertEquals(PaymentStatus.CAPTURED, archived.current());
+        assertEquals(PaymentLifecycleService.Outcome.NOT_FOUND,
+                lifecycleService.transition(8L, PaymentStatus.REFUNDED).outcome());
+        verify(paymentRepository, never()).compareAndSetStatus(any(), any(), anyLong(), any(), any());
+    }
+}
@@ -1,19 +1,27 @@
 package com.payment.service;
 
+import com.payment.archive.PaymentArchive;
+import com.payment.dedup.DuplicatePaymentDetector;
 import com.payment.dto.PaymentRequest;
 import com.payment.dto.PaymentResponse;
 import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.recent.RecentPayments;
 import com.payment.repository.PaymentRepository;
+import com.payment.search.PaymentSearchIndex;
+import com.payment.velocity.VelocityEngine;
+import com.payment.webhook.WebhookOutbox;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +33,33 @@ class PaymentServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private PaymentDataVersion dataVersion;
+
+    @Mock
+    private PaymentArchive paymentArchive;
+
+    @Mock
+    private PaymentSearchIndex searchIndex;
+
+    @Mock
+    private VelocityEngine velocityEngine;
+
+    @Mock
+    private DuplicatePaymentDetector duplicateDetector;
+
+    @Mock
+    private PaymentRollupService rollups;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WebhookOutbox webhooks;
+
+    @Mock
+    private RecentPayments recentPayments;
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -34,13 +69,14 @@ class PaymentServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(rollups.recording(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
 
         // Create valid payment request
         validPaymentRequest = new PaymentRequest();
         validPaymentRequest.setName("John Doe");
         validPaymentRequest.setEmail("john@example.com");
         validPaymentRequest.setContact("9876543210");
-        validPaymentRequest.setAmount(new BigDecimal("1500.00"));
+        validPaymentRequest.setAmount(150000L);
 
         // Create mock payment entity
         mockPayment = new Payment();
@@ -48,8 +84,8 @@ class PaymentServiceTest {
         mockPayment.setName("John Doe");
         mockPayment.setEmail("john@example.com");
         mockPayment.setContact("9876543210");
-        mockPayment.setAmount(new BigDecimal("1500.00"));
-        mockPayment.setStatus("success");
+        mockPayment.setAmountMinor(150000L);
+        mockPayment.setStatus(PaymentStatus.CAPTURED);
         mockPayment.setCreatedAt(LocalDateTime.now());
     }
 
@@ -75,7 +111,7 @@ class PaymentServiceTest {
         xssRequest.setName("John <script>alert('xss')</script> Doe");
         xssRequest.setEmail("john@example.com");
         xssRequest.setContact("9876543210");
-        xssRequest.setAmount(new BigDecimal("1500.00"));
+        xssRequest.setAmount(150000L);
 
         when(paymentRepository.save(any(Payment.class))).thenReturn(mockPayment);
 
@@ -97,7 +133,7 @@ class PaymentServiceTest {
         assertEquals("John Doe", response.getName());
         assertEquals("john@example.com", response.getEmail());
         assertEquals("9876543210", response.getContact());
-        assertEquals(new BigDecimal("1500.00"), response.getAmount());
+        assertEquals(150000L, response.getAmount());
     }
 
     @Test
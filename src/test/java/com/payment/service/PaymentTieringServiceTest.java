@@ -0,0 +1,98 @@
+package com.payment.service;
+
+import com.payment.archive.PaymentArchive;
+import com.payment.entity.Payment;
+import com.payment.entity.PaymentStatus;
+import com.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment_tiering_test;LOCK_TIMEOUT=10000",
+        "payment.archive.directory=target/test-archive-tiering",
+        "payment.archive.enabled=false"
+})
+@DisplayName("Payment Tiering Service Tests")
+class PaymentTieringServiceTest {
+
+    @Autowired
+    private PaymentTieringService tieringService;
+
+    @Autowired
+    private PaymentLifecycleService lifecycleService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private PaymentArchive paymentArchive;
+
+    @BeforeAll
+    static void emptyArchive() throws IOException {
+        // Segments left by an earlier run would hold ids this fresh database hands out again
+        FileSystemUtils.deleteRecursively(Path.of("target/test-archive-tiering"));
+    }
+
+    @Test
+    @DisplayName("Should hold a transition that races the archiver until the row is archived")
+    void testTransitionDuringArchive() throws Exception {
+        Payment payment = new Payment();
+        payment.setName("John Doe");
+        payment.setEmail("john@example.com");
+        payment.setContact("9876543210");
+        payment.setAmountMinor(150000L);
+        payment.setCurrency("INR");
+        payment.setStatus(PaymentStatus.CAPTURED);
+        long id = paymentRepository.save(payment).getId();
+        jdbcTemplate.update("UPDATE payments SET created_at = ? WHERE id = ?", LocalDateTime.now().minusDays(100), id);
+
+        CountDownLatch appending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            appending.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(paymentArchive).append(anyList());
+
+        CompletableFuture<Integer> archived = CompletableFuture.supplyAsync(() -> {
+            try {
+                return tieringService.archiveOlderThan(LocalDateTime.now().minusDays(90));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(appending.await(10, TimeUnit.SECONDS));
+
+        // The refund lands while the segment is being written
+        CompletableFuture<PaymentLifecycleService.TransitionResult> refund =
+                CompletableFuture.supplyAsync(() -> lifecycleService.transition(id, PaymentStatus.REFUNDED));
+        Thread.sleep(300);
+        assertFalse(refund.isDone(), "The transition waits for the archiver's lock");
+        release.countDown();
+
+        assertEquals(1, archived.get(10, TimeUnit.SECONDS));
+        assertEquals(PaymentLifecycleService.Outcome.ARCHIVED, refund.get(10, TimeUnit.SECONDS).outcome());
+        assertTrue(paymentRepository.findById(id).isEmpty());
+        assertEquals(PaymentStatus.CAPTURED, paymentArchive.findById(id).orElseThrow().getStatus());
+    }
+}
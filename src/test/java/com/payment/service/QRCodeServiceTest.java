@@ -0,0 +1,41 @@
+package com.payment.service;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QR Code Service Tests")
+class QRCodeServiceTest {
+
+    private final QRCodeService service = new QRCodeService();
+
+    @Test
+    @DisplayName("Should percent-encode every UPI parameter")
+    void testEncodesParameters() {
+        assertEquals("upi://pay?pa=shop%40okaxis&pn=Asha%20Rao&am=10.50&tn=Payment",
+                service.generateUPIString("shop@okaxis", "Asha Rao", "10.50"));
+        assertEquals("upi://pay?pa=shop%40okaxis&pn=Caf%C3%A9%20%2B%20Bar&tn=Payment",
+                service.generateUPIString("shop@okaxis", "Café + Bar", null));
+    }
+
+    @Test
+    @DisplayName("Should not let a payer name inject an amount")
+    void testNameCannotInjectAmount() throws Exception {
+        String upi = service.generateUPIString("shop@okaxis", "Mallory&am=1.00&pa=evil@ybl", "500.00");
+        assertEquals("upi://pay?pa=shop%40okaxis&pn=Mallory%26am%3D1.00%26pa%3Devil%40ybl&am=500.00&tn=Payment", upi);
+        assertEquals(1, upi.split("&am=", -1).length - 1);
+
+        byte[] png = service.renderUPIQRCode("shop@okaxis", "Mallory&am=1.00&pa=evil@ybl", "500.00");
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(
+                new BufferedImageLuminanceSource(ImageIO.read(new ByteArrayInputStream(png)))));
+        assertEquals(upi, new MultiFormatReader().decode(bitmap).getText());
+    }
+}
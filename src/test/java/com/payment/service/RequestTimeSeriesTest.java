@@ -0,0 +1,109 @@
+package com.payment.service;
+
+import com.payment.dto.LiveMetricsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Request Time Series Tests")
+class RequestTimeSeriesTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private AtomicLong clock;
+    private RequestTimeSeries series;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_700_000_000_000L);
+        series = new RequestTimeSeries(10, 4, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should count requests and 5xx errors per second and per endpoint")
+    void testPerSecondCounts() {
+        series.record("POST /api/payment", 200, 2 * MILLIS);
+        series.record("POST /api/payment", 500, 2 * MILLIS);
+        series.record("GET /api/payments", 404, MILLIS);
+        clock.addAndGet(1000);
+        series.record("POST /api/payment", 201, MILLIS);
+        clock.addAndGet(1000);
+
+        LiveMetricsResponse snapshot = series.snapshot(3);
+        assertEquals(1_700_000_000L - 1, snapshot.start());
+        assertArrayEquals(new long[]{0, 3, 1}, snapshot.requests());
+        assertArrayEquals(new long[]{0, 1, 0}, snapshot.errors(), "Only 5xx count as errors");
+        assertArrayEquals(new long[]{0, 2, 1}, snapshot.endpoints().get("POST /api/payment").requests());
+        assertArrayEquals(new long[]{0, 1, 0}, snapshot.endpoints().get("GET /api/payments").requests());
+    }
+
+    @Test
+    @DisplayName("Should exclude the second still being filled")
+    void testCurrentSecondExcluded() {
+        series.record("GET /api/health", 200, MILLIS);
+        assertArrayEquals(new long[]{0}, series.snapshot(1).requests());
+        clock.addAndGet(1000);
+        assertArrayEquals(new long[]{1}, series.snapshot(1).requests());
+    }
+
+    @Test
+    @DisplayName("Should recycle slots when the ring wraps, keeping memory fixed")
+    void testRingWraps() {
+        series.record("GET /api/health", 200, MILLIS);
+        clock.addAndGet(10_000);
+        series.record("GET /api/health", 200, MILLIS);
+        series.record("GET /api/health", 200, MILLIS);
+        clock.addAndGet(1000);
+
+        long[] requests = series.snapshot(9).requests();
+        assertEquals(2, requests[8], "Slot reused for the new second, old count cleared");
+        assertEquals(2, Arrays.stream(requests).sum());
+        assertEquals(9, series.snapshot(100).requests().length, "Window is capped at the ring size");
+    }
+
+    @Test
+    @DisplayName("Should fold endpoints beyond the table into other")
+    void testEndpointOverflow() {
+        for (int i = 0; i < 6; i++) {
+            series.record("GET /api/e" + i, 200, MILLIS);
+        }
+        clock.addAndGet(1000);
+
+        LiveMetricsResponse snapshot = series.snapshot(1);
+        assertEquals(4, snapshot.endpoints().size());
+        assertArrayEquals(new long[]{3}, snapshot.endpoints().get(RequestTimeSeries.OTHER).requests());
+        assertArrayEquals(new long[]{6}, snapshot.requests());
+    }
+
+    @Test
+    @DisplayName("Should estimate p50 and p99 latency within the bucket resolution")
+    void testLatencyPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            series.record("POST /api/payment", 200, i * MILLIS);
+        }
+        clock.addAndGet(1000);
+
+        LiveMetricsResponse snapshot = series.snapshot(1);
+        assertEquals(50_000, snapshot.p50Micros()[0], 50_000 * 0.125);
+        assertEquals(99_000, snapshot.p99Micros()[0], 99_000 * 0.125);
+    }
+
+    @Test
+    @DisplayName("Should map every latency into a bucket whose upper bound covers it")
+    void testLatencyBuckets() {
+        int previous = -1;
+        for (long micros = 0; micros < 1 << 20; micros += 1 + micros / 64) {
+            int bucket = RequestTimeSeries.latencyBucket(micros);
+            assertTrue(bucket >= previous, "Buckets are monotonic");
+            assertTrue(RequestTimeSeries.bucketUpperMicros(bucket) >= micros);
+            assertTrue(RequestTimeSeries.bucketUpperMicros(bucket) <= micros * 1.125 + 1);
+            previous = bucket;
+        }
+        assertEquals(RequestTimeSeries.LATENCY_BUCKETS - 1, RequestTimeSeries.latencyBucket(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,105 @@
+package com.payment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token Bucket Rate Limiter Tests")
+class TokenBucketRateLimiterTest {
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000);
+    }
+
+    @Test
+    @DisplayName("Should admit a full burst and then reject with a retry hint")
+    void testBurstThenReject() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1.0, 16, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(42L), "Request " + i + " should be admitted");
+        }
+        long retryAfter = limiter.tryAcquire(42L);
+        assertTrue(retryAfter > 0 && retryAfter <= 1000, "Should wait about one refill interval");
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time")
+    void testRefill() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 10.0, 16, clock::get);
+        limiter.tryAcquire(7L);
+        limiter.tryAcquire(7L);
+        assertTrue(limiter.tryAcquire(7L) > 0);
+
+        clock.addAndGet(100);
+        assertEquals(0, limiter.tryAcquire(7L), "One token should be back after 100 ms at 10/s");
+        assertTrue(limiter.tryAcquire(7L) > 0);
+    }
+
+    @Test
+    @DisplayName("Should accumulate slow refill rates across frequent calls")
+    void testSlowRefillNotLostToRounding() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 0.1, 16, clock::get);
+        assertEquals(0, limiter.tryAcquire(9L));
+
+        for (int i = 0; i < 1000; i++) {
+            clock.addAndGet(10);
+            limiter.tryAcquire(9L);
+        }
+        // 10 s at 0.1/s is exactly one token, consumed by one of the calls above
+        assertTrue(limiter.tryAcquire(9L) > 0);
+        clock.addAndGet(10_000);
+        assertEquals(0, limiter.tryAcquire(9L));
+    }
+
+    @Test
+    @DisplayName("Should keep clients independent")
+    void testIndependentClients() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1.0, 16, clock::get);
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) > 0);
+        assertEquals(0, limiter.tryAcquire(2L));
+    }
+
+    @Test
+    @DisplayName("Should evict idle clients to stay within the table size")
+    void testBoundedTable() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1.0, 8, clock::get);
+        for (long key = 1; key <= 10_000; key++) {
+            clock.incrementAndGet();
+            assertEquals(0, limiter.tryAcquire(key), "New client " + key + " should get a fresh bucket");
+        }
+        assertEquals(8, limiter.slots());
+    }
+
+    @Test
+    @DisplayName("Should never admit more than capacity under contention")
+    void testConcurrentAcquire() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000, 0.001, 16, clock::get);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire(99L) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1000, admitted.get());
+    }
+}
@@ -0,0 +1,71 @@
+package com.payment.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.payment.dto.AmountJson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Amounts Tests")
+class AmountsTest {
+
+    @Test
+    @DisplayName("Should parse decimals exactly into minor units")
+    void testParse() {
+        assertEquals(150000L, Amounts.parse("1500"));
+        assertEquals(150000L, Amounts.parse("1500.00"));
+        assertEquals(150050L, Amounts.parse("1500.5"));
+        assertEquals(1L, Amounts.parse("0.01"));
+        assertEquals(25L, Amounts.parse(".25"));
+        assertEquals(-25L, Amounts.parse("-0.25"));
+        assertEquals(10L, Amounts.parse("0.100"));
+        assertEquals(100L, Amounts.parse("1."));
+    }
+
+    @Test
+    @DisplayName("Should reject extra precision, exponents, garbage and overflow")
+    void testParseRejects() {
+        assertThrows(NumberFormatException.class, () -> Amounts.parse("1.005"));
+        assertThrows(NumberFormatException.class, () -> Amounts.parse("1e3"));
+        assertThrows(NumberFormatException.class, () -> Amounts.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Amounts.parse(""));
+        assertThrows(NumberFormatException.class, () -> Amounts.parse("."));
+        assertThrows(NumberFormatException.class, () -> Amounts.parse("99999999999999999999"));
+    }
+
+    @Test
+    @DisplayName("Should format minor units with two decimals")
+    void testFormat() {
+        assertEquals("1500.00", Amounts.format(150000L));
+        assertEquals("0.05", Amounts.format(5L));
+        assertEquals("-12.30", Amounts.format(-1230L));
+        assertEquals("92233720368547758.07", Amounts.format(Long.MAX_VALUE));
+        assertEquals("Total 1500.50", Amounts.appendTo(new StringBuilder("Total "), 150050L).toString());
+        assertEquals(Long.MAX_VALUE, Amounts.parse(Amounts.format(Long.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Should write consecutive JSON amounts through the shared scratch buffer")
+    void testJsonSerializer() throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(Long.class, new AmountJson.Serializer()));
+
+        assertEquals("[92233720368547758.07,1500.00,0.05,-12.30]",
+                mapper.writeValueAsString(List.of(Long.MAX_VALUE, 150000L, 5L, -1230L)));
+    }
+
+    @Test
+    @DisplayName("Should accept only currencies whose minor unit is a hundredth")
+    void testSupportedCurrency() {
+        assertTrue(Amounts.isSupportedCurrency("INR"));
+        assertTrue(Amounts.isSupportedCurrency("USD"));
+        assertFalse(Amounts.isSupportedCurrency("JPY"));
+        assertFalse(Amounts.isSupportedCurrency("BHD"));
+        assertFalse(Amounts.isSupportedCurrency("XYZ"));
+        assertFalse(Amounts.isSupportedCurrency(null));
+    }
+}
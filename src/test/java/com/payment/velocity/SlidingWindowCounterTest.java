@@ -0,0 +1,105 @@
+package com.payment.velocity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sliding Window Counter Tests")
+class SlidingWindowCounterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(5 * SECOND);
+    }
+
+    @Test
+    @DisplayName("Should weight the previous window by how much of it still overlaps")
+    void testSlidingEstimate() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofSeconds(10), 16, clock::get);
+        for (int i = 0; i < 10; i++) {
+            counter.add(42L, 1);
+        }
+        assertEquals(10, counter.total(42L));
+
+        clock.addAndGet(10 * SECOND);
+        assertEquals(10, counter.total(42L), "Window boundary: whole previous window still counts");
+
+        clock.addAndGet(5 * SECOND);
+        counter.add(42L, 2);
+        assertEquals(7, counter.total(42L), "Half of the previous window plus the current one");
+
+        clock.addAndGet(20 * SECOND);
+        assertEquals(0, counter.total(42L), "Two idle windows reset the key");
+    }
+
+    @Test
+    @DisplayName("Should keep keys apart and report unknown keys as zero")
+    void testIndependentKeys() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 64, clock::get);
+        counter.add(1L, 3);
+        counter.add(2L, 5);
+
+        assertEquals(3, counter.total(1L));
+        assertEquals(5, counter.total(2L));
+        assertEquals(0, counter.total(3L));
+    }
+
+    @Test
+    @DisplayName("Should stay within its slot budget by evicting idle keys")
+    void testBoundedMemory() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofSeconds(1), 16, clock::get);
+        assertEquals(16, counter.slots());
+
+        for (long key = 1; key <= 10_000; key++) {
+            counter.add(key, 1);
+        }
+        int tracked = 0;
+        for (long key = 1; key <= 10_000; key++) {
+            tracked += (int) counter.total(key);
+        }
+        assertTrue(tracked <= counter.slots(), "At most one key per slot can be tracked");
+        assertEquals(1, counter.total(10_000L), "The most recent key is kept");
+    }
+
+    @Test
+    @DisplayName("Should not lose adds racing with a key claiming its slot")
+    void testConcurrentClaim() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 16, clock::get);
+        int threads = 4;
+        for (long key = 1; key <= 200; key++) {
+            long current = key;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> adders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread adder = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    counter.add(current, 1);
+                });
+                adder.start();
+                adders.add(adder);
+            }
+            start.countDown();
+            for (Thread adder : adders) {
+                adder.join();
+            }
+            // Every add landed on one key, whether it claimed, evicted or found the slot
+            assertEquals(threads, counter.total(current), "key " + current);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.payment.velocity;
+
+import com.payment.config.VelocityProperties;
+import com.payment.exception.VelocityLimitExceededException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Velocity Engine Tests")
+class VelocityEngineTest {
+
+    private static VelocityProperties.Rule rule(VelocityRule.Dimension dimension, VelocityRule.Metric metric,
+                                                String limit, VelocityRule.Action action) {
+        VelocityProperties.Rule rule = new VelocityProperties.Rule();
+        rule.setDimension(dimension);
+        rule.setMetric(metric);
+        rule.setLimit(limit);
+        rule.setWindow(Duration.ofMinutes(1));
+        rule.setAction(action);
+        return rule;
+    }
+
+    private static VelocityEngine engine(Map<String, VelocityProperties.Rule> rules) {
+        VelocityProperties properties = new VelocityProperties();
+        properties.setMaxKeys(1024);
+        properties.setRules(rules);
+        return new VelocityEngine(properties);
+    }
+
+    @Test
+    @DisplayName("Should block past a count limit without counting refused payments")
+    void testCountLimit() {
+        Map<String, VelocityProperties.Rule> rules = new LinkedHashMap<>();
+        rules.put("email-count", rule(VelocityRule.Dimension.EMAIL, VelocityRule.Metric.COUNT, "3", VelocityRule.Action.BLOCK));
+        rules.put("email-amount", rule(VelocityRule.Dimension.EMAIL, VelocityRule.Metric.AMOUNT, "100000", VelocityRule.Action.BLOCK));
+        VelocityEngine engine = engine(rules);
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(engine.check("Jane@Example.com", "9876543210", null, 1000));
+        }
+        assertEquals("email-count", engine.check("jane@example.com", "9876543210", null, 1000),
+                "Emails should be matched case-insensitively");
+        assertNull(engine.check("other@example.com", "9876543210", null, 1000));
+        assertThrows(VelocityLimitExceededException.class,
+                () -> engine.enforce("jane@example.com", "9876543210", null, 1000));
+
+        assertEquals(6, engine.snapshot().evaluated());
+        assertEquals(2, engine.snapshot().blocked());
+        assertEquals(2, engine.snapshot().rules().get("email-count").blocked());
+    }
+
+    @Test
+    @DisplayName("Should sum amounts in rupees and only count monitor rule hits")
+    void testAmountAndMonitor() {
+        Map<String, VelocityProperties.Rule> rules = new LinkedHashMap<>();
+        rules.put("contact-amount", rule(VelocityRule.Dimension.CONTACT, VelocityRule.Metric.AMOUNT, "500.00", VelocityRule.Action.BLOCK));
+        rules.put("upi-count", rule(VelocityRule.Dimension.UPI_ID, VelocityRule.Metric.COUNT, "1", VelocityRule.Action.MONITOR));
+        VelocityEngine engine = engine(rules);
+
+        assertNull(engine.check("a@example.com", "9000000001", "shop@upi", 30_000));
+        assertNull(engine.check("b@example.com", "9000000001", "shop@upi", 19_950), "199.50 rounds up to 200, exactly 500");
+        assertEquals("contact-amount", engine.check("c@example.com", "9000000001", null, 1));
+
+        assertEquals(1, engine.snapshot().rules().get("upi-count").hits());
+        assertEquals(0, engine.snapshot().rules().get("upi-count").blocked());
+    }
+
+    @Test
+    @DisplayName("Should reload rules from a file and keep counters of unchanged rules")
+    void testReloadFromFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("velocity.properties");
+        Files.writeString(file, """
+                payment.velocity.rules.email-count.dimension=email
+                payment.velocity.rules.email-count.limit=2
+                """);
+        VelocityProperties properties = new VelocityProperties();
+        properties.setMaxKeys(1024);
+        properties.setRulesFile(file.toString());
+        VelocityEngine engine = new VelocityEngine(properties);
+
+        assertEquals(1, engine.rules().size());
+        assertNull(engine.check("x@example.com", null, null, 100));
+        assertNull(engine.check("x@example.com", null, null, 100));
+        assertNotNull(engine.check("x@example.com", null, null, 100));
+
+        Files.writeString(file, """
+                payment.velocity.rules.email-count.dimension=email
+                payment.velocity.rules.email-count.limit=3
+                payment.velocity.rules.contact-count.dimension=contact
+                payment.velocity.rules.contact-count.limit=1
+                """);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        engine.reloadRulesFile();
+
+        assertEquals(2, engine.rules().size());
+        assertNull(engine.check("x@example.com", null, null, 100), "Two earlier payments kept, one more fits");
+        assertNotNull(engine.check("x@example.com", null, null, 100));
+
+        Files.writeString(file, "payment.velocity.rules.broken.dimension=sideways\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+        engine.reloadRulesFile();
+        assertEquals(2, engine.rules().size(), "A bad file should leave the current rules in place");
+    }
+}
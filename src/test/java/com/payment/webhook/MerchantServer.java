@@ -0,0 +1,125 @@
+package com.payment.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A merchant endpoint on an embedded JDK HTTP server, for tests and
+ * benchmarks. POST /ok verifies the signature and accepts the batch,
+ * POST /fail always answers 500.
+ */
+public class MerchantServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String secret;
+
+    private final Set<String> eventIds = ConcurrentHashMap.newKeySet();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder badSignatures = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+
+    public MerchantServer(String secret, int threads) throws IOException {
+        this.secret = secret;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/ok", this::accept);
+        server.createContext("/fail", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            failures.increment();
+            respond(exchange, 500);
+        });
+        server.start();
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void accept(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String timestamp = exchange.getRequestHeaders().getFirst(WebhookSigner.TIMESTAMP_HEADER);
+            String signature = exchange.getRequestHeaders().getFirst(WebhookSigner.SIGNATURE_HEADER);
+            if (timestamp == null || signature == null || !MessageDigest.isEqual(
+                    WebhookSigner.sign(secret, Long.parseLong(timestamp), body).getBytes(StandardCharsets.US_ASCII),
+                    signature.getBytes(StandardCharsets.US_ASCII))) {
+                badSignatures.increment();
+                respond(exchange, 401);
+                return;
+            }
+            JsonNode batch = MAPPER.readTree(body).get("events");
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            for (JsonNode event : batch) {
+                eventIds.add(event.get("id").asText());
+            }
+            events.add(batch.size());
+            batches.increment();
+            respond(exchange, 204);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    /** Events accepted, counting redeliveries */
+    public long events() {
+        return events.sum();
+    }
+
+    public Set<String> eventIds() {
+        return eventIds;
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long badSignatures() {
+        return badSignatures.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public int largestBatch() {
+        return largestBatch.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
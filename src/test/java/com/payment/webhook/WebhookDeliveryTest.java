@@ -0,0 +1,116 @@
+package com.payment.webhook;
+
+import com.payment.dto.PaymentResponse;
+import com.payment.entity.PaymentStatus;
+import com.payment.entity.WebhookDelivery;
+import com.payment.repository.WebhookDeliveryRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End to end through the queue table to a merchant on an embedded HTTP server
+ */
+@SpringBootTest(properties = {
+        "payment.webhooks.poll-interval=PT0.05S",
+        "payment.webhooks.initial-backoff=PT0.01S",
+        "payment.webhooks.max-backoff=PT0.05S",
+        "payment.webhooks.max-attempts=3"
+})
+@DisplayName("Webhook Delivery Tests")
+class WebhookDeliveryTest {
+
+    private static final String SECRET = "whsec_test";
+    private static final MerchantServer MERCHANT = start();
+
+    @Autowired
+    private WebhookOutbox outbox;
+
+    @Autowired
+    private WebhookDispatcher dispatcher;
+
+    @Autowired
+    private WebhookDeliveryRepository repository;
+
+    private static MerchantServer start() {
+        try {
+            return new MerchantServer(SECRET, 4);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void endpoints(DynamicPropertyRegistry registry) {
+        registry.add("payment.webhooks.endpoints.merchant.url", () -> MERCHANT.url("/ok"));
+        registry.add("payment.webhooks.endpoints.merchant.secret", () -> SECRET);
+        registry.add("payment.webhooks.endpoints.merchant.batch-size", () -> "10");
+        registry.add("payment.webhooks.endpoints.merchant.max-concurrent", () -> "2");
+        registry.add("payment.webhooks.endpoints.broken.url", () -> MERCHANT.url("/fail"));
+        registry.add("payment.webhooks.endpoints.broken.secret", () -> SECRET);
+        registry.add("payment.webhooks.endpoints.broken.events", () -> "payment.refunded");
+    }
+
+    @AfterAll
+    static void stop() {
+        MERCHANT.close();
+    }
+
+    @Test
+    @DisplayName("Should deliver every event in signed batches within the endpoint's limits")
+    void testDeliversSignedBatches() throws Exception {
+        long before = MERCHANT.events();
+        for (long id = 1; id <= 25; id++) {
+            outbox.paymentCreated(payment(id, "success"));
+        }
+
+        awaitTrue(() -> MERCHANT.events() - before >= 25);
+        awaitTrue(() -> repository.countByEndpointAndState("merchant", WebhookDelivery.State.PENDING) == 0);
+
+        assertEquals(0, MERCHANT.badSignatures());
+        assertTrue(MERCHANT.largestBatch() <= 10, "Batches respect batch-size");
+        assertTrue(MERCHANT.maxInFlight() <= 2, "At most max-concurrent batches in flight");
+        assertEquals(0, repository.countByEndpointAndState("broken", WebhookDelivery.State.PENDING),
+                "Endpoints only get the events they subscribe to");
+    }
+
+    @Test
+    @DisplayName("Should retry a failing endpoint with backoff, dead-letter it, and replay on request")
+    void testRetriesThenDeadLetters() throws Exception {
+        long failuresBefore = MERCHANT.failures();
+        outbox.paymentTransitioned(payment(100, "refunded"), PaymentStatus.REFUNDED);
+
+        awaitTrue(() -> repository.countByEndpointAndState("broken", WebhookDelivery.State.DEAD) == 1);
+        assertEquals(3, MERCHANT.failures() - failuresBefore, "One request per attempt");
+        assertTrue(dispatcher.snapshot().deadLettered() >= 1);
+
+        assertEquals(1, dispatcher.replayDead("broken"));
+        assertEquals(-1, dispatcher.replayDead("nobody"));
+        awaitTrue(() -> repository.countByEndpointAndState("broken", WebhookDelivery.State.DEAD) == 1);
+        assertEquals(6, MERCHANT.failures() - failuresBefore, "A replayed event gets fresh attempts");
+    }
+
+    private static PaymentResponse payment(long id, String status) {
+        return new PaymentResponse(id, "John Doe", "john@example.com", "9876543210", 150000L, status,
+                "2026-01-01 10:00:00");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for webhook delivery");
+            Thread.sleep(20);
+        }
+    }
+}